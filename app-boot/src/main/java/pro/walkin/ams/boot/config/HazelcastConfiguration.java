@@ -1,6 +1,7 @@
 package pro.walkin.ams.boot.config;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.YamlConfigBuilder;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
@@ -8,13 +9,19 @@ import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
 import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pro.walkin.ams.cluster.serializer.AlertEventSerializer;
 import pro.walkin.ams.cluster.serializer.DeduplicationResultSerializer;
 import pro.walkin.ams.cluster.serializer.DeduplicationStateSerializer;
+import pro.walkin.ams.cluster.serializer.RateLimitDecisionSerializer;
+import pro.walkin.ams.cluster.serializer.SourceRuntimeStatusSerializer;
+import pro.walkin.ams.cluster.serializer.TokenBucketStateSerializer;
+import pro.walkin.ams.common.Constants;
 
 import java.io.InputStream;
+import java.util.Optional;
 
 /**
  * Hazelcast 配置工厂
@@ -28,6 +35,14 @@ public class HazelcastConfiguration {
   private static final Logger LOG = LoggerFactory.getLogger(HazelcastConfiguration.class);
   private static final String CONFIG_PATH = "hazelcast-config.yaml";
 
+  /** 去重 Map 内存格式覆盖（BINARY / OBJECT / NATIVE），未配置时使用 hazelcast-config.yaml 中的设置 */
+  @ConfigProperty(name = "ams.alert.ingestion.dedup.in-memory-format")
+  Optional<InMemoryFormat> dedupInMemoryFormat;
+
+  /** 告警事件摘要和标签编码后达到该字节数时压缩，0 表示不压缩 */
+  @ConfigProperty(name = "ams.cluster.alert-event.compress-threshold-bytes", defaultValue = "0")
+  int alertEventCompressThresholdBytes;
+
   /** 生产 Hazelcast 实例 */
   @Produces
   @Singleton
@@ -37,8 +52,17 @@ public class HazelcastConfiguration {
         .getSerializationConfig()
         .getCompactSerializationConfig()
         .addSerializer(new DeduplicationStateSerializer())
-        .addSerializer(new AlertEventSerializer())
-        .addSerializer(new DeduplicationResultSerializer());
+        .addSerializer(new AlertEventSerializer(alertEventCompressThresholdBytes))
+        .addSerializer(new DeduplicationResultSerializer())
+        .addSerializer(new TokenBucketStateSerializer())
+        .addSerializer(new RateLimitDecisionSerializer())
+        .addSerializer(new SourceRuntimeStatusSerializer());
+
+    dedupInMemoryFormat.ifPresent(
+        format -> {
+          config.getMapConfig(Constants.Cluster.ALERT_DEDUPLICATION_MAP).setInMemoryFormat(format);
+          LOG.info("Alert deduplication map in-memory format: {}", format);
+        });
 
     HazelcastInstance instance = Hazelcast.newHazelcastInstance(config);
     LOG.info("Hazelcast instance started: {}", instance.getName());
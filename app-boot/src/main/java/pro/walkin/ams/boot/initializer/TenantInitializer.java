@@ -1,8 +1,10 @@
 package pro.walkin.ams.boot.initializer;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import pro.walkin.ams.cluster.cache.TenantCodeCacher;
 import pro.walkin.ams.persistence.entity.system.Tenant;
 import pro.walkin.ams.persistence.entity.system.Tenant_;
 
@@ -12,6 +14,8 @@ public class TenantInitializer extends DataInitializer {
   @ConfigProperty(name = "ams.auth.init-default-data", defaultValue = "true")
   boolean initDefaultData;
 
+  @Inject TenantCodeCacher tenantCodeCacher;
+
   private Tenant defaultTenant;
 
   @Override
@@ -28,6 +32,7 @@ public class TenantInitializer extends DataInitializer {
       defaultTenant.name = "Default Tenant";
       defaultTenant.status = "ACTIVE";
       defaultTenant.persistAndFlush();
+      tenantCodeCacher.publishChange(defaultTenant.code);
       log.info("Created default tenant");
     }
   }
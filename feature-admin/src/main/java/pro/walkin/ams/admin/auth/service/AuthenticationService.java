@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import pro.walkin.ams.admin.auth.dto.AuthenticationResult;
 import pro.walkin.ams.admin.system.query.TenantQuery;
 import pro.walkin.ams.admin.system.query.UserQuery;
+import pro.walkin.ams.cluster.cache.TenantCodeCacher;
 import pro.walkin.ams.common.Constants;
 import pro.walkin.ams.persistence.entity.system.Tenant;
 import pro.walkin.ams.persistence.entity.system.User;
@@ -29,6 +30,8 @@ public class AuthenticationService {
 
   @Inject TenantQuery tenantQuery;
 
+  @Inject TenantCodeCacher tenantCodeCacher;
+
   /** 用户登录 */
   @Transactional
   public Optional<AuthenticationResult> login(String username, String password) {
@@ -145,6 +148,7 @@ public class AuthenticationService {
       defaultTenant.name = "Default Tenant";
       defaultTenant.status = "ACTIVE";
       defaultTenant.persistAndFlush();
+      tenantCodeCacher.publishChange(defaultTenant.code);
     }
     newUser.tenant = defaultTenant.id;
 
@@ -3,6 +3,8 @@ package pro.walkin.ams.admin.auth.service;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.jwt.JsonWebToken;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.common.security.TokenPrincipal;
 import pro.walkin.ams.common.security.service.TokenPrincipalProvider;
 
 import java.util.Optional;
@@ -35,4 +37,24 @@ public class TokenPrincipalProviderImpl implements TokenPrincipalProvider {
       return Optional.empty();
     }
   }
+
+  /** 只验证一次令牌，同时提取用户和租户 */
+  @Override
+  public Optional<TokenPrincipal> resolve(String token) {
+    try {
+      JsonWebToken principal = tokenService.validateAccessToken(token);
+      Object userIdClaim = principal.getClaim(Constants.Auth.CLAIM_USER_ID);
+      Object tenantIdClaim = principal.getClaim(Constants.Auth.CLAIM_TENANT_ID);
+      if (userIdClaim == null || tenantIdClaim == null) {
+        return Optional.empty();
+      }
+      return Optional.of(
+          new TokenPrincipal(
+              Long.valueOf(userIdClaim.toString()),
+              Long.valueOf(tenantIdClaim.toString()),
+              principal));
+    } catch (Exception e) {
+      return Optional.empty();
+    }
+  }
 }
@@ -5,12 +5,16 @@ import io.smallrye.jwt.auth.principal.JWTCallerPrincipal;
 import io.smallrye.jwt.auth.principal.JWTParser;
 import io.smallrye.jwt.auth.principal.ParseException;
 import io.smallrye.jwt.build.Jwt;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.jwt.JsonWebToken;
+import pro.walkin.ams.admin.system.query.PermissionVersions;
 import pro.walkin.ams.common.Constants;
 import pro.walkin.ams.persistence.entity.system.User;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -24,9 +28,38 @@ public class TokenService implements pro.walkin.ams.common.security.service.Toke
 
   @Inject JWTParser jwtParser;
 
-  /** 生成访问令牌 */
+  @Inject PermissionVersions permissionVersions;
+
+  /** 是否缓存验签结果，同一令牌在 exp 之前只验签一次 */
+  @ConfigProperty(name = "ams.auth.jwt.verified-cache.enabled", defaultValue = "true")
+  boolean verifiedCacheEnabled;
+
+  /** 缓存的最大令牌数 */
+  @ConfigProperty(name = "ams.auth.jwt.verified-cache.max-size", defaultValue = "10000")
+  long verifiedCacheMaxSize;
+
+  /** 单个令牌缓存的最长时间（毫秒），令牌 exp 更早时以 exp 为准 */
+  @ConfigProperty(name = "ams.auth.jwt.verified-cache.max-ttl-ms", defaultValue = "900000")
+  long verifiedCacheMaxTtlMs;
+
+  private VerifiedTokenCache verifiedTokens;
+
+  @PostConstruct
+  void init() {
+    if (verifiedCacheEnabled) {
+      verifiedTokens =
+          new VerifiedTokenCache(verifiedCacheMaxSize, Duration.ofMillis(verifiedCacheMaxTtlMs));
+    }
+  }
+
+  /**
+   * 生成访问令牌
+   *
+   * <p>权限版本在读取用户角色之前获取：读取期间发生的权限变更会递增版本，令牌中的声明随即失效，不会把旧角色与新版本一起签发。
+   */
   @Lock
   public String generateAccessToken(User user) {
+    long permissionVersion = permissionVersions.current(user.tenant);
     Instant now = Instant.now();
     Instant expiresAt =
         now.plus(Constants.Auth.JWT_ACCESS_TOKEN_EXPIRATION_TIME, ChronoUnit.MILLIS);
@@ -41,6 +74,7 @@ public class TokenService implements pro.walkin.ams.common.security.service.Toke
         .claim(Constants.Auth.CLAIM_TENANT_ID, user.tenant)
         .claim(Constants.Auth.CLAIM_ROLES, extractRoleCodes(user))
         .claim(Constants.Auth.CLAIM_PERMISSIONS, extractPermissionCodes(user))
+        .claim(Constants.Auth.CLAIM_PERMISSION_VERSION, permissionVersion)
         .sign();
   }
 
@@ -85,14 +119,25 @@ public class TokenService implements pro.walkin.ams.common.security.service.Toke
     return List.copyOf(permissionCodes);
   }
 
-  /** 验证访问令牌 */
+  /** 验证访问令牌，验签结果按令牌缓存到 exp */
   public JWTCallerPrincipal validateAccessToken(String token) throws ParseException {
+    if (verifiedTokens != null) {
+      JWTCallerPrincipal cached = verifiedTokens.get(token);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
     // JWTParser会自动验证签名、过期时间、发行者等
     // parse()方法返回JsonWebToken，需要强制转换为JWTCallerPrincipal
     // 使用默认的公钥验证（RS256算法）
     JsonWebToken jsonWebToken = jwtParser.parse(token);
     if (jsonWebToken instanceof JWTCallerPrincipal) {
-      return (JWTCallerPrincipal) jsonWebToken;
+      JWTCallerPrincipal principal = (JWTCallerPrincipal) jsonWebToken;
+      if (verifiedTokens != null) {
+        verifiedTokens.put(token, principal);
+      }
+      return principal;
     } else {
       // 如果返回的不是JWTCallerPrincipal，则创建适配器
       // 这种情况不应该发生，但为了健壮性处理
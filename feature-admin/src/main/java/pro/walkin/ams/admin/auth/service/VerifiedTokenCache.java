@@ -0,0 +1,108 @@
+package pro.walkin.ams.admin.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.smallrye.jwt.auth.principal.JWTCallerPrincipal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证访问令牌缓存
+ *
+ * <p>以令牌的 SHA-256 摘要为键缓存验签结果，条目在令牌的 {@code exp} 到期（且不超过 {@code maxTtl}），容量有上限。
+ * 同一会话的重复请求命中缓存时跳过 RSA 验签；缓存中不保存原始令牌。
+ */
+final class VerifiedTokenCache {
+
+  private final Cache<String, JWTCallerPrincipal> cache;
+  private final long maxTtlNanos;
+
+  VerifiedTokenCache(long maximumSize, Duration maxTtl) {
+    this.maxTtlNanos = maxTtl.toNanos();
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(
+                new Expiry<String, JWTCallerPrincipal>() {
+                  @Override
+                  public long expireAfterCreate(
+                      String key, JWTCallerPrincipal principal, long currentTime) {
+                    return Math.max(0, remainingNanos(principal));
+                  }
+
+                  @Override
+                  public long expireAfterUpdate(
+                      String key,
+                      JWTCallerPrincipal principal,
+                      long currentTime,
+                      long currentDuration) {
+                    return Math.max(0, remainingNanos(principal));
+                  }
+
+                  @Override
+                  public long expireAfterRead(
+                      String key,
+                      JWTCallerPrincipal principal,
+                      long currentTime,
+                      long currentDuration) {
+                    return currentDuration;
+                  }
+                })
+            .build();
+  }
+
+  /**
+   * 查找已验证的令牌
+   *
+   * @param token 访问令牌
+   * @return 已验证的主体；未缓存或已过期时返回 null
+   */
+  JWTCallerPrincipal get(String token) {
+    String key = digest(token);
+    JWTCallerPrincipal principal = cache.getIfPresent(key);
+    if (principal != null && remainingNanos(principal) <= 0) {
+      cache.invalidate(key);
+      return null;
+    }
+    return principal;
+  }
+
+  /**
+   * 缓存验签通过的令牌，已过期的令牌不缓存
+   *
+   * @param token 访问令牌
+   * @param principal 验签结果
+   */
+  void put(String token, JWTCallerPrincipal principal) {
+    if (remainingNanos(principal) > 0) {
+      cache.put(digest(token), principal);
+    }
+  }
+
+  long size() {
+    return cache.estimatedSize();
+  }
+
+  /** 距离 {@code exp} 的剩余时间（纳秒），不超过 {@code maxTtl} */
+  private long remainingNanos(JWTCallerPrincipal principal) {
+    long expiresAtMillis = TimeUnit.SECONDS.toMillis(principal.getExpirationTime());
+    long remaining = TimeUnit.MILLISECONDS.toNanos(expiresAtMillis - System.currentTimeMillis());
+    return Math.min(remaining, maxTtlNanos);
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
@@ -7,6 +7,7 @@ import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.menu.CreateMenuCommand;
 import pro.walkin.ams.admin.system.mapper.MenuMapper;
 import pro.walkin.ams.admin.system.query.MenuQuery;
+import pro.walkin.ams.admin.system.query.MenuSnapshotCache;
 import pro.walkin.ams.common.dto.MenuResponseDto;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.common.exception.ValidationException;
@@ -21,6 +22,8 @@ public class CreateMenuHandler implements CommandHandler<CreateMenuCommand, Menu
 
   @Inject MenuMapper menuMapper;
 
+  @Inject MenuSnapshotCache menuSnapshots;
+
   @Override
   @Transactional
   public MenuResponseDto handle(CreateMenuCommand cmd) {
@@ -49,6 +52,7 @@ public class CreateMenuHandler implements CommandHandler<CreateMenuCommand, Menu
     menu.tenant = cmd.tenantId();
     menu.persist();
 
+    menuSnapshots.invalidate(menu.tenant);
     return menuMapper.mapEntityToResponseDto(menu);
   }
 }
@@ -6,6 +6,7 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.menu.DeleteMenuCommand;
 import pro.walkin.ams.admin.system.query.MenuQuery;
+import pro.walkin.ams.admin.system.query.MenuSnapshotCache;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.common.exception.ValidationException;
 import pro.walkin.ams.persistence.entity.system.Menu;
@@ -15,6 +16,8 @@ public class DeleteMenuHandler implements CommandHandler<DeleteMenuCommand, Void
 
   @Inject MenuQuery menuQuery;
 
+  @Inject MenuSnapshotCache menuSnapshots;
+
   @Override
   @Transactional
   public Void handle(DeleteMenuCommand cmd) {
@@ -31,6 +34,7 @@ public class DeleteMenuHandler implements CommandHandler<DeleteMenuCommand, Void
     }
 
     menu.delete();
+    menuSnapshots.invalidate(menu.tenant);
     return null;
   }
 }
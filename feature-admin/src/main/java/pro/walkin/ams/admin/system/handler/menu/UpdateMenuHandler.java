@@ -7,6 +7,7 @@ import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.menu.UpdateMenuCommand;
 import pro.walkin.ams.admin.system.mapper.MenuMapper;
 import pro.walkin.ams.admin.system.query.MenuQuery;
+import pro.walkin.ams.admin.system.query.MenuSnapshotCache;
 import pro.walkin.ams.common.dto.MenuResponseDto;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.common.exception.ValidationException;
@@ -21,6 +22,8 @@ public class UpdateMenuHandler implements CommandHandler<UpdateMenuCommand, Menu
 
   @Inject MenuMapper menuMapper;
 
+  @Inject MenuSnapshotCache menuSnapshots;
+
   @Override
   @Transactional
   public MenuResponseDto handle(UpdateMenuCommand cmd) {
@@ -56,6 +59,7 @@ public class UpdateMenuHandler implements CommandHandler<UpdateMenuCommand, Menu
     menu.isVisible = "ACTIVE".equals(cmd.status());
     menuRepo.persist(menu);
 
+    menuSnapshots.invalidate(menu.tenant);
     return menuMapper.mapEntityToResponseDto(menu);
   }
 }
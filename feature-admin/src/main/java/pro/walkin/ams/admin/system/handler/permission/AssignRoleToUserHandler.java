@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.permission.AssignRoleToUserCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.admin.system.query.RbacQuery;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.Role;
@@ -16,6 +17,8 @@ public class AssignRoleToUserHandler implements CommandHandler<AssignRoleToUserC
 
   @Inject RbacQuery rbacQuery;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public UserRole handle(AssignRoleToUserCommand cmd) {
@@ -40,6 +43,7 @@ public class AssignRoleToUserHandler implements CommandHandler<AssignRoleToUserC
     userRole.roleId = cmd.roleId();
     userRole.persist();
 
+    permissionCache.invalidateUser(user.tenant, cmd.userId());
     return userRole;
   }
 }
@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.role.AssignUserToRoleCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.Role;
 import pro.walkin.ams.persistence.entity.system.User;
@@ -18,6 +19,8 @@ public class AssignUserToRoleHandler implements CommandHandler<AssignUserToRoleC
 
   @Inject User.Repo userRepo;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Void handle(AssignUserToRoleCommand cmd) {
@@ -36,6 +39,7 @@ public class AssignUserToRoleHandler implements CommandHandler<AssignUserToRoleC
       user.roles.add(role);
       user.updatedAt = java.time.Instant.now();
     }
+    permissionCache.invalidateUser(user.tenant, cmd.userId());
     return null;
   }
 }
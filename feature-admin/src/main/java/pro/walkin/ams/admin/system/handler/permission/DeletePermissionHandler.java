@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.permission.DeletePermissionCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.Permission;
 
@@ -13,6 +14,8 @@ public class DeletePermissionHandler implements CommandHandler<DeletePermissionC
 
   @Inject Permission.Repo permissionRepo;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Void handle(DeletePermissionCommand cmd) {
@@ -21,6 +24,7 @@ public class DeletePermissionHandler implements CommandHandler<DeletePermissionC
             .findByIdOptional(cmd.id())
             .orElseThrow(() -> new NotFoundException("Permission", cmd.id().toString()));
     permissionRepo.delete(permission);
+    permissionCache.invalidateAll(permission.tenant);
     return null;
   }
 }
@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.permission.GrantPermissionToRoleCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.admin.system.query.RbacQuery;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.Permission;
@@ -17,6 +18,8 @@ public class GrantPermissionToRoleHandler
 
   @Inject RbacQuery rbacQuery;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public RolePermission handle(GrantPermissionToRoleCommand cmd) {
@@ -43,6 +46,7 @@ public class GrantPermissionToRoleHandler
     rolePermission.permissionId = cmd.permissionId();
     rolePermission.persist();
 
+    permissionCache.invalidateAll(role.tenant);
     return rolePermission;
   }
 }
@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.role.RemoveUserFromRoleCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.persistence.entity.system.User;
 
 @ApplicationScoped
@@ -12,6 +13,8 @@ public class RemoveUserFromRoleHandler implements CommandHandler<RemoveUserFromR
 
   @Inject User.Repo userRepo;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Void handle(RemoveUserFromRoleCommand cmd) {
@@ -19,6 +22,7 @@ public class RemoveUserFromRoleHandler implements CommandHandler<RemoveUserFromR
     if (user != null && user.roles != null) {
       user.roles.removeIf(r -> r.id != null && r.id.equals(cmd.roleId()));
       user.updatedAt = java.time.Instant.now();
+      permissionCache.invalidateUser(user.tenant, cmd.userId());
     }
     return null;
   }
@@ -5,8 +5,8 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.permission.RevokePermissionFromRoleCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.admin.system.query.RbacQuery;
-import pro.walkin.ams.persistence.entity.system.RolePermission;
 
 @ApplicationScoped
 public class RevokePermissionFromRoleHandler
@@ -14,12 +14,18 @@ public class RevokePermissionFromRoleHandler
 
   @Inject RbacQuery rbacQuery;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Void handle(RevokePermissionFromRoleCommand cmd) {
     rbacQuery
         .findRolePermissionByRoleIdAndPermissionId(cmd.roleId(), cmd.permissionId())
-        .ifPresent(RolePermission::delete);
+        .ifPresent(
+            rolePermission -> {
+              permissionCache.invalidateAll(rolePermission.role.tenant);
+              rolePermission.delete();
+            });
 
     return null;
   }
@@ -5,18 +5,26 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.permission.RevokeRoleFromUserCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.admin.system.query.RbacQuery;
-import pro.walkin.ams.persistence.entity.system.UserRole;
 
 @ApplicationScoped
 public class RevokeRoleFromUserHandler implements CommandHandler<RevokeRoleFromUserCommand, Void> {
 
   @Inject RbacQuery rbacQuery;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Void handle(RevokeRoleFromUserCommand cmd) {
-    rbacQuery.findUserRoleByUserIdAndRoleId(cmd.userId(), cmd.roleId()).ifPresent(UserRole::delete);
+    rbacQuery
+        .findUserRoleByUserIdAndRoleId(cmd.userId(), cmd.roleId())
+        .ifPresent(
+            userRole -> {
+              permissionCache.invalidateUser(userRole.user.tenant, cmd.userId());
+              userRole.delete();
+            });
 
     return null;
   }
@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.permission.UpdatePermissionCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.Menu;
 import pro.walkin.ams.persistence.entity.system.Permission;
@@ -17,6 +18,8 @@ public class UpdatePermissionHandler
 
   @Inject Menu.Repo menuRepo;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Permission handle(UpdatePermissionCommand cmd) {
@@ -35,6 +38,7 @@ public class UpdatePermissionHandler
       permission.menu = menuRepo.findById(cmd.menuId());
     }
 
+    permissionCache.invalidateAll(permission.tenant);
     return permission;
   }
 }
@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.role.AssignRolePermissionsCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.Permission;
 import pro.walkin.ams.persistence.entity.system.Role;
@@ -17,6 +18,8 @@ public class AssignRolePermissionsHandler
 
   @Inject Permission.Repo permissionRepo;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Void handle(AssignRolePermissionsCommand cmd) {
@@ -37,6 +40,7 @@ public class AssignRolePermissionsHandler
     }
 
     role.updatedAt = java.time.Instant.now();
+    permissionCache.invalidateAll(role.tenant);
     return null;
   }
 }
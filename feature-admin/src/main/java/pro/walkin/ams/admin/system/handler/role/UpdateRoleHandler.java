@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.role.UpdateRoleCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.Role;
 
@@ -13,6 +14,8 @@ public class UpdateRoleHandler implements CommandHandler<UpdateRoleCommand, Role
 
   @Inject Role.Repo roleRepo;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Role handle(UpdateRoleCommand cmd) {
@@ -26,6 +29,7 @@ public class UpdateRoleHandler implements CommandHandler<UpdateRoleCommand, Role
     role.description = cmd.description();
     role.updatedAt = java.time.Instant.now();
 
+    permissionCache.invalidateAll(role.tenant);
     return role;
   }
 }
@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.role.UpdateRoleMenusCommand;
+import pro.walkin.ams.admin.system.query.MenuSnapshotCache;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.Menu;
 import pro.walkin.ams.persistence.entity.system.Menu_;
@@ -17,6 +18,8 @@ public class UpdateRoleMenusHandler implements CommandHandler<UpdateRoleMenusCom
 
   @Inject Role.Repo roleRepo;
 
+  @Inject MenuSnapshotCache menuSnapshots;
+
   @Override
   @Transactional
   public Void handle(UpdateRoleMenusCommand cmd) {
@@ -48,6 +51,7 @@ public class UpdateRoleMenusHandler implements CommandHandler<UpdateRoleMenusCom
         menu.persist();
       }
     }
+    menuSnapshots.invalidate(cmd.tenantId());
     return null;
   }
 }
@@ -5,6 +5,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import pro.walkin.ams.admin.system.command.user.DeleteUserCommand;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache;
 import pro.walkin.ams.common.exception.NotFoundException;
 import pro.walkin.ams.persistence.entity.system.User;
 
@@ -13,12 +14,15 @@ public class DeleteUserHandler implements CommandHandler<DeleteUserCommand, Void
 
   @Inject User.Repo userRepo;
 
+  @Inject RbacPermissionCache permissionCache;
+
   @Override
   @Transactional
   public Void handle(DeleteUserCommand cmd) {
     User user =
         userRepo.findByIdOptional(cmd.id()).orElseThrow(() -> new NotFoundException("用户不存在"));
     userRepo.delete(user);
+    permissionCache.invalidateUser(user.tenant, cmd.id());
     return null;
   }
 }
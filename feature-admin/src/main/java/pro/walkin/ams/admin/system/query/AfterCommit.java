@@ -0,0 +1,36 @@
+package pro.walkin.ams.admin.system.query;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/** 事务提交后执行的缓存失效动作 */
+final class AfterCommit {
+
+  private AfterCommit() {}
+
+  /**
+   * 在当前事务提交后执行；没有活动事务时立即执行，事务回滚时不执行
+   *
+   * @param registry 事务同步注册表
+   * @param action 要执行的动作
+   */
+  static void run(TransactionSynchronizationRegistry registry, Runnable action) {
+    if (registry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+      action.run();
+      return;
+    }
+    registry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+              action.run();
+            }
+          }
+        });
+  }
+}
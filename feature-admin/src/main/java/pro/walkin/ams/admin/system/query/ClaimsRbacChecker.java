@@ -0,0 +1,139 @@
+package pro.walkin.ams.admin.system.query;
+
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonString;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.common.security.TokenPrincipal;
+import pro.walkin.ams.common.security.service.RbacChecker;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * 基于令牌声明的权限检查
+ *
+ * <p>绑定一个已验证的请求主体，直接使用令牌中的角色和权限声明判断，不访问数据库。首次检查时比较令牌的权限版本声明与 {@link
+ * PermissionVersions} 中租户的当前版本：版本一致说明签发后租户内没有权限变更，声明可信；缺少版本声明或版本不一致时本次请求的所有检查交给
+ * {@code fallback}。检查其他用户或租户时同样交给 {@code fallback}。
+ *
+ * <p>实例只在一个请求内使用，非线程安全。
+ */
+final class ClaimsRbacChecker implements RbacChecker {
+
+  private final TokenPrincipal principal;
+  private final ToLongFunction<Long> currentVersion;
+  private final RbacChecker fallback;
+
+  /** 声明是否可信，首次检查时确定 */
+  private Boolean trusted;
+
+  private Set<String> roles;
+  private Set<String> permissions;
+
+  ClaimsRbacChecker(
+      TokenPrincipal principal, ToLongFunction<Long> currentVersion, RbacChecker fallback) {
+    this.principal = principal;
+    this.currentVersion = currentVersion;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public boolean hasPermission(Long userId, String permission, Long tenantId) {
+    if (!useClaims(userId, tenantId)) {
+      return fallback.hasPermission(userId, permission, tenantId);
+    }
+    return permission != null && permissions.contains(permission);
+  }
+
+  @Override
+  public boolean hasAnyPermission(Long userId, String[] permissions, Long tenantId) {
+    if (!useClaims(userId, tenantId)) {
+      return fallback.hasAnyPermission(userId, permissions, tenantId);
+    }
+    if (permissions == null) {
+      return false;
+    }
+    for (String permission : permissions) {
+      if (this.permissions.contains(permission)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasAllPermissions(Long userId, String[] permissions, Long tenantId) {
+    if (!useClaims(userId, tenantId)) {
+      return fallback.hasAllPermissions(userId, permissions, tenantId);
+    }
+    if (permissions == null) {
+      return true;
+    }
+    for (String permission : permissions) {
+      if (!this.permissions.contains(permission)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean hasRole(Long userId, String role, Long tenantId) {
+    if (!useClaims(userId, tenantId)) {
+      return fallback.hasRole(userId, role, tenantId);
+    }
+    return role != null && roles.contains(role);
+  }
+
+  private boolean useClaims(Long userId, Long tenantId) {
+    if (userId == null
+        || !userId.equals(principal.userId())
+        || tenantId == null
+        || !tenantId.equals(principal.tenantId())) {
+      return false;
+    }
+    if (trusted == null) {
+      trusted = verifyVersion();
+    }
+    return trusted;
+  }
+
+  private boolean verifyVersion() {
+    JsonWebToken token = principal.token();
+    if (token == null) {
+      return false;
+    }
+    Long version = toLong(token.getClaim(Constants.Auth.CLAIM_PERMISSION_VERSION));
+    if (version == null || version != currentVersion.applyAsLong(principal.tenantId())) {
+      return false;
+    }
+    roles = token.getGroups() != null ? Set.copyOf(token.getGroups()) : Set.of();
+    permissions = toStrings(token.getClaim(Constants.Auth.CLAIM_PERMISSIONS));
+    return true;
+  }
+
+  private static Long toLong(Object claim) {
+    if (claim instanceof JsonNumber number) {
+      return number.longValue();
+    }
+    if (claim instanceof Number number) {
+      return number.longValue();
+    }
+    return null;
+  }
+
+  /** 数组声明的元素可能是 {@link JsonString} 或 {@link String} */
+  private static Set<String> toStrings(Object claim) {
+    if (!(claim instanceof Collection<?> values)) {
+      return Set.of();
+    }
+    Set<String> result = new HashSet<>(values.size());
+    for (Object value : values) {
+      result.add(value instanceof JsonString string ? string.getString() : String.valueOf(value));
+    }
+    return result;
+  }
+}
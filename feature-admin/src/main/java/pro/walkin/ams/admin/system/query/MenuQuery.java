@@ -19,7 +19,11 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-/** 菜单查询类 - 所有菜单相关的查询方法都放在这里 */
+/**
+ * 菜单查询类 - 所有菜单相关的查询方法都放在这里
+ *
+ * <p>用户菜单树取自 {@link MenuSnapshotCache} 中的租户菜单快照，用户角色取自 {@link RbacPermissionCache}，缓存命中时不访问数据库。
+ */
 @ApplicationScoped
 public class MenuQuery {
   private static final Logger LOG = LoggerFactory.getLogger(MenuQuery.class);
@@ -29,6 +33,8 @@ public class MenuQuery {
 
   @Inject RbacQuery rbacQuery;
 
+  @Inject MenuSnapshotCache menuSnapshots;
+
   public Menu findById(Long id) {
     return Menu_.managedBlocking().findById(id);
   }
@@ -125,20 +131,24 @@ public class MenuQuery {
     LOG.debug("getUserMenus called with userId={}, tenantId={}", userId, tenantId);
 
     // 获取用户角色
-    Set<String> userRoles = rbacQuery.getUserRoles(userId, tenantId);
+    Set<String> userRoles = rbacQuery.getCachedUserRoles(userId, tenantId);
     LOG.debug("User roles: {}", userRoles);
 
-    // 获取所有菜单（按租户过滤）
-    List<Menu> allMenus = listByTenant(tenantId);
-    LOG.debug("Found {} menus for tenant {}", allMenus.size(), tenantId);
-
-    // 过滤有权限的菜单并构建树形结构
-    List<MenuResponseDto> menuTree = buildMenuTree(allMenus, userRoles);
+    // 从租户菜单快照取出该角色组合的菜单树
+    MenuSnapshot snapshot = menuSnapshots.get(tenantId, () -> compileSnapshot(tenantId));
+    List<MenuResponseDto> menuTree = snapshot.treeFor(userRoles);
 
     LOG.debug("为用户 {} 生成菜单树，共 {} 个菜单项", userId, menuTree.size());
     return menuTree;
   }
 
+  /** 加载租户全部菜单并编译成快照 */
+  private MenuSnapshot compileSnapshot(Long tenantId) {
+    List<Menu> allMenus = listByTenant(tenantId);
+    LOG.debug("Compiling menu snapshot: {} menus for tenant {}", allMenus.size(), tenantId);
+    return MenuSnapshot.build(allMenus, menuMapper, ROOT_MENU_KEY);
+  }
+
   // ========== 树形构建方法 ==========
 
   /** 为用户构建菜单树（带权限过滤） */
@@ -0,0 +1,151 @@
+package pro.walkin.ams.admin.system.query;
+
+import pro.walkin.ams.admin.system.mapper.MenuMapper;
+import pro.walkin.ams.common.dto.MenuResponseDto;
+import pro.walkin.ams.persistence.entity.system.Menu;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 租户菜单快照
+ *
+ * <p>租户全部菜单预先编译成按排序号排好的节点树，每个节点持有映射好的 {@link MenuResponseDto} 和允许的角色集合。按角色集合生成的用户菜单树缓存在快照内，
+ * 角色组合相同的用户共享同一棵不可变的树。过滤规则与 {@link MenuQuery#hasRoleForMenu} 一致：不可见的菜单及其子菜单不出现；未限制角色或用户拥有任一允许角色的菜单可见。
+ *
+ * <p>菜单变更后整个快照由 {@link MenuSnapshotCache} 丢弃重建，快照本身不可修改。
+ */
+final class MenuSnapshot {
+
+  /** 缓存的角色组合上限，超出后新的组合每次现算 */
+  private static final int MAX_CACHED_ROLE_SETS = 1024;
+
+  private static final Comparator<Menu> BY_SORT_ORDER =
+      Comparator.comparingInt(menu -> menu.sortOrder != null ? menu.sortOrder : 0);
+
+  private final List<Node> topLevel;
+  private final Map<Set<String>, List<MenuResponseDto>> trees = new ConcurrentHashMap<>();
+
+  private MenuSnapshot(List<Node> topLevel) {
+    this.topLevel = topLevel;
+  }
+
+  /**
+   * 编译租户菜单
+   *
+   * @param menus 租户全部菜单
+   * @param mapper 菜单映射器
+   * @param rootKey 根目录菜单标识；存在根目录时其子菜单为顶级菜单，否则 parentId 为 null 的菜单为顶级菜单
+   * @return 菜单快照
+   */
+  static MenuSnapshot build(List<Menu> menus, MenuMapper mapper, String rootKey) {
+    Long rootId =
+        menus.stream()
+            .filter(menu -> rootKey.equals(menu.key))
+            .findFirst()
+            .map(menu -> menu.id)
+            .orElse(null);
+
+    Map<Long, List<Menu>> childrenByParentId =
+        menus.stream()
+            .filter(menu -> menu.parentId != null)
+            .collect(Collectors.groupingBy(menu -> menu.parentId));
+
+    List<Node> topLevel =
+        menus.stream()
+            .filter(menu -> !rootKey.equals(menu.key))
+            .filter(
+                menu -> rootId != null ? rootId.equals(menu.parentId) : menu.parentId == null)
+            .sorted(BY_SORT_ORDER)
+            .map(menu -> compile(menu, childrenByParentId, mapper))
+            .toList();
+    return new MenuSnapshot(topLevel);
+  }
+
+  private static Node compile(
+      Menu menu, Map<Long, List<Menu>> childrenByParentId, MenuMapper mapper) {
+    List<Node> children =
+        childrenByParentId.getOrDefault(menu.id, List.of()).stream()
+            .sorted(BY_SORT_ORDER)
+            .map(child -> compile(child, childrenByParentId, mapper))
+            .toList();
+    return new Node(
+        mapper.mapEntityToResponseDto(menu),
+        !Boolean.FALSE.equals(menu.isVisible),
+        menu.rolesAllowed != null ? Set.copyOf(menu.rolesAllowed) : Set.of(),
+        children);
+  }
+
+  /**
+   * 获取拥有指定角色的用户可访问的菜单树
+   *
+   * @param roles 用户角色编码
+   * @return 不可变的菜单树
+   */
+  List<MenuResponseDto> treeFor(Set<String> roles) {
+    Set<String> key = Set.copyOf(roles);
+    List<MenuResponseDto> tree = trees.get(key);
+    if (tree != null) {
+      return tree;
+    }
+    tree = render(topLevel, key);
+    if (trees.size() < MAX_CACHED_ROLE_SETS) {
+      trees.putIfAbsent(key, tree);
+    }
+    return tree;
+  }
+
+  private static List<MenuResponseDto> render(List<Node> nodes, Set<String> roles) {
+    List<MenuResponseDto> result = new ArrayList<>(nodes.size());
+    for (Node node : nodes) {
+      if (node.accessibleTo(roles)) {
+        result.add(node.withChildren(render(node.children(), roles)));
+      }
+    }
+    return List.copyOf(result);
+  }
+
+  /** 编译后的菜单节点 */
+  private record Node(
+      MenuResponseDto dto, boolean visible, Set<String> rolesAllowed, List<Node> children) {
+
+    boolean accessibleTo(Set<String> roles) {
+      if (!visible) {
+        return false;
+      }
+      if (rolesAllowed.isEmpty()) {
+        return true;
+      }
+      for (String role : roles) {
+        if (rolesAllowed.contains(role)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    MenuResponseDto withChildren(List<MenuResponseDto> children) {
+      return new MenuResponseDto(
+          dto.id(),
+          dto.key(),
+          dto.label(),
+          dto.route(),
+          dto.parentId(),
+          dto.icon(),
+          dto.sortOrder(),
+          dto.isVisible(),
+          dto.menuType(),
+          dto.rolesAllowed(),
+          dto.metadata(),
+          dto.tenant(),
+          dto.createdAt(),
+          dto.updatedAt(),
+          children);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package pro.walkin.ams.admin.system.query;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.common.cache.CacheInvalidationBroadcaster;
+
+import java.util.function.Supplier;
+
+/**
+ * 租户菜单快照缓存
+ *
+ * <p>按租户 ID 缓存 {@link MenuSnapshot}（Quarkus Cache {@value #CACHE_NAME}）。菜单或角色菜单授权变更后由命令处理器调用
+ * {@link #invalidate(Long)}：在事务提交后清除本地缓存，并通过 {@link CacheInvalidationBroadcaster} 通知集群其他节点。
+ */
+@ApplicationScoped
+public class MenuSnapshotCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MenuSnapshotCache.class);
+
+  static final String CACHE_NAME = "menu-snapshots";
+
+  @CacheName(CACHE_NAME)
+  Cache cache;
+
+  @Inject CacheInvalidationBroadcaster broadcaster;
+
+  @Inject TransactionSynchronizationRegistry transactionRegistry;
+
+  /**
+   * 获取租户菜单快照，未缓存时编译
+   *
+   * @param tenantId 租户ID
+   * @param loader 加载并编译租户菜单
+   * @return 菜单快照
+   */
+  MenuSnapshot get(Long tenantId, Supplier<MenuSnapshot> loader) {
+    return cache
+        .<String, MenuSnapshot>get(tenantId.toString(), key -> loader.get())
+        .await()
+        .indefinitely();
+  }
+
+  /**
+   * 清除租户的菜单快照
+   *
+   * @param tenantId 租户ID
+   */
+  public void invalidate(Long tenantId) {
+    String key = tenantId.toString();
+    AfterCommit.run(
+        transactionRegistry,
+        () -> {
+          cache.invalidate(key).await().indefinitely();
+          broadcaster.broadcast(CACHE_NAME, key);
+          LOG.debug("Menu snapshot invalidated: tenantId={}", tenantId);
+        });
+  }
+}
@@ -0,0 +1,55 @@
+package pro.walkin.ams.admin.system.query;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pro.walkin.ams.common.Constants;
+
+/**
+ * 租户权限版本
+ *
+ * <p>每个租户一个集群共享的版本号，保存在 {@link Constants.Cluster#RBAC_PERMISSION_VERSIONS_MAP}。访问令牌签发时写入当时的版本，
+ * 租户内角色、权限或用户角色关系变更后版本递增，携带旧版本的令牌中的角色和权限声明随即失效。
+ *
+ * <p>版本号取值不小于首次使用时的毫秒时间戳：集群整体重启、Map 数据丢失后新的版本总大于重启前签发的令牌中的版本，旧令牌不会被误判为有效。
+ */
+@ApplicationScoped
+public class PermissionVersions {
+
+  @Inject HazelcastInstance hazelcastInstance;
+
+  /**
+   * 获取租户的当前权限版本
+   *
+   * @param tenantId 租户ID
+   * @return 当前版本
+   */
+  public long current(Long tenantId) {
+    IMap<Long, Long> versions = getVersionMap();
+    Long version = versions.get(tenantId);
+    if (version != null) {
+      return version;
+    }
+    Long initial = System.currentTimeMillis();
+    Long existing = versions.putIfAbsent(tenantId, initial);
+    return existing != null ? existing : initial;
+  }
+
+  /**
+   * 递增租户的权限版本
+   *
+   * @param tenantId 租户ID
+   */
+  void increment(Long tenantId) {
+    getVersionMap()
+        .merge(
+            tenantId,
+            System.currentTimeMillis(),
+            (version, now) -> Math.max(version + 1, now));
+  }
+
+  private IMap<Long, Long> getVersionMap() {
+    return hazelcastInstance.getMap(Constants.Cluster.RBAC_PERMISSION_VERSIONS_MAP);
+  }
+}
@@ -0,0 +1,154 @@
+package pro.walkin.ams.admin.system.query;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.common.cache.CacheInvalidationBroadcaster;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 用户权限快照缓存
+ *
+ * <p>按用户 ID 缓存 {@link UserPermissionSet}（Quarkus Cache {@value #CACHE_NAME}）。权限码按租户映射为递增的小整数 ID，
+ * 映射只增不减，已缓存的位图始终有效。
+ *
+ * <p>角色、权限或用户角色关系变更后由命令处理器调用 {@link #invalidateUser(Long, Long)} 或 {@link
+ * #invalidateAll(Long)}：在事务提交后清除本地缓存，通过 {@link CacheInvalidationBroadcaster} 通知集群其他节点，并递增租户的
+ * {@link PermissionVersions}，使已签发令牌中的权限声明失效。
+ */
+@ApplicationScoped
+public class RbacPermissionCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RbacPermissionCache.class);
+
+  static final String CACHE_NAME = "rbac-permissions";
+
+  @CacheName(CACHE_NAME)
+  Cache cache;
+
+  @Inject CacheInvalidationBroadcaster broadcaster;
+
+  @Inject TransactionSynchronizationRegistry transactionRegistry;
+
+  @Inject PermissionVersions permissionVersions;
+
+  /** 租户 ID → 权限码 → 权限 ID */
+  private final Map<Long, Map<String, Integer>> permissionIds = new ConcurrentHashMap<>();
+
+  /**
+   * 获取用户权限快照，未缓存时加载
+   *
+   * @param userId 用户ID
+   * @param loader 加载用户所属租户、权限码和角色编码
+   * @return 权限快照
+   */
+  UserPermissionSet get(Long userId, Supplier<LoadedPermissions> loader) {
+    return cache
+        .<String, UserPermissionSet>get(userId.toString(), key -> build(loader.get()))
+        .await()
+        .indefinitely();
+  }
+
+  /**
+   * 查找权限码的 ID
+   *
+   * @param tenantId 租户ID
+   * @param code 权限码
+   * @return 权限 ID；租户下从未出现过该权限码时返回 -1
+   */
+  int idOf(Long tenantId, String code) {
+    Map<String, Integer> ids = permissionIds.get(tenantId);
+    Integer id = ids != null ? ids.get(code) : null;
+    return id != null ? id : -1;
+  }
+
+  /**
+   * 把一组权限码转换为位图
+   *
+   * @param tenantId 租户ID
+   * @param codes 权限码
+   * @return 位图；存在未知权限码时返回 null
+   */
+  BitSet maskOf(Long tenantId, String[] codes) {
+    BitSet mask = new BitSet();
+    for (String code : codes) {
+      int id = idOf(tenantId, code);
+      if (id < 0) {
+        return null;
+      }
+      mask.set(id);
+    }
+    return mask;
+  }
+
+  /**
+   * 清除单个用户的权限快照（用户角色关系变更）
+   *
+   * @param tenantId 用户所属租户
+   * @param userId 用户ID
+   */
+  public void invalidateUser(Long tenantId, Long userId) {
+    AfterCommit.run(transactionRegistry, () -> invalidate(tenantId, userId.toString()));
+  }
+
+  /**
+   * 清除所有用户的权限快照（角色或权限定义变更）
+   *
+   * @param tenantId 角色或权限所属租户
+   */
+  public void invalidateAll(Long tenantId) {
+    AfterCommit.run(transactionRegistry, () -> invalidate(tenantId, null));
+  }
+
+  private void invalidate(Long tenantId, String key) {
+    if (key == null) {
+      cache.invalidateAll().await().indefinitely();
+    } else {
+      cache.invalidate(key).await().indefinitely();
+    }
+    broadcaster.broadcast(CACHE_NAME, key);
+    permissionVersions.increment(tenantId);
+    LOG.debug("RBAC permission cache invalidated: key={}", key != null ? key : "*");
+  }
+
+  private UserPermissionSet build(LoadedPermissions loaded) {
+    if (loaded.tenantId() == null) {
+      return UserPermissionSet.EMPTY;
+    }
+    Map<String, Integer> ids =
+        permissionIds.computeIfAbsent(loaded.tenantId(), tenant -> new ConcurrentHashMap<>());
+    BitSet bits = new BitSet();
+    for (String code : loaded.permissions()) {
+      bits.set(intern(ids, code));
+    }
+    return new UserPermissionSet(loaded.tenantId(), bits, loaded.roles());
+  }
+
+  private static int intern(Map<String, Integer> ids, String code) {
+    Integer id = ids.get(code);
+    if (id != null) {
+      return id;
+    }
+    synchronized (ids) {
+      return ids.computeIfAbsent(code, c -> ids.size());
+    }
+  }
+
+  /**
+   * 从数据库加载的用户权限
+   *
+   * @param tenantId 用户所属租户；用户不存在时为 null
+   * @param permissions 权限码
+   * @param roles 角色编码
+   */
+  record LoadedPermissions(Long tenantId, Set<String> permissions, Set<String> roles) {}
+}
@@ -1,21 +1,39 @@
 package pro.walkin.ams.admin.system.query;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pro.walkin.ams.admin.system.query.RbacPermissionCache.LoadedPermissions;
+import pro.walkin.ams.common.security.TokenPrincipal;
 import pro.walkin.ams.common.security.service.RbacChecker;
 import pro.walkin.ams.persistence.entity.system.*;
 
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
-/** RBAC权限查询类 所有角色权限相关的查询方法都放在这里 */
+/**
+ * RBAC权限查询类 所有角色权限相关的查询方法都放在这里
+ *
+ * <p>{@link RbacChecker} 的检查基于 {@link RbacPermissionCache} 中的用户权限快照，缓存命中时不访问数据库。开启 {@code
+ * ams.auth.rbac.claims.enabled} 后，请求主体的检查优先使用令牌中的角色和权限声明（{@link ClaimsRbacChecker}），声明过期时回退到本类。
+ */
 @ApplicationScoped
 public class RbacQuery implements RbacChecker {
   private static final Logger LOG = LoggerFactory.getLogger(RbacQuery.class);
 
+  @Inject RbacPermissionCache permissionCache;
+
+  @Inject PermissionVersions permissionVersions;
+
+  /** 是否信任令牌中的角色和权限声明（权限版本与租户当前版本一致时） */
+  @ConfigProperty(name = "ams.auth.rbac.claims.enabled", defaultValue = "false")
+  boolean claimsEnabled;
+
   // ========== RolePermission 查询 ==========
 
   public Optional<RolePermission> findRolePermissionByRoleIdAndPermissionId(
@@ -150,14 +168,81 @@ public class RbacQuery implements RbacChecker {
     return permissions;
   }
 
+  /**
+   * 获取用户在租户内的角色编码（带缓存）
+   *
+   * @param userId 用户ID
+   * @param tenantId 租户ID
+   * @return 角色编码，不可修改；用户不存在或不属于该租户时返回空集合
+   */
+  public Set<String> getCachedUserRoles(Long userId, Long tenantId) {
+    UserPermissionSet set = permissionSet(userId, tenantId);
+    return set != null ? set.roles() : Set.of();
+  }
+
+  /**
+   * 获取用户权限快照（带缓存）
+   *
+   * @param userId 用户ID
+   * @param tenantId 租户ID
+   * @return 权限快照；用户不存在或不属于该租户时返回 null
+   */
+  private UserPermissionSet permissionSet(Long userId, Long tenantId) {
+    if (userId == null || tenantId == null) {
+      LOG.warn("Invalid parameters: userId={}, tenantId={}", userId, tenantId);
+      return null;
+    }
+    UserPermissionSet set = permissionCache.get(userId, () -> loadPermissions(userId));
+    if (!set.belongsTo(tenantId)) {
+      LOG.warn("User {} not found in tenant {}", userId, tenantId);
+      return null;
+    }
+    return set;
+  }
+
+  /** 从数据库加载用户所属租户、权限码和角色编码，只保留本租户的角色 */
+  private LoadedPermissions loadPermissions(Long userId) {
+    LOG.debug("Loading RBAC permission set from database for user {}", userId);
+
+    Optional<User> userOpt = findUserById(userId);
+    if (userOpt.isEmpty()) {
+      return new LoadedPermissions(null, Set.of(), Set.of());
+    }
+    Long tenantId = userOpt.get().tenant;
+
+    Set<String> permissions = new HashSet<>();
+    for (RolePermission rp : listRolePermissionsByUserId(userId)) {
+      if (rp.permission != null && rp.role != null && tenantId.equals(rp.role.tenant)) {
+        permissions.add(rp.permission.code);
+      }
+    }
+
+    Set<String> roles = new HashSet<>();
+    for (UserRole userRole : listUserRolesByUserId(userId)) {
+      if (userRole.role != null && tenantId.equals(userRole.role.tenant)) {
+        roles.add(userRole.role.code);
+      }
+    }
+    return new LoadedPermissions(tenantId, permissions, roles);
+  }
+
   // ========== RbacChecker 接口实现 ==========
 
+  @Override
+  public RbacChecker forPrincipal(TokenPrincipal principal) {
+    if (!claimsEnabled || principal == null) {
+      return this;
+    }
+    return new ClaimsRbacChecker(principal, permissionVersions::current, this);
+  }
+
   @Override
   public boolean hasPermission(Long userId, String permission, Long tenantId) {
     if (userId == null || permission == null || tenantId == null) {
       return false;
     }
-    return getUserPermissions(userId, tenantId).contains(permission);
+    UserPermissionSet set = permissionSet(userId, tenantId);
+    return set != null && set.has(permissionCache.idOf(tenantId, permission));
   }
 
   @Override
@@ -165,9 +250,12 @@ public class RbacQuery implements RbacChecker {
     if (permissions == null || permissions.length == 0) {
       return false;
     }
-    Set<String> userPermissions = getUserPermissions(userId, tenantId);
+    UserPermissionSet set = permissionSet(userId, tenantId);
+    if (set == null) {
+      return false;
+    }
     for (String perm : permissions) {
-      if (userPermissions.contains(perm)) {
+      if (set.has(permissionCache.idOf(tenantId, perm))) {
         return true;
       }
     }
@@ -179,7 +267,13 @@ public class RbacQuery implements RbacChecker {
     if (permissions == null || permissions.length == 0) {
       return true;
     }
-    return getUserPermissions(userId, tenantId).containsAll(Set.of(permissions));
+    UserPermissionSet set = permissionSet(userId, tenantId);
+    if (set == null) {
+      return false;
+    }
+    // 存在本租户从未分配过的权限码时用户不可能拥有全部权限
+    BitSet required = permissionCache.maskOf(tenantId, permissions);
+    return required != null && set.hasAll(required);
   }
 
   @Override
@@ -187,6 +281,7 @@ public class RbacQuery implements RbacChecker {
     if (userId == null || role == null || tenantId == null) {
       return false;
     }
-    return getUserRoles(userId, tenantId).contains(role);
+    UserPermissionSet set = permissionSet(userId, tenantId);
+    return set != null && set.roles().contains(role);
   }
 }
@@ -0,0 +1,38 @@
+package pro.walkin.ams.admin.system.query;
+
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * 用户在某个租户下的权限快照
+ *
+ * <p>权限码由 {@link RbacPermissionCache} 按租户映射为小整数 ID，权限集合保存为 {@link BitSet}，权限检查只需要位运算。实例不可变。
+ *
+ * @param tenantId 用户所属租户；用户不存在时为 null
+ * @param permissions 权限 ID 位图
+ * @param roles 角色编码
+ */
+record UserPermissionSet(Long tenantId, BitSet permissions, Set<String> roles) {
+
+  static final UserPermissionSet EMPTY = new UserPermissionSet(null, new BitSet(), Set.of());
+
+  UserPermissionSet {
+    permissions = (BitSet) permissions.clone();
+    roles = Set.copyOf(roles);
+  }
+
+  boolean belongsTo(Long tenant) {
+    return tenantId != null && tenantId.equals(tenant);
+  }
+
+  boolean has(int permissionId) {
+    return permissionId >= 0 && permissions.get(permissionId);
+  }
+
+  /** 是否包含 {@code required} 中的全部权限 */
+  boolean hasAll(BitSet required) {
+    BitSet missing = (BitSet) required.clone();
+    missing.andNot(permissions);
+    return missing.isEmpty();
+  }
+}
@@ -0,0 +1,53 @@
+package pro.walkin.ams.admin.auth.service;
+
+import io.smallrye.jwt.auth.principal.DefaultJWTCallerPrincipal;
+import io.smallrye.jwt.auth.principal.JWTCallerPrincipal;
+import org.jose4j.jwt.JwtClaims;
+import org.jose4j.jwt.NumericDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+  private final VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofMinutes(15));
+
+  @Test
+  @DisplayName("should return the verified principal for the same token")
+  void shouldHitForSameToken() {
+    JWTCallerPrincipal principal = principal(60);
+    cache.put("token-a", principal);
+
+    assertThat(cache.get("token-a")).isSameAs(principal);
+    assertThat(cache.get("token-b")).isNull();
+  }
+
+  @Test
+  @DisplayName("should not cache expired tokens")
+  void shouldSkipExpiredTokens() {
+    cache.put("token-a", principal(-1));
+
+    assertThat(cache.get("token-a")).isNull();
+  }
+
+  @Test
+  @DisplayName("should not serve entries past the max ttl")
+  void shouldCapByMaxTtl() {
+    VerifiedTokenCache noTtl = new VerifiedTokenCache(100, Duration.ZERO);
+    noTtl.put("token-a", principal(60));
+
+    assertThat(noTtl.get("token-a")).isNull();
+  }
+
+  private static JWTCallerPrincipal principal(long expiresInSeconds) {
+    JwtClaims claims = new JwtClaims();
+    claims.setSubject("1");
+    NumericDate expiresAt = NumericDate.now();
+    expiresAt.addSeconds(expiresInSeconds);
+    claims.setExpirationTime(expiresAt);
+    return new DefaultJWTCallerPrincipal(claims);
+  }
+}
@@ -0,0 +1,86 @@
+package pro.walkin.ams.admin.system.query;
+
+import jakarta.json.Json;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.common.security.TokenPrincipal;
+import pro.walkin.ams.common.security.service.RbacChecker;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClaimsRbacCheckerTest {
+
+  private static final Long USER_ID = 1L;
+  private static final Long TENANT_ID = 100L;
+  private static final long VERSION = 42L;
+
+  private JsonWebToken token;
+  private RbacChecker fallback;
+
+  @BeforeEach
+  void setUp() {
+    token = mock(JsonWebToken.class);
+    when(token.getGroups()).thenReturn(Set.of("ADMIN"));
+    when(token.getClaim(Constants.Auth.CLAIM_PERMISSIONS))
+        .thenReturn(Json.createArrayBuilder().add("alarm:read").add("alarm:write").build());
+    when(token.getClaim(Constants.Auth.CLAIM_PERMISSION_VERSION))
+        .thenReturn(Json.createValue(VERSION));
+    fallback = mock(RbacChecker.class);
+  }
+
+  private ClaimsRbacChecker checker(long currentVersion) {
+    return new ClaimsRbacChecker(
+        new TokenPrincipal(USER_ID, TENANT_ID, token), tenant -> currentVersion, fallback);
+  }
+
+  @Test
+  @DisplayName("should answer from claims when the permission version is current")
+  void shouldUseClaimsWhenVersionCurrent() {
+    ClaimsRbacChecker checker = checker(VERSION);
+
+    assertThat(checker.hasPermission(USER_ID, "alarm:read", TENANT_ID)).isTrue();
+    assertThat(checker.hasPermission(USER_ID, "user:write", TENANT_ID)).isFalse();
+    String[] granted = {"alarm:read", "alarm:write"};
+    assertThat(checker.hasAllPermissions(USER_ID, granted, TENANT_ID)).isTrue();
+    assertThat(checker.hasAnyPermission(USER_ID, new String[] {"user:write"}, TENANT_ID)).isFalse();
+    assertThat(checker.hasRole(USER_ID, "ADMIN", TENANT_ID)).isTrue();
+    verifyNoInteractions(fallback);
+  }
+
+  @Test
+  @DisplayName("should fall back when the permission version is stale")
+  void shouldFallBackWhenVersionStale() {
+    when(fallback.hasPermission(USER_ID, "alarm:read", TENANT_ID)).thenReturn(false);
+
+    assertThat(checker(VERSION + 1).hasPermission(USER_ID, "alarm:read", TENANT_ID)).isFalse();
+    verify(fallback).hasPermission(USER_ID, "alarm:read", TENANT_ID);
+  }
+
+  @Test
+  @DisplayName("should fall back when the token has no permission version")
+  void shouldFallBackWithoutVersionClaim() {
+    when(token.getClaim(Constants.Auth.CLAIM_PERMISSION_VERSION)).thenReturn(null);
+
+    checker(VERSION).hasRole(USER_ID, "ADMIN", TENANT_ID);
+
+    verify(fallback).hasRole(USER_ID, "ADMIN", TENANT_ID);
+  }
+
+  @Test
+  @DisplayName("should fall back for another user or tenant")
+  void shouldFallBackForOtherPrincipal() {
+    ClaimsRbacChecker checker = checker(VERSION);
+
+    checker.hasPermission(2L, "alarm:read", TENANT_ID);
+    checker.hasPermission(USER_ID, "alarm:read", 200L);
+
+    verify(fallback).hasPermission(2L, "alarm:read", TENANT_ID);
+    verify(fallback).hasPermission(USER_ID, "alarm:read", 200L);
+  }
+}
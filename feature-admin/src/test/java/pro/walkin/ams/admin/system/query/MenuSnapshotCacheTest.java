@@ -0,0 +1,91 @@
+package pro.walkin.ams.admin.system.query;
+
+import io.quarkus.cache.Cache;
+import io.smallrye.mutiny.Uni;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import pro.walkin.ams.common.cache.CacheInvalidationBroadcaster;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MenuSnapshotCacheTest {
+
+  private static final Long TENANT_ID = 100L;
+
+  private MenuSnapshotCache snapshots;
+  private AtomicBoolean evicted;
+
+  @BeforeEach
+  void setUp() {
+    evicted = new AtomicBoolean();
+    snapshots = new MenuSnapshotCache();
+    snapshots.cache = mock(Cache.class);
+    when(snapshots.cache.invalidate("100"))
+        .thenReturn(
+            Uni.createFrom()
+                .item(
+                    () -> {
+                      evicted.set(true);
+                      return null;
+                    }));
+    snapshots.broadcaster = mock(CacheInvalidationBroadcaster.class);
+    snapshots.transactionRegistry = mock(TransactionSynchronizationRegistry.class);
+  }
+
+  @Test
+  @DisplayName("should evict locally and broadcast to other nodes outside a transaction")
+  void shouldEvictAndBroadcast() {
+    when(snapshots.transactionRegistry.getTransactionStatus())
+        .thenReturn(Status.STATUS_NO_TRANSACTION);
+
+    snapshots.invalidate(TENANT_ID);
+
+    assertThat(evicted).isTrue();
+    verify(snapshots.broadcaster).broadcast(MenuSnapshotCache.CACHE_NAME, "100");
+  }
+
+  @Test
+  @DisplayName("should evict and broadcast only after the transaction commits")
+  void shouldDeferUntilCommit() {
+    when(snapshots.transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+
+    snapshots.invalidate(TENANT_ID);
+
+    ArgumentCaptor<Synchronization> synchronization =
+        ArgumentCaptor.forClass(Synchronization.class);
+    verify(snapshots.transactionRegistry)
+        .registerInterposedSynchronization(synchronization.capture());
+    assertThat(evicted).isFalse();
+    verifyNoInteractions(snapshots.broadcaster);
+
+    synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+    assertThat(evicted).isTrue();
+    verify(snapshots.broadcaster).broadcast(MenuSnapshotCache.CACHE_NAME, "100");
+  }
+
+  @Test
+  @DisplayName("should keep the snapshot when the transaction rolls back")
+  void shouldIgnoreRollback() {
+    when(snapshots.transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+
+    snapshots.invalidate(TENANT_ID);
+
+    ArgumentCaptor<Synchronization> synchronization =
+        ArgumentCaptor.forClass(Synchronization.class);
+    verify(snapshots.transactionRegistry)
+        .registerInterposedSynchronization(synchronization.capture());
+    synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+    assertThat(evicted).isFalse();
+    verifyNoInteractions(snapshots.broadcaster);
+  }
+}
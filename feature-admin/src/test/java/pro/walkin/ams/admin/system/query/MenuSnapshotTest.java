@@ -0,0 +1,97 @@
+package pro.walkin.ams.admin.system.query;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.admin.system.mapper.MenuMapper;
+import pro.walkin.ams.common.dto.MenuResponseDto;
+import pro.walkin.ams.persistence.entity.system.Menu;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MenuSnapshotTest {
+
+  private static final String ROOT = "root";
+
+  private final MenuMapper mapper = new MenuMapper();
+
+  private static Menu menu(Long id, String key, Long parentId, int sortOrder, String... roles) {
+    Menu menu = new Menu();
+    menu.id = id;
+    menu.key = key;
+    menu.parentId = parentId;
+    menu.sortOrder = sortOrder;
+    menu.rolesAllowed = List.of(roles);
+    return menu;
+  }
+
+  private static List<String> keys(List<MenuResponseDto> tree) {
+    return tree.stream().map(MenuResponseDto::key).toList();
+  }
+
+  @Test
+  @DisplayName("should return children of the root menu sorted by sort order")
+  void shouldReturnRootChildrenSorted() {
+    MenuSnapshot snapshot =
+        MenuSnapshot.build(
+            List.of(
+                menu(1L, ROOT, null, 0),
+                menu(2L, "system", 1L, 2),
+                menu(3L, "alarm", 1L, 1),
+                menu(4L, "users", 2L, 0)),
+            mapper,
+            ROOT);
+
+    List<MenuResponseDto> tree = snapshot.treeFor(Set.of());
+
+    assertThat(keys(tree)).containsExactly("alarm", "system");
+    assertThat(keys(tree.get(1).children())).containsExactly("users");
+  }
+
+  @Test
+  @DisplayName("should use menus without parent as top level when there is no root menu")
+  void shouldUseParentlessMenusWithoutRoot() {
+    MenuSnapshot snapshot =
+        MenuSnapshot.build(
+            List.of(menu(2L, "system", null, 0), menu(4L, "users", 2L, 0)), mapper, ROOT);
+
+    assertThat(keys(snapshot.treeFor(Set.of()))).containsExactly("system");
+  }
+
+  @Test
+  @DisplayName("should filter menus and their subtrees by role and visibility")
+  void shouldFilterByRoleAndVisibility() {
+    Menu hidden = menu(5L, "hidden", 1L, 3);
+    hidden.isVisible = false;
+    MenuSnapshot snapshot =
+        MenuSnapshot.build(
+            List.of(
+                menu(1L, ROOT, null, 0),
+                menu(2L, "system", 1L, 1, "ADMIN"),
+                menu(3L, "users", 2L, 0, "OPERATOR"),
+                menu(4L, "alarm", 1L, 2),
+                hidden),
+            mapper,
+            ROOT);
+
+    assertThat(keys(snapshot.treeFor(Set.of("OPERATOR")))).containsExactly("alarm");
+
+    List<MenuResponseDto> admin = snapshot.treeFor(Set.of("ADMIN"));
+    assertThat(keys(admin)).containsExactly("system", "alarm");
+    assertThat(admin.getFirst().children()).isEmpty();
+
+    List<MenuResponseDto> both = snapshot.treeFor(Set.of("ADMIN", "OPERATOR"));
+    assertThat(keys(both.getFirst().children())).containsExactly("users");
+  }
+
+  @Test
+  @DisplayName("should share the tree between users with the same roles")
+  void shouldShareTreeForSameRoles() {
+    MenuSnapshot snapshot =
+        MenuSnapshot.build(List.of(menu(2L, "system", null, 0, "ADMIN")), mapper, ROOT);
+
+    assertThat(snapshot.treeFor(Set.of("ADMIN"))).isSameAs(snapshot.treeFor(Set.of("ADMIN")));
+  }
+}
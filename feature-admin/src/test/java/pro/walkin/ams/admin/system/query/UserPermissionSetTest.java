@@ -0,0 +1,62 @@
+package pro.walkin.ams.admin.system.query;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class UserPermissionSetTest {
+
+  private static BitSet bits(int... ids) {
+    BitSet set = new BitSet();
+    for (int id : ids) {
+      set.set(id);
+    }
+    return set;
+  }
+
+  @Test
+  @DisplayName("should only belong to its own tenant")
+  void shouldOnlyBelongToOwnTenant() {
+    UserPermissionSet set = new UserPermissionSet(1L, bits(0), Set.of("ADMIN"));
+
+    assertThat(set.belongsTo(1L)).isTrue();
+    assertThat(set.belongsTo(2L)).isFalse();
+    assertThat(set.belongsTo(null)).isFalse();
+    assertThat(UserPermissionSet.EMPTY.belongsTo(1L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("should treat unknown permission ids as missing")
+  void shouldTreatUnknownIdAsMissing() {
+    UserPermissionSet set = new UserPermissionSet(1L, bits(0, 3), Set.of());
+
+    assertThat(set.has(3)).isTrue();
+    assertThat(set.has(1)).isFalse();
+    assertThat(set.has(-1)).isFalse();
+  }
+
+  @Test
+  @DisplayName("should require every bit for hasAll")
+  void shouldRequireEveryBitForHasAll() {
+    UserPermissionSet set = new UserPermissionSet(1L, bits(0, 2, 5), Set.of());
+
+    assertThat(set.hasAll(bits(0, 5))).isTrue();
+    assertThat(set.hasAll(bits(0, 1))).isFalse();
+    assertThat(set.hasAll(new BitSet())).isTrue();
+  }
+
+  @Test
+  @DisplayName("should not be affected by later changes to the source bitmap")
+  void shouldCopySourceBitmap() {
+    BitSet source = bits(1);
+    UserPermissionSet set = new UserPermissionSet(1L, source, Set.of());
+
+    source.set(2);
+
+    assertThat(set.has(2)).isFalse();
+  }
+}
@@ -2,6 +2,7 @@ plugins {
     id("base-java-convention")
     id("code-quality-convention")
     alias(libs.plugins.gradle.jandex)
+    alias(libs.plugins.jmh)
 }
 
 dependencies {
@@ -35,6 +36,12 @@ dependencies {
     testImplementation(libs.junit.jupiter.api)
 }
 
+jmh {
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
     systemProperty("java.util.logging.manager", "org.jboss.logmanager.LogManager")
@@ -0,0 +1,128 @@
+package pro.walkin.ams.ingestion.connector;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * NDJSON 连接器压测工具
+ *
+ * <p>以多个 TCP 连接向 {@code NdjsonTcpConnector} 发送告警。发送前后从服务端 Prometheus 端点读取 {@code
+ * ams.ingestion.processed.total}，等待计数不再增长后输出服务端实际处理的告警数、处理吞吐（条/秒）及按服务端核数折算的单核吞吐；
+ * 同时输出连接器丢弃的记录数。客户端发送速率只作参考，不代表处理能力。
+ *
+ * <pre>
+ * java -cp build/libs/*-jmh.jar pro.walkin.ams.ingestion.connector.NdjsonLoadGenerator \
+ *     [host] [port] [connections] [eventsPerConnection] [serverCores] [metricsUrl]
+ * </pre>
+ *
+ * <p>{@code metricsUrl} 默认 {@code http://<host>:8080/metrics}。
+ */
+public final class NdjsonLoadGenerator {
+
+  private static final String PROCESSED_METRIC = "ams_ingestion_processed_total";
+  private static final String DROPPED_METRIC = "ams_ingestion_connector_dropped_total";
+
+  /** 处理计数连续这么久不增长即认为服务端已处理完 */
+  private static final long IDLE_NANOS = 3_000_000_000L;
+
+  private NdjsonLoadGenerator() {}
+
+  public static void main(String[] args) throws Exception {
+    String host = args.length > 0 ? args[0] : "127.0.0.1";
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : 9410;
+    int connections = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+    int events = args.length > 3 ? Integer.parseInt(args[3]) : 1_000_000;
+    int serverCores = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+    URI metricsUri = URI.create(args.length > 5 ? args[5] : "http://" + host + ":8080/metrics");
+
+    HttpClient http = HttpClient.newHttpClient();
+    double processedBefore = scrape(http, metricsUri, PROCESSED_METRIC);
+    double droppedBefore = scrape(http, metricsUri, DROPPED_METRIC);
+
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int c = 0; c < connections; c++) {
+        int connection = c;
+        futures.add(executor.submit(() -> send(host, port, connection, events)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+    double sendSeconds = (System.nanoTime() - start) / 1e9;
+    long total = (long) connections * events;
+    System.out.printf(
+        "sent %d events over %d connections in %.2fs (client send rate %.0f events/s)%n",
+        total, connections, sendSeconds, total / sendSeconds);
+
+    // 等待服务端处理计数稳定，以最后一次增长的时间计算处理吞吐
+    double processed = processedBefore;
+    long lastProgress = System.nanoTime();
+    while (processed - processedBefore < total && System.nanoTime() - lastProgress < IDLE_NANOS) {
+      Thread.sleep(200);
+      double current = scrape(http, metricsUri, PROCESSED_METRIC);
+      if (current > processed) {
+        processed = current;
+        lastProgress = System.nanoTime();
+      }
+    }
+    double seconds = (lastProgress - start) / 1e9;
+    double processedCount = processed - processedBefore;
+    double dropped = scrape(http, metricsUri, DROPPED_METRIC) - droppedBefore;
+
+    double rate = processedCount / seconds;
+    System.out.printf(
+        "server processed %.0f of %d events (%.0f dropped by connector) in %.2fs: "
+            + "%.0f events/s, %.0f events/s/core%n",
+        processedCount, total, dropped, seconds, rate, rate / serverCores);
+  }
+
+  /** 读取 Prometheus 文本格式中某个指标所有序列的合计值 */
+  private static double scrape(HttpClient http, URI uri, String metric) throws Exception {
+    String body =
+        http.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString())
+            .body();
+    double sum = 0;
+    for (String line : body.split("\n")) {
+      if (line.startsWith(metric + " ") || line.startsWith(metric + "{")) {
+        sum += Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+      }
+    }
+    return sum;
+  }
+
+  private static void send(String host, int port, int connection, int events) {
+    try (Socket socket = new Socket(host, port);
+        OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024)) {
+      for (int i = 0; i < events; i++) {
+        out.write(event(connection, i));
+      }
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static byte[] event(int connection, int sequence) {
+    return ("{\"alertname\":\"LoadTest\",\"severity\":\"HIGH\",\"instance\":\"host-"
+            + connection
+            + "\",\"job\":\"load\",\"sequence\":\""
+            + (sequence % 1000)
+            + "\",\"summary\":\"load generator event\"}\n")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+}
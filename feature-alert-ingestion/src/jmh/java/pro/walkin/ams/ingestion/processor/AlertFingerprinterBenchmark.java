@@ -0,0 +1,73 @@
+package pro.walkin.ams.ingestion.processor;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pro.walkin.ams.ingestion.processor.AlertFingerprinter.FingerprintAlgorithm;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 告警指纹计算基准测试
+ *
+ * <p>对比原实现（Stream + TreeMap + 拼接字符串 + MD5）与流式编码的 MD5 兼容模式、MurmurHash3 128 位模式。运行：{@code
+ * ./gradlew :feature-alert-ingestion:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AlertFingerprinterBenchmark {
+
+  /** 每条告警的标签数量 */
+  @Param({"8", "24"})
+  public int labelCount;
+
+  private Map<String, String> labels;
+
+  @Setup
+  public void setUp() {
+    labels = new HashMap<>();
+    for (int i = 0; i < labelCount; i++) {
+      labels.put("label_" + i, "value-" + i + "-prod-cluster-east");
+    }
+    labels.put("timestamp", "1700000000");
+    labels.put("value", "97.5");
+  }
+
+  @Benchmark
+  public String legacy() {
+    TreeMap<String, String> identityFields =
+        labels.entrySet().stream()
+            .filter(entry -> !entry.getKey().equals("timestamp") && !entry.getKey().equals("value"))
+            .collect(
+                Collectors.toMap(
+                    Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, TreeMap::new));
+
+    String rawString =
+        identityFields.entrySet().stream()
+            .map(entry -> entry.getKey() + "=" + entry.getValue())
+            .collect(Collectors.joining("|"));
+
+    return DigestUtils.md5Hex(rawString.getBytes());
+  }
+
+  @Benchmark
+  public String md5() {
+    return AlertFingerprinter.calculate(labels, FingerprintAlgorithm.MD5);
+  }
+
+  @Benchmark
+  public String murmur3() {
+    return AlertFingerprinter.calculate(labels, FingerprintAlgorithm.MURMUR3_128);
+  }
+}
@@ -2,10 +2,31 @@ package pro.walkin.ams.ingestion;
 
 import pro.walkin.ams.common.dto.AlertEvent;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AlertMapper {
   String source();
 
   List<AlertEvent> map(String rawJson);
+
+  /**
+   * 流式映射原始负载
+   *
+   * <p>默认实现读取整个负载后委托 {@link #map(String)}；支持增量解析的映射器应覆盖此方法，逐条输出告警。
+   *
+   * @param rawJson 原始告警数据流
+   * @param sink 告警事件接收方
+   */
+  default void map(InputStream rawJson, Consumer<AlertEvent> sink) {
+    try {
+      map(new String(rawJson.readAllBytes(), StandardCharsets.UTF_8)).forEach(sink);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 }
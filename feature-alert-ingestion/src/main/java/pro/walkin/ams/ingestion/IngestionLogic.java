@@ -1,7 +1,6 @@
 package pro.walkin.ams.ingestion;
 
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.inject.Instance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pro.walkin.ams.common.dto.AlertEvent;
@@ -10,15 +9,23 @@ import pro.walkin.ams.common.exception.MapperNotFoundException;
 import pro.walkin.ams.common.exception.SourceOfflineException;
 import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
 import pro.walkin.ams.ingestion.deduplication.AlertDeduplicationStore;
+import pro.walkin.ams.ingestion.mapper.DefaultAlertMapper;
 import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+import pro.walkin.ams.ingestion.plan.IngestionPlan;
+import pro.walkin.ams.ingestion.plan.IngestionPlanCache;
 import pro.walkin.ams.ingestion.processor.AlertFingerprinter;
 import pro.walkin.ams.ingestion.processor.LabelNormalizer;
 import pro.walkin.ams.ingestion.publisher.AlertEventPublisher;
+import pro.walkin.ams.ingestion.ratelimit.IngestionRateLimiter;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class IngestionLogic {
@@ -31,29 +38,31 @@ public class IngestionLogic {
   private final LabelNormalizer normalizer;
   private final AlertIngestionConfig config;
   private final SourceStatusService sourceStatusService;
-
-  private final Map<String, AlertMapper> mapperRegistry = new HashMap<>();
+  private final DefaultAlertMapper defaultMapper;
+  private final IngestionPlanCache planCache;
+  private final IngestionRateLimiter rateLimiter;
 
   private final ExecutorService virtualThreadExecutor;
 
   public IngestionLogic(
-      Instance<AlertMapper> alertMappers,
       IngestionMetrics metrics,
       AlertDeduplicationStore deduplicationStore,
       AlertEventPublisher eventPublisher,
       LabelNormalizer normalizer,
       AlertIngestionConfig config,
-      SourceStatusService sourceStatusService) {
+      SourceStatusService sourceStatusService,
+      DefaultAlertMapper defaultMapper,
+      IngestionPlanCache planCache,
+      IngestionRateLimiter rateLimiter) {
     this.metrics = metrics;
     this.deduplicationStore = deduplicationStore;
     this.eventPublisher = eventPublisher;
     this.normalizer = normalizer;
     this.config = config;
     this.sourceStatusService = sourceStatusService;
-
-    for (AlertMapper alertMapper : alertMappers) {
-      mapperRegistry.put(alertMapper.source(), alertMapper);
-    }
+    this.defaultMapper = defaultMapper;
+    this.planCache = planCache;
+    this.rateLimiter = rateLimiter;
 
     this.virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
   }
@@ -67,7 +76,7 @@ public class IngestionLogic {
    *   <li>验证告警源状态（检查该源是否允许接收告警）
    *   <li>根据源ID查找对应的告警映射器
    *   <li>使用映射器解析原始负载为告警事件列表
-   *   <li>并行处理每个告警事件（归一化、指纹计算、去重）
+   *   <li>并行处理每个告警事件（归一化、指纹计算），再整批去重
    * </ol>
    *
    * @param sourceId 告警源的唯一标识符，用于路由到适当的处理逻辑
@@ -83,56 +92,116 @@ public class IngestionLogic {
     metrics.recordSourceThroughput(sourceId);
 
     // 1. 验证告警源状态
-    validateSource(sourceId);
+    SourceSnapshot source = validateSource(sourceId);
 
     // 2. 查找并验证mapper
-    AlertMapper mapper = findMapper(sourceId);
+    AlertMapper mapper = findMapper(source);
 
     // 3. 解析原始负载为事件列表
     List<AlertEvent> events = parseEvents(mapper, rawPayload);
 
-    // 4. 并行处理事件（保留虚拟线程优化）
-    processEventsParallel(sourceId, events, startTime);
+    // 4. 并行处理事件（保留虚拟线程优化），整个负载共用一份接入计划
+    processEventsParallel(planCache.plan(sourceId), events, startTime);
+  }
+
+  /**
+   * 流式处理来自特定源的原始告警负载
+   *
+   * <p>与 {@link #process(String, String)} 的流程相同，但不把负载读入内存：映射器每解析出一条告警就立即提交到虚拟线程执行归一化和指纹计算，
+   * 解析与处理重叠进行。未注册专用映射器的数据源使用 {@link DefaultAlertMapper} 按标签映射配置流式解析。
+   *
+   * @param sourceId 告警源的唯一标识符
+   * @param rawPayload 来自告警源的原始JSON负载流
+   * @return 整批去重和投递完成时完成；去重提交失败时异常完成
+   * @throws SourceOfflineException 当指定的告警源处于离线状态时抛出
+   */
+  public CompletableFuture<Void> process(String sourceId, InputStream rawPayload) {
+    return process(sourceId, rawPayload, false);
+  }
+
+  /**
+   * 流式处理来自特定源的原始告警负载，可选丢弃低严重程度告警
+   *
+   * @param sourceId 告警源的唯一标识符
+   * @param rawPayload 来自告警源的原始JSON负载流
+   * @param shedLowSeverity 是否丢弃 {@link IngestionRateLimiter#isSheddable(AlertEvent)} 判定的低严重程度告警
+   * @return 整批去重和投递完成时完成；去重提交失败时异常完成
+   * @throws SourceOfflineException 当指定的告警源处于离线状态时抛出
+   */
+  public CompletableFuture<Void> process(
+      String sourceId, InputStream rawPayload, boolean shedLowSeverity) {
+    long startTime = System.nanoTime();
+
+    metrics.getReceivedTotal().increment();
+    metrics.recordSourceThroughput(sourceId);
+
+    // 1. 验证告警源状态
+    SourceSnapshot source = validateSource(sourceId);
+
+    // 2. 边解析边提交事件处理，整个负载共用一份接入计划
+    IngestionPlan plan = planCache.plan(sourceId);
+    List<CompletableFuture<AlertEvent>> futures = new ArrayList<>();
+    Consumer<AlertEvent> sink =
+        event -> {
+          if (shedLowSeverity && rateLimiter.isSheddable(event)) {
+            metrics.recordRateLimitShed(sourceId, "low_severity");
+            return;
+          }
+          futures.add(submitEvent(plan, event));
+        };
+    AlertMapper mapper = source.mapper();
+    if (mapper != null) {
+      mapper.map(rawPayload, sink);
+    } else {
+      defaultMapper.stream(plan, rawPayload, sink);
+    }
+    log.debug("Parsed {} events from source stream", futures.size());
+
+    // 3. 等待处理完成后整批去重
+    return completeEvents(sourceId, futures, startTime);
   }
 
   /**
    * 验证指定告警源的当前状态
    *
    * <p>该方法检查告警源是否处于在线状态，只有在线的源才能处理告警。 如果源处于离线状态，则抛出{@link SourceOfflineException}异常， 阻止后续处理流程继续执行。
+   * 状态、映射器等信息来自同一个不可变快照，一次无锁读取。
    *
    * @param sourceId 需要验证的告警源唯一标识符
-   * @throws SourceOfflineException 当告警源处于离线状态时抛出，阻止进一步处理
+   * @return 告警源快照
+   * @throws SourceOfflineException 当告警源未登记或处于离线状态时抛出，阻止进一步处理
    * @since 2026.01.28
    */
-  private void validateSource(String sourceId) {
-    boolean isOnline = sourceStatusService.isOnline(sourceId);
+  public SourceSnapshot validateSource(String sourceId) {
+    SourceSnapshot source = sourceStatusService.snapshot(sourceId);
 
-    if (!isOnline) {
+    if (source == null || !source.online()) {
       log.error("Alert source is offline: {}", sourceId);
       throw new SourceOfflineException(sourceId);
     }
 
     log.debug("Source validation passed: {}", sourceId);
+    return source;
   }
 
   /**
    * 根据源ID查找并验证对应的告警映射器
    *
-   * <p>该方法在预加载的映射器注册表中查找与指定源ID匹配的映射器。 如果找不到相应的映射器，则记录错误并增加监控指标， 最终抛出{@link
+   * <p>映射器已在告警源快照中解析。 如果找不到相应的映射器，则记录错误并增加监控指标， 最终抛出{@link
    * MapperNotFoundException}异常。
    *
-   * @param sourceId 需要查找映射器的源唯一标识符
+   * @param source 已通过验证的告警源快照
    * @return 对应于指定源ID的告警映射器实例
    * @throws MapperNotFoundException 当没有为给定源ID找到合适的映射器时抛出
    * @since 2026.01.28
    */
-  private AlertMapper findMapper(String sourceId) {
+  private AlertMapper findMapper(SourceSnapshot source) {
     long mapperLookupStart = System.nanoTime();
-    AlertMapper mapper = mapperRegistry.get(sourceId);
+    AlertMapper mapper = source.mapper();
     if (mapper == null) {
-      log.error("Mapper not found for source: {}", sourceId);
+      log.error("Mapper not found for source: {}", source.sourceId());
       metrics.getMapperNotFoundTotal().increment();
-      throw new MapperNotFoundException(sourceId);
+      throw new MapperNotFoundException(source.sourceId());
     }
     metrics
         .getMapperLookupLatency()
@@ -159,118 +228,229 @@ public class IngestionLogic {
   /**
    * 使用虚拟线程并行处理事件列表
    *
-   * <p>该方法利用Java的虚拟线程技术，对传入的事件列表中的每个事件进行并行处理。 每个事件都在独立的虚拟线程中执行，通过{@link
-   * #processAndAggregateEvent(String, AlertEvent)}方法 完成归一化、指纹计算和去重等处理步骤。此方法确保所有事件处理完成后才继续，
+   * <p>该方法利用Java的虚拟线程技术，对传入的事件列表中的每个事件并行执行归一化和指纹计算（{@link
+   * #processAndAggregateEvent(IngestionPlan, AlertEvent)}），全部完成后把整批事件一次性提交去重，
    * 同时记录总体处理延迟。
    *
-   * @param sourceId 事件所属的源ID，用于上下文追踪
+   * @param plan 事件所属源的接入计划
    * @param events 需要并行处理的告警事件列表
    * @param startTime 整个处理流程的起始时间，用于计算总体延迟
    * @since 2026.01.28
    */
-  private void processEventsParallel(String sourceId, List<AlertEvent> events, long startTime) {
-    List<CompletableFuture<Void>> futures =
-        events.stream()
-            .map(
-                event ->
-                    CompletableFuture.runAsync(
-                        () -> {
-                          try {
-                            processAndAggregateEvent(sourceId, event);
-                            metrics.getProcessedTotal().increment();
-                          } catch (Exception e) {
-                            log.error(
-                                "Failed to process event: sourceId={}, eventId={}",
-                                sourceId,
-                                event.id(),
-                                e);
-                            metrics.getErrorTotal().increment();
-                          }
-                        },
-                        virtualThreadExecutor))
-            .toList();
+  private void processEventsParallel(IngestionPlan plan, List<AlertEvent> events, long startTime) {
+    List<CompletableFuture<AlertEvent>> futures =
+        events.stream().map(event -> submitEvent(plan, event)).toList();
+    completeEvents(plan.sourceId(), futures, startTime);
+  }
 
+  /**
+   * 提交单个事件到虚拟线程执行归一化和指纹计算
+   *
+   * @param plan 事件所属源的接入计划
+   * @param event 原始告警事件
+   * @return 处理结果，失败时结果为 null
+   */
+  private CompletableFuture<AlertEvent> submitEvent(IngestionPlan plan, AlertEvent event) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return processAndAggregateEvent(plan, event);
+          } catch (Exception e) {
+            log.error(
+                "Failed to process event: sourceId={}, eventId={}",
+                plan.sourceId(),
+                event.id(),
+                e);
+            metrics.getErrorTotal().increment();
+            return null;
+          }
+        },
+        virtualThreadExecutor);
+  }
+
+  /**
+   * 等待一批事件处理完成，整批去重投递并记录总体延迟
+   *
+   * @param sourceId 事件所属的源ID
+   * @param futures 已提交的事件处理任务
+   * @param startTime 整个处理流程的起始时间
+   * @return 去重和投递完成时完成
+   */
+  private CompletableFuture<Void> completeEvents(
+      String sourceId, List<CompletableFuture<AlertEvent>> futures, long startTime) {
     // 等待所有事件处理完成
     CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
+    List<AlertEvent> finalEvents = new ArrayList<>(futures.size());
+    for (CompletableFuture<AlertEvent> future : futures) {
+      AlertEvent finalEvent = future.join();
+      if (finalEvent != null) {
+        finalEvents.add(finalEvent);
+      }
+    }
+
+    // 整批去重 + 投递
+    CompletableFuture<Void> published = deduplicateAndPublish(sourceId, finalEvents);
+
     // 记录总延迟
     metrics.getProcessLatency().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    return published;
   }
 
   /**
-   * 处理单个告警事件的完整生命周期
+   * 处理单个告警事件的归一化和指纹计算
    *
-   * <p>该方法执行单个告警事件的完整处理流程，包括标签归一化、指纹计算和去重/发布决策。 处理步骤按顺序执行：
+   * <p>处理步骤按顺序执行：
    *
    * <ol>
    *   <li>使用标签归一化器对事件的标签进行标准化处理
    *   <li>基于归一化后的标签计算告警指纹
    *   <li>创建带有新指纹和归一化标签的新事件对象
-   *   <li>记录严重程度分布统计
-   *   <li>将处理后的事件传递给去重和发布流程
    * </ol>
    *
-   * @param sourceId 事件所属的源ID，用于上下文和归一化规则
+   * @param plan 事件所属源的接入计划，提供归一化规则和指纹排除标签
    * @param event 待处理的原始告警事件对象
+   * @return 以指纹为 ID、标签已归一化的告警事件
    * @since 2026.01.28
    */
-  private void processAndAggregateEvent(String sourceId, AlertEvent event) {
+  private AlertEvent processAndAggregateEvent(IngestionPlan plan, AlertEvent event) {
+    String sourceId = plan.sourceId();
+
     // 1. 标签归一化
     long normStart = System.nanoTime();
-    Map<String, String> cleanLabels = normalizer.normalize(event.labels(), sourceId);
+    Map<String, String> cleanLabels = normalizer.normalize(event.labels(), plan);
     metrics.getNormalizationLatency().record(System.nanoTime() - normStart, TimeUnit.NANOSECONDS);
 
     // 2. 指纹计算
     long fpStart = System.nanoTime();
-    String fingerprint = AlertFingerprinter.calculate(cleanLabels);
+    String fingerprint =
+        AlertFingerprinter.calculate(
+            cleanLabels, plan.excludedIdentityLabels(), config.fingerprintAlgorithm());
     metrics.getFingerprintLatency().record(System.nanoTime() - fpStart, TimeUnit.NANOSECONDS);
 
-    // 创建新的事件副本（使用指纹作为 ID，归一化后的标签）
-    AlertEvent finalEvent =
-        new AlertEvent(
-            fingerprint,
-            sourceId,
-            event.summary(),
-            cleanLabels,
-            event.occurrenceCount(),
-            event.firstSeenAt(),
-            event.lastSeenAt(),
-            event.status(),
-            event.severity());
-
-    // 4. 去重判断 + 投递
-    deduplicateAndPublish(finalEvent);
+    // 3. 创建新的事件副本（使用指纹作为 ID，归一化后的标签）
+    return new AlertEvent(
+        fingerprint,
+        sourceId,
+        event.summary(),
+        cleanLabels,
+        event.occurrenceCount(),
+        event.firstSeenAt(),
+        event.lastSeenAt(),
+        event.status(),
+        event.severity());
   }
 
   /**
-   * 执行告警事件的去重检查并将结果发布
+   * 对一批告警事件执行去重检查并发布新告警
    *
-   * <p>该方法通过去重存储检查事件是否为新事件或已存在事件。 去重逻辑基于配置的时间窗口和最大计数阈值进行判断。 方法以异步方式执行去重检查，并在完成后调用 {@link
-   * #handleDeduplicationResult(DeduplicationResult, AlertEvent)}处理结果。
+   * <p>整批指纹通过 {@link AlertDeduplicationStore#checkAndRecordAll} 一次提交，由 Hazelcast 按分区分组执行。
+   * 同一批次中指纹相同的事件只有第一条参与去重，其余直接计为重复；出现次数随批提交，与逐条提交一样计入去重存储的计数。
+   * 去重以异步方式执行，完成后调用 {@link #handleDeduplicationResult(DeduplicationResult, AlertEvent)}处理结果。新告警交给 {@link AlertEventPublisher}
+   * 按分区攒批发布，返回的 future 在本批所有新告警进入队列后完成。投递失败的新告警会撤销其去重记录（见
+   * {@link #forgetOnFailure(String, CompletableFuture)}），调用方重试同一负载时不会把它误判为重复。
    *
-   * @param event 需要去重检查的告警事件对象
+   * @param sourceId 事件所属的源ID
+   * @param events 需要去重检查的告警事件列表
+   * @return 去重和投递完成时完成；去重或投递失败时异常完成
    * @since 2026.01.28
    */
-  private void deduplicateAndPublish(AlertEvent event) {
+  private CompletableFuture<Void> deduplicateAndPublish(String sourceId, List<AlertEvent> events) {
+    if (events.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    Map<String, AlertEvent> firstByFingerprint = new LinkedHashMap<>();
+    Map<String, Integer> occurrences = new HashMap<>();
+    for (AlertEvent event : events) {
+      occurrences.merge(event.id(), 1, Integer::sum);
+      if (firstByFingerprint.putIfAbsent(event.id(), event) != null) {
+        metrics.getDeduplicationFilteredTotal().increment();
+        metrics.getProcessedTotal().increment();
+        log.debug("Duplicate alert filtered within batch: fingerprint={}", event.id());
+      }
+    }
+
     try {
-      CompletionStage<DeduplicationResult> resultFuture =
-          deduplicationStore.checkAndRecord(
-              event, config.deduplicationTimeWindowMs(), config.deduplicationMaxCount());
-
-      resultFuture
-          .thenAccept(result -> handleDeduplicationResult(result, event))
-          .exceptionally(
-              ex -> {
-                log.error("Failed to deduplicate event: fingerprint={}", event.id(), ex);
-                metrics.getErrorTotal().increment();
-                return null;
-              });
+      CompletionStage<Map<String, DeduplicationResult>> resultFuture =
+          deduplicationStore.checkAndRecordAll(
+              sourceId,
+              occurrences,
+              config.deduplicationTimeWindowMs(),
+              config.deduplicationMaxCount());
+
+      return resultFuture
+          .thenCompose(
+              results -> {
+                List<CompletableFuture<Void>> published = new ArrayList<>();
+                firstByFingerprint.forEach(
+                    (fingerprint, event) -> {
+                      DeduplicationResult result = results.get(fingerprint);
+                      if (result == null) {
+                        log.error("Missing deduplication result: fingerprint={}", fingerprint);
+                        metrics.getErrorTotal().increment();
+                        return;
+                      }
+                      CompletableFuture<Void> publish = handleDeduplicationResult(result, event);
+                      if (publish != null) {
+                        published.add(forgetOnFailure(fingerprint, publish));
+                      }
+                      metrics.getProcessedTotal().increment();
+                    });
+                return CompletableFuture.allOf(published.toArray(new CompletableFuture[0]));
+              })
+          .whenComplete(
+              (ignored, ex) -> {
+                if (ex != null) {
+                  log.error(
+                      "Failed to deduplicate or publish batch: sourceId={}, size={}",
+                      sourceId,
+                      firstByFingerprint.size(),
+                      ex);
+                  metrics.getErrorTotal().increment();
+                }
+              })
+          .toCompletableFuture();
     } catch (Exception e) {
-      log.error("Failed to submit deduplication: fingerprint={}", event.id(), e);
+      log.error(
+          "Failed to submit deduplication: sourceId={}, size={}",
+          sourceId,
+          firstByFingerprint.size(),
+          e);
       metrics.getErrorTotal().increment();
+      return CompletableFuture.failedFuture(e);
     }
   }
 
+  /**
+   * 新告警投递失败时撤销其去重记录
+   *
+   * <p>去重条目在投递之前写入。若投递失败后保留该条目，WAL 重放或客户端重试同一负载时这条告警会被判为重复而跳过，
+   * 调用方却认为处理成功，告警就此丢失。撤销完成后仍以投递异常完成，保证重试发生在撤销之后。
+   *
+   * @param fingerprint 告警指纹
+   * @param publish 投递 future
+   * @return 投递成功时完成；投递失败时在撤销去重记录后以原异常完成
+   */
+  private CompletableFuture<Void> forgetOnFailure(
+      String fingerprint, CompletableFuture<Void> publish) {
+    return publish.exceptionallyCompose(
+        error ->
+            deduplicationStore
+                .forget(fingerprint)
+                .<Void>handle(
+                    (ignored, forgetError) -> {
+                      if (forgetError != null) {
+                        log.error(
+                            "Failed to forget deduplication entry: fingerprint={}",
+                            fingerprint,
+                            forgetError);
+                      }
+                      return null;
+                    })
+                .thenCompose(ignored -> CompletableFuture.<Void>failedFuture(error)));
+  }
+
   /**
    * 处理去重检查的结果并相应地发布或过滤告警事件
    *
@@ -279,17 +459,19 @@ public class IngestionLogic {
    *
    * @param result 告警去重检查的结果对象，包含是否为新告警和当前计数信息
    * @param event 基于去重结果需要相应处理的告警事件对象
+   * @return 新告警进入队列后完成的 future；重复告警返回 null
    * @since 2026.01.28
    */
-  private void handleDeduplicationResult(DeduplicationResult result, AlertEvent event) {
+  private CompletableFuture<Void> handleDeduplicationResult(
+      DeduplicationResult result, AlertEvent event) {
     if (result.isNewAlert()) {
-      eventPublisher.publish(event);
       metrics.getDeduplicationPassedTotal().increment();
-      log.debug("New alert published: fingerprint={}", event.id());
-    } else {
-      metrics.getDeduplicationFilteredTotal().increment();
-      log.debug(
-          "Duplicate alert filtered: fingerprint={}, count={}", event.id(), result.currentCount());
+      log.debug("New alert queued for publish: fingerprint={}", event.id());
+      return eventPublisher.publish(event);
     }
+    metrics.getDeduplicationFilteredTotal().increment();
+    log.debug(
+        "Duplicate alert filtered: fingerprint={}, count={}", event.id(), result.currentCount());
+    return null;
   }
 }
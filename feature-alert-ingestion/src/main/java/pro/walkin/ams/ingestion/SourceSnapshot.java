@@ -0,0 +1,23 @@
+package pro.walkin.ams.ingestion;
+
+/**
+ * 告警源快照
+ *
+ * <p>接入路径需要的告警源信息的不可变副本，由 {@link SourceStatusService} 在集群状态变更时整体替换，请求线程只做一次无锁读取。
+ *
+ * @param sourceId 告警源 ID
+ * @param online 是否在线
+ * @param protocol 协议类型，未知时为 null
+ * @param tenantId 所属租户 ID，未知时为 null
+ * @param mapper 专用映射器，未注册时为 null（使用默认映射器）
+ * @param rateLimitBurst 该告警源的限流桶容量
+ * @param rateLimitRefillPerSecond 该告警源每秒补充的令牌数
+ */
+public record SourceSnapshot(
+    String sourceId,
+    boolean online,
+    String protocol,
+    Long tenantId,
+    AlertMapper mapper,
+    double rateLimitBurst,
+    double rateLimitRefillPerSecond) {}
@@ -3,44 +3,71 @@ package pro.walkin.ams.ingestion;
 import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapEvent;
 import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
 import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.common.dto.ingestion.SourceRuntimeStatus;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
 import pro.walkin.ams.persistence.entity.modeling.AlertSource_;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 来源状态服务：管理告警源的在线/离线状态
  *
- * <p>职责： 1. 维护告警源的本地缓存（极速读取） 2. 同步集群分布式状态（多节点一致） 3. 监听状态变更并自动更新本地缓存
+ * <p>职责： 1. 维护告警源的本地快照（极速读取） 2. 同步集群分布式状态（多节点一致） 3. 监听状态变更并自动更新本地快照
+ *
+ * <p>集群 Map 的新增、更新、删除、驱逐、过期和清空都会同步到本地，每个告警源在本地对应一个不可变的 {@link SourceSnapshot}，
+ * 包含在线状态、协议、租户、专用映射器和限流参数；接入路径只做一次无锁读取。
  */
 @ApplicationScoped
 public class SourceStatusService {
   private static final Logger log = LoggerFactory.getLogger(SourceStatusService.class);
 
   private final HazelcastInstance hz;
+  private final Instance<AlertMapper> alertMappers;
+  private final AlertIngestionConfig config;
+
+  /** 本地快照：提供极速读取。 即使 Hazelcast 抖动，本地依然有一份状态副本。 */
+  private final ConcurrentHashMap<String, SourceSnapshot> localSnapshots =
+      new ConcurrentHashMap<>();
 
-  /** 本地缓存：提供极速读取。 即使 Hazelcast 抖动，本地依然有一份状态副本。 */
-  private final ConcurrentHashMap<String, Boolean> localStatusCache = new ConcurrentHashMap<>();
+  private final Map<String, AlertMapper> mapperRegistry = new HashMap<>();
 
   /** 集群分布式 Map：所有节点共享的状态真相。 */
-  private IMap<String, Boolean> clusterStatusMap;
+  private IMap<String, SourceRuntimeStatus> clusterStatusMap;
 
-  public SourceStatusService(HazelcastInstance hz) {
+  public SourceStatusService(
+      HazelcastInstance hz, Instance<AlertMapper> alertMappers, AlertIngestionConfig config) {
     this.hz = hz;
+    this.alertMappers = alertMappers;
+    this.config = config;
   }
 
   @PostConstruct
   public void init() {
+    for (AlertMapper alertMapper : alertMappers) {
+      mapperRegistry.put(alertMapper.source(), alertMapper);
+    }
+
     // 1. 初始化分布式 Map 并挂载监听器
-    clusterStatusMap = hz.getMap("ams-source-runtime-status");
+    clusterStatusMap = hz.getMap(Constants.Cluster.SOURCE_RUNTIME_STATUS_MAP);
 
     // 监听集群中的变更，同步到本地内存
-    clusterStatusMap.addEntryListener(new SourceStatusListener(localStatusCache), true);
+    clusterStatusMap.addEntryListener(new SourceStatusListener(), true);
 
     // 2. 引导启动 (Bootstrap)
     // 只有当集群 Map 为空时（例如整个集群首次冷启动），才从数据库加载
@@ -51,56 +78,120 @@ public class SourceStatusService {
           .findAll()
           .list()
           .forEach(
-              source -> {
-                clusterStatusMap.put(source.name, source.isEnabled);
-              });
+              source ->
+                  clusterStatusMap.put(
+                      source.name,
+                      new SourceRuntimeStatus(
+                          Boolean.TRUE.equals(source.isEnabled), source.protocol, source.tenant)));
     }
 
-    // 3. 预填充本地缓存
-    localStatusCache.putAll(clusterStatusMap);
-    log.info("SourceStatusService initialized with {} sources.", localStatusCache.size());
+    // 3. 预填充本地快照
+    clusterStatusMap.forEach(this::refresh);
+    log.info("SourceStatusService initialized with {} sources.", localSnapshots.size());
+  }
+
+  /**
+   * 获取告警源快照
+   *
+   * @param sourceId 告警源 ID
+   * @return 快照；未登记的告警源返回 null
+   */
+  public SourceSnapshot snapshot(String sourceId) {
+    return localSnapshots.get(sourceId);
   }
 
   /** 极速判断：Ingestion 拦截器调用此方法 */
   public boolean isOnline(String sourceId) {
-    // 如果找不到，默认 true 或 false 取决于你的安全策略，这里建议默认禁用
-    Boolean status = localStatusCache.get(sourceId);
-    return status != null ? status : false;
+    // 未登记的告警源视为离线
+    SourceSnapshot snapshot = localSnapshots.get(sourceId);
+    return snapshot != null && snapshot.online();
   }
 
-  /** 管理端调用：更新状态 会触发所有节点的监听器，从而自动更新所有节点的 localStatusCache */
+  /** 管理端调用：更新状态 会触发所有节点的监听器，从而自动更新所有节点的本地快照；协议和租户保持不变 */
   public void updateStatus(String sourceId, boolean online) {
     log.info("Updating source [{}] status to: {}", sourceId, online);
-    clusterStatusMap.put(sourceId, online);
+    clusterStatusMap.compute(
+        sourceId,
+        (key, current) ->
+            current != null
+                ? current.withOnline(online)
+                : new SourceRuntimeStatus(online, null, null));
 
     // 记得同步更新数据库，保证下次集群冷启动时数据正确
     // 这里建议异步处理或由专门的 AdminService 处理
   }
 
-  /** 监听器：监听集群状态变更，同步到本地缓存 */
-  private static class SourceStatusListener
-      implements EntryAddedListener<String, Boolean>, EntryUpdatedListener<String, Boolean> {
+  /** 根据集群状态重建告警源快照 */
+  private void refresh(String sourceId, SourceRuntimeStatus status) {
+    if (status == null) {
+      localSnapshots.remove(sourceId);
+      return;
+    }
+
+    AlertIngestionConfig.RateLimit rateLimit = config.rateLimit();
+    AlertIngestionConfig.SourceLimit override = rateLimit.sources().get(sourceId);
+    double burst = rateLimit.sourceBurst();
+    double refillPerSecond = rateLimit.sourceRefillPerSecond();
+    if (override != null) {
+      burst = override.burst().orElse(burst);
+      refillPerSecond = override.refillPerSecond().orElse(refillPerSecond);
+    }
+
+    localSnapshots.put(
+        sourceId,
+        new SourceSnapshot(
+            sourceId,
+            status.online(),
+            status.protocol(),
+            status.tenantId(),
+            mapperRegistry.get(sourceId),
+            burst,
+            refillPerSecond));
+  }
+
+  /** 监听器：监听集群状态变更，同步到本地快照 */
+  private class SourceStatusListener
+      implements EntryAddedListener<String, SourceRuntimeStatus>,
+          EntryUpdatedListener<String, SourceRuntimeStatus>,
+          EntryRemovedListener<String, SourceRuntimeStatus>,
+          EntryEvictedListener<String, SourceRuntimeStatus>,
+          EntryExpiredListener<String, SourceRuntimeStatus>,
+          MapClearedListener,
+          MapEvictedListener {
 
-    private final ConcurrentHashMap<String, Boolean> cache;
+    @Override
+    public void entryAdded(EntryEvent<String, SourceRuntimeStatus> event) {
+      refresh(event.getKey(), event.getValue());
+    }
+
+    @Override
+    public void entryUpdated(EntryEvent<String, SourceRuntimeStatus> event) {
+      refresh(event.getKey(), event.getValue());
+    }
+
+    @Override
+    public void entryRemoved(EntryEvent<String, SourceRuntimeStatus> event) {
+      localSnapshots.remove(event.getKey());
+    }
+
+    @Override
+    public void entryEvicted(EntryEvent<String, SourceRuntimeStatus> event) {
+      localSnapshots.remove(event.getKey());
+    }
 
-    SourceStatusListener(ConcurrentHashMap<String, Boolean> cache) {
-      this.cache = cache;
+    @Override
+    public void entryExpired(EntryEvent<String, SourceRuntimeStatus> event) {
+      localSnapshots.remove(event.getKey());
     }
 
     @Override
-    public void entryAdded(EntryEvent<String, Boolean> event) {
-      Boolean value = event.getValue();
-      if (value != null) {
-        cache.put(event.getKey(), value);
-      }
+    public void mapCleared(MapEvent event) {
+      localSnapshots.clear();
     }
 
     @Override
-    public void entryUpdated(EntryEvent<String, Boolean> event) {
-      Boolean value = event.getValue();
-      if (value != null) {
-        cache.put(event.getKey(), value);
-      }
+    public void mapEvicted(MapEvent event) {
+      localSnapshots.clear();
     }
   }
 }
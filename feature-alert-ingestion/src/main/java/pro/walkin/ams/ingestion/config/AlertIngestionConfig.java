@@ -1,6 +1,12 @@
 package pro.walkin.ams.ingestion.config;
 
 import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import pro.walkin.ams.ingestion.processor.AlertFingerprinter.FingerprintAlgorithm;
+
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
 
 /**
  * 告警接入模块配置类
@@ -18,4 +24,205 @@ public interface AlertIngestionConfig {
 
   /** 队列发布超时时间（毫秒） 默认值：100ms */
   long queueOfferTimeoutMs();
+
+  /** 告警事件批量发布配置 */
+  Publish publish();
+
+  /**
+   * 指纹算法 默认值：MD5，与已有告警和去重状态中的指纹一致
+   *
+   * <p>改为 MURMUR3_128 后所有指纹都会变化：去重窗口和未关闭的告警不再匹配新到的告警，切换期间每条活跃告警都会生成新告警。
+   * 只应在全新部署，或清空去重状态且接受活跃告警重新生成时启用。
+   */
+  @WithDefault("MD5")
+  FingerprintAlgorithm fingerprintAlgorithm();
+
+  /** 异步接入预写日志配置 */
+  Wal wal();
+
+  /** 接入限流配置 */
+  RateLimit rateLimit();
+
+  /** HTTP 之外的接入连接器配置 */
+  Connectors connectors();
+
+  /** 告警事件批量发布配置 */
+  interface Publish {
+
+    /** 单个分区队列攒够多少条事件后立即发布，1 表示逐条发布 默认值：200 */
+    @WithDefault("200")
+    int batchSize();
+
+    /** 首条事件进入缓冲后最多等待的时间（毫秒） 默认值：5 */
+    @WithDefault("5")
+    long batchWaitMs();
+  }
+
+  /** 异步接入预写日志配置 */
+  interface Wal {
+
+    /** 是否启用异步接入：负载写入本地预写日志后立即返回 202 默认值：false */
+    @WithDefault("false")
+    boolean enabled();
+
+    /** 段文件目录 默认值：data/ingestion-wal */
+    @WithDefault("data/ingestion-wal")
+    String directory();
+
+    /** 单个段文件大小（MB），同时限制单个负载的大小 默认值：64 */
+    @WithDefault("64")
+    int segmentSizeMb();
+
+    /** 并发处理负载的工作线程数 默认值：4 */
+    @WithDefault("4")
+    int workers();
+
+    /** 无新记录时的轮询间隔（毫秒） 默认值：20 */
+    @WithDefault("20")
+    long pollIntervalMs();
+
+    /** 单个负载的最大处理次数 默认值：5 */
+    @WithDefault("5")
+    int maxAttempts();
+
+    /** 首次重试延迟（毫秒），之后每次翻倍 默认值：500 */
+    @WithDefault("500")
+    long retryDelayMs();
+
+    /** 每次追加后强制刷盘；关闭时依赖操作系统页缓存，可在进程崩溃后恢复，但不能防止断电丢失 默认值：false */
+    @WithDefault("false")
+    boolean forceOnAppend();
+  }
+
+  /** 接入限流配置：按告警源和租户的集群级令牌桶，每个负载消耗一个令牌 */
+  interface RateLimit {
+
+    /** 是否启用限流 默认值：false */
+    @WithDefault("false")
+    boolean enabled();
+
+    /** 单个告警源的桶容量（允许的突发负载数） 默认值：200 */
+    @WithDefault("200")
+    double sourceBurst();
+
+    /** 单个告警源每秒补充的令牌数，必须大于 0 默认值：100 */
+    @WithDefault("100")
+    double sourceRefillPerSecond();
+
+    /** 单个租户的桶容量（允许的突发负载数） 默认值：1000 */
+    @WithDefault("1000")
+    double tenantBurst();
+
+    /** 单个租户每秒补充的令牌数，必须大于 0 默认值：500 */
+    @WithDefault("500")
+    double tenantRefillPerSecond();
+
+    /** 卸载策略 默认值：LOW_SEVERITY_FIRST */
+    @WithDefault("LOW_SEVERITY_FIRST")
+    ShedPolicy shedPolicy();
+
+    /** 剩余令牌低于桶容量的该比例时开始丢弃低严重程度告警 默认值：0.2 */
+    @WithDefault("0.2")
+    double shedReserveRatio();
+
+    /** 可优先丢弃的严重程度（不区分大小写） 默认值：LOW,INFO */
+    @WithDefault("LOW,INFO")
+    Set<String> shedSeverities();
+
+    /** 按告警源覆盖桶参数（告警源 ID → 参数），未覆盖的项使用 source-burst / source-refill-per-second */
+    Map<String, SourceLimit> sources();
+  }
+
+  /** 单个告警源的限流桶参数覆盖 */
+  interface SourceLimit {
+
+    /** 桶容量 */
+    OptionalDouble burst();
+
+    /** 每秒补充的令牌数，必须大于 0 */
+    OptionalDouble refillPerSecond();
+  }
+
+  /** 接近限额时的卸载策略 */
+  enum ShedPolicy {
+    /** 令牌耗尽前全部放行，耗尽后整体拒绝 */
+    NONE,
+
+    /** 剩余令牌进入预留区后丢弃低严重程度告警，为高严重程度告警保留容量 */
+    LOW_SEVERITY_FIRST
+  }
+
+  /** HTTP 之外的接入连接器配置 */
+  interface Connectors {
+
+    /** 单批最多合并的记录数 默认值：500 */
+    @WithDefault("500")
+    int batchSize();
+
+    /** 首条记录进入批次后最多等待的时间（毫秒） 默认值：50 */
+    @WithDefault("50")
+    long batchWaitMs();
+
+    /** 单个连接器同时处理的批次数，超过时暂停读取 TCP 连接 默认值：8 */
+    @WithDefault("8")
+    int maxInFlightBatches();
+
+    /** 单条记录的最大字节数，超过时关闭 TCP 连接或丢弃 UDP 报文 默认值：65536 */
+    @WithDefault("65536")
+    int maxRecordBytes();
+
+    /** 换行分隔 JSON 的 TCP 连接器 */
+    Ndjson ndjson();
+
+    /** RFC 5424 syslog 连接器 */
+    Syslog syslog();
+  }
+
+  /** 换行分隔 JSON 的 TCP 连接器配置 */
+  interface Ndjson {
+
+    /** 是否启用 默认值：false */
+    @WithDefault("false")
+    boolean enabled();
+
+    /** 接收到的告警归属的告警源 ID 默认值：ndjson */
+    @WithDefault("ndjson")
+    String sourceId();
+
+    /** 监听地址 默认值：0.0.0.0 */
+    @WithDefault("0.0.0.0")
+    String host();
+
+    /** 监听端口 默认值：9410 */
+    @WithDefault("9410")
+    int port();
+  }
+
+  /** RFC 5424 syslog 连接器配置 */
+  interface Syslog {
+
+    /** 是否启用 默认值：false */
+    @WithDefault("false")
+    boolean enabled();
+
+    /** 接收到的告警归属的告警源 ID 默认值：syslog */
+    @WithDefault("syslog")
+    String sourceId();
+
+    /** 监听地址 默认值：0.0.0.0 */
+    @WithDefault("0.0.0.0")
+    String host();
+
+    /** 监听端口，UDP 和 TCP 共用 默认值：5514 */
+    @WithDefault("5514")
+    int port();
+
+    /** 是否监听 UDP 默认值：true */
+    @WithDefault("true")
+    boolean udp();
+
+    /** 是否监听 TCP（按换行分帧，即 RFC 6587 非透明帧） 默认值：true */
+    @WithDefault("true")
+    boolean tcp();
+  }
 }
@@ -0,0 +1,229 @@
+package pro.walkin.ams.ingestion.connector;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.common.dto.ingestion.RateLimitDecision;
+import pro.walkin.ams.common.exception.SourceOfflineException;
+import pro.walkin.ams.ingestion.IngestionLogic;
+import pro.walkin.ams.ingestion.SourceSnapshot;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+import pro.walkin.ams.ingestion.ratelimit.IngestionRateLimiter;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 连接器批处理器
+ *
+ * <p>把连接器收到的单条 JSON 记录拼接为 JSON 数组，达到 {@code batch-size} 条或首条记录等待超过 {@code batch-wait-ms}
+ * 后作为一个负载交给 {@link IngestionLogic#process(String, InputStream)}。批次缓冲区在处理完成后归还到池中复用，
+ * 稳定负载下不再分配新的缓冲区。
+ *
+ * <p>每个批次作为一个负载向 {@link IngestionRateLimiter} 申请令牌。令牌不足时批次在虚拟线程上等待后重试，不丢弃；
+ * 等待期间批次占用在途名额，在途批次达到 {@code max-in-flight-batches} 时调用 {@code onSaturated}（连接器暂停读取），
+ * 回落后调用 {@code onDrained}。{@link #add(Buffer)} 可由多个事件循环线程并发调用。
+ */
+public final class IngestionBatcher {
+
+  private static final Logger log = LoggerFactory.getLogger(IngestionBatcher.class);
+
+  private final String connector;
+  private final String sourceId;
+  private final IngestionLogic logic;
+  private final IngestionRateLimiter rateLimiter;
+  private final IngestionMetrics metrics;
+  private final ExecutorService executor;
+  private final Runnable onSaturated;
+  private final Runnable onDrained;
+
+  private final Vertx vertx;
+  private final int batchSize;
+  private final long batchWaitNanos;
+  private final int maxInFlight;
+  private final long timerId;
+
+  private final Queue<BatchBuffer> pool = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private BatchBuffer current;
+  private long currentStartedAt;
+
+  public IngestionBatcher(
+      String connector,
+      String sourceId,
+      Vertx vertx,
+      AlertIngestionConfig.Connectors config,
+      IngestionLogic logic,
+      IngestionRateLimiter rateLimiter,
+      IngestionMetrics metrics,
+      ExecutorService executor,
+      Runnable onSaturated,
+      Runnable onDrained) {
+    this.connector = connector;
+    this.sourceId = sourceId;
+    this.logic = logic;
+    this.rateLimiter = rateLimiter;
+    this.metrics = metrics;
+    this.executor = executor;
+    this.onSaturated = onSaturated;
+    this.onDrained = onDrained;
+    this.vertx = vertx;
+    this.batchSize = Math.max(1, config.batchSize());
+    this.batchWaitNanos = config.batchWaitMs() * 1_000_000L;
+    this.maxInFlight = Math.max(1, config.maxInFlightBatches());
+    this.timerId = vertx.setPeriodic(Math.max(1L, config.batchWaitMs()), id -> flushExpired());
+  }
+
+  /**
+   * 追加一条 JSON 记录
+   *
+   * @param record 单个 JSON 值的 UTF-8 字节，调用方负责校验其为合法 JSON
+   */
+  public synchronized void add(Buffer record) {
+    if (current == null) {
+      current = borrow();
+      currentStartedAt = System.nanoTime();
+    }
+    current.append(record);
+    if (current.records >= batchSize) {
+      dispatch();
+    }
+  }
+
+  /** 提交当前未满的批次 */
+  public synchronized void flush() {
+    if (current != null) {
+      dispatch();
+    }
+  }
+
+  /** 停止定时提交并提交剩余记录 */
+  public void close() {
+    vertx.cancelTimer(timerId);
+    flush();
+  }
+
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void flushExpired() {
+    if (current != null && System.nanoTime() - currentStartedAt >= batchWaitNanos) {
+      dispatch();
+    }
+  }
+
+  /** 调用方持有锁 */
+  private void dispatch() {
+    BatchBuffer batch = current;
+    current = null;
+    batch.finish();
+
+    if (inFlight.incrementAndGet() >= maxInFlight) {
+      onSaturated.run();
+    }
+    executor.execute(() -> process(batch));
+  }
+
+  private void process(BatchBuffer batch) {
+    try {
+      metrics.recordConnectorBatch(connector, batch.records);
+      RateLimitDecision decision = admit();
+      logic
+          .process(
+              sourceId, batch.inputStream(), rateLimiter.shouldShedLowSeverity(decision))
+          .join();
+    } catch (SourceOfflineException e) {
+      log.warn(
+          "Connector batch dropped, source offline: connector={}, sourceId={}",
+          connector,
+          sourceId);
+      metrics.recordConnectorDropped(connector, "process_error", batch.records);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn(
+          "Connector batch dropped while waiting for rate limit: connector={}, records={}",
+          connector,
+          batch.records);
+      metrics.recordConnectorDropped(connector, "rate_limit", batch.records);
+    } catch (Exception e) {
+      log.error("Connector batch failed: connector={}, records={}", connector, batch.records, e);
+      metrics.recordConnectorDropped(connector, "process_error", batch.records);
+    } finally {
+      batch.reset();
+      pool.offer(batch);
+      if (inFlight.decrementAndGet() < maxInFlight) {
+        onDrained.run();
+      }
+    }
+  }
+
+  /** 为批次申请一个令牌，令牌不足时按限流器给出的间隔等待后重试 */
+  private RateLimitDecision admit() throws InterruptedException {
+    SourceSnapshot source = logic.validateSource(sourceId);
+    while (true) {
+      RateLimitDecision decision = rateLimiter.acquire(source);
+      if (decision.admitted()) {
+        return decision;
+      }
+      Thread.sleep(Math.max(1L, decision.retryAfterMillis()));
+    }
+  }
+
+  private BatchBuffer borrow() {
+    BatchBuffer batch = pool.poll();
+    return batch != null ? batch : new BatchBuffer();
+  }
+
+  /** 可复用的批次缓冲区，内容为 {@code [record,record,...]} */
+  private static final class BatchBuffer {
+
+    private byte[] bytes = new byte[16 * 1024];
+    private int size;
+    private int records;
+
+    BatchBuffer() {
+      reset();
+    }
+
+    void append(Buffer record) {
+      int length = record.length();
+      ensureCapacity(length + 2);
+      if (records > 0) {
+        bytes[size++] = ',';
+      }
+      record.getBytes(0, length, bytes, size);
+      size += length;
+      records++;
+    }
+
+    void finish() {
+      ensureCapacity(1);
+      bytes[size++] = ']';
+    }
+
+    void reset() {
+      bytes[0] = '[';
+      size = 1;
+      records = 0;
+    }
+
+    InputStream inputStream() {
+      return new ByteArrayInputStream(bytes, 0, size);
+    }
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+      }
+    }
+  }
+}
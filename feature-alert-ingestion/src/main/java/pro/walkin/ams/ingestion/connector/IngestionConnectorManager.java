@@ -0,0 +1,99 @@
+package pro.walkin.ams.ingestion.connector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.ingestion.IngestionLogic;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.connector.ndjson.NdjsonTcpConnector;
+import pro.walkin.ams.ingestion.connector.syslog.SyslogConnector;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+import pro.walkin.ams.ingestion.ratelimit.IngestionRateLimiter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接入连接器生命周期管理
+ *
+ * <p>应用启动时按 {@code ams.alert.ingestion.connectors} 配置启动 HTTP 之外的连接器，关闭时先停止监听、提交剩余批次，
+ * 再等待在途批次处理完成。批次在虚拟线程上执行 {@link IngestionLogic#process}，不占用事件循环线程。
+ */
+@ApplicationScoped
+public class IngestionConnectorManager {
+
+  private static final Logger log = LoggerFactory.getLogger(IngestionConnectorManager.class);
+
+  private final Vertx vertx;
+  private final AlertIngestionConfig.Connectors config;
+  private final IngestionLogic logic;
+  private final IngestionRateLimiter rateLimiter;
+  private final IngestionMetrics metrics;
+  private final ObjectMapper objectMapper;
+
+  private final List<IngestionConnector> connectors = new ArrayList<>();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public IngestionConnectorManager(
+      Vertx vertx,
+      AlertIngestionConfig config,
+      IngestionLogic logic,
+      IngestionRateLimiter rateLimiter,
+      IngestionMetrics metrics,
+      ObjectMapper objectMapper) {
+    this.vertx = vertx;
+    this.config = config.connectors();
+    this.logic = logic;
+    this.rateLimiter = rateLimiter;
+    this.metrics = metrics;
+    this.objectMapper = objectMapper;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (config.ndjson().enabled()) {
+      connectors.add(
+          new NdjsonTcpConnector(
+              vertx, config, logic, rateLimiter, metrics, objectMapper, executor));
+    }
+    if (config.syslog().enabled()) {
+      connectors.add(
+          new SyslogConnector(vertx, config, logic, rateLimiter, metrics, objectMapper, executor));
+    }
+
+    for (IngestionConnector connector : connectors) {
+      connector.start();
+    }
+  }
+
+  void onShutdown(@Observes ShutdownEvent event) {
+    for (IngestionConnector connector : connectors) {
+      try {
+        connector.stop();
+      } catch (Exception e) {
+        log.warn("Failed to stop connector: sourceId={}", connector.getSourceId(), e);
+      }
+    }
+
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+        log.warn("Connector batches did not finish in time");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** 已启用的连接器 */
+  public List<IngestionConnector> connectors() {
+    return List.copyOf(connectors);
+  }
+}
@@ -0,0 +1,202 @@
+package pro.walkin.ams.ingestion.connector.ndjson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.parsetools.RecordParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.ingestion.IngestionLogic;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.connector.IngestionBatcher;
+import pro.walkin.ams.ingestion.connector.IngestionConnector;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+import pro.walkin.ams.ingestion.ratelimit.IngestionRateLimiter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 换行分隔 JSON 的 TCP 连接器
+ *
+ * <p>基于 Vert.x {@link NetServer}，每行一个 JSON 对象，行尾的 {@code \r} 和空行忽略。读取路径使用 Netty 池化缓冲区，
+ * 记录直接拷贝进 {@link IngestionBatcher} 的复用批次缓冲区，不解码为字符串。在途批次过多时暂停读取所有连接，由 TCP 流控把压力传回发送方。
+ *
+ * <p>批次由所有连接共享，每行进入批次前先用流式解析器校验是否恰好是一个 JSON 对象，不合法的行单独丢弃并计入 {@code parse_error}，
+ * 不影响同一批次中其他连接的记录。
+ */
+public class NdjsonTcpConnector implements IngestionConnector {
+
+  private static final Logger log = LoggerFactory.getLogger(NdjsonTcpConnector.class);
+
+  static final String NAME = "ndjson";
+
+  private final Vertx vertx;
+  private final AlertIngestionConfig.Ndjson config;
+  private final AlertIngestionConfig.Connectors connectorsConfig;
+  private final IngestionLogic logic;
+  private final IngestionRateLimiter rateLimiter;
+  private final IngestionMetrics metrics;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService executor;
+
+  private final Set<NetSocket> sockets = ConcurrentHashMap.newKeySet();
+  private volatile boolean paused;
+
+  private NetServer server;
+  private IngestionBatcher batcher;
+
+  public NdjsonTcpConnector(
+      Vertx vertx,
+      AlertIngestionConfig.Connectors connectorsConfig,
+      IngestionLogic logic,
+      IngestionRateLimiter rateLimiter,
+      IngestionMetrics metrics,
+      ObjectMapper objectMapper,
+      ExecutorService executor) {
+    this.vertx = vertx;
+    this.config = connectorsConfig.ndjson();
+    this.connectorsConfig = connectorsConfig;
+    this.logic = logic;
+    this.rateLimiter = rateLimiter;
+    this.metrics = metrics;
+    this.objectMapper = objectMapper;
+    this.executor = executor;
+  }
+
+  @Override
+  public String getSourceId() {
+    return config.sourceId();
+  }
+
+  @Override
+  public String getProtocol() {
+    return "TCP";
+  }
+
+  @Override
+  public synchronized void start() {
+    if (server != null) {
+      return;
+    }
+
+    batcher =
+        new IngestionBatcher(
+            NAME,
+            config.sourceId(),
+            vertx,
+            connectorsConfig,
+            logic,
+            rateLimiter,
+            metrics,
+            executor,
+            this::pauseAll,
+            this::resumeAll);
+
+    NetServer created =
+        vertx
+            .createNetServer(new NetServerOptions().setHost(config.host()).setPort(config.port()))
+            .connectHandler(this::accept);
+    server = created.listen().toCompletionStage().toCompletableFuture().join();
+    log.info(
+        "NDJSON connector listening: {}:{}, sourceId={}",
+        config.host(),
+        server.actualPort(),
+        config.sourceId());
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (server == null) {
+      return;
+    }
+
+    server.close().toCompletionStage().toCompletableFuture().join();
+    sockets.forEach(NetSocket::close);
+    sockets.clear();
+    batcher.close();
+    server = null;
+    log.info("NDJSON connector stopped: sourceId={}", config.sourceId());
+  }
+
+  @Override
+  public boolean isRunning() {
+    return server != null;
+  }
+
+  /** 实际监听端口（配置为 0 时由系统分配） */
+  public int actualPort() {
+    return server != null ? server.actualPort() : -1;
+  }
+
+  private void accept(NetSocket socket) {
+    sockets.add(socket);
+    socket.closeHandler(v -> sockets.remove(socket));
+
+    RecordParser parser = RecordParser.newDelimited("\n", socket);
+    parser.maxRecordSize(connectorsConfig.maxRecordBytes());
+    parser.handler(this::onLine);
+    parser.exceptionHandler(
+        e -> {
+          log.warn(
+              "NDJSON connection closed: remote={}, reason={}",
+              socket.remoteAddress(),
+              e.getMessage());
+          metrics.recordConnectorDropped(NAME, "oversize", 1);
+          socket.close();
+        });
+
+    if (paused) {
+      socket.pause();
+    }
+  }
+
+  private void onLine(Buffer line) {
+    int length = line.length();
+    if (length > 0 && line.getByte(length - 1) == '\r') {
+      line = line.getBuffer(0, --length);
+    }
+    if (length == 0) {
+      return;
+    }
+    if (!isJsonObject(objectMapper.getFactory(), line)) {
+      log.debug("NDJSON line dropped, not a JSON object: length={}", length);
+      metrics.recordConnectorDropped(NAME, "parse_error", 1);
+      return;
+    }
+    batcher.add(line);
+  }
+
+  /** 流式扫描一行，判断是否恰好是一个完整的 JSON 对象，不构建对象树 */
+  static boolean isJsonObject(JsonFactory factory, Buffer line) {
+    try (JsonParser parser = factory.createParser(line.getBytes())) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return false;
+      }
+      parser.skipChildren();
+      return parser.currentToken() == JsonToken.END_OBJECT && parser.nextToken() == null;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private void pauseAll() {
+    paused = true;
+    sockets.forEach(NetSocket::pause);
+  }
+
+  private void resumeAll() {
+    if (paused) {
+      paused = false;
+      sockets.forEach(NetSocket::resume);
+    }
+  }
+}
@@ -3,25 +3,57 @@ package pro.walkin.ams.ingestion.connector.rest;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
 import org.jboss.resteasy.reactive.RestPath;
+import pro.walkin.ams.common.dto.ingestion.RateLimitDecision;
 import pro.walkin.ams.ingestion.IngestionLogic;
+import pro.walkin.ams.ingestion.SourceSnapshot;
+import pro.walkin.ams.ingestion.ratelimit.IngestionRateLimiter;
+import pro.walkin.ams.ingestion.wal.IngestionWal;
+
+import java.io.InputStream;
 
 @Path("/api/ingest")
 public class IngestionController {
 
   private final IngestionLogic logic;
+  private final IngestionWal wal;
+  private final IngestionRateLimiter rateLimiter;
 
-  public IngestionController(IngestionLogic logic) {
+  public IngestionController(
+      IngestionLogic logic, IngestionWal wal, IngestionRateLimiter rateLimiter) {
     this.logic = logic;
+    this.wal = wal;
+    this.rateLimiter = rateLimiter;
   }
 
   @POST
   @Path(("/{sourceId}"))
   @RunOnVirtualThread
-  public String hello(@RestPath("sourceId") String sourceId, String rawPayload) {
-    logic.process(sourceId, rawPayload);
+  public Response hello(@RestPath("sourceId") String sourceId, InputStream rawPayload) {
+    SourceSnapshot source = logic.validateSource(sourceId);
+
+    // 边缘限流：令牌不足时直接返回 429，不读取请求体
+    RateLimitDecision decision = rateLimiter.acquire(source);
+    if (!decision.admitted()) {
+      long retryAfterSeconds = Math.max(1L, (decision.retryAfterMillis() + 999) / 1000);
+      return Response.status(Response.Status.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+          .entity("RATE_LIMITED")
+          .build();
+    }
+
+    if (wal.isEnabled()) {
+      // 异步模式：告警源已校验，写入本地预写日志即返回 202，由后台工作线程完成处理
+      wal.append(sourceId, rawPayload);
+      return Response.accepted("ACCEPTED").build();
+    }
+
+    // 请求体以流的形式交给映射器逐条解析，不在内存中保留整个负载
+    logic.process(sourceId, rawPayload, rateLimiter.shouldShedLowSeverity(decision));
 
     // 3. 立即返回，保持高并发连接能力
-    return "ACCEPTED";
+    return Response.ok("ACCEPTED").build();
   }
 }
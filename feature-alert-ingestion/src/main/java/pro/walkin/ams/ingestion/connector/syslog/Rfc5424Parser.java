@@ -0,0 +1,202 @@
+package pro.walkin.ams.ingestion.connector.syslog;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * RFC 5424 syslog 消息解析器
+ *
+ * <p>把 {@code <PRI>VERSION TIMESTAMP HOSTNAME APP-NAME PROCID MSGID STRUCTURED-DATA [MSG]} 解析为 JSON 对象，
+ * 供标签映射配置按 JSON Pointer 提取：
+ *
+ * <pre>
+ * {"facility":4,"severityCode":2,"severity":"crit","version":1,"timestamp":"...","hostname":"...",
+ *  "appName":"...","procId":"...","msgId":"...","structuredData":{"id":{"k":"v"}},"message":"..."}
+ * </pre>
+ *
+ * <p>取值为 NILVALUE（{@code -}）的字段不输出；MSG 开头的 UTF-8 BOM 去除。
+ */
+final class Rfc5424Parser {
+
+  private static final String[] SEVERITIES = {
+    "emerg", "alert", "crit", "err", "warning", "notice", "info", "debug"
+  };
+
+  private Rfc5424Parser() {}
+
+  /**
+   * 解析一条消息
+   *
+   * @param line 单条 syslog 消息，不含帧分隔符
+   * @return JSON 对象
+   * @throws IllegalArgumentException 消息不符合 RFC 5424 头部格式
+   */
+  static ObjectNode parse(String line) {
+    Cursor cursor = new Cursor(line);
+    ObjectNode node = JsonNodeFactory.instance.objectNode();
+
+    // PRI
+    cursor.expect('<');
+    int pri = cursor.readInt(3);
+    cursor.expect('>');
+    if (pri > 191) {
+      throw new IllegalArgumentException("Invalid syslog PRI: " + pri);
+    }
+    node.put("facility", pri >> 3);
+    node.put("severityCode", pri & 7);
+    node.put("severity", SEVERITIES[pri & 7]);
+
+    // VERSION
+    node.put("version", cursor.readInt(2));
+    cursor.expect(' ');
+
+    putUnlessNil(node, "timestamp", cursor.readToken());
+    putUnlessNil(node, "hostname", cursor.readToken());
+    putUnlessNil(node, "appName", cursor.readToken());
+    putUnlessNil(node, "procId", cursor.readToken());
+    putUnlessNil(node, "msgId", cursor.readToken());
+
+    // STRUCTURED-DATA
+    if (cursor.peek() == '-') {
+      cursor.advance();
+    } else {
+      ObjectNode structuredData = node.putObject("structuredData");
+      while (cursor.hasMore() && cursor.peek() == '[') {
+        readElement(cursor, structuredData);
+      }
+    }
+
+    // MSG
+    if (cursor.hasMore()) {
+      cursor.expect(' ');
+      String message = cursor.rest();
+      if (!message.isEmpty() && message.charAt(0) == '\uFEFF') {
+        message = message.substring(1);
+      }
+      node.put("message", message);
+    }
+    return node;
+  }
+
+  /** SD-ELEMENT：{@code [SD-ID *(SP PARAM-NAME="PARAM-VALUE")]} */
+  private static void readElement(Cursor cursor, ObjectNode structuredData) {
+    cursor.expect('[');
+    ObjectNode element = structuredData.putObject(cursor.readName());
+    while (cursor.peek() == ' ') {
+      cursor.advance();
+      String name = cursor.readName();
+      cursor.expect('=');
+      element.put(name, cursor.readQuoted());
+    }
+    cursor.expect(']');
+  }
+
+  private static void putUnlessNil(ObjectNode node, String field, String value) {
+    if (!"-".equals(value)) {
+      node.put(field, value);
+    }
+  }
+
+  /** 顺序读取游标 */
+  private static final class Cursor {
+
+    private final String text;
+    private int position;
+
+    Cursor(String text) {
+      this.text = text;
+    }
+
+    boolean hasMore() {
+      return position < text.length();
+    }
+
+    char peek() {
+      if (!hasMore()) {
+        throw new IllegalArgumentException("Truncated syslog message");
+      }
+      return text.charAt(position);
+    }
+
+    void advance() {
+      position++;
+    }
+
+    void expect(char c) {
+      if (peek() != c) {
+        throw new IllegalArgumentException(
+            "Expected '" + c + "' at " + position + " in syslog message");
+      }
+      position++;
+    }
+
+    int readInt(int maxDigits) {
+      int start = position;
+      int value = 0;
+      while (hasMore()
+          && position - start < maxDigits
+          && Character.isDigit(text.charAt(position))) {
+        value = value * 10 + (text.charAt(position++) - '0');
+      }
+      if (position == start) {
+        throw new IllegalArgumentException("Expected number at " + start + " in syslog message");
+      }
+      return value;
+    }
+
+    /** 读取到下一个空格（消耗空格） */
+    String readToken() {
+      int end = text.indexOf(' ', position);
+      if (end < 0) {
+        throw new IllegalArgumentException("Truncated syslog header");
+      }
+      String token = text.substring(position, end);
+      position = end + 1;
+      return token;
+    }
+
+    /** SD-NAME：到空格、'='、']' 或 '"' 为止 */
+    String readName() {
+      int start = position;
+      while (hasMore()) {
+        char c = text.charAt(position);
+        if (c == ' ' || c == '=' || c == ']' || c == '"') {
+          break;
+        }
+        position++;
+      }
+      if (position == start) {
+        throw new IllegalArgumentException("Empty SD name at " + start + " in syslog message");
+      }
+      return text.substring(start, position);
+    }
+
+    /** PARAM-VALUE：双引号包围，{@code \"}、{@code \\}、{@code \]} 转义 */
+    String readQuoted() {
+      expect('"');
+      StringBuilder value = new StringBuilder();
+      while (true) {
+        char c = peek();
+        position++;
+        if (c == '"') {
+          return value.toString();
+        }
+        if (c == '\\' && hasMore()) {
+          char next = text.charAt(position);
+          if (next == '"' || next == '\\' || next == ']') {
+            value.append(next);
+            position++;
+            continue;
+          }
+        }
+        value.append(c);
+      }
+    }
+
+    String rest() {
+      String rest = text.substring(position);
+      position = text.length();
+      return rest;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package pro.walkin.ams.ingestion.connector.syslog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.datagram.DatagramPacket;
+import io.vertx.core.datagram.DatagramSocket;
+import io.vertx.core.datagram.DatagramSocketOptions;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.parsetools.RecordParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.ingestion.IngestionLogic;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.connector.IngestionBatcher;
+import pro.walkin.ams.ingestion.connector.IngestionConnector;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+import pro.walkin.ams.ingestion.ratelimit.IngestionRateLimiter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * RFC 5424 syslog 连接器
+ *
+ * <p>UDP 每个报文一条消息；TCP 按 RFC 6587 非透明帧（换行分隔）切分消息。消息由 {@link Rfc5424Parser} 解析为 JSON
+ * 对象后进入 {@link IngestionBatcher}，标签映射配置按 {@code /severity}、{@code /hostname}、{@code
+ * /structuredData/<id>/<name>} 等路径提取字段。
+ *
+ * <p>在途批次过多时暂停读取 TCP 连接；UDP 没有流控，期间收到的报文直接丢弃并计入 {@code saturated}。
+ */
+public class SyslogConnector implements IngestionConnector {
+
+  private static final Logger log = LoggerFactory.getLogger(SyslogConnector.class);
+
+  static final String NAME = "syslog";
+
+  private final Vertx vertx;
+  private final AlertIngestionConfig.Syslog config;
+  private final AlertIngestionConfig.Connectors connectorsConfig;
+  private final IngestionLogic logic;
+  private final IngestionRateLimiter rateLimiter;
+  private final IngestionMetrics metrics;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService executor;
+
+  private final Set<NetSocket> sockets = ConcurrentHashMap.newKeySet();
+  private volatile boolean paused;
+
+  private DatagramSocket udpSocket;
+  private NetServer tcpServer;
+  private IngestionBatcher batcher;
+
+  public SyslogConnector(
+      Vertx vertx,
+      AlertIngestionConfig.Connectors connectorsConfig,
+      IngestionLogic logic,
+      IngestionRateLimiter rateLimiter,
+      IngestionMetrics metrics,
+      ObjectMapper objectMapper,
+      ExecutorService executor) {
+    this.vertx = vertx;
+    this.config = connectorsConfig.syslog();
+    this.connectorsConfig = connectorsConfig;
+    this.logic = logic;
+    this.rateLimiter = rateLimiter;
+    this.metrics = metrics;
+    this.objectMapper = objectMapper;
+    this.executor = executor;
+  }
+
+  @Override
+  public String getSourceId() {
+    return config.sourceId();
+  }
+
+  @Override
+  public String getProtocol() {
+    return config.udp() && config.tcp() ? "SYSLOG" : config.udp() ? "SYSLOG_UDP" : "SYSLOG_TCP";
+  }
+
+  @Override
+  public synchronized void start() {
+    if (isRunning()) {
+      return;
+    }
+
+    batcher =
+        new IngestionBatcher(
+            NAME,
+            config.sourceId(),
+            vertx,
+            connectorsConfig,
+            logic,
+            rateLimiter,
+            metrics,
+            executor,
+            this::pauseAll,
+            this::resumeAll);
+
+    if (config.udp()) {
+      DatagramSocket socket =
+          vertx.createDatagramSocket(
+              new DatagramSocketOptions().setReceiveBufferSize(4 * 1024 * 1024));
+      socket.handler(this::onPacket);
+      udpSocket =
+          socket
+              .listen(config.port(), config.host())
+              .toCompletionStage()
+              .toCompletableFuture()
+              .join();
+    }
+    if (config.tcp()) {
+      NetServer created =
+          vertx
+              .createNetServer(
+                  new NetServerOptions().setHost(config.host()).setPort(config.port()))
+              .connectHandler(this::accept);
+      tcpServer = created.listen().toCompletionStage().toCompletableFuture().join();
+    }
+
+    log.info(
+        "Syslog connector listening: {}:{}, udp={}, tcp={}, sourceId={}",
+        config.host(),
+        config.port(),
+        config.udp(),
+        config.tcp(),
+        config.sourceId());
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (!isRunning()) {
+      return;
+    }
+
+    if (udpSocket != null) {
+      udpSocket.close().toCompletionStage().toCompletableFuture().join();
+      udpSocket = null;
+    }
+    if (tcpServer != null) {
+      tcpServer.close().toCompletionStage().toCompletableFuture().join();
+      tcpServer = null;
+    }
+    sockets.forEach(NetSocket::close);
+    sockets.clear();
+    batcher.close();
+    log.info("Syslog connector stopped: sourceId={}", config.sourceId());
+  }
+
+  @Override
+  public boolean isRunning() {
+    return udpSocket != null || tcpServer != null;
+  }
+
+  private void onPacket(DatagramPacket packet) {
+    if (paused) {
+      metrics.recordConnectorDropped(NAME, "saturated", 1);
+      return;
+    }
+    Buffer data = packet.data();
+    if (data.length() > connectorsConfig.maxRecordBytes()) {
+      metrics.recordConnectorDropped(NAME, "oversize", 1);
+      return;
+    }
+    onMessage(data);
+  }
+
+  private void accept(NetSocket socket) {
+    sockets.add(socket);
+    socket.closeHandler(v -> sockets.remove(socket));
+
+    RecordParser parser = RecordParser.newDelimited("\n", socket);
+    parser.maxRecordSize(connectorsConfig.maxRecordBytes());
+    parser.handler(this::onMessage);
+    parser.exceptionHandler(
+        e -> {
+          log.warn(
+              "Syslog connection closed: remote={}, reason={}",
+              socket.remoteAddress(),
+              e.getMessage());
+          metrics.recordConnectorDropped(NAME, "oversize", 1);
+          socket.close();
+        });
+
+    if (paused) {
+      socket.pause();
+    }
+  }
+
+  private void onMessage(Buffer data) {
+    String message = data.toString(StandardCharsets.UTF_8).stripTrailing();
+    if (message.isEmpty()) {
+      return;
+    }
+    try {
+      batcher.add(Buffer.buffer(objectMapper.writeValueAsBytes(Rfc5424Parser.parse(message))));
+    } catch (IllegalArgumentException | JsonProcessingException e) {
+      log.debug("Syslog message dropped: {}", e.getMessage());
+      metrics.recordConnectorDropped(NAME, "parse_error", 1);
+    }
+  }
+
+  private void pauseAll() {
+    paused = true;
+    sockets.forEach(NetSocket::pause);
+  }
+
+  private void resumeAll() {
+    if (paused) {
+      paused = false;
+      sockets.forEach(NetSocket::resume);
+    }
+  }
+}
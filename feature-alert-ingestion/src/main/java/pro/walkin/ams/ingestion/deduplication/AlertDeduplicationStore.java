@@ -2,33 +2,117 @@ package pro.walkin.ams.ingestion.deduplication;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
 import jakarta.enterprise.context.ApplicationScoped;
 import pro.walkin.ams.cluster.processor.DeduplicationProcessor;
+import pro.walkin.ams.common.Constants;
 import pro.walkin.ams.common.dto.AlertEvent;
 import pro.walkin.ams.common.dto.ingestion.DeduplicationResult;
 import pro.walkin.ams.common.dto.ingestion.DeduplicationState;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 
+/**
+ * 告警去重存储
+ *
+ * <p>去重状态保存在 {@link Constants.Cluster#ALERT_DEDUPLICATION_MAP}，条目 TTL 由 {@link DeduplicationProcessor} 设置。
+ * 启动时注册本成员持有条目的数量、内存占用以及驱逐、过期次数指标。
+ */
+@Startup
 @ApplicationScoped
 public class AlertDeduplicationStore {
 
-  private static final String DEDUP_MAP_NAME = "alert-deduplication";
+  private static final String DEDUP_MAP_NAME = Constants.Cluster.ALERT_DEDUPLICATION_MAP;
 
   private final HazelcastInstance hazelcastInstance;
 
-  public AlertDeduplicationStore(HazelcastInstance hazelcastInstance) {
+  public AlertDeduplicationStore(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
     this.hazelcastInstance = hazelcastInstance;
+    registerMetrics(meterRegistry);
   }
 
   public CompletionStage<DeduplicationResult> checkAndRecord(
       AlertEvent alert, long timeWindowMs, int maxCount) {
     IMap<String, DeduplicationState> dedupMap = getDedupMap();
     return dedupMap.submitToKey(
-        alert.id(), new DeduplicationProcessor(alert, timeWindowMs, maxCount));
+        alert.id(), new DeduplicationProcessor(alert.sourceId(), timeWindowMs, maxCount));
+  }
+
+  /**
+   * 批量去重：同一告警源的一批指纹共用一个 EntryProcessor
+   *
+   * <p>{@link IMap#submitToKeys} 按分区归属把指纹分组，每个成员一次操作处理其持有分区内的全部指纹，一个包含数百条告警的负载只产生少量网络往返。
+   *
+   * @param sourceId 告警源 ID
+   * @param occurrences 告警指纹 → 在本批中出现的次数，重复出现的次数与逐条提交一样计入去重计数
+   * @param timeWindowMs 去重时间窗口
+   * @param maxCount 窗口内最大计数
+   * @return 指纹 → 去重结果
+   */
+  public CompletionStage<Map<String, DeduplicationResult>> checkAndRecordAll(
+      String sourceId, Map<String, Integer> occurrences, long timeWindowMs, int maxCount) {
+    Map<String, Integer> repeated = new HashMap<>();
+    occurrences.forEach(
+        (fingerprint, count) -> {
+          if (count > 1) {
+            repeated.put(fingerprint, count);
+          }
+        });
+    IMap<String, DeduplicationState> dedupMap = getDedupMap();
+    return dedupMap.submitToKeys(
+        occurrences.keySet(),
+        new DeduplicationProcessor(sourceId, timeWindowMs, maxCount, repeated));
+  }
+
+  /**
+   * 撤销指纹的去重记录
+   *
+   * <p>新告警投递失败时调用：删除去重时写入的条目，重新提交同一负载时该告警仍按新告警处理。
+   *
+   * @param fingerprint 告警指纹
+   * @return 删除完成时完成
+   */
+  public CompletionStage<Void> forget(String fingerprint) {
+    return getDedupMap().removeAsync(fingerprint).thenApply(ignored -> null);
   }
 
   public IMap<String, DeduplicationState> getDedupMap() {
     return hazelcastInstance.getMap(DEDUP_MAP_NAME);
   }
+
+  private void registerMetrics(MeterRegistry meterRegistry) {
+    Gauge.builder(
+            "ams.ingestion.dedup.entries",
+            this,
+            store -> store.getDedupMap().getLocalMapStats().getOwnedEntryCount())
+        .description("Number of deduplication entries owned by this member")
+        .register(meterRegistry);
+
+    Gauge.builder(
+            "ams.ingestion.dedup.memory.cost",
+            this,
+            store -> store.getDedupMap().getLocalMapStats().getOwnedEntryMemoryCost())
+        .description("Memory cost in bytes of deduplication entries owned by this member")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+
+    FunctionCounter.builder(
+            "ams.ingestion.dedup.evictions",
+            this,
+            store -> store.getDedupMap().getLocalMapStats().getEvictionCount())
+        .description("Number of deduplication entries evicted by the size budget")
+        .register(meterRegistry);
+
+    FunctionCounter.builder(
+            "ams.ingestion.dedup.expirations",
+            this,
+            store -> store.getDedupMap().getLocalMapStats().getExpirationCount())
+        .description("Number of deduplication entries expired by TTL")
+        .register(meterRegistry);
+  }
 }
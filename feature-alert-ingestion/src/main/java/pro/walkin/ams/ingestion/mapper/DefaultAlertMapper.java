@@ -1,20 +1,29 @@
 package pro.walkin.ams.ingestion.mapper;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.runtime.util.StringUtil;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import pro.walkin.ams.cluster.cache.LabelMappingCacher;
 import pro.walkin.ams.common.dto.AlertEvent;
+import pro.walkin.ams.ingestion.plan.IngestionPlan;
+import pro.walkin.ams.ingestion.plan.IngestionPlanCache;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * 默认告警映射器实现
  *
  * <p>负责将原始告警数据（JSON格式）转换为标准的AlertEvent对象。 支持根据数据源配置的标签映射规则，从原始JSON中提取标签值。
+ *
+ * <p>标签提取使用数据源 {@link IngestionPlan} 中预编译的 JSON Pointer。{@link #stream(IngestionPlan, InputStream,
+ * Consumer)} 以流式方式解析请求体，每次只构建一个数组元素的 JSON 树。
  */
 @ApplicationScoped
 public class DefaultAlertMapper {
@@ -24,19 +33,18 @@ public class DefaultAlertMapper {
   /** JSON解析器 */
   private final ObjectMapper objectMapper;
 
-  /** 标签映射配置缓存 */
-  private final LabelMappingCacher labelMappingCacher;
+  /** 接入计划缓存 */
+  private final IngestionPlanCache planCache;
 
   /**
    * 构造函数
    *
    * @param objectMapper JSON解析器
-   * @param labelMappingCacher 标签映射配置缓存
+   * @param planCache 接入计划缓存
    */
-  public DefaultAlertMapper(ObjectMapper objectMapper, LabelMappingCacher labelMappingCacher) {
+  public DefaultAlertMapper(ObjectMapper objectMapper, IngestionPlanCache planCache) {
     this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper must not be null");
-    this.labelMappingCacher =
-        Objects.requireNonNull(labelMappingCacher, "labelMappingCacher must not be null");
+    this.planCache = Objects.requireNonNull(planCache, "planCache must not be null");
   }
 
   /**
@@ -46,6 +54,18 @@ public class DefaultAlertMapper {
    * @return 转换后的AlertEvent对象列表
    */
   public List<AlertEvent> map(String source, String rawJson) {
+    return map(planCache.plan(source), rawJson);
+  }
+
+  /**
+   * 使用已解析的接入计划将原始告警数据映射为AlertEvent对象列表
+   *
+   * @param plan 数据源的接入计划
+   * @param rawJson 原始告警数据（JSON格式）
+   * @return 转换后的AlertEvent对象列表
+   */
+  public List<AlertEvent> map(IngestionPlan plan, String rawJson) {
+    String source = plan.sourceId();
     if (StringUtil.isNullOrEmpty(rawJson)) {
       log.warn("Received empty rawJson for source={}", source);
       return Collections.emptyList();
@@ -63,20 +83,53 @@ public class DefaultAlertMapper {
 
     if (rawJsonNode.isArray()) {
       for (JsonNode jsonNode : rawJsonNode) {
-        events.add(mapSingle(source, jsonNode));
+        events.add(mapSingle(plan, jsonNode));
       }
     } else {
-      events.add(mapSingle(source, rawJsonNode));
+      events.add(mapSingle(plan, rawJsonNode));
     }
 
     return events;
   }
 
-  private AlertEvent mapSingle(String source, JsonNode jsonNode) {
+  /**
+   * 流式解析原始告警数据
+   *
+   * <p>负载为数组时逐个读取数组元素并立即转换输出，不构建整个负载的 JSON 树；负载为单个对象时作为一条告警处理。
+   * 解析中途失败时，已输出的告警保持有效，其余部分丢弃。
+   *
+   * @param plan 数据源的接入计划
+   * @param rawJson 原始告警数据流，解析结束后关闭
+   * @param sink 告警事件接收方，按负载中的顺序调用
+   */
+  public void stream(IngestionPlan plan, InputStream rawJson, Consumer<AlertEvent> sink) {
+    String source = plan.sourceId();
+
+    try (JsonParser parser = objectMapper.createParser(rawJson)) {
+      JsonToken token = parser.nextToken();
+      if (token == null) {
+        log.warn("Received empty rawJson for source={}", source);
+        return;
+      }
 
-    Map<String, String> labels = extractLabelMapping(source, jsonNode);
+      if (token != JsonToken.START_ARRAY) {
+        sink.accept(mapSingle(plan, objectMapper.readTree(parser)));
+        return;
+      }
 
-    return AlertEvent.builder().sourceId(source).labels(labels).build();
+      while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+        sink.accept(mapSingle(plan, objectMapper.readTree(parser)));
+      }
+    } catch (IOException e) {
+      log.error("Failed to parse rawJson stream for source={}", source, e);
+    }
+  }
+
+  private AlertEvent mapSingle(IngestionPlan plan, JsonNode jsonNode) {
+
+    Map<String, String> labels = extractLabelMapping(plan, jsonNode);
+
+    return AlertEvent.builder().sourceId(plan.sourceId()).labels(labels).build();
   }
 
   /**
@@ -84,31 +137,17 @@ public class DefaultAlertMapper {
    *
    * <p>根据数据源的标签映射配置，从原始JSON中提取对应的标签值。 标签映射配置定义了标签名称到JSON路径的映射关系。
    *
+   * @param plan 数据源的接入计划
    * @param jsonNode 原始告警数据（JsonNode格式）
    * @return 标签键值对Map，如果未找到映射配置则返回空Map
    */
-  private Map<String, String> extractLabelMapping(String source, JsonNode jsonNode) {
-    // 获取数据源的标签映射配置
-    Map<String, String> labelMapping = labelMappingCacher.get(source);
-    if (labelMapping == null) {
-      log.debug("No label mapping found for source={}", source);
+  private Map<String, String> extractLabelMapping(IngestionPlan plan, JsonNode jsonNode) {
+    if (!plan.hasMapping()) {
+      log.debug("No label mapping found for source={}", plan.sourceId());
       return Map.of();
     }
 
-    // 遍历标签映射配置，提取对应的标签值
-    Map<String, String> labelValues = new HashMap<>();
-
-    labelMapping.forEach(
-        (label, valuePath) -> {
-          // 使用JSON Path提取值
-          JsonNode labelValueNode = jsonNode.at(valuePath);
-
-          // 将提取的值存入结果Map（跳过缺失节点）
-          if (!labelValueNode.isMissingNode()) {
-            labelValues.put(label, labelValueNode.textValue());
-          }
-        });
-
-    return labelValues;
+    // 使用预编译的JSON Pointer提取标签值（跳过缺失节点）
+    return plan.extractLabels(jsonNode);
   }
 }
@@ -295,6 +295,60 @@ public class IngestionMetrics {
     recordSourceThroughput(sourceId, 1);
   }
 
+  /** 各 Source 被限流放行的负载数 */
+  public void recordRateLimitAdmitted(String sourceId) {
+    Counter.builder("ams.ingestion.ratelimit.admitted")
+        .description("Payloads admitted by the ingestion rate limiter per source")
+        .tag("source_id", sourceId)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  /**
+   * 各 Source 被卸载的数量
+   *
+   * @param sourceId 告警源 ID
+   * @param reason rate_limit（整个负载被拒绝）或 low_severity（单条低严重程度告警被丢弃）
+   */
+  public void recordRateLimitShed(String sourceId, String reason) {
+    Counter.builder("ams.ingestion.ratelimit.shed")
+        .description("Payloads or alerts shed by the ingestion rate limiter per source")
+        .tag("source_id", sourceId)
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  /** 连接器提交的批次及其中的记录数 */
+  public void recordConnectorBatch(String connector, int records) {
+    Counter.builder("ams.ingestion.connector.batches.total")
+        .description("Batches submitted by ingestion connectors")
+        .tag("connector", connector)
+        .register(meterRegistry)
+        .increment();
+    Counter.builder("ams.ingestion.connector.records.total")
+        .description("Records received by ingestion connectors")
+        .tag("connector", connector)
+        .register(meterRegistry)
+        .increment((double) records);
+  }
+
+  /**
+   * 连接器丢弃的记录数
+   *
+   * @param connector 连接器名称
+   * @param reason parse_error（无法解析）、oversize（超过长度上限）、saturated（UDP 报文在暂停读取期间到达）、
+   *     process_error（批次处理失败）或 rate_limit（停机时仍在等待限流令牌）
+   */
+  public void recordConnectorDropped(String connector, String reason, int records) {
+    Counter.builder("ams.ingestion.connector.dropped.total")
+        .description("Records dropped by ingestion connectors")
+        .tag("connector", connector)
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment((double) records);
+  }
+
   /** 各 Severity 的分布 */
   public void recordSeverityDistribution(Constants.Alarm.Severity severity) {
     Counter.builder("ams.ingestion.severity.distribution")
@@ -0,0 +1,138 @@
+package pro.walkin.ams.ingestion.plan;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.ingestion.processor.AlertFingerprinter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个数据源的接入计划
+ *
+ * <p>由数据源的标签映射配置一次性构建，包含映射器使用的预编译 {@link JsonPointer}、归一化器使用的标签重命名表，以及计算指纹时排除的动态标签。
+ * 计划不可变，配置变更时由 {@link IngestionPlanCache} 整体替换；一次负载只解析一次计划，映射、归一化、指纹计算共用。
+ */
+public final class IngestionPlan {
+
+  private static final Logger log = LoggerFactory.getLogger(IngestionPlan.class);
+
+  private final String sourceId;
+
+  /** 构建来源的标签映射配置，用于判断配置是否已刷新 */
+  final Map<String, String> source;
+
+  private final List<LabelPointer> pointers;
+
+  /** 原始标签名 → 归一化标签名 */
+  private final Map<String, String> renames;
+
+  /** 不参与指纹计算的动态标签 */
+  private final Set<String> excludedIdentityLabels;
+
+  private IngestionPlan(
+      String sourceId,
+      Map<String, String> source,
+      List<LabelPointer> pointers,
+      Map<String, String> renames,
+      Set<String> excludedIdentityLabels) {
+    this.sourceId = sourceId;
+    this.source = source;
+    this.pointers = pointers;
+    this.renames = renames;
+    this.excludedIdentityLabels = excludedIdentityLabels;
+  }
+
+  /**
+   * 构建接入计划
+   *
+   * @param sourceId 数据源 ID
+   * @param labelMapping 数据源的标签映射配置，为 null 时构建空计划
+   * @return 接入计划；无法解析的 JSON Pointer 记录警告后跳过
+   */
+  static IngestionPlan build(String sourceId, Map<String, String> labelMapping) {
+    if (labelMapping == null || labelMapping.isEmpty()) {
+      return new IngestionPlan(
+          sourceId, labelMapping, List.of(), Map.of(), AlertFingerprinter.DYNAMIC_LABELS);
+    }
+
+    List<LabelPointer> pointers = new ArrayList<>(labelMapping.size());
+    labelMapping.forEach(
+        (label, valuePath) -> {
+          try {
+            pointers.add(new LabelPointer(label, JsonPointer.compile(valuePath)));
+          } catch (IllegalArgumentException e) {
+            log.warn(
+                "Invalid label mapping path: sourceId={}, label={}, path={}",
+                sourceId,
+                label,
+                valuePath);
+          }
+        });
+
+    return new IngestionPlan(
+        sourceId,
+        labelMapping,
+        List.copyOf(pointers),
+        Map.copyOf(labelMapping),
+        AlertFingerprinter.DYNAMIC_LABELS);
+  }
+
+  public String sourceId() {
+    return sourceId;
+  }
+
+  /** 是否配置了标签映射 */
+  public boolean hasMapping() {
+    return !pointers.isEmpty();
+  }
+
+  public Set<String> excludedIdentityLabels() {
+    return excludedIdentityLabels;
+  }
+
+  /**
+   * 从单条告警 JSON 中提取标签值
+   *
+   * @param jsonNode 单条告警
+   * @return 标签键值对，跳过缺失节点
+   */
+  public Map<String, String> extractLabels(JsonNode jsonNode) {
+    Map<String, String> labelValues = new HashMap<>(pointers.size() * 2);
+    for (LabelPointer pointer : pointers) {
+      JsonNode labelValueNode = jsonNode.at(pointer.pointer());
+      if (!labelValueNode.isMissingNode()) {
+        labelValues.put(pointer.label(), labelValueNode.textValue());
+      }
+    }
+    return labelValues;
+  }
+
+  /**
+   * 按重命名表归一化标签
+   *
+   * <p>单次遍历写入预分配容量的数组映射，保持原始顺序；重命名后标签名冲突时保留先出现的值。未配置重命名时原样返回。
+   *
+   * @param rawLabels 原始标签
+   * @return 归一化后的标签
+   */
+  public Map<String, String> normalize(Map<String, String> rawLabels) {
+    if (renames.isEmpty()) {
+      return rawLabels;
+    }
+
+    LabelArrayMap normalized = new LabelArrayMap(rawLabels.size());
+    for (Map.Entry<String, String> entry : rawLabels.entrySet()) {
+      String key = entry.getKey();
+      normalized.addIfAbsent(renames.getOrDefault(key, key), entry.getValue());
+    }
+    return normalized;
+  }
+
+  private record LabelPointer(String label, JsonPointer pointer) {}
+}
@@ -0,0 +1,43 @@
+package pro.walkin.ams.ingestion.plan;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import pro.walkin.ams.cluster.cache.LabelMappingCacher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接入计划缓存
+ *
+ * <p>每次解析计划时从 {@link LabelMappingCacher} 读取当前配置，仅当返回的配置实例发生变化时重新构建计划，缓存失效仍由 {@link
+ * LabelMappingCacher} 驱动。调用方应每个负载解析一次，不要逐条告警解析。
+ */
+@ApplicationScoped
+public class IngestionPlanCache {
+
+  private final LabelMappingCacher labelMappingCacher;
+
+  /** 数据源 ID → 接入计划 */
+  private final Map<String, IngestionPlan> plans = new ConcurrentHashMap<>();
+
+  public IngestionPlanCache(LabelMappingCacher labelMappingCacher) {
+    this.labelMappingCacher = labelMappingCacher;
+  }
+
+  /**
+   * 获取数据源的接入计划
+   *
+   * @param sourceId 数据源 ID
+   * @return 接入计划，未配置标签映射时返回空计划
+   */
+  public IngestionPlan plan(String sourceId) {
+    Map<String, String> labelMapping = labelMappingCacher.get(sourceId);
+
+    IngestionPlan plan = plans.get(sourceId);
+    if (plan == null || plan.source != labelMapping) {
+      plan = IngestionPlan.build(sourceId, labelMapping);
+      plans.put(sourceId, plan);
+    }
+    return plan;
+  }
+}
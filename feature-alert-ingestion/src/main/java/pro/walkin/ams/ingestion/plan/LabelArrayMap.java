@@ -0,0 +1,90 @@
+package pro.walkin.ams.ingestion.plan;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 数组存储的标签映射
+ *
+ * <p>告警标签通常只有十几个，线性查找比哈希表更省内存、构建更快。按插入顺序迭代，构建完成后只读。
+ */
+final class LabelArrayMap extends AbstractMap<String, String> {
+
+  private final String[] keys;
+  private final String[] values;
+  private int size;
+
+  LabelArrayMap(int capacity) {
+    this.keys = new String[capacity];
+    this.values = new String[capacity];
+  }
+
+  /** 构建阶段写入，键已存在时忽略 */
+  void addIfAbsent(String key, String value) {
+    if (indexOf(key) < 0) {
+      keys[size] = key;
+      values[size] = value;
+      size++;
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public String get(Object key) {
+    int index = indexOf(key);
+    return index < 0 ? null : values[index];
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, String>> iterator() {
+        return new Iterator<>() {
+          private int next;
+
+          @Override
+          public boolean hasNext() {
+            return next < size;
+          }
+
+          @Override
+          public Entry<String, String> next() {
+            if (next >= size) {
+              throw new NoSuchElementException();
+            }
+            int index = next++;
+            return new SimpleImmutableEntry<>(keys[index], values[index]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private int indexOf(Object key) {
+    for (int i = 0; i < size; i++) {
+      if (Objects.equals(keys[i], key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
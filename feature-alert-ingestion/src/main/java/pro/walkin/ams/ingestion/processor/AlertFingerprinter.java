@@ -1,42 +1,181 @@
 package pro.walkin.ams.ingestion.processor;
 
-import org.apache.commons.codec.digest.DigestUtils;
-
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
- * Alert fingerprint calculator for deduplication. Converts normalized labels into MD5 hash by
+ * Alert fingerprint calculator for deduplication. Converts normalized labels into a hash by
  * excluding dynamic fields.
+ *
+ * <p>Identity labels are sorted in a key array and encoded as UTF-8 {@code key=value|key=value}
+ * directly into the hash function, without building an intermediate map, string or byte array.
+ * {@link FingerprintAlgorithm#MD5} yields the same hex digest as the legacy implementation.
  */
 public final class AlertFingerprinter {
 
+  /** Dynamic labels excluded from the fingerprint */
+  public static final Set<String> DYNAMIC_LABELS = Set.of("timestamp", "value");
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
   private AlertFingerprinter() {
     // Utility class - prevent instantiation
   }
 
+  /** Fingerprint hash algorithm */
+  public enum FingerprintAlgorithm {
+    /** Non-cryptographic MurmurHash3 x64 128-bit, 32 hex chars */
+    MURMUR3_128,
+
+    /** Legacy MD5 hex, compatible with fingerprints produced by earlier versions */
+    MD5
+  }
+
   /**
-   * Calculate fingerprint from labels by excluding dynamic fields.
+   * Calculate legacy MD5 fingerprint from labels by excluding dynamic fields.
    *
    * @param data Raw label map from alert source
    * @return MD5 hash of sorted, filtered labels
    */
   public static String calculate(Map<String, String> data) {
-    // Exclude dynamic fields (timestamp, value)
-    TreeMap<String, String> identityFields =
-        data.entrySet().stream()
-            .filter(entry -> !entry.getKey().equals("timestamp") && !entry.getKey().equals("value"))
-            .collect(
-                Collectors.toMap(
-                    Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, TreeMap::new));
-
-    // Sort and join with pipe delimiter for stable MD5
-    String rawString =
-        identityFields.entrySet().stream()
-            .map(entry -> entry.getKey() + "=" + entry.getValue())
-            .collect(Collectors.joining("|"));
-
-    return DigestUtils.md5Hex(rawString.getBytes());
+    return calculate(data, FingerprintAlgorithm.MD5);
+  }
+
+  /**
+   * Calculate fingerprint from labels by excluding dynamic fields.
+   *
+   * @param data Raw label map from alert source
+   * @param algorithm Hash algorithm
+   * @return Hex hash of sorted, filtered labels
+   */
+  public static String calculate(Map<String, String> data, FingerprintAlgorithm algorithm) {
+    return calculate(data, DYNAMIC_LABELS, algorithm);
+  }
+
+  /**
+   * Calculate fingerprint from labels by excluding the given labels.
+   *
+   * @param data Raw label map from alert source
+   * @param excluded Labels excluded from the fingerprint
+   * @param algorithm Hash algorithm
+   * @return Hex hash of sorted, filtered labels
+   */
+  public static String calculate(
+      Map<String, String> data, Set<String> excluded, FingerprintAlgorithm algorithm) {
+    // Exclude dynamic fields and sort remaining keys
+    String[] keys = new String[data.size()];
+    int count = 0;
+    for (String key : data.keySet()) {
+      if (!excluded.contains(key)) {
+        keys[count++] = key;
+      }
+    }
+    Arrays.sort(keys, 0, count);
+
+    return switch (algorithm) {
+      case MURMUR3_128 -> {
+        Murmur3Hash128 hash = new Murmur3Hash128();
+        encode(data, keys, count, hash);
+        yield hash.hex();
+      }
+      case MD5 -> {
+        Md5Sink md5 = new Md5Sink();
+        encode(data, keys, count, md5);
+        yield md5.hex();
+      }
+    };
+  }
+
+  /** Stream sorted labels as UTF-8 {@code key=value} pairs joined with pipe delimiter */
+  private static void encode(Map<String, String> data, String[] keys, int count, ByteSink sink) {
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        sink.put('|');
+      }
+      encodeUtf8(keys[i], sink);
+      sink.put('=');
+      encodeUtf8(String.valueOf(data.get(keys[i])), sink);
+    }
+  }
+
+  /** UTF-8 encoding identical to {@code String.getBytes(UTF_8)}, unpaired surrogates become '?' */
+  private static void encodeUtf8(String value, ByteSink sink) {
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        sink.put(c);
+      } else if (c < 0x800) {
+        sink.put(0xc0 | (c >> 6));
+        sink.put(0x80 | (c & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < length
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          sink.put(0xf0 | (codePoint >> 18));
+          sink.put(0x80 | ((codePoint >> 12) & 0x3f));
+          sink.put(0x80 | ((codePoint >> 6) & 0x3f));
+          sink.put(0x80 | (codePoint & 0x3f));
+        } else {
+          sink.put('?');
+        }
+      } else {
+        sink.put(0xe0 | (c >> 12));
+        sink.put(0x80 | ((c >> 6) & 0x3f));
+        sink.put(0x80 | (c & 0x3f));
+      }
+    }
+  }
+
+  static void appendHex(char[] out, int offset, long value) {
+    for (int i = 15; i >= 0; i--) {
+      out[offset + i] = HEX[(int) (value & 0xf)];
+      value >>>= 4;
+    }
+  }
+
+  /** Receives encoded bytes one at a time */
+  interface ByteSink {
+    void put(int b);
+  }
+
+  /** Buffers bytes into 64-byte chunks for {@link MessageDigest} */
+  private static final class Md5Sink implements ByteSink {
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[64];
+    private int position;
+
+    Md5Sink() {
+      try {
+        this.digest = MessageDigest.getInstance("MD5");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("MD5 not available", e);
+      }
+    }
+
+    @Override
+    public void put(int b) {
+      buffer[position++] = (byte) b;
+      if (position == buffer.length) {
+        digest.update(buffer, 0, position);
+        position = 0;
+      }
+    }
+
+    String hex() {
+      digest.update(buffer, 0, position);
+      byte[] hash = digest.digest();
+      char[] out = new char[hash.length * 2];
+      for (int i = 0; i < hash.length; i++) {
+        out[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+        out[i * 2 + 1] = HEX[hash[i] & 0xf];
+      }
+      return new String(out);
+    }
   }
 }
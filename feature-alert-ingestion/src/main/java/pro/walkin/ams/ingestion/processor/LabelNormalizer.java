@@ -1,25 +1,24 @@
 package pro.walkin.ams.ingestion.processor;
 
 import jakarta.enterprise.context.ApplicationScoped;
-import pro.walkin.ams.cluster.cache.LabelMappingCacher;
+import pro.walkin.ams.ingestion.plan.IngestionPlan;
+import pro.walkin.ams.ingestion.plan.IngestionPlanCache;
 
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
- * Label normalizer with distributed cache synchronization.
+ * Label normalizer driven by per-source ingestion plans.
  *
- * <p>Performance optimizations: 1. Volatile cache reference for cross-thread visibility 2.
- * Separated read/write paths to avoid lock contention 3. Optimized normalize() to minimize memory
- * allocation
+ * <p>The rename table is resolved once per payload as part of the {@link IngestionPlan}, so
+ * normalizing an event is a single pass without cache lookups.
  */
 @ApplicationScoped
 public class LabelNormalizer {
 
-  private final LabelMappingCacher labelMappingCacher;
+  private final IngestionPlanCache planCache;
 
-  public LabelNormalizer(LabelMappingCacher labelMappingCacher) {
-    this.labelMappingCacher = labelMappingCacher;
+  public LabelNormalizer(IngestionPlanCache planCache) {
+    this.planCache = planCache;
   }
 
   /**
@@ -27,20 +26,14 @@ public class LabelNormalizer {
    * unchanged.
    */
   public Map<String, String> normalize(Map<String, String> rawLabels, String sourceId) {
-    // Fast path: no rules defined
-    Map<String, String> rules = labelMappingCacher.get(sourceId);
-    if (rules == null || rules.isEmpty()) {
-      return rawLabels;
-    }
+    return normalize(rawLabels, planCache.plan(sourceId));
+  }
 
-    // Apply normalization rules
-    return rawLabels.entrySet().stream()
-        .collect(
-            Collectors.toMap(
-                entry -> rules.getOrDefault(entry.getKey(), entry.getKey()),
-                Map.Entry::getValue,
-                (a, b) -> a,
-                java.util.LinkedHashMap::new // Preserve insertion order
-                ));
+  /**
+   * Normalize labels with a resolved plan. Fast path: if no rules defined, return original labels
+   * unchanged.
+   */
+  public Map<String, String> normalize(Map<String, String> rawLabels, IngestionPlan plan) {
+    return plan.normalize(rawLabels);
   }
 }
@@ -0,0 +1,105 @@
+package pro.walkin.ams.ingestion.processor;
+
+/**
+ * 增量式 MurmurHash3 x64 128 位哈希（seed = 0）
+ *
+ * <p>逐字节接收输入，按 16 字节分块混合，不需要先把输入拼接成字节数组。结果与 {@code
+ * org.apache.commons.codec.digest.MurmurHash3#hash128x64(byte[])} 对同一字节序列的输出一致。实例不可复用、非线程安全。
+ */
+final class Murmur3Hash128 implements AlertFingerprinter.ByteSink {
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private long h1;
+  private long h2;
+
+  /** 当前块的低 8 字节和高 8 字节（小端） */
+  private long k1;
+
+  private long k2;
+
+  private int blockLength;
+  private long totalLength;
+
+  @Override
+  public void put(int b) {
+    long value = b & 0xffL;
+    if (blockLength < 8) {
+      k1 |= value << (blockLength << 3);
+    } else {
+      k2 |= value << ((blockLength - 8) << 3);
+    }
+
+    totalLength++;
+    if (++blockLength == 16) {
+      mixBlock();
+    }
+  }
+
+  /** 结束输入，返回 32 位十六进制字符串（h1、h2 依次大端输出） */
+  String hex() {
+    if (blockLength > 8) {
+      k2 *= C2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= C1;
+      h2 ^= k2;
+    }
+    if (blockLength > 0) {
+      k1 *= C1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= C2;
+      h1 ^= k1;
+    }
+
+    h1 ^= totalLength;
+    h2 ^= totalLength;
+
+    h1 += h2;
+    h2 += h1;
+
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+
+    h1 += h2;
+    h2 += h1;
+
+    char[] out = new char[32];
+    AlertFingerprinter.appendHex(out, 0, h1);
+    AlertFingerprinter.appendHex(out, 16, h2);
+    return new String(out);
+  }
+
+  private void mixBlock() {
+    k1 *= C1;
+    k1 = Long.rotateLeft(k1, 31);
+    k1 *= C2;
+    h1 ^= k1;
+
+    h1 = Long.rotateLeft(h1, 27);
+    h1 += h2;
+    h1 = h1 * 5 + 0x52dce729;
+
+    k2 *= C2;
+    k2 = Long.rotateLeft(k2, 33);
+    k2 *= C1;
+    h2 ^= k2;
+
+    h2 = Long.rotateLeft(h2, 31);
+    h2 += h1;
+    h2 = h2 * 5 + 0x38495ab5;
+
+    k1 = 0;
+    k2 = 0;
+    blockLength = 0;
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
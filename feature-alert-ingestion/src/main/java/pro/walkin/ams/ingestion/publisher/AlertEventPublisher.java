@@ -1,45 +1,218 @@
 package pro.walkin.ams.ingestion.publisher;
 
 import com.hazelcast.collection.IQueue;
-import com.hazelcast.core.HazelcastInstance;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pro.walkin.ams.cluster.queue.AlertEventQueues;
 import pro.walkin.ams.common.dto.AlertEvent;
 import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 告警事件发布器
+ *
+ * <p>按指纹把事件投递到 {@link AlertEventQueues} 中对应的分区队列，同一指纹的事件保持投递顺序。
+ *
+ * <p>事件先进入所属分区队列的缓冲，缓冲达到 {@code publish.batch-size} 条时由调用线程立即发布，否则由后台线程在首条事件等待
+ * {@code publish.batch-wait-ms} 后发布；每次发布是一次 {@link IQueue#addAll} 调用。{@link #publish} 返回的
+ * future 在事件进入队列后完成，调用方据此确认负载已投递。
+ */
 @ApplicationScoped
 public class AlertEventPublisher {
 
   private static final Logger LOG = LoggerFactory.getLogger(AlertEventPublisher.class);
-  private static final String QUEUE_NAME = "alert-events";
 
-  private final IQueue<AlertEvent> queue;
   private final AlertIngestionConfig config;
+  private final IngestionMetrics metrics;
 
-  public AlertEventPublisher(HazelcastInstance hazelcastInstance, AlertIngestionConfig config) {
-    this.queue = hazelcastInstance.getQueue(QUEUE_NAME);
+  private final int batchSize;
+  private final long batchWaitNanos;
+  private final List<PartitionBuffer> buffers;
+
+  /** 所有缓冲中尚未发布的事件数 */
+  private final AtomicLong pending = new AtomicLong();
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private Thread flusher;
+
+  public AlertEventPublisher(
+      AlertEventQueues queues, AlertIngestionConfig config, IngestionMetrics metrics) {
     this.config = config;
+    this.metrics = metrics;
+    this.batchSize = Math.max(1, config.publish().batchSize());
+    this.batchWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.publish().batchWaitMs());
+
+    List<PartitionBuffer> created = new ArrayList<>(queues.partitionCount());
+    for (int i = 0; i < queues.partitionCount(); i++) {
+      created.add(new PartitionBuffer(queues.queue(i)));
+    }
+    this.buffers = List.copyOf(created);
+  }
+
+  /** 应用启动时启动定时发布线程 */
+  void onStart(@Observes StartupEvent event) {
+    if (batchSize == 1 || !running.compareAndSet(false, true)) {
+      return;
+    }
+    flusher = Thread.ofVirtual().name("alert-event-publish-flusher").start(this::flushLoop);
+  }
+
+  /** 应用关闭时发布所有缓冲中的事件 */
+  void onShutdown(@Observes ShutdownEvent event) {
+    if (running.getAndSet(false)) {
+      flusher.interrupt();
+    }
+    for (PartitionBuffer buffer : buffers) {
+      buffer.flush();
+    }
+  }
+
+  /**
+   * 发布告警事件到指纹所属的分区队列
+   *
+   * @param event 告警事件
+   * @return 事件进入队列后完成；队列已满或发布失败时异常完成
+   */
+  public CompletableFuture<Void> publish(AlertEvent event) {
+    PartitionBuffer buffer = buffers.get(AlertEventQueues.indexOf(event.id(), buffers.size()));
+    CompletableFuture<Void> published = new CompletableFuture<>();
+    if (buffer.add(event, published) >= batchSize) {
+      metrics.getWindowFullTriggers().increment();
+      buffer.flush();
+    } else if (!running.get()) {
+      // 定时发布线程未运行（启动前或关闭后）时不等待
+      buffer.flush();
+    }
+    return published;
+  }
+
+  private void flushLoop() {
+    long tickMillis = Math.max(1L, config.publish().batchWaitMs());
+    while (running.get()) {
+      try {
+        Thread.sleep(tickMillis);
+        long now = System.nanoTime();
+        for (PartitionBuffer buffer : buffers) {
+          if (buffer.expired(now)) {
+            metrics.getWindowTimeTriggers().increment();
+            buffer.flush();
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception e) {
+        LOG.error("Alert event publish flusher error", e);
+      }
+    }
   }
 
-  /** 发布告警事件到队列 使用带超时的 offer 方法，避免无限阻塞 */
-  public void publish(AlertEvent event) {
-    try {
-      boolean success = queue.offer(event, config.queueOfferTimeoutMs(), TimeUnit.MILLISECONDS);
-      if (!success) {
-        LOG.error("Queue is full, failed to publish alert event: fingerprint={}", event.id());
-        throw new RuntimeException("Alert queue is full, cannot publish event: " + event.id());
+  /** 单个分区队列的发布缓冲 */
+  private final class PartitionBuffer {
+
+    private final IQueue<AlertEvent> queue;
+
+    /** 串行化发布，保证同一队列的批次按缓冲顺序进入队列 */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private List<AlertEvent> events = new ArrayList<>();
+    private List<CompletableFuture<Void>> futures = new ArrayList<>();
+    private long firstAddedAt;
+
+    PartitionBuffer(IQueue<AlertEvent> queue) {
+      this.queue = queue;
+    }
+
+    /** 追加事件，返回缓冲中的事件数 */
+    synchronized int add(AlertEvent event, CompletableFuture<Void> future) {
+      if (events.isEmpty()) {
+        firstAddedAt = System.nanoTime();
+      }
+      events.add(event);
+      futures.add(future);
+      metrics.setBufferDepth(pending.incrementAndGet());
+      return events.size();
+    }
+
+    synchronized boolean expired(long now) {
+      return !events.isEmpty() && now - firstAddedAt >= batchWaitNanos;
+    }
+
+    void flush() {
+      flushLock.lock();
+      try {
+        List<AlertEvent> batch;
+        List<CompletableFuture<Void>> batchFutures;
+        synchronized (this) {
+          if (events.isEmpty()) {
+            return;
+          }
+          batch = events;
+          batchFutures = futures;
+          events = new ArrayList<>(batch.size());
+          futures = new ArrayList<>(batch.size());
+        }
+        metrics.setBufferDepth(pending.addAndGet(-batch.size()));
+        write(batch, batchFutures);
+      } finally {
+        flushLock.unlock();
+      }
+    }
+
+    private void write(List<AlertEvent> batch, List<CompletableFuture<Void>> batchFutures) {
+      metrics.getFlushTotal().increment();
+      try {
+        if (queue.addAll(batch)) {
+          batchFutures.forEach(future -> future.complete(null));
+          LOG.debug("Published {} alert events to {}", batch.size(), queue.getName());
+          return;
+        }
+      } catch (Exception e) {
+        LOG.error("Failed to publish {} alert events to {}", batch.size(), queue.getName(), e);
+        RuntimeException failure = new RuntimeException("Failed to publish alert events", e);
+        batchFutures.forEach(future -> future.completeExceptionally(failure));
+        return;
+      }
+
+      // 队列剩余容量不足以放下整批：逐条带超时投递，等待消费者腾出空间
+      LOG.debug(
+          "Queue {} cannot take batch of {}, offering one by one", queue.getName(), batch.size());
+      for (int i = 0; i < batch.size(); i++) {
+        offer(batch.get(i), batchFutures.get(i));
+      }
+    }
+
+    /** 使用带超时的 offer 方法，避免无限阻塞 */
+    private void offer(AlertEvent event, CompletableFuture<Void> future) {
+      try {
+        if (queue.offer(event, config.queueOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+          future.complete(null);
+        } else {
+          LOG.error("Queue is full, failed to publish alert event: fingerprint={}", event.id());
+          future.completeExceptionally(
+              new RuntimeException("Alert queue is full, cannot publish event: " + event.id()));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOG.error("Interrupted while publishing alert event: fingerprint={}", event.id(), e);
+        future.completeExceptionally(
+            new RuntimeException("Interrupted while publishing alert event", e));
+      } catch (Exception e) {
+        LOG.error("Failed to publish alert event with fingerprint: {}", event.id(), e);
+        future.completeExceptionally(new RuntimeException("Failed to publish alert event", e));
       }
-      LOG.debug("Published alert event with fingerprint: {}", event.id());
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      LOG.error("Interrupted while publishing alert event: fingerprint={}", event.id(), e);
-      throw new RuntimeException("Interrupted while publishing alert event", e);
-    } catch (Exception e) {
-      LOG.error("Failed to publish alert event with fingerprint: {}", event.id(), e);
-      throw new RuntimeException("Failed to publish alert event", e);
     }
   }
 }
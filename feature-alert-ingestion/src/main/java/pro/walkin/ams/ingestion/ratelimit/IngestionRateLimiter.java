@@ -0,0 +1,142 @@
+package pro.walkin.ams.ingestion.ratelimit;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.cluster.processor.TokenBucketProcessor;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.common.dto.AlertEvent;
+import pro.walkin.ams.common.dto.ingestion.RateLimitDecision;
+import pro.walkin.ams.common.dto.ingestion.TokenBucketState;
+import pro.walkin.ams.common.security.TenantContext;
+import pro.walkin.ams.ingestion.SourceSnapshot;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 接入边缘限流器
+ *
+ * <p>每个负载依次向告警源桶和租户桶申请一个令牌，告警源桶参数取自 {@link SourceSnapshot}，桶状态保存在 {@link
+ * Constants.Cluster#INGESTION_RATE_LIMIT_MAP}，由 {@link TokenBucketProcessor} 在分区持有成员上原子更新，
+ * 集群中所有实例共享同一限额。任一桶令牌不足时拒绝整个负载；先通过的桶已扣减的令牌不退还。
+ *
+ * <p>{@link AlertIngestionConfig.ShedPolicy#LOW_SEVERITY_FIRST} 策略下，剩余令牌低于预留比例时放行的负载会丢弃低严重程度告警，
+ * 把剩余容量留给高严重程度告警。
+ */
+@ApplicationScoped
+public class IngestionRateLimiter {
+
+  private static final Logger log = LoggerFactory.getLogger(IngestionRateLimiter.class);
+
+  static final String SOURCE_KEY_PREFIX = "source:";
+  static final String TENANT_KEY_PREFIX = "tenant:";
+
+  private static final double PAYLOAD_COST = 1.0;
+
+  private final HazelcastInstance hazelcastInstance;
+  private final IngestionMetrics metrics;
+  private final AlertIngestionConfig.RateLimit config;
+  private final Set<String> shedSeverities;
+
+  public IngestionRateLimiter(
+      HazelcastInstance hazelcastInstance,
+      IngestionMetrics metrics,
+      AlertIngestionConfig config) {
+    this.hazelcastInstance = hazelcastInstance;
+    this.metrics = metrics;
+    this.config = config.rateLimit();
+    this.shedSeverities =
+        this.config.shedSeverities().stream()
+            .map(severity -> severity.trim().toUpperCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * 为一个负载申请令牌
+   *
+   * @param snapshot 告警源快照，提供告警源桶参数和所属租户
+   * @return 限流结果；未启用限流时总是放行
+   */
+  public RateLimitDecision acquire(SourceSnapshot snapshot) {
+    if (!config.enabled()) {
+      return RateLimitDecision.UNLIMITED;
+    }
+
+    String sourceId = snapshot.sourceId();
+    IMap<String, TokenBucketState> buckets = getBucketMap();
+    RateLimitDecision source =
+        buckets.executeOnKey(
+            SOURCE_KEY_PREFIX + sourceId,
+            new TokenBucketProcessor(
+                snapshot.rateLimitBurst(), snapshot.rateLimitRefillPerSecond(), PAYLOAD_COST));
+    if (!source.admitted()) {
+      return reject(sourceId, source);
+    }
+
+    RateLimitDecision tenant =
+        buckets.executeOnKey(
+            TENANT_KEY_PREFIX + tenantKey(snapshot),
+            new TokenBucketProcessor(
+                config.tenantBurst(), config.tenantRefillPerSecond(), PAYLOAD_COST));
+    if (!tenant.admitted()) {
+      return reject(sourceId, tenant);
+    }
+
+    metrics.recordRateLimitAdmitted(sourceId);
+    return RateLimitDecision.admit(Math.min(source.remainingRatio(), tenant.remainingRatio()));
+  }
+
+  /**
+   * 放行的负载是否需要丢弃低严重程度告警
+   *
+   * @param decision {@link #acquire(SourceSnapshot)} 的放行结果
+   * @return 启用低严重程度优先卸载且剩余令牌进入预留区时返回 true
+   */
+  public boolean shouldShedLowSeverity(RateLimitDecision decision) {
+    return config.enabled()
+        && config.shedPolicy() == AlertIngestionConfig.ShedPolicy.LOW_SEVERITY_FIRST
+        && decision.remainingRatio() < config.shedReserveRatio();
+  }
+
+  /**
+   * 判断告警是否属于可优先丢弃的严重程度
+   *
+   * <p>优先使用事件的严重程度字段，为空时读取 {@code severity} 标签；两者都没有时不丢弃。
+   *
+   * @param event 原始告警事件
+   * @return 是否可丢弃
+   */
+  public boolean isSheddable(AlertEvent event) {
+    String severity = event.severity();
+    if (severity == null && event.labels() != null) {
+      severity = event.labels().get("severity");
+    }
+    return severity != null && shedSeverities.contains(severity.toUpperCase(Locale.ROOT));
+  }
+
+  public IMap<String, TokenBucketState> getBucketMap() {
+    return hazelcastInstance.getMap(Constants.Cluster.INGESTION_RATE_LIMIT_MAP);
+  }
+
+  private RateLimitDecision reject(String sourceId, RateLimitDecision decision) {
+    log.debug(
+        "Ingestion rate limited: sourceId={}, retryAfterMs={}",
+        sourceId,
+        decision.retryAfterMillis());
+    metrics.recordRateLimitShed(sourceId, "rate_limit");
+    return decision;
+  }
+
+  /** 优先使用告警源登记的租户，未登记时使用请求的租户上下文 */
+  private static String tenantKey(SourceSnapshot snapshot) {
+    Long tenantId =
+        snapshot.tenantId() != null ? snapshot.tenantId() : TenantContext.getCurrentTenantId();
+    return tenantId != null ? tenantId.toString() : TenantContext.getDefaultTenant();
+  }
+}
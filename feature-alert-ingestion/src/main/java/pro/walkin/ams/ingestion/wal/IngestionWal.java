@@ -0,0 +1,350 @@
+package pro.walkin.ams.ingestion.wal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.common.exception.MapperNotFoundException;
+import pro.walkin.ams.common.exception.SourceOfflineException;
+import pro.walkin.ams.ingestion.IngestionLogic;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * 异步接入预写日志
+ *
+ * <p>开启 {@code ams.alert.ingestion.wal.enabled} 后，接入接口把原始负载追加到本地内存映射段文件后立即返回 202，
+ * 不再等待解析、去重和投递。单个分发线程按写入顺序读取记录，交给最多 {@code workers} 个并发任务执行 {@link
+ * IngestionLogic#process(String, InputStream)}，等待去重和投递完成后把记录标记为已处理；段内记录全部处理完后删除段文件。
+ *
+ * <p>启动时扫描目录中遗留的段文件，从最早的段开始重放所有未标记为已处理的记录，进程崩溃不会丢失已确认的负载。
+ * 失败的负载按指数退避重试，告警源离线或无映射器时不重试；停机时仍在失败的负载保持待处理，重启后重放。
+ */
+@ApplicationScoped
+public class IngestionWal {
+
+  private static final Logger log = LoggerFactory.getLogger(IngestionWal.class);
+
+  private final IngestionLogic logic;
+  private final AlertIngestionConfig.Wal config;
+
+  private final int segmentSize;
+
+  /** 未删除的段，按序号升序；最后一个为当前追加段 */
+  private final Deque<WalSegment> segments = new ConcurrentLinkedDeque<>();
+
+  private final Object appendLock = new Object();
+  private WalSegment active;
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final Semaphore workerPermits;
+  private final ExecutorService workerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+  private Thread dispatcher;
+
+  private final Counter appendedTotal;
+  private final Counter processedTotal;
+  private final Counter droppedTotal;
+
+  public IngestionWal(
+      IngestionLogic logic, AlertIngestionConfig config, MeterRegistry meterRegistry) {
+    this.logic = logic;
+    this.config = config.wal();
+    this.segmentSize = Math.multiplyExact(this.config.segmentSizeMb(), 1024 * 1024);
+    this.workerPermits = new Semaphore(Math.max(1, this.config.workers()));
+
+    this.appendedTotal =
+        Counter.builder("ams.ingestion.wal.appended.total")
+            .description("Number of payloads appended to the ingestion WAL")
+            .register(meterRegistry);
+    this.processedTotal =
+        Counter.builder("ams.ingestion.wal.processed.total")
+            .description("Number of WAL payloads processed by pipeline workers")
+            .register(meterRegistry);
+    this.droppedTotal =
+        Counter.builder("ams.ingestion.wal.dropped.total")
+            .description("Number of WAL payloads dropped after failures or corruption")
+            .register(meterRegistry);
+    Gauge.builder("ams.ingestion.wal.segments", segments, Deque::size)
+        .description("Number of WAL segment files not yet fully processed")
+        .register(meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return config.enabled();
+  }
+
+  /** 应用启动时恢复段文件并启动分发线程 */
+  void onStart(@Observes StartupEvent event) {
+    if (!config.enabled()) {
+      return;
+    }
+
+    try {
+      Path directory = Path.of(config.directory());
+      Files.createDirectories(directory);
+
+      List<Path> files;
+      try (Stream<Path> stream = Files.list(directory)) {
+        files =
+            stream
+                .filter(file -> file.getFileName().toString().endsWith(WalSegment.FILE_SUFFIX))
+                .sorted()
+                .toList();
+      }
+
+      for (Path file : files) {
+        WalSegment previous = segments.peekLast();
+        segments.addLast(WalSegment.open(directory, WalSegment.parseId(file), segmentSize));
+        if (previous != null) {
+          previous.seal();
+        }
+      }
+
+      if (segments.isEmpty()) {
+        segments.addLast(WalSegment.open(directory, 1, segmentSize));
+      }
+      active = segments.peekLast();
+
+      log.info(
+          "Ingestion WAL opened: directory={}, segments={}, segmentSizeMb={}",
+          directory,
+          segments.size(),
+          config.segmentSizeMb());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open ingestion WAL: " + config.directory(), e);
+    }
+
+    running.set(true);
+    dispatcher = Thread.ofVirtual().name("ingestion-wal-dispatcher").start(this::dispatchLoop);
+  }
+
+  /** 应用关闭时停止分发，等待在途负载处理完成后关闭段文件 */
+  void onShutdown(@Observes ShutdownEvent event) {
+    if (!running.getAndSet(false)) {
+      return;
+    }
+
+    dispatcher.interrupt();
+    workerExecutor.shutdown();
+    try {
+      if (!workerExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+        log.warn("Ingestion WAL workers did not finish in time, pending records replay on restart");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    synchronized (appendLock) {
+      for (WalSegment segment : segments) {
+        try {
+          segment.force();
+          segment.close();
+        } catch (IOException e) {
+          log.warn("Failed to close WAL segment: id={}", segment.id(), e);
+        }
+      }
+    }
+    log.info("Ingestion WAL closed");
+  }
+
+  /**
+   * 追加原始负载
+   *
+   * @param sourceId 告警源 ID
+   * @param rawPayload 原始负载流
+   * @throws IllegalArgumentException 负载超过单个段的容量
+   * @throws IllegalStateException 预写日志未启用或已关闭
+   */
+  public void append(String sourceId, InputStream rawPayload) {
+    if (!running.get()) {
+      throw new IllegalStateException("Ingestion WAL is not running");
+    }
+
+    int maxDataSize =
+        WalSegment.maxDataSize(segmentSize) - sourceId.getBytes(StandardCharsets.UTF_8).length;
+    byte[] payload;
+    try {
+      payload = rawPayload.readNBytes(maxDataSize + 1);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read ingestion payload", e);
+    }
+    if (payload.length > maxDataSize) {
+      throw new IllegalArgumentException("Payload exceeds WAL segment size: " + sourceId);
+    }
+
+    synchronized (appendLock) {
+      int offset = active.append(sourceId, payload);
+      if (offset < 0) {
+        roll();
+        active.append(sourceId, payload);
+      }
+      if (config.forceOnAppend()) {
+        active.force();
+      }
+    }
+    appendedTotal.increment();
+  }
+
+  /** 封存当前段并创建下一个段，调用方持有 {@link #appendLock} */
+  private void roll() {
+    try {
+      WalSegment next =
+          WalSegment.open(Path.of(config.directory()), active.id() + 1, segmentSize);
+      active.force();
+      segments.addLast(next);
+      active.seal();
+      active = next;
+      log.debug("Ingestion WAL rolled to segment {}", next.id());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to roll ingestion WAL segment", e);
+    }
+  }
+
+  private void dispatchLoop() {
+    WalSegment segment = segments.peekFirst();
+    int readOffset = 0;
+
+    while (running.get()) {
+      try {
+        // 先读封存标志再读写入位置：封存前的最后一次写入对本线程可见
+        boolean sealed = segment.isSealed();
+        if (readOffset < segment.writePosition()) {
+          WalRecord record = segment.read(readOffset);
+          readOffset = record.nextOffset();
+          dispatch(segment, record);
+        } else if (sealed) {
+          long finishedId = segment.id();
+          finishReading(segment);
+          segment = nextSegment(finishedId);
+          readOffset = 0;
+        } else {
+          Thread.sleep(config.pollIntervalMs());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception e) {
+        log.error("Ingestion WAL dispatcher error", e);
+      }
+    }
+  }
+
+  /** 段封存前已创建下一个段，因此总能找到 */
+  private WalSegment nextSegment(long finishedId) {
+    for (WalSegment segment : segments) {
+      if (segment.id() > finishedId) {
+        return segment;
+      }
+    }
+    throw new IllegalStateException("No WAL segment after " + finishedId);
+  }
+
+  private void dispatch(WalSegment segment, WalRecord record) throws InterruptedException {
+    if (record.corrupt()) {
+      log.error(
+          "Corrupt WAL record skipped: segment={}, offset={}", record.segmentId(), record.offset());
+      droppedTotal.increment();
+      segment.markDone(record.offset());
+      return;
+    }
+    if (!record.isPending()) {
+      return;
+    }
+
+    workerPermits.acquire();
+    segment.inFlight().incrementAndGet();
+    workerExecutor.execute(() -> processRecord(segment, record));
+  }
+
+  private void processRecord(WalSegment segment, WalRecord record) {
+    try {
+      long delayMs = config.retryDelayMs();
+      for (int attempt = 1; ; attempt++) {
+        try {
+          logic.process(record.sourceId(), new ByteArrayInputStream(record.payload())).join();
+          processedTotal.increment();
+          break;
+        } catch (SourceOfflineException | MapperNotFoundException e) {
+          log.warn(
+              "WAL payload dropped: sourceId={}, reason={}", record.sourceId(), e.getMessage());
+          droppedTotal.increment();
+          break;
+        } catch (Exception e) {
+          if (!running.get()) {
+            // 停机中：记录保持待处理，重启后重放，不计为丢弃
+            log.warn(
+                "WAL payload failed during shutdown, left for replay: sourceId={}",
+                record.sourceId(),
+                e);
+            return;
+          }
+          if (attempt >= config.maxAttempts()) {
+            log.error(
+                "WAL payload failed after {} attempts: sourceId={}",
+                attempt,
+                record.sourceId(),
+                e);
+            droppedTotal.increment();
+            break;
+          }
+          log.warn(
+              "WAL payload failed, retrying in {}ms: sourceId={}, attempt={}",
+              delayMs,
+              record.sourceId(),
+              attempt,
+              e);
+          Thread.sleep(delayMs);
+          delayMs *= 2;
+        }
+      }
+      segment.markDone(record.offset());
+    } catch (InterruptedException e) {
+      // 停机中断：记录保持待处理，重启后重放
+      Thread.currentThread().interrupt();
+    } finally {
+      workerPermits.release();
+      segment.inFlight().decrementAndGet();
+      retireIfDone(segment);
+    }
+  }
+
+  private void finishReading(WalSegment segment) {
+    segment.markReadComplete();
+    retireIfDone(segment);
+  }
+
+  /** 段已读完且无在途记录时删除段文件；停机中段内可能留有待重放的记录，不删除 */
+  private void retireIfDone(WalSegment segment) {
+    if (!running.get() || !segment.tryRetire()) {
+      return;
+    }
+    segments.remove(segment);
+    try {
+      segment.delete();
+      log.debug("Ingestion WAL segment {} deleted", segment.id());
+    } catch (IOException e) {
+      log.warn("Failed to delete WAL segment: id={}", segment.id(), e);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package pro.walkin.ams.ingestion.wal;
+
+/**
+ * 预写日志记录
+ *
+ * @param segmentId 所在段序号
+ * @param offset 记录偏移量
+ * @param nextOffset 下一条记录的偏移量
+ * @param sourceId 告警源 ID，已处理或校验失败时为 null
+ * @param payload 原始负载，已处理或校验失败时为 null
+ * @param corrupt 校验和不匹配
+ */
+record WalRecord(
+    long segmentId,
+    int offset,
+    int nextOffset,
+    String sourceId,
+    byte[] payload,
+    boolean corrupt) {
+
+  boolean isPending() {
+    return payload != null;
+  }
+}
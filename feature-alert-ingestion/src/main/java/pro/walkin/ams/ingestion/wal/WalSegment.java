@@ -0,0 +1,222 @@
+package pro.walkin.ams.ingestion.wal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * 预写日志段文件
+ *
+ * <p>固定大小、内存映射的段文件，记录依次追加。记录格式：
+ *
+ * <pre>
+ * int   dataLength   sourceId 与 payload 的总长度，0 表示段内后续无记录
+ * byte  state        0 = 待处理，1 = 已处理
+ * int   crc32        sourceId 与 payload 的校验和
+ * short sourceIdLength
+ * bytes sourceId (UTF-8)
+ * bytes payload
+ * </pre>
+ *
+ * <p>追加时先写数据、校验和与状态，最后写长度，长度非 0 的记录即完整。写入经操作系统页缓存落盘，进程崩溃后重启可从段文件重放未处理的记录。
+ */
+final class WalSegment {
+
+  static final String FILE_SUFFIX = ".wal";
+
+  private static final int HEADER_SIZE = 4 + 1 + 4 + 2;
+
+  private static final byte STATE_PENDING = 0;
+  private static final byte STATE_DONE = 1;
+
+  private final long id;
+  private final Path path;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+
+  /** 已发布的写入位置，读取方只读取该位置之前的记录 */
+  private volatile int writePosition;
+
+  /** 段已写满，不再追加 */
+  private volatile boolean sealed;
+
+  /** 已读取但未处理完的记录数 */
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  /** 分发线程已读完全部记录 */
+  private volatile boolean readComplete;
+
+  private final AtomicBoolean retired = new AtomicBoolean(false);
+
+  private WalSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+    this.id = id;
+    this.path = path;
+    this.channel = channel;
+    this.buffer = buffer;
+  }
+
+  /**
+   * 打开或创建段文件，并扫描已写入的记录确定写入位置
+   *
+   * @param directory 段文件目录
+   * @param id 段序号
+   * @param size 段大小（字节）
+   * @return 段
+   */
+  static WalSegment open(Path directory, long id, int size) throws IOException {
+    Path path = directory.resolve(fileName(id));
+    FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+    WalSegment segment = new WalSegment(id, path, channel, buffer);
+    segment.writePosition = segment.scanEnd();
+    return segment;
+  }
+
+  static String fileName(long id) {
+    return String.format("segment-%020d%s", id, FILE_SUFFIX);
+  }
+
+  static long parseId(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring("segment-".length(), name.length() - FILE_SUFFIX.length()));
+  }
+
+  /** 单条记录 sourceId 与 payload 的最大总长度 */
+  static int maxDataSize(int segmentSize) {
+    return segmentSize - HEADER_SIZE - 4;
+  }
+
+  long id() {
+    return id;
+  }
+
+  int writePosition() {
+    return writePosition;
+  }
+
+  boolean isSealed() {
+    return sealed;
+  }
+
+  void seal() {
+    sealed = true;
+  }
+
+  AtomicInteger inFlight() {
+    return inFlight;
+  }
+
+  void markReadComplete() {
+    readComplete = true;
+  }
+
+  /**
+   * 尝试退役：已读完且无在途记录时返回 true，且只返回一次
+   *
+   * @return 调用方是否应删除段文件
+   */
+  boolean tryRetire() {
+    return readComplete && inFlight.get() == 0 && retired.compareAndSet(false, true);
+  }
+
+  /**
+   * 追加记录，调用方负责串行化
+   *
+   * @return 记录偏移量；剩余空间不足时返回 -1
+   */
+  int append(String sourceId, byte[] payload) {
+    byte[] sourceBytes = sourceId.getBytes(StandardCharsets.UTF_8);
+    int dataLength = sourceBytes.length + payload.length;
+    int offset = writePosition;
+
+    // 保留 4 字节结束标记
+    if (offset + HEADER_SIZE + dataLength + 4 > buffer.capacity()) {
+      return -1;
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(sourceBytes);
+    crc.update(payload);
+
+    buffer.putShort(offset + 9, (short) sourceBytes.length);
+    buffer.put(offset + HEADER_SIZE, sourceBytes);
+    buffer.put(offset + HEADER_SIZE + sourceBytes.length, payload);
+    buffer.putInt(offset + 5, (int) crc.getValue());
+    buffer.put(offset + 4, STATE_PENDING);
+    buffer.putInt(offset, dataLength);
+
+    writePosition = offset + HEADER_SIZE + dataLength;
+    return offset;
+  }
+
+  /**
+   * 读取记录
+   *
+   * @param offset 记录偏移量，必须小于 {@link #writePosition()}
+   * @return 记录；已处理或校验失败的记录 {@code payload} 为 null
+   */
+  WalRecord read(int offset) {
+    int dataLength = buffer.getInt(offset);
+    int next = offset + HEADER_SIZE + dataLength;
+    if (buffer.get(offset + 4) == STATE_DONE) {
+      return new WalRecord(id, offset, next, null, null, false);
+    }
+
+    int sourceLength = buffer.getShort(offset + 9);
+    byte[] sourceBytes = new byte[sourceLength];
+    buffer.get(offset + HEADER_SIZE, sourceBytes);
+    byte[] payload = new byte[dataLength - sourceLength];
+    buffer.get(offset + HEADER_SIZE + sourceLength, payload);
+
+    CRC32 crc = new CRC32();
+    crc.update(sourceBytes);
+    crc.update(payload);
+    if ((int) crc.getValue() != buffer.getInt(offset + 5)) {
+      return new WalRecord(id, offset, next, null, null, true);
+    }
+
+    return new WalRecord(
+        id, offset, next, new String(sourceBytes, StandardCharsets.UTF_8), payload, false);
+  }
+
+  void markDone(int offset) {
+    buffer.put(offset + 4, STATE_DONE);
+  }
+
+  /** 将映射内容强制刷盘 */
+  void force() {
+    buffer.force();
+  }
+
+  void close() throws IOException {
+    channel.close();
+  }
+
+  void delete() throws IOException {
+    close();
+    Files.deleteIfExists(path);
+  }
+
+  /** 扫描到第一条长度为 0 或越界的记录，返回写入位置 */
+  private int scanEnd() {
+    int position = 0;
+    while (position + HEADER_SIZE <= buffer.capacity()) {
+      int dataLength = buffer.getInt(position);
+      if (dataLength <= 0 || position + HEADER_SIZE + dataLength > buffer.capacity()) {
+        break;
+      }
+      position += HEADER_SIZE + dataLength;
+    }
+    return position;
+  }
+}
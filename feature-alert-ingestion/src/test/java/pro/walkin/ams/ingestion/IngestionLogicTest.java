@@ -0,0 +1,153 @@
+package pro.walkin.ams.ingestion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.common.dto.AlertEvent;
+import pro.walkin.ams.common.dto.ingestion.DeduplicationResult;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.deduplication.AlertDeduplicationStore;
+import pro.walkin.ams.ingestion.mapper.DefaultAlertMapper;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+import pro.walkin.ams.ingestion.plan.IngestionPlan;
+import pro.walkin.ams.ingestion.plan.IngestionPlanCache;
+import pro.walkin.ams.ingestion.processor.AlertFingerprinter.FingerprintAlgorithm;
+import pro.walkin.ams.ingestion.processor.LabelNormalizer;
+import pro.walkin.ams.ingestion.publisher.AlertEventPublisher;
+import pro.walkin.ams.ingestion.ratelimit.IngestionRateLimiter;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IngestionLogicTest {
+
+  private static final String SOURCE_ID = "prometheus";
+
+  private final AlertDeduplicationStore deduplicationStore = mock(AlertDeduplicationStore.class);
+  private final AlertEventPublisher publisher = mock(AlertEventPublisher.class);
+
+  /** 模拟去重存储中已记录的指纹，撤销时删除 */
+  private final Set<String> recorded = ConcurrentHashMap.newKeySet();
+
+  private IngestionLogic logic;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    AlertMapper mapper = mock(AlertMapper.class);
+    doAnswer(
+            invocation -> {
+              Consumer<AlertEvent> sink = invocation.getArgument(1);
+              LocalDateTime at = LocalDateTime.now();
+              sink.accept(
+                  new AlertEvent(
+                      null,
+                      SOURCE_ID,
+                      "summary",
+                      Map.of("alertname", "HighCpu"),
+                      1,
+                      at,
+                      at,
+                      "FIRING",
+                      "HIGH"));
+              return null;
+            })
+        .when(mapper)
+        .map(any(InputStream.class), any(Consumer.class));
+
+    SourceStatusService sourceStatusService = mock(SourceStatusService.class);
+    when(sourceStatusService.snapshot(SOURCE_ID))
+        .thenReturn(new SourceSnapshot(SOURCE_ID, true, "http", 1L, mapper, 100, 100));
+
+    IngestionPlan plan = mock(IngestionPlan.class);
+    when(plan.sourceId()).thenReturn(SOURCE_ID);
+    when(plan.excludedIdentityLabels()).thenReturn(Set.of());
+    IngestionPlanCache planCache = mock(IngestionPlanCache.class);
+    when(planCache.plan(SOURCE_ID)).thenReturn(plan);
+
+    LabelNormalizer normalizer = mock(LabelNormalizer.class);
+    when(normalizer.normalize(anyMap(), eq(plan)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    AlertIngestionConfig config = mock(AlertIngestionConfig.class, RETURNS_DEEP_STUBS);
+    when(config.fingerprintAlgorithm()).thenReturn(FingerprintAlgorithm.MD5);
+    when(config.deduplicationTimeWindowMs()).thenReturn(60_000L);
+    when(config.deduplicationMaxCount()).thenReturn(100);
+
+    when(deduplicationStore.checkAndRecordAll(eq(SOURCE_ID), anyMap(), anyLong(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              Map<String, Integer> occurrences = invocation.getArgument(1);
+              Map<String, DeduplicationResult> results = new ConcurrentHashMap<>();
+              occurrences.forEach(
+                  (fingerprint, count) ->
+                      results.put(
+                          fingerprint,
+                          recorded.add(fingerprint)
+                              ? DeduplicationResult.newAlert(0L)
+                              : DeduplicationResult.duplicate(count, 0L)));
+              return CompletableFuture.completedFuture(results);
+            });
+    when(deduplicationStore.forget(anyString()))
+        .thenAnswer(
+            invocation -> {
+              recorded.remove(invocation.<String>getArgument(0));
+              return CompletableFuture.completedFuture(null);
+            });
+
+    logic =
+        new IngestionLogic(
+            new IngestionMetrics(new SimpleMeterRegistry()),
+            deduplicationStore,
+            publisher,
+            normalizer,
+            config,
+            sourceStatusService,
+            mock(DefaultAlertMapper.class),
+            planCache,
+            mock(IngestionRateLimiter.class));
+  }
+
+  private CompletableFuture<Void> process() {
+    return logic.process(SOURCE_ID, new ByteArrayInputStream(new byte[0]));
+  }
+
+  @Test
+  @DisplayName("should publish an alert again when the payload is retried after a failed publish")
+  void shouldRepublishAfterFailedPublish() {
+    when(publisher.publish(any()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("queue full")))
+        .thenReturn(CompletableFuture.completedFuture(null));
+
+    assertThatThrownBy(() -> process().join()).hasRootCauseMessage("queue full");
+    assertThat(recorded).isEmpty();
+
+    process().join();
+
+    verify(publisher, times(2)).publish(any());
+    assertThat(recorded).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("should keep the deduplication entry when the publish succeeds")
+  void shouldKeepEntryAfterSuccessfulPublish() {
+    when(publisher.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+    process().join();
+    process().join();
+
+    verify(publisher, times(1)).publish(any());
+    verify(deduplicationStore, never()).forget(anyString());
+    assertThat(recorded).hasSize(1);
+  }
+}
@@ -3,15 +3,22 @@ package pro.walkin.ams.ingestion;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import jakarta.enterprise.inject.Instance;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import pro.walkin.ams.common.dto.ingestion.SourceRuntimeStatus;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
 
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class SourceStatusServiceTest {
 
@@ -89,6 +96,100 @@ class SourceStatusServiceTest {
     }
   }
 
+  @Nested
+  @DisplayName("cluster sync")
+  class ClusterSync {
+
+    private IMap<String, SourceRuntimeStatus> clusterMap;
+    private SourceStatusService realService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+      clusterMap = hazelcastInstance.getMap("ams-source-runtime-status");
+      // 集群 Map 非空时不会访问数据库
+      clusterMap.put("prometheus", new SourceRuntimeStatus(true, "HTTP", 7L));
+
+      Instance<AlertMapper> mappers = mock(Instance.class);
+      when(mappers.iterator()).thenReturn(Collections.emptyIterator());
+      AlertIngestionConfig config = mock(AlertIngestionConfig.class, RETURNS_DEEP_STUBS);
+      when(config.rateLimit().sourceBurst()).thenReturn(200.0);
+      when(config.rateLimit().sourceRefillPerSecond()).thenReturn(100.0);
+
+      realService = new SourceStatusService(hazelcastInstance, mappers, config);
+      realService.init();
+    }
+
+    @Test
+    @DisplayName("should expose an immutable snapshot of the cluster entry")
+    void shouldExposeSnapshot() {
+      SourceSnapshot snapshot = realService.snapshot("prometheus");
+
+      assertThat(snapshot.online()).isTrue();
+      assertThat(snapshot.protocol()).isEqualTo("HTTP");
+      assertThat(snapshot.tenantId()).isEqualTo(7L);
+      assertThat(snapshot.mapper()).isNull();
+      assertThat(snapshot.rateLimitBurst()).isEqualTo(200.0);
+    }
+
+    @Test
+    @DisplayName("should keep protocol and tenant when status is updated")
+    void shouldKeepMetadataOnUpdate() {
+      realService.updateStatus("prometheus", false);
+
+      awaitTrue(() -> !realService.isOnline("prometheus"));
+      assertThat(realService.snapshot("prometheus").protocol()).isEqualTo("HTTP");
+      assertThat(realService.snapshot("prometheus").tenantId()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("should drop removed sources")
+    void shouldDropRemovedSources() {
+      clusterMap.remove("prometheus");
+
+      awaitTrue(() -> realService.snapshot("prometheus") == null);
+      assertThat(realService.isOnline("prometheus")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should drop evicted sources")
+    void shouldDropEvictedSources() {
+      clusterMap.evict("prometheus");
+
+      awaitTrue(() -> realService.snapshot("prometheus") == null);
+    }
+
+    @Test
+    @DisplayName("should drop expired sources")
+    void shouldDropExpiredSources() {
+      clusterMap.put("zabbix", new SourceRuntimeStatus(true, "HTTP", 7L), 1, TimeUnit.SECONDS);
+      awaitTrue(() -> realService.isOnline("zabbix"));
+
+      awaitTrue(() -> realService.snapshot("zabbix") == null);
+    }
+
+    @Test
+    @DisplayName("should drop all sources when the cluster map is cleared")
+    void shouldDropAllOnClear() {
+      clusterMap.clear();
+
+      awaitTrue(() -> realService.snapshot("prometheus") == null);
+    }
+
+    private void awaitTrue(BooleanSupplier condition) {
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (!condition.getAsBoolean()) {
+        assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new AssertionError(e);
+        }
+      }
+    }
+  }
+
   private static class TestableSourceStatusService extends SourceStatusService {
     private final IMap<String, Boolean> clusterMap;
     private final ConcurrentHashMap<String, Boolean> localCache;
@@ -97,7 +198,7 @@ class SourceStatusServiceTest {
         HazelcastInstance hz,
         IMap<String, Boolean> clusterMap,
         ConcurrentHashMap<String, Boolean> localCache) {
-      super(hz);
+      super(hz, null, null);
       this.clusterMap = clusterMap;
       this.localCache = localCache;
     }
@@ -0,0 +1,98 @@
+package pro.walkin.ams.ingestion.connector;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.common.dto.ingestion.RateLimitDecision;
+import pro.walkin.ams.ingestion.IngestionLogic;
+import pro.walkin.ams.ingestion.SourceSnapshot;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+import pro.walkin.ams.ingestion.ratelimit.IngestionRateLimiter;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Mockito.*;
+
+class IngestionBatcherTest {
+
+  private static final String SOURCE_ID = "ndjson";
+
+  private final SourceSnapshot source =
+      new SourceSnapshot(SOURCE_ID, true, "TCP", 100L, null, 10.0, 1.0);
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private IngestionLogic logic;
+  private IngestionRateLimiter rateLimiter;
+  private IngestionBatcher batcher;
+
+  @BeforeEach
+  void setUp() {
+    Vertx vertx = mock(Vertx.class);
+    AlertIngestionConfig.Connectors config = mock(AlertIngestionConfig.Connectors.class);
+    when(config.batchSize()).thenReturn(2);
+    when(config.batchWaitMs()).thenReturn(60_000L);
+    when(config.maxInFlightBatches()).thenReturn(4);
+
+    logic = mock(IngestionLogic.class);
+    when(logic.validateSource(SOURCE_ID)).thenReturn(source);
+    when(logic.process(eq(SOURCE_ID), any(InputStream.class), anyBoolean()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    rateLimiter = mock(IngestionRateLimiter.class);
+
+    batcher =
+        new IngestionBatcher(
+            "ndjson",
+            SOURCE_ID,
+            vertx,
+            config,
+            logic,
+            rateLimiter,
+            new IngestionMetrics(new SimpleMeterRegistry()),
+            executor,
+            () -> {},
+            () -> {});
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.close();
+  }
+
+  @Test
+  @DisplayName("should acquire one rate limit token per batch")
+  void shouldAcquireTokenPerBatch() {
+    RateLimitDecision admitted = RateLimitDecision.admit(0.9);
+    when(rateLimiter.acquire(source)).thenReturn(admitted);
+    when(rateLimiter.shouldShedLowSeverity(admitted)).thenReturn(false);
+
+    batcher.add(Buffer.buffer("{\"a\":1}"));
+    batcher.add(Buffer.buffer("{\"a\":2}"));
+
+    verify(logic, timeout(5_000)).process(eq(SOURCE_ID), any(InputStream.class), eq(false));
+    verify(rateLimiter, times(1)).acquire(source);
+  }
+
+  @Test
+  @DisplayName("should wait for tokens instead of dropping a rate limited batch")
+  void shouldWaitForTokensWhenRateLimited() {
+    RateLimitDecision admitted = RateLimitDecision.admit(0.05);
+    when(rateLimiter.acquire(source))
+        .thenReturn(RateLimitDecision.reject(0.0, 5L))
+        .thenReturn(admitted);
+    when(rateLimiter.shouldShedLowSeverity(admitted)).thenReturn(true);
+
+    batcher.add(Buffer.buffer("{\"a\":1}"));
+    batcher.flush();
+
+    verify(logic, timeout(5_000)).process(eq(SOURCE_ID), any(InputStream.class), eq(true));
+    verify(rateLimiter, times(2)).acquire(source);
+  }
+}
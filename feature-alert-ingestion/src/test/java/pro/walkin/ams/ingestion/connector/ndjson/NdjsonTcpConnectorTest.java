@@ -0,0 +1,37 @@
+package pro.walkin.ams.ingestion.connector.ndjson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NdjsonTcpConnectorTest {
+
+  private final JsonFactory factory = new JsonFactory();
+
+  private boolean accepts(String line) {
+    return NdjsonTcpConnector.isJsonObject(factory, Buffer.buffer(line));
+  }
+
+  @Test
+  @DisplayName("should accept a single JSON object per line")
+  void shouldAcceptJsonObject() {
+    assertThat(accepts("{\"alertname\":\"HighCpu\",\"labels\":{\"job\":\"node\"},\"n\":[1,2]}"))
+        .isTrue();
+    assertThat(accepts("  {} ")).isTrue();
+  }
+
+  @Test
+  @DisplayName("should reject malformed, truncated or non-object lines")
+  void shouldRejectInvalidLines() {
+    assertThat(accepts("{\"alertname\":")).isFalse();
+    assertThat(accepts("{\"alertname\":\"HighCpu\"")).isFalse();
+    assertThat(accepts("{\"a\":1}]")).isFalse();
+    assertThat(accepts("{\"a\":1}{\"b\":2}")).isFalse();
+    assertThat(accepts("[{\"a\":1}]")).isFalse();
+    assertThat(accepts("\"text\"")).isFalse();
+    assertThat(accepts("not json")).isFalse();
+  }
+}
@@ -0,0 +1,55 @@
+package pro.walkin.ams.ingestion.connector.syslog;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class Rfc5424ParserTest {
+
+  @Test
+  @DisplayName("should parse header, structured data and message")
+  void shouldParseFullMessage() {
+    ObjectNode node =
+        Rfc5424Parser.parse(
+            "<34>1 2003-10-11T22:14:15.003Z mymachine.example.com su - ID47 "
+                + "[exampleSDID@32473 iut=\"3\" eventSource=\"App\\\"lication\\]\"][meta x=\"1\"]"
+                + " \uFEFF'su root' failed");
+
+    assertThat(node.get("facility").asInt()).isEqualTo(4);
+    assertThat(node.get("severityCode").asInt()).isEqualTo(2);
+    assertThat(node.get("severity").asText()).isEqualTo("crit");
+    assertThat(node.get("version").asInt()).isEqualTo(1);
+    assertThat(node.get("timestamp").asText()).isEqualTo("2003-10-11T22:14:15.003Z");
+    assertThat(node.get("hostname").asText()).isEqualTo("mymachine.example.com");
+    assertThat(node.get("appName").asText()).isEqualTo("su");
+    assertThat(node.has("procId")).isFalse();
+    assertThat(node.get("msgId").asText()).isEqualTo("ID47");
+    assertThat(node.at("/structuredData/exampleSDID@32473/iut").asText()).isEqualTo("3");
+    assertThat(node.at("/structuredData/exampleSDID@32473/eventSource").asText())
+        .isEqualTo("App\"lication]");
+    assertThat(node.at("/structuredData/meta/x").asText()).isEqualTo("1");
+    assertThat(node.get("message").asText()).isEqualTo("'su root' failed");
+  }
+
+  @Test
+  @DisplayName("should omit nil structured data and missing message")
+  void shouldHandleNilValues() {
+    ObjectNode node = Rfc5424Parser.parse("<165>1 - - - - - -");
+
+    assertThat(node.get("severity").asText()).isEqualTo("notice");
+    assertThat(node.has("timestamp")).isFalse();
+    assertThat(node.has("structuredData")).isFalse();
+    assertThat(node.has("message")).isFalse();
+  }
+
+  @Test
+  @DisplayName("should reject messages without a valid header")
+  void shouldRejectInvalidHeader() {
+    assertThatIllegalArgumentException().isThrownBy(() -> Rfc5424Parser.parse("hello"));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> Rfc5424Parser.parse("<200>1 - - - - - -"));
+    assertThatIllegalArgumentException().isThrownBy(() -> Rfc5424Parser.parse("<34>1 host"));
+  }
+}
@@ -0,0 +1,93 @@
+package pro.walkin.ams.ingestion.processor;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MurmurHash3;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.ingestion.processor.AlertFingerprinter.FingerprintAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AlertFingerprinterTest {
+
+  private static final Map<String, String> LABELS =
+      Map.of(
+          "alertname", "HighCpu",
+          "instance", "节点-01:9100",
+          "job", "node 😀",
+          "timestamp", "1700000000",
+          "value", "97.5");
+
+  private static final String CANONICAL = "alertname=HighCpu|instance=节点-01:9100|job=node 😀";
+
+  @Nested
+  @DisplayName("MD5")
+  class Md5 {
+
+    @Test
+    @DisplayName("should match legacy MD5 hex of sorted, filtered labels")
+    void shouldMatchLegacyDigest() {
+      assertThat(AlertFingerprinter.calculate(LABELS, FingerprintAlgorithm.MD5))
+          .isEqualTo(DigestUtils.md5Hex(CANONICAL.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("should be the default algorithm of calculate(Map)")
+    void shouldBeDefault() {
+      assertThat(AlertFingerprinter.calculate(LABELS))
+          .isEqualTo(AlertFingerprinter.calculate(LABELS, FingerprintAlgorithm.MD5));
+    }
+
+    @Test
+    @DisplayName("should hash empty labels like legacy empty string")
+    void shouldHashEmptyLabels() {
+      assertThat(AlertFingerprinter.calculate(Map.of("value", "1")))
+          .isEqualTo(DigestUtils.md5Hex(new byte[0]));
+    }
+  }
+
+  @Nested
+  @DisplayName("MURMUR3_128")
+  class Murmur {
+
+    @Test
+    @DisplayName("should match MurmurHash3 x64 128 of the canonical label string")
+    void shouldMatchReferenceHash() {
+      long[] hash = MurmurHash3.hash128x64(CANONICAL.getBytes(StandardCharsets.UTF_8));
+
+      assertThat(AlertFingerprinter.calculate(LABELS, FingerprintAlgorithm.MURMUR3_128))
+          .isEqualTo(String.format("%016x%016x", hash[0], hash[1]));
+    }
+
+    @Test
+    @DisplayName("should ignore dynamic fields and label order")
+    void shouldIgnoreDynamicFields() {
+      Map<String, String> reordered = new HashMap<>(LABELS);
+      reordered.put("timestamp", "1800000000");
+      reordered.remove("value");
+
+      assertThat(AlertFingerprinter.calculate(reordered, FingerprintAlgorithm.MURMUR3_128))
+          .isEqualTo(AlertFingerprinter.calculate(LABELS, FingerprintAlgorithm.MURMUR3_128));
+    }
+
+    @Test
+    @DisplayName("should cross 16-byte block boundaries consistently")
+    void shouldHandleBlockBoundaries() {
+      for (int length = 0; length < 40; length++) {
+        String value = "x".repeat(length);
+        long[] hash = MurmurHash3.hash128x64(("k=" + value).getBytes(StandardCharsets.UTF_8));
+
+        String fingerprint =
+            AlertFingerprinter.calculate(Map.of("k", value), FingerprintAlgorithm.MURMUR3_128);
+
+        assertThat(fingerprint)
+            .isEqualTo(String.format("%016x%016x", hash[0], hash[1]));
+      }
+    }
+  }
+}
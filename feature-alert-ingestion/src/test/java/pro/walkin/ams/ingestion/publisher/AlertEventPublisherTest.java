@@ -0,0 +1,99 @@
+package pro.walkin.ams.ingestion.publisher;
+
+import com.hazelcast.collection.IQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.cluster.queue.AlertEventQueues;
+import pro.walkin.ams.common.dto.AlertEvent;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+import pro.walkin.ams.ingestion.metrics.IngestionMetrics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AlertEventPublisherTest {
+
+  @SuppressWarnings("unchecked")
+  private final IQueue<AlertEvent> queue = mock(IQueue.class);
+
+  private final IngestionMetrics metrics = new IngestionMetrics(new SimpleMeterRegistry());
+  private AlertEventPublisher publisher;
+
+  @BeforeEach
+  void setUp() {
+    AlertEventQueues queues = mock(AlertEventQueues.class);
+    when(queues.partitionCount()).thenReturn(1);
+    when(queues.queue(0)).thenReturn(queue);
+
+    AlertIngestionConfig config = mock(AlertIngestionConfig.class, RETURNS_DEEP_STUBS);
+    when(config.publish().batchSize()).thenReturn(3);
+    when(config.publish().batchWaitMs()).thenReturn(60_000L);
+    when(config.queueOfferTimeoutMs()).thenReturn(10L);
+
+    publisher = new AlertEventPublisher(queues, config, metrics);
+  }
+
+  @AfterEach
+  void tearDown() {
+    publisher.onShutdown(null);
+  }
+
+  @Test
+  @DisplayName("should publish a full window with a single addAll")
+  void shouldPublishFullWindow() {
+    when(queue.addAll(anyList())).thenReturn(true);
+    publisher.onStart(null);
+
+    CompletableFuture<Void> first = publisher.publish(event("fp-1"));
+    CompletableFuture<Void> second = publisher.publish(event("fp-2"));
+    assertThat(first).isNotDone();
+    verify(queue, never()).addAll(anyList());
+
+    CompletableFuture<Void> third = publisher.publish(event("fp-3"));
+
+    verify(queue).addAll(List.of(event("fp-1"), event("fp-2"), event("fp-3")));
+    assertThat(List.of(first, second, third)).allSatisfy(f -> assertThat(f).isCompleted());
+    assertThat(metrics.getWindowFullTriggers().count()).isEqualTo(1.0);
+    assertThat(metrics.getFlushTotal().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("should publish immediately while the flusher is not running")
+  void shouldPublishImmediatelyWhenNotRunning() {
+    when(queue.addAll(anyList())).thenReturn(true);
+
+    assertThat(publisher.publish(event("fp-1"))).isCompleted();
+    verify(queue).addAll(List.of(event("fp-1")));
+  }
+
+  @Test
+  @DisplayName("should fall back to per-event offer when the batch does not fit")
+  void shouldFallBackToOffer() throws InterruptedException {
+    when(queue.addAll(anyList())).thenReturn(false);
+    when(queue.offer(event("fp-1"), 10L, TimeUnit.MILLISECONDS)).thenReturn(true);
+    when(queue.offer(event("fp-2"), 10L, TimeUnit.MILLISECONDS)).thenReturn(false);
+    publisher.onStart(null);
+
+    CompletableFuture<Void> first = publisher.publish(event("fp-1"));
+    CompletableFuture<Void> second = publisher.publish(event("fp-2"));
+    publisher.onShutdown(null);
+
+    assertThat(first).isCompleted();
+    assertThat(second).isCompletedExceptionally();
+  }
+
+  private static AlertEvent event(String fingerprint) {
+    LocalDateTime at = LocalDateTime.of(2026, 1, 1, 8, 0);
+    return new AlertEvent(
+        fingerprint, "prometheus", "summary", Map.of("k", "v"), 1, at, at, "FIRING", "HIGH");
+  }
+}
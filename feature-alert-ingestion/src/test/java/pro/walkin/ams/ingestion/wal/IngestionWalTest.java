@@ -0,0 +1,114 @@
+package pro.walkin.ams.ingestion.wal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pro.walkin.ams.ingestion.IngestionLogic;
+import pro.walkin.ams.ingestion.config.AlertIngestionConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IngestionWalTest {
+
+  private static final String PAYLOAD = "[{\"alertname\":\"HighCpu\"}]";
+
+  @TempDir Path directory;
+
+  private AlertIngestionConfig config;
+
+  @BeforeEach
+  void setUp() {
+    config = mock(AlertIngestionConfig.class, RETURNS_DEEP_STUBS);
+    when(config.wal().enabled()).thenReturn(true);
+    when(config.wal().directory()).thenReturn(directory.toString());
+    when(config.wal().segmentSizeMb()).thenReturn(1);
+    when(config.wal().workers()).thenReturn(1);
+    when(config.wal().pollIntervalMs()).thenReturn(5L);
+    when(config.wal().maxAttempts()).thenReturn(1_000);
+    when(config.wal().retryDelayMs()).thenReturn(10L);
+    when(config.wal().forceOnAppend()).thenReturn(false);
+  }
+
+  @Test
+  @DisplayName("should replay a failing record after restart instead of dropping it")
+  void shouldReplayRecordFailingDuringShutdown() throws Exception {
+    CountDownLatch failed = new CountDownLatch(1);
+    IngestionLogic failing = mock(IngestionLogic.class);
+    when(failing.process(eq("prometheus"), any(InputStream.class)))
+        .thenAnswer(
+            invocation -> {
+              failed.countDown();
+              return CompletableFuture.failedFuture(new IllegalStateException("downstream down"));
+            });
+    MeterRegistry firstRegistry = new SimpleMeterRegistry();
+    IngestionWal first = new IngestionWal(failing, config, firstRegistry);
+    first.onStart(null);
+    first.append("prometheus", payload());
+    assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+
+    first.onShutdown(null);
+
+    assertThat(firstRegistry.counter("ams.ingestion.wal.dropped.total").count()).isZero();
+    assertThat(firstRegistry.counter("ams.ingestion.wal.processed.total").count()).isZero();
+
+    IngestionLogic recovered = mock(IngestionLogic.class);
+    when(recovered.process(eq("prometheus"), any(InputStream.class)))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    MeterRegistry secondRegistry = new SimpleMeterRegistry();
+    IngestionWal second = new IngestionWal(recovered, config, secondRegistry);
+    second.onStart(null);
+    try {
+      verify(recovered, timeout(5_000)).process(eq("prometheus"), any(InputStream.class));
+    } finally {
+      second.onShutdown(null);
+    }
+
+    assertThat(secondRegistry.counter("ams.ingestion.wal.processed.total").count())
+        .isEqualTo(1.0);
+    assertThat(secondRegistry.counter("ams.ingestion.wal.dropped.total").count()).isZero();
+  }
+
+  @Test
+  @DisplayName("should drop a record only after exhausting max attempts")
+  void shouldDropAfterMaxAttempts() throws Exception {
+    when(config.wal().maxAttempts()).thenReturn(2);
+    IngestionLogic failing = mock(IngestionLogic.class);
+    when(failing.process(eq("prometheus"), any(InputStream.class)))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("downstream down")));
+    MeterRegistry registry = new SimpleMeterRegistry();
+    IngestionWal wal = new IngestionWal(failing, config, registry);
+    wal.onStart(null);
+    try {
+      wal.append("prometheus", payload());
+      verify(failing, timeout(5_000).times(2)).process(eq("prometheus"), any(InputStream.class));
+      await(() -> registry.counter("ams.ingestion.wal.dropped.total").count() == 1.0);
+    } finally {
+      wal.onShutdown(null);
+    }
+  }
+
+  private static InputStream payload() {
+    return new ByteArrayInputStream(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package pro.walkin.ams.ingestion.wal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WalSegmentTest {
+
+  private static final int SEGMENT_SIZE = 256;
+
+  @TempDir Path directory;
+
+  @Test
+  @DisplayName("should replay pending records after reopen")
+  void shouldReplayPendingRecordsAfterReopen() throws Exception {
+    WalSegment segment = WalSegment.open(directory, 1, SEGMENT_SIZE);
+    int first = segment.append("prometheus", bytes("[{\"a\":1}]"));
+    segment.append("zabbix", bytes("{\"b\":2}"));
+    segment.markDone(first);
+    segment.close();
+
+    WalSegment reopened = WalSegment.open(directory, 1, SEGMENT_SIZE);
+    assertThat(reopened.writePosition()).isEqualTo(segment.writePosition());
+
+    WalRecord done = reopened.read(0);
+    assertThat(done.isPending()).isFalse();
+
+    WalRecord pending = reopened.read(done.nextOffset());
+    assertThat(pending.isPending()).isTrue();
+    assertThat(pending.sourceId()).isEqualTo("zabbix");
+    assertThat(new String(pending.payload(), StandardCharsets.UTF_8)).isEqualTo("{\"b\":2}");
+    assertThat(pending.nextOffset()).isEqualTo(reopened.writePosition());
+    reopened.close();
+  }
+
+  @Test
+  @DisplayName("should reject record when segment is full")
+  void shouldRejectRecordWhenSegmentIsFull() throws Exception {
+    WalSegment segment = WalSegment.open(directory, 1, SEGMENT_SIZE);
+
+    assertThat(segment.append("source", new byte[SEGMENT_SIZE])).isEqualTo(-1);
+    assertThat(segment.writePosition()).isZero();
+    segment.close();
+  }
+
+  @Test
+  @DisplayName("should name segment files so they sort by id")
+  void shouldNameSegmentFilesInOrder() {
+    Path file = directory.resolve(WalSegment.fileName(42));
+
+    assertThat(WalSegment.parseId(file)).isEqualTo(42);
+    assertThat(WalSegment.fileName(9)).isLessThan(WalSegment.fileName(10));
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
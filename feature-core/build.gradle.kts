@@ -26,4 +26,14 @@ dependencies {
     implementation(libs.jakarta.annotation.api)
 
     implementation(libs.slf4j.api)
-}
\ No newline at end of file
+
+    testImplementation(enforcedPlatform(libs.quarkus.bom))
+    testImplementation(libs.quarkus.junit5)
+    testImplementation(libs.quarkus.junit5.mockito)
+    testImplementation(libs.assertj.core)
+    testImplementation(libs.junit.jupiter.api)
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
+}
@@ -3,11 +3,12 @@ package pro.walkin.ams.core;
 import com.hazelcast.core.HazelcastInstance;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
-import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pro.walkin.ams.cluster.cache.TenantCodeCacher;
 import pro.walkin.ams.common.Constants;
 import pro.walkin.ams.common.dto.AlertEvent;
 import pro.walkin.ams.common.security.TenantContext;
@@ -15,13 +16,18 @@ import pro.walkin.ams.core.event.AlarmCreatedEvent;
 import pro.walkin.ams.core.event.AlarmUpdatedEvent;
 import pro.walkin.ams.core.metrics.CoreMetrics;
 import pro.walkin.ams.core.processor.AlarmProcessor;
+import pro.walkin.ams.core.processor.PriorityCalculator;
+import pro.walkin.ams.core.processor.ProcessorChainOrchestrator;
 import pro.walkin.ams.persistence.entity.running.Alarm;
-import pro.walkin.ams.persistence.entity.system.Tenant;
-import pro.walkin.ams.persistence.entity.system.Tenant_;
 
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.*;
 
 /**
@@ -33,9 +39,12 @@ import java.util.concurrent.*;
  *
  * <ul>
  *   <li><b>异步处理</b>：使用虚拟线程（Virtual Thread）提供高并发性能，每个告警独立处理
+ *   <li><b>准入控制</b>：在途告警数受 {@code app.alert.processing.max-in-flight} 限制（默认等于 Agroal 连接池大小），
+ *       饱和时阻塞调用方，把背压传递回队列消费者
  *   <li><b>事务隔离</b>：使用 {@code REQUIRES_NEW} 事务类型确保每个告警处理独立，避免相互影响
  *   <li><b>插件化处理器</b>：通过 {@link AlarmProcessor} 接口支持动态扩展处理逻辑
  *   <li><b>事件驱动</b>：处理完成后发布 CDI 事件，解耦告警创建与后续通知逻辑
+ *   <li><b>批量模式</b>：{@link #processBatch(List)} 以一个事务持久化整批告警，降低突发流量下的提交次数
  * </ul>
  *
  * <h3>处理流程</h3>
@@ -43,7 +52,7 @@ import java.util.concurrent.*;
  * <ol>
  *   <li>接收 {@link AlertEvent} 告警事件（异步，非阻塞）
  *   <li>将事件转换为 {@link Alarm} 实体（包括租户解析、元数据转换等）
- *   <li>按优先级顺序执行所有注册的 {@link AlarmProcessor} 处理器
+ *   <li>执行告警所属租户的 {@link AlarmProcessor} 处理链（由 {@link ProcessorChainOrchestrator} 预先构建）
  *   <li>持久化告警实体到数据库
  *   <li>发布 {@link AlarmCreatedEvent} 事件触发后续流程
  * </ol>
@@ -64,6 +73,9 @@ import java.util.concurrent.*;
  *   <li>{@code process_latency}: 事件处理延迟
  *   <li>{@code transaction_time}: 事务执行时间
  *   <li>{@code errors}: 错误计数
+ *   <li>{@code core.processor.latency{name}}: 单个处理器的执行耗时
+ *   <li>{@code core.processing.in_flight}: 已获准入、正在处理的告警数
+ *   <li>{@code core.processing.queued}: 等待准入的调用方数
  * </ul>
  */
 @ApplicationScoped
@@ -74,8 +86,8 @@ public class AlarmProcessing {
   /** Hazelcast 分布式缓存实例，用于分布式锁等场景 */
   private final HazelcastInstance hz;
 
-  /** 处理器实例集合（支持动态扩展） */
-  private final Instance<AlarmProcessor<?>> processorInstance;
+  /** 处理器链编排器，提供按租户预先构建的处理链 */
+  private final ProcessorChainOrchestrator processorChains;
 
   /** 告警创建事件发布器 */
   private final Event<AlarmCreatedEvent> alarmCreatedEvent;
@@ -86,66 +98,101 @@ public class AlarmProcessing {
   /** 核心监控指标收集器 */
   private final CoreMetrics metrics;
 
+  /** 租户代码 → 租户 ID 解析缓存 */
+  private final TenantCodeCacher tenantCodeCacher;
+
   /** 虚拟线程执行器，用于高并发告警处理 */
   private final ExecutorService virtualThreadExecutor;
 
+  /** 在途处理准入许可，许可数即最大在途告警数 */
+  private final Semaphore admission;
+
+  /** 等待准入的最长时间（毫秒） */
+  private final long admissionTimeoutMs;
+
   /**
    * 构造函数
    *
    * @param hz Hazelcast 分布式缓存实例
-   * @param processorInstance 处理器实例集合
+   * @param processorChains 处理器链编排器
    * @param alarmCreatedEvent 告警创建事件发布器
    * @param alarmUpdatedEvent 告警更新事件发布器
    * @param metrics 核心监控指标收集器
+   * @param tenantCodeCacher 租户代码解析缓存
+   * @param maxInFlight 最大在途告警数，未配置时取数据源连接池大小
+   * @param poolMaxSize Agroal 连接池最大连接数
+   * @param admissionTimeoutMs 等待准入的最长时间（毫秒）
    */
   @Inject
   public AlarmProcessing(
       HazelcastInstance hz,
-      Instance<AlarmProcessor<?>> processorInstance,
+      ProcessorChainOrchestrator processorChains,
       Event<AlarmCreatedEvent> alarmCreatedEvent,
       Event<AlarmUpdatedEvent> alarmUpdatedEvent,
-      CoreMetrics metrics) {
+      CoreMetrics metrics,
+      TenantCodeCacher tenantCodeCacher,
+      @ConfigProperty(name = "app.alert.processing.max-in-flight")
+          Optional<Integer> maxInFlight,
+      @ConfigProperty(name = "quarkus.datasource.jdbc.max-size", defaultValue = "20")
+          int poolMaxSize,
+      @ConfigProperty(name = "app.alert.processing.admission-timeout-ms", defaultValue = "30000")
+          long admissionTimeoutMs) {
     this.hz = hz;
-    this.processorInstance = processorInstance;
+    this.processorChains = processorChains;
     this.alarmCreatedEvent = alarmCreatedEvent;
     this.alarmUpdatedEvent = alarmUpdatedEvent;
     this.metrics = metrics;
+    this.tenantCodeCacher = tenantCodeCacher;
+    this.admissionTimeoutMs = admissionTimeoutMs;
+
+    // 每个在途告警占用一个数据库连接，许可数不超过连接池大小，避免虚拟线程堆积在连接获取上
+    int permits = Math.max(1, maxInFlight.orElse(poolMaxSize));
+    this.admission = new Semaphore(permits);
 
     // 使用虚拟线程执行器，提供轻量级高并发能力
     this.virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    log.info("AlarmProcessing initialized: maxInFlight={}, poolMaxSize={}", permits, poolMaxSize);
   }
 
   /**
    * 异步接收告警事件并启动处理流程
    *
-   * <p>此方法为非阻塞调用，使用虚拟线程异步处理每个告警事件。即使处理失败也不影响事件接收，确保高吞吐量。
+   * <p>获得准入许可后使用虚拟线程异步处理告警事件。在途告警数达到上限时阻塞调用方，直到有告警处理完成释放许可，
+   * 从而让队列消费者随数据库处理能力放慢拉取速度。
    *
    * <h3>设计考虑</h3>
    *
    * <ul>
-   *   <li><b>非阻塞</b>：立即返回，处理在后台虚拟线程中执行
-   *   <li><b>高吞吐量</b>：虚拟线程支持大量并发，每个事件独立处理
-   *   <li><b>监控指标</b>：记录处理总数、延迟和错误计数
+   *   <li><b>有界并发</b>：在途告警数不超过准入许可数，不会堆积大量等待数据库连接的虚拟线程
+   *   <li><b>背压</b>：饱和时阻塞调用方；超过 {@code admissionTimeoutMs} 仍未获准入则抛出异常，交由消费者重试
+   *   <li><b>监控指标</b>：记录处理总数、延迟、错误计数以及在途/等待准入数
    * </ul>
    *
    * <h3>异常处理</h3>
    *
-   * 仅捕获启动阶段的异常（如线程池拒绝），处理过程中的异常由 {@code processSingleAlarm} 方法自行处理。
+   * 准入超时或等待被中断时抛出 {@link RejectedExecutionException}，事件未被处理；处理过程中的异常由 {@code
+   * processSingleAlarm} 方法自行处理。
    *
    * @param event 告警事件，不能为 null
+   * @throws RejectedExecutionException 如果在超时时间内未获得准入
    */
   public void processEvent(AlertEvent event) {
     long startTime = System.nanoTime();
 
+    acquireAdmission(event.id());
+
     try {
       metrics.getProcessedTotal().increment();
 
-      // 使用虚拟线程异步处理，非阻塞调用
-      CompletableFuture.runAsync(() -> processSingleAlarm(event), virtualThreadExecutor);
+      // 使用虚拟线程异步处理，处理完成后释放许可
+      CompletableFuture.runAsync(() -> processSingleAlarm(event), virtualThreadExecutor)
+          .whenComplete((ignored, error) -> releaseAdmission());
 
       log.debug("Event processing started: id={}", event.id());
     } catch (Exception e) {
-      // 启动失败（如线程池拒绝），记录但不影响其他事件
+      // 启动失败（如线程池拒绝），归还许可，记录但不影响其他事件
+      releaseAdmission();
       log.error("Failed to start processing event: id={}", event.id(), e);
       metrics.recordError("event_processing_start");
     } finally {
@@ -153,6 +200,62 @@ public class AlarmProcessing {
     }
   }
 
+  /**
+   * 在调用线程上同步处理单个告警事件（逐条消费模式）
+   *
+   * <p>准入控制与 {@link #processEvent(AlertEvent)} 相同，但不切换到虚拟线程：分区队列的消费线程等待本事件处理完成后才取下一个事件，
+   * 同一指纹的事件按投递顺序落库。处理失败时事务回滚并抛出异常，交由消费者重试。
+   *
+   * @param event 告警事件，不能为 null
+   * @throws RejectedExecutionException 如果在超时时间内未获得准入
+   * @throws RuntimeException 如果告警处理失败
+   */
+  public void processEventSync(AlertEvent event) {
+    long startTime = System.nanoTime();
+
+    acquireAdmission(event.id());
+    metrics.getProcessedTotal().increment();
+
+    try {
+      createAlarm(event);
+    } catch (Exception e) {
+      metrics.recordError("alarm_processing");
+      throw e;
+    } finally {
+      releaseAdmission();
+      metrics.getProcessLatency().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * 获取处理准入许可，饱和时阻塞等待
+   *
+   * @param eventId 告警事件 ID，仅用于日志
+   * @throws RejectedExecutionException 如果等待超时或被中断
+   */
+  private void acquireAdmission(String eventId) {
+    metrics.getProcessingQueued().incrementAndGet();
+    try {
+      if (!admission.tryAcquire(admissionTimeoutMs, TimeUnit.MILLISECONDS)) {
+        metrics.recordError("admission_timeout");
+        throw new RejectedExecutionException(
+            "Alarm processing saturated, admission timed out: id=" + eventId);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted while waiting for admission: id=" + eventId);
+    } finally {
+      metrics.getProcessingQueued().decrementAndGet();
+    }
+    metrics.getProcessingInFlight().incrementAndGet();
+  }
+
+  /** 释放处理准入许可 */
+  private void releaseAdmission() {
+    metrics.getProcessingInFlight().decrementAndGet();
+    admission.release();
+  }
+
   /**
    * 处理单个告警（核心处理逻辑）
    *
@@ -203,6 +306,142 @@ public class AlarmProcessing {
     }
   }
 
+  /**
+   * 在独立事务中创建单个告警，失败时回滚并抛出异常
+   *
+   * <p>步骤与 {@link #processSingleAlarm(AlertEvent)} 相同，供 {@link #processEventSync(AlertEvent)} 使用。
+   *
+   * @param event 告警事件，不能为 null
+   * @throws RuntimeException 如果告警处理失败
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void createAlarm(AlertEvent event) {
+    long startTime = System.nanoTime();
+
+    try {
+      Alarm processedAlarm = processAlarm(convertToAlarm(event));
+      publishEvent(processedAlarm);
+
+      metrics.getCreatedTotal().increment();
+      log.info("Alarm processed: id={}", processedAlarm.id);
+    } finally {
+      metrics.recordTransaction("alarm_processing", System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * 批量处理告警事件（批量消费模式）
+   *
+   * <p>在调用线程上同步执行，由消费者在 {@code drainTo} 得到一批事件后调用。整批告警在一个事务中持久化，
+   * 插入语句由 Hibernate 按 {@code quarkus.hibernate-orm.jdbc.statement-batch-size} 合并为 JDBC 批量执行。
+   *
+   * <h3>失败隔离</h3>
+   *
+   * <ul>
+   *   <li><b>单条转换失败</b>：在批事务内跳过该事件并记录错误，不影响同批其他告警
+   *   <li><b>批量提交失败</b>（如指纹唯一约束冲突）：整批回滚后退回逐条 {@link #processSingleAlarm(AlertEvent)}，
+   *       只有出错的告警会失败
+   *   <li><b>瞬时故障</b>（连接中断、死锁、序列化冲突，见 {@link #isRetryable(Throwable)}）：整批回滚后原样抛出，
+   *       由消费者按 {@code app.alert.consumer.retry.*} 重试整批，不退回逐条处理
+   * </ul>
+   *
+   * @param events 告警事件批次，不能为 null
+   * @throws RuntimeException 如果批量提交遇到可重试的瞬时故障
+   */
+  public void processBatch(List<AlertEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+
+    long startTime = System.nanoTime();
+
+    // 整批在调用线程上占用一个连接，同样计入在途许可
+    acquireAdmission("batch[" + events.size() + "]");
+    metrics.getProcessedTotal().increment(events.size());
+
+    try {
+      List<Alarm> alarms = persistBatch(events);
+
+      // 事务提交后再发布事件，确保监听者读取到已持久化的数据
+      alarms.forEach(this::publishEvent);
+
+      metrics.getCreatedTotal().increment(alarms.size());
+      log.debug("Alarm batch processed: size={}, created={}", events.size(), alarms.size());
+    } catch (Exception e) {
+      if (isRetryable(e)) {
+        log.warn("Batch persist failed transiently: size={}", events.size(), e);
+        metrics.recordError("alarm_batch_transient");
+        throw e;
+      }
+      log.warn(
+          "Batch persist failed, falling back to per-event processing: size={}", events.size(), e);
+      metrics.recordError("alarm_batch_persist");
+
+      for (AlertEvent event : events) {
+        processSingleAlarm(event);
+      }
+    } finally {
+      releaseAdmission();
+      metrics.getProcessLatency().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * 判断失败是否为可重试的瞬时故障
+   *
+   * <p>沿异常链查找 JDBC 异常：{@link SQLTransientException}、{@link SQLRecoverableException}，以及
+   * SQLState 为连接异常（{@code 08}）或事务回滚（{@code 40}，含死锁与序列化冲突）的 {@link SQLException}。
+   * 这类故障与告警内容无关，逐条重放同样会失败，应整批交给消费者重试。
+   *
+   * @param error 批量提交抛出的异常
+   * @return 可重试时返回 true
+   */
+  static boolean isRetryable(Throwable error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof SQLTransientException || t instanceof SQLRecoverableException) {
+        return true;
+      }
+      if (t instanceof SQLException sql && sql.getSQLState() != null) {
+        String state = sql.getSQLState();
+        if (state.startsWith("08") || state.startsWith("40")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 在单个事务中转换、处理并持久化一批告警
+   *
+   * @param events 告警事件批次
+   * @return 成功持久化的告警实体（事务提交后生效）
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public List<Alarm> persistBatch(List<AlertEvent> events) {
+    long startTime = System.nanoTime();
+
+    try {
+      List<Alarm> alarms = new ArrayList<>(events.size());
+
+      for (AlertEvent event : events) {
+        try {
+          Alarm alarm = convertToAlarm(event);
+          applyProcessors(alarm);
+          alarm.persist();
+          alarms.add(alarm);
+        } catch (Exception e) {
+          log.error("Failed to convert alarm in batch: id={}", event.id(), e);
+          metrics.recordError("alarm_processing");
+        }
+      }
+
+      return alarms;
+    } finally {
+      metrics.recordTransaction("alarm_batch_processing", System.nanoTime() - startTime);
+    }
+  }
+
   /**
    * 转换告警事件为告警实体
    *
@@ -210,7 +449,7 @@ public class AlarmProcessing {
    *
    * <ol>
    *   <li>从 {@link TenantContext} 获取当前租户代码
-   *   <li>查询数据库验证租户存在性
+   *   <li>通过 {@link TenantCodeCacher} 解析租户 ID（命中时不访问数据库）
    *   <li>创建 {@link Alarm} 实体并填充字段
    *   <li>转换元数据和时间格式
    * </ol>
@@ -237,15 +476,15 @@ public class AlarmProcessing {
     // 步骤1：从租户上下文获取当前租户代码
     String tenantCode = TenantContext.getCurrentTenant();
 
-    // 步骤2：按租户代码直接查询（索引查找，替代全量加载）
-    Tenant tenant = Tenant_.managedBlocking().findByCode(tenantCode);
-    if (tenant == null) {
+    // 步骤2：从集群缓存解析租户 ID，未命中时才回源查询
+    Long tenantId = tenantCodeCacher.get(tenantCode);
+    if (tenantId == null) {
       throw new IllegalArgumentException("Tenant not found: " + tenantCode);
     }
 
     // 步骤3：创建 Alarm 对象并填充字段
     Alarm alarm = new Alarm();
-    alarm.tenant = tenant.id;
+    alarm.tenant = tenantId;
     alarm.description = buildDescription(event);
     alarm.status = Constants.Alarm.Status.NEW;
     alarm.sourceId = event.sourceId();
@@ -323,7 +562,7 @@ public class AlarmProcessing {
    * <h3>处理流程</h3>
    *
    * <ol>
-   *   <li>获取所有已注册的处理器（按优先级排序）
+   *   <li>获取告警所属租户预先构建的处理链
    *   <li>依次执行每个处理器的 {@link AlarmProcessor#process(Alarm)} 方法
    *   <li>如果某个处理器失败，记录错误但继续执行后续处理器
    *   <li>所有处理器执行完毕后，持久化告警实体
@@ -345,17 +584,7 @@ public class AlarmProcessing {
   private Alarm processAlarm(Alarm alarm) {
 
     try {
-      // 获取所有已注册的处理器（按优先级排序）
-      List<AlarmProcessor<?>> processors = getProcessors();
-
-      // 依次执行每个处理器，单个处理器失败不影响其他处理器
-      for (AlarmProcessor<?> processor : processors) {
-        try {
-          processor.process(alarm);
-        } catch (Exception e) {
-          log.error("Processor error: processor={}, alarmId={}", processor.getName(), alarm.id, e);
-        }
-      }
+      applyProcessors(alarm);
 
       // 持久化告警实体到数据库
       alarm.persist();
@@ -368,26 +597,18 @@ public class AlarmProcessing {
   }
 
   /**
-   * 获取处理器列表（按优先级排序）
+   * 执行告警所属租户的处理链，单个处理器失败不影响其他处理器，最后计算升级截止时间
    *
-   * <h3>排序规则</h3>
+   * <p>处理链由 {@link ProcessorChainOrchestrator} 按租户的 {@code processor_configs} 预先构建；租户未配置时使用按
+   * {@link AlarmProcessor#getPriority()} 排序的默认链。
    *
-   * <ul>
-   *   <li>优先级数值越小，执行顺序越靠前
-   *   <li>默认优先级为 100（定义在 {@link AlarmProcessor#getPriority()}）
-   *   <li>低优先级处理器在高优先级处理器之后执行
-   * </ul>
-   *
-   * <h3>使用场景</h3>
-   *
-   * <p>某些处理器依赖其他处理器的执行结果，因此需要控制执行顺序。 例如：数据验证处理器应该在数据持久化处理器之前执行。
-   *
-   * @return 按优先级升序排列的处理器列表
+   * @param alarm 待处理的告警实体，不能为 null
    */
-  private List<AlarmProcessor<?>> getProcessors() {
-    return processorInstance.stream()
-        .sorted((p1, p2) -> Integer.compare(p1.getPriority(), p2.getPriority()))
-        .toList();
+  private void applyProcessors(Alarm alarm) {
+    processorChains.chainFor(alarm.tenant).execute(alarm);
+
+    // 处理器可能调整严重程度，最终严重程度确定后再计算升级截止时间
+    alarm.nextEscalationAt = PriorityCalculator.escalationDeadline(alarm.severity, alarm.occurredAt);
   }
 
   /**
@@ -1,7 +1,6 @@
 package pro.walkin.ams.core.consumer;
 
 import com.hazelcast.collection.IQueue;
-import com.hazelcast.core.HazelcastInstance;
 import io.quarkus.runtime.ShutdownEvent;
 import io.quarkus.runtime.StartupEvent;
 import jakarta.annotation.PreDestroy;
@@ -11,25 +10,37 @@ import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.cluster.queue.AlertEventQueues;
 import pro.walkin.ams.common.dto.AlertEvent;
 import pro.walkin.ams.core.AlarmProcessing;
 import pro.walkin.ams.core.metrics.CoreMetrics;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 告警事件消费者
  *
- * <p>从 Hazelcast 队列消费告警事件并传递给 AlarmProcessing 处理 使用虚拟线程实现高并发消费 支持集群负载均衡和优雅停机
+ * <p>从 {@link AlertEventQueues} 的分区队列消费告警事件并传递给 AlarmProcessing 处理。每个成员只消费本成员持有的队列，
+ * 每个队列由一个虚拟线程独占消费，同一指纹的事件按投递顺序处理；{@code app.alert.consumer.threads} 限制同时处理的事件数。
+ * 消费吞吐随集群成员数增长。
+ *
+ * <p>分区迁移后，定期重平衡任务为新持有的队列启动消费线程，失去持有权的队列的消费线程在下一次轮询后退出。
+ * 迁移瞬间新旧持有者可能短暂同时消费同一队列。重平衡同时把旧版本单队列中的事件转移到分区队列（{@link
+ * AlertEventQueues#migrateLegacyQueue()}），滚动升级期间旧成员写入的事件不会滞留。
+ *
+ * <p>开启批量模式（{@code app.alert.consumer.batch.enabled}）后，每次最多 {@code drainTo} {@code batchSize} 个事件，
+ * 或在首个事件到达后最多等待 {@code batchWaitMs} 毫秒凑批，整批交给 {@link AlarmProcessing#processBatch} 在一个事务中持久化。
  */
 @ApplicationScoped
 public class AlertEventConsumer {
 
   private static final Logger log = LoggerFactory.getLogger(AlertEventConsumer.class);
 
-  private final HazelcastInstance hz;
+  private final AlertEventQueues queues;
   private final AlarmProcessing alarmProcessing;
   private final CoreMetrics metrics;
 
@@ -37,15 +48,25 @@ public class AlertEventConsumer {
   private final long pollTimeoutMs;
   private final int maxRetryCount;
   private final long retryDelayMs;
+  private final boolean batchEnabled;
+  private final int batchSize;
+  private final long batchWaitMs;
+  private final long rebalanceIntervalMs;
+
+  /** 同时处理的事件（批）数 */
+  private final Semaphore processingPermits;
+
+  /** 队列序号 → 消费线程 */
+  private final Map<Integer, Future<?>> workers = new ConcurrentHashMap<>();
 
-  private final IQueue<AlertEvent> queue;
   private final ExecutorService consumerExecutor;
   private final AtomicBoolean running = new AtomicBoolean(false);
   private final CountDownLatch shutdownLatch = new CountDownLatch(1);
+  private Thread rebalancer;
 
   @Inject
   public AlertEventConsumer(
-      HazelcastInstance hz,
+      AlertEventQueues queues,
       AlarmProcessing alarmProcessing,
       CoreMetrics metrics,
       @ConfigProperty(name = "app.alert.consumer.threads", defaultValue = "4") int consumerThreads,
@@ -53,23 +74,39 @@ public class AlertEventConsumer {
           long pollTimeoutMs,
       @ConfigProperty(name = "app.alert.consumer.retry.max", defaultValue = "3") int maxRetryCount,
       @ConfigProperty(name = "app.alert.consumer.retry.delay.ms", defaultValue = "1000")
-          long retryDelayMs) {
-    this.hz = hz;
+          long retryDelayMs,
+      @ConfigProperty(name = "app.alert.consumer.batch.enabled", defaultValue = "false")
+          boolean batchEnabled,
+      @ConfigProperty(name = "app.alert.consumer.batch.size", defaultValue = "500") int batchSize,
+      @ConfigProperty(name = "app.alert.consumer.batch.wait.ms", defaultValue = "50")
+          long batchWaitMs,
+      @ConfigProperty(name = "app.alert.consumer.rebalance.interval.ms", defaultValue = "5000")
+          long rebalanceIntervalMs) {
+    this.queues = queues;
     this.alarmProcessing = alarmProcessing;
     this.metrics = metrics;
     this.consumerThreads = consumerThreads;
     this.pollTimeoutMs = pollTimeoutMs;
     this.maxRetryCount = maxRetryCount;
     this.retryDelayMs = retryDelayMs;
+    this.batchEnabled = batchEnabled;
+    this.batchSize = Math.max(1, batchSize);
+    this.batchWaitMs = batchWaitMs;
+    this.rebalanceIntervalMs = rebalanceIntervalMs;
 
-    this.queue = hz.getQueue(Constants.Cluster.ALERT_EVENTS_QUEUE);
+    this.processingPermits = new Semaphore(Math.max(1, consumerThreads));
     this.consumerExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     log.info(
-        "AlertEventConsumer initialized: threads={}, pollTimeoutMs={}, maxRetryCount={}",
+        "AlertEventConsumer initialized: partitions={}, threads={}, pollTimeoutMs={}, "
+            + "maxRetryCount={}, batchEnabled={}, batchSize={}, batchWaitMs={}",
+        queues.partitionCount(),
         consumerThreads,
         pollTimeoutMs,
-        maxRetryCount);
+        maxRetryCount,
+        batchEnabled,
+        this.batchSize,
+        batchWaitMs);
   }
 
   /** 应用启动时自动启动消费者 */
@@ -77,35 +114,26 @@ public class AlertEventConsumer {
     log.info("Starting AlertEventConsumer...");
     running.set(true);
 
-    for (int i = 0; i < consumerThreads; i++) {
-      final int threadId = i;
-      consumerExecutor.submit(
-          () -> {
-            log.info("Consumer thread {} started", threadId);
-            while (running.get()) {
-              try {
-                consumeEvent(threadId);
-              } catch (InterruptedException e) {
-                if (running.get()) {
-                  log.error("Consumer thread {} interrupted unexpectedly", threadId, e);
-                }
-                break;
-              } catch (Exception e) {
-                log.error("Consumer thread {} encountered error", threadId, e);
-                metrics.recordError("consumer_thread");
-                try {
-                  Thread.sleep(1000);
-                } catch (InterruptedException ie) {
-                  Thread.currentThread().interrupt();
-                  break;
-                }
-              }
-            }
-            log.info("Consumer thread {} stopped", threadId);
-          });
-    }
+    rebalance();
+    rebalancer =
+        Thread.ofVirtual()
+            .name("alert-consumer-rebalancer")
+            .start(
+                () -> {
+                  while (running.get()) {
+                    try {
+                      Thread.sleep(rebalanceIntervalMs);
+                      rebalance();
+                    } catch (InterruptedException e) {
+                      Thread.currentThread().interrupt();
+                      break;
+                    } catch (Exception e) {
+                      log.error("Alert consumer rebalance failed", e);
+                    }
+                  }
+                });
 
-    log.info("AlertEventConsumer started with {} threads", consumerThreads);
+    log.info("AlertEventConsumer started with {} local partitions", workers.size());
   }
 
   /** 应用关闭时优雅停机 */
@@ -114,8 +142,61 @@ public class AlertEventConsumer {
     shutdown();
   }
 
+  /** 转移旧单队列中的事件，为本成员新持有的队列启动消费线程，并刷新本地队列深度 */
+  private void rebalance() {
+    if (!running.get()) {
+      return;
+    }
+    try {
+      queues.migrateLegacyQueue();
+    } catch (InterruptedException e) {
+      // 保留中断标志，重平衡线程在下一次等待时退出
+      Thread.currentThread().interrupt();
+      return;
+    }
+    for (int index : queues.localIndexes()) {
+      workers.computeIfAbsent(index, i -> consumerExecutor.submit(() -> drain(i)));
+    }
+    metrics.updateQueueSize(queues.localSize());
+  }
+
+  /** 独占消费一个分区队列，直到停机或队列迁移到其他成员 */
+  private void drain(int partition) {
+    IQueue<AlertEvent> queue = queues.queue(partition);
+    log.info("Consumer for partition {} started", partition);
+    try {
+      while (running.get() && queues.isLocal(partition)) {
+        try {
+          if (batchEnabled) {
+            consumeBatch(queue, partition);
+          } else {
+            consumeEvent(queue, partition);
+          }
+        } catch (InterruptedException e) {
+          if (running.get()) {
+            log.error("Consumer for partition {} interrupted unexpectedly", partition, e);
+          }
+          Thread.currentThread().interrupt();
+          break;
+        } catch (Exception e) {
+          log.error("Consumer for partition {} encountered error", partition, e);
+          metrics.recordError("consumer_thread");
+          try {
+            Thread.sleep(1000);
+          } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            break;
+          }
+        }
+      }
+    } finally {
+      workers.remove(partition);
+      log.info("Consumer for partition {} stopped", partition);
+    }
+  }
+
   /** 消费单个事件 */
-  private void consumeEvent(int threadId) throws InterruptedException {
+  private void consumeEvent(IQueue<AlertEvent> queue, int partition) throws InterruptedException {
     long pollStart = System.nanoTime();
 
     AlertEvent event = queue.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
@@ -124,40 +205,130 @@ public class AlertEventConsumer {
       long receiveTime = System.nanoTime();
       metrics.getConsumerReceivedTotal().increment();
 
-      log.debug("Thread {} received event: id={}", threadId, event.id());
+      log.debug("Partition {} received event: id={}", partition, event.id());
 
-      processWithRetry(event, threadId, 0);
+      processingPermits.acquire();
+      try {
+        processWithRetry(event, partition, 0);
+      } finally {
+        processingPermits.release();
+      }
 
       long processTime = System.nanoTime();
       metrics.getConsumerConsumeLatency().record(processTime - pollStart, TimeUnit.NANOSECONDS);
       log.debug(
-          "Thread {} processed event: id={}, latency={}ns",
-          threadId,
+          "Partition {} processed event: id={}, latency={}ns",
+          partition,
           event.id(),
           processTime - receiveTime);
     } else {
       long pollTime = System.nanoTime();
       metrics.getConsumerPollLatency().record(pollTime - pollStart, TimeUnit.NANOSECONDS);
     }
+  }
+
+  /** 批量消费：阻塞等待首个事件，随后 drainTo 凑批，直到达到 batchSize 或等待超过 batchWaitMs */
+  private void consumeBatch(IQueue<AlertEvent> queue, int partition) throws InterruptedException {
+    long pollStart = System.nanoTime();
+
+    AlertEvent first = queue.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+
+    if (first == null) {
+      metrics.getConsumerPollLatency().record(System.nanoTime() - pollStart, TimeUnit.NANOSECONDS);
+      return;
+    }
+
+    long batchStart = System.nanoTime();
+    List<AlertEvent> batch = new ArrayList<>(batchSize);
+    batch.add(first);
+
+    long deadline = batchStart + TimeUnit.MILLISECONDS.toNanos(batchWaitMs);
+    while (batch.size() < batchSize) {
+      queue.drainTo(batch, batchSize - batch.size());
+      if (batch.size() >= batchSize) {
+        break;
+      }
+
+      long remainingNanos = deadline - System.nanoTime();
+      if (remainingNanos <= 0) {
+        break;
+      }
+
+      AlertEvent next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+
+    metrics.getConsumerReceivedTotal().increment(batch.size());
+    metrics.getConsumerBatchSize().record(batch.size());
+    log.debug("Partition {} drained batch: size={}", partition, batch.size());
 
-    metrics.updateQueueSize(queue.size());
+    processingPermits.acquire();
+    try {
+      processBatchWithRetry(batch, partition, 0);
+    } finally {
+      processingPermits.release();
+    }
+
+    long processTime = System.nanoTime();
+    metrics.getConsumerBatchLatency().record(processTime - batchStart, TimeUnit.NANOSECONDS);
+    metrics.getConsumerConsumeLatency().record(processTime - pollStart, TimeUnit.NANOSECONDS);
   }
 
-  /** 带重试的处理逻辑 */
-  private void processWithRetry(AlertEvent event, int threadId, int retryCount) {
+  /** 带重试的批量处理逻辑（单条失败已在 AlarmProcessing 内隔离，此处只重试其抛出的瞬时故障） */
+  private void processBatchWithRetry(List<AlertEvent> batch, int partition, int retryCount) {
     try {
-      alarmProcessing.processEvent(event);
+      alarmProcessing.processBatch(batch);
+      metrics.getConsumerProcessedTotal().increment(batch.size());
+    } catch (Exception e) {
+      if (retryCount < maxRetryCount) {
+        log.warn(
+            "Partition {} failed to process batch, retrying: size={}, attempt={}/{}",
+            partition,
+            batch.size(),
+            retryCount + 1,
+            maxRetryCount,
+            e);
+        metrics.getConsumerRetryTotal().increment();
+
+        try {
+          Thread.sleep(retryDelayMs);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException("Interrupted during retry delay", ie);
+        }
+
+        processBatchWithRetry(batch, partition, retryCount + 1);
+      } else {
+        log.error(
+            "Partition {} failed to process batch after {} retries: size={}",
+            partition,
+            maxRetryCount,
+            batch.size(),
+            e);
+        metrics.recordError("consumer_retry_failed");
+        throw e;
+      }
+    }
+  }
+
+  /** 带重试的处理逻辑：在分区消费线程上同步处理，处理完成后才取下一个事件，保持同一指纹的处理顺序 */
+  private void processWithRetry(AlertEvent event, int partition, int retryCount) {
+    try {
+      alarmProcessing.processEventSync(event);
       metrics.getConsumerProcessedTotal().increment();
       log.debug(
-          "Thread {} processed event successfully: id={}, retryCount={}",
-          threadId,
+          "Partition {} processed event successfully: id={}, retryCount={}",
+          partition,
           event.id(),
           retryCount);
     } catch (Exception e) {
       if (retryCount < maxRetryCount) {
         log.warn(
-            "Thread {} failed to process event, retrying: id={}, attempt={}/{}",
-            threadId,
+            "Partition {} failed to process event, retrying: id={}, attempt={}/{}",
+            partition,
             event.id(),
             retryCount + 1,
             maxRetryCount,
@@ -171,11 +342,11 @@ public class AlertEventConsumer {
           throw new RuntimeException("Interrupted during retry delay", ie);
         }
 
-        processWithRetry(event, threadId, retryCount + 1);
+        processWithRetry(event, partition, retryCount + 1);
       } else {
         log.error(
-            "Thread {} failed to process event after {} retries: id={}",
-            threadId,
+            "Partition {} failed to process event after {} retries: id={}",
+            partition,
             maxRetryCount,
             event.id(),
             e);
@@ -191,6 +362,9 @@ public class AlertEventConsumer {
     if (running.compareAndSet(true, false)) {
       log.info("Stopping consumer threads...");
 
+      if (rebalancer != null) {
+        rebalancer.interrupt();
+      }
       consumerExecutor.shutdown();
       try {
         if (!consumerExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
@@ -208,8 +382,8 @@ public class AlertEventConsumer {
     }
   }
 
-  /** 获取队列当前大小 */
+  /** 获取所有分区队列的事件总数 */
   public int getQueueSize() {
-    return queue.size();
+    return queues.totalSize();
   }
 }
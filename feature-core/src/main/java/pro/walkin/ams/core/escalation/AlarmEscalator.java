@@ -1,31 +1,42 @@
 package pro.walkin.ams.core.escalation;
 
+import com.hazelcast.cluster.Member;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.partition.MigrationListener;
+import com.hazelcast.partition.MigrationState;
+import com.hazelcast.partition.PartitionService;
+import com.hazelcast.partition.ReplicaMigrationEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
-import net.javacrumbs.shedlock.cdi.SchedulerLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pro.walkin.ams.common.Constants;
 import pro.walkin.ams.core.event.AlarmEscalatedEvent;
 import pro.walkin.ams.core.metrics.CoreMetrics;
 import pro.walkin.ams.core.processor.PriorityCalculator;
-import pro.walkin.ams.core.query.AlarmQuery;
 import pro.walkin.ams.persistence.entity.running.Alarm;
 
+import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 告警升级器
  *
- * <p>定时扫描未处理的告警并升级优先级 使用分页查询避免内存溢出 使用批量更新提高性能
+ * <p>每条告警在创建或确认时写入 {@code next_escalation_at} 截止时间。调度器按 Hazelcast 分区归属分片，
+ * 每个节点只把本节点持有分区内、一小时内到期的告警装入 {@link EscalationTimerWheel}，每秒推进时间轮，
+ * 仅对到期告警执行 {@code UPDATE ... RETURNING} 批量升级。时间轮每 5 分钟及分区迁移完成时从数据库重建，节点故障后由新的分区持有者接管。
  */
 @ApplicationScoped
 public class AlarmEscalator {
@@ -35,15 +46,68 @@ public class AlarmEscalator {
   private static final int BATCH_SIZE = 1000;
   private static final int MAX_ESCALATION_COUNT = 3;
 
-  private static final String ESCALATION_LOCK = "alarm:escalation:lock";
-  private static final long LOCK_TIMEOUT_SECONDS = 300; // 5分钟
+  /** 时间轮 tick 间隔（毫秒） */
+  private static final long TICK_MILLIS = 1000;
+
+  /** 时间轮槽位数：覆盖 1 小时，更远的截止时间留在数据库中 */
+  private static final int WHEEL_SIZE = 3600;
+
+  private static final List<Constants.Alarm.Status> PENDING_STATUSES =
+      List.of(
+          Constants.Alarm.Status.NEW,
+          Constants.Alarm.Status.ACKNOWLEDGED,
+          Constants.Alarm.Status.IN_PROGRESS);
+
+  /**
+   * 自动升级档位
+   *
+   * @param from 升级前的严重程度
+   * @param to 升级后的严重程度
+   * @param stepMinutes 升级后截止时间顺延的分钟数，为负数表示不再自动升级
+   * @param fromPriority 升级前的优先级
+   * @param toPriority 升级后的优先级
+   */
+  private record Tier(
+      Constants.Alarm.Severity from,
+      Constants.Alarm.Severity to,
+      int stepMinutes,
+      int fromPriority,
+      int toPriority) {}
+
+  private static final List<Tier> TIERS =
+      List.of(
+          new Tier(
+              Constants.Alarm.Severity.HIGH,
+              Constants.Alarm.Severity.CRITICAL,
+              -1,
+              PriorityCalculator.PRIORITY_HIGH,
+              PriorityCalculator.PRIORITY_CRITICAL),
+          new Tier(
+              Constants.Alarm.Severity.MEDIUM,
+              Constants.Alarm.Severity.HIGH,
+              (int)
+                  (PriorityCalculator.ESCALATION_TIME_HIGH_TO_CRITICAL
+                      - PriorityCalculator.ESCALATION_TIME_MEDIUM_TO_HIGH),
+              PriorityCalculator.PRIORITY_MEDIUM,
+              PriorityCalculator.PRIORITY_HIGH),
+          new Tier(
+              Constants.Alarm.Severity.LOW,
+              Constants.Alarm.Severity.MEDIUM,
+              (int)
+                  (PriorityCalculator.ESCALATION_TIME_MEDIUM_TO_HIGH
+                      - PriorityCalculator.ESCALATION_TIME_LOW_TO_MEDIUM),
+              PriorityCalculator.PRIORITY_LOW,
+              PriorityCalculator.PRIORITY_MEDIUM));
 
   private final HazelcastInstance hazelcastInstance;
   private final Event<AlarmEscalatedEvent> alarmEscalatedEvent;
   private final CoreMetrics metrics;
 
+  private final EscalationTimerWheel wheel =
+      new EscalationTimerWheel(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+  private final AtomicBoolean rebuildRequested = new AtomicBoolean(false);
+
   @Inject public Alarm.Repo alarmRepo;
-  @Inject public AlarmQuery alarmQuery;
 
   @Inject
   public AlarmEscalator(
@@ -55,134 +119,210 @@ public class AlarmEscalator {
     this.metrics = metrics;
   }
 
-  /** 定时任务：每5分钟执行一次告警升级 */
-  @Scheduled(every = "1m")
-  @SchedulerLock(name = "escalatePendingAlarms")
-  @Transactional
-  public void escalatePendingAlarms() {
-    log.info("Starting alarm escalation task");
+  /**
+   * 启动时重建时间轮，并在分区迁移完成后重新分片
+   *
+   * <p>成员变化事件先于分区迁移触发，此时分区归属仍是旧的持有者；迁移（含故障节点备份分区的提升）完成后再重建，
+   * 新持有者才能装入接管分区内的截止时间。
+   */
+  void onStart(@Observes StartupEvent event) {
+    hazelcastInstance
+        .getPartitionService()
+        .addMigrationListener(
+            new MigrationListener() {
+              @Override
+              public void migrationStarted(MigrationState state) {}
+
+              @Override
+              public void migrationFinished(MigrationState state) {
+                rebuildRequested.set(true);
+              }
+
+              @Override
+              public void replicaMigrationCompleted(ReplicaMigrationEvent migrationEvent) {}
+
+              @Override
+              public void replicaMigrationFailed(ReplicaMigrationEvent migrationEvent) {}
+            });
+
+    rebuildWheel();
+  }
 
+  /** 定时推进时间轮：只处理本节点负责且已到期的告警 */
+  @Scheduled(every = "1s", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void tick() {
     try {
+      if (rebuildRequested.getAndSet(false)) {
+        rebuildWheel();
+      }
 
-      escalateAlarms();
-
+      List<Long> dueAlarmIds = wheel.advance(System.currentTimeMillis());
+      if (!dueAlarmIds.isEmpty()) {
+        escalateAlarms(dueAlarmIds);
+      }
     } catch (Exception e) {
-      log.error("Error in escalation task", e);
+      log.error("Error in escalation tick", e);
     }
   }
 
-  /** 升级告警 */
-  private void escalateAlarms() {
-    long startTime = System.nanoTime();
+  /** 定时请求重建：把新进入时间范围的截止时间装入时间轮 */
+  @Scheduled(every = "5m", delayed = "5m")
+  void requestRebuild() {
+    rebuildRequested.set(true);
+  }
 
+  /**
+   * 从 {@code next_escalation_at} 列重建时间轮
+   *
+   * <p>只装入时间轮范围内到期、且告警 ID 所在 Hazelcast 分区由本节点持有的告警。已过期未处理的截止时间（如节点故障期间到期）会在下一个 tick
+   * 立即触发。
+   */
+  private void rebuildWheel() {
     try {
-      int totalCount = 0;
-      int escalatedCount = 0;
+      LocalDateTime horizon = LocalDateTime.now().plus(Duration.ofMillis(wheel.horizonMillis()));
 
-      int offset = 0;
-      List<Alarm> alarms;
+      List<Object[]> rows =
+          QuarkusTransaction.requiringNew()
+              .call(() -> alarmRepo.findEscalationDeadlinesBefore(horizon, PENDING_STATUSES));
 
-      do {
-        alarms = alarmQuery.fetchPendingAlarms(offset, BATCH_SIZE);
+      PartitionService partitionService = hazelcastInstance.getPartitionService();
 
-        if (alarms.isEmpty()) {
-          break;
+      wheel.clear();
+      int scheduled = 0;
+      for (Object[] row : rows) {
+        Long alarmId = ((Number) row[0]).longValue();
+        if (!isLocallyOwned(partitionService, alarmId)) {
+          continue;
         }
-
-        for (Alarm alarm : alarms) {
-          totalCount++;
-          if (shouldEscalate(alarm)) {
-            escalateAlarm(alarm);
-            escalatedCount++;
-          }
+        long deadlineMillis =
+            toLocalDateTime(row[1]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (wheel.schedule(alarmId, deadlineMillis)) {
+          scheduled++;
         }
+      }
 
-        offset += BATCH_SIZE;
+      log.info("Escalation wheel rebuilt: candidates={}, scheduled={}", rows.size(), scheduled);
+    } catch (Exception e) {
+      log.error("Failed to rebuild escalation wheel", e);
+      metrics.recordError("escalation_rebuild");
+      rebuildRequested.set(true);
+    }
+  }
 
-        log.debug("Processed {} alarms in batch", alarms.size());
+  private boolean isLocallyOwned(PartitionService partitionService, Long alarmId) {
+    Member owner = partitionService.getPartition(alarmId).getOwner();
+    return owner != null && owner.localMember();
+  }
 
-      } while (alarms.size() == BATCH_SIZE);
+  /**
+   * 升级到期告警
+   *
+   * <p>每个档位对到期 ID 执行 {@code UPDATE ... RETURNING} 批量语句，数据库再次校验截止时间，
+   * 截止时间已被顺延（如告警已确认）或状态已结束的告警会被忽略。每批在独立事务中提交，提交后按批发布升级事件。
+   *
+   * @param dueAlarmIds 时间轮中到期的告警 ID
+   */
+  private void escalateAlarms(List<Long> dueAlarmIds) {
+    long startTime = System.nanoTime();
+
+    try {
+      int escalatedCount = 0;
+      LocalDateTime now = LocalDateTime.now();
+
+      for (int from = 0; from < dueAlarmIds.size(); from += BATCH_SIZE) {
+        List<Long> batch =
+            dueAlarmIds.subList(from, Math.min(from + BATCH_SIZE, dueAlarmIds.size()));
+        for (Tier tier : TIERS) {
+          escalatedCount += escalateTier(tier, batch, now);
+        }
+      }
 
       long durationMs = (System.nanoTime() - startTime) / 1_000_000;
 
       log.info(
-          "Escalation completed: total={}, escalated={}, duration={} ms",
-          totalCount,
+          "Escalation completed: due={}, escalated={}, duration={} ms",
+          dueAlarmIds.size(),
           escalatedCount,
           durationMs);
 
     } catch (Exception e) {
       log.error("Failed to escalate alarms", e);
       metrics.recordError("batch_escalation");
+    } finally {
+      metrics.getEscalationLatency().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
     }
   }
 
   /**
-   * 判断是否应该升级告警
+   * 升级一批到期告警中属于指定档位的告警
    *
-   * @param alarm 告警实体
-   * @return 是否应该升级
+   * @param tier 升级档位
+   * @param alarmIds 到期告警 ID
+   * @param now 本次任务的当前时间
+   * @return 升级的告警数
    */
-  private boolean shouldEscalate(Alarm alarm) {
-    if (alarm.occurredAt == null) {
-      return false;
+  private int escalateTier(Tier tier, List<Long> alarmIds, LocalDateTime now) {
+    long batchStart = System.nanoTime();
+
+    List<Object[]> rows =
+        QuarkusTransaction.requiringNew()
+            .call(
+                () ->
+                    alarmRepo.escalateDue(
+                        alarmIds, tier.from().name(), tier.to().name(), tier.stepMinutes(), now));
+
+    metrics.recordTransaction("alarm_escalation", System.nanoTime() - batchStart);
+
+    if (rows.isEmpty()) {
+      return 0;
     }
 
-    long durationMinutes = Duration.between(alarm.occurredAt, LocalDateTime.now()).toMinutes();
+    metrics.getUpdatedTotal().increment(rows.size());
+    metrics.getEscalatedTotal().increment(rows.size());
+    publishEscalationEvents(tier, rows, now);
 
-    return switch (alarm.severity) {
-      case LOW -> durationMinutes >= PriorityCalculator.ESCALATION_TIME_LOW_TO_MEDIUM;
-      case MEDIUM -> durationMinutes >= PriorityCalculator.ESCALATION_TIME_MEDIUM_TO_HIGH;
-      case HIGH -> durationMinutes >= PriorityCalculator.ESCALATION_TIME_HIGH_TO_CRITICAL;
-      default -> false;
-    };
+    log.debug("Escalated batch: from={}, to={}, size={}", tier.from(), tier.to(), rows.size());
+    return rows.size();
   }
 
   /**
-   * 升级单个告警
+   * 根据批量更新返回的行发布升级事件
    *
-   * @param alarm 告警实体
+   * @param tier 升级档位
+   * @param rows 每行为 {@code [id, tenant_id, occurred_at]}
+   * @param now 本次任务的当前时间
    */
-  @Transactional(Transactional.TxType.REQUIRES_NEW)
-  public void escalateAlarm(Alarm alarm) {
-    long startTime = System.nanoTime();
-
-    try {
-      Constants.Alarm.Severity previousSeverity = alarm.severity;
-      int previousPriority = PriorityCalculator.PRIORITY_LOW;
-
-      Constants.Alarm.Severity newSeverity = calculateNewSeverity(alarm.severity);
-      int newPriority = PriorityCalculator.PRIORITY_MEDIUM;
-
-      if (previousSeverity.equals(newSeverity)) {
-        log.debug("Severity unchanged, skipping escalation: id={}", alarm.id);
-        return;
+  private void publishEscalationEvents(Tier tier, List<Object[]> rows, LocalDateTime now) {
+    Instant escalatedAt = Instant.now();
+
+    for (Object[] row : rows) {
+      Long alarmId = ((Number) row[0]).longValue();
+      try {
+        Long tenantId = ((Number) row[1]).longValue();
+        long durationSeconds = Duration.between(toLocalDateTime(row[2]), now).getSeconds();
+
+        alarmEscalatedEvent.fire(
+            new AlarmEscalatedEvent(
+                alarmId,
+                tenantId,
+                tier.from(),
+                tier.to(),
+                tier.fromPriority(),
+                tier.toPriority(),
+                "Auto-escalated due to duration",
+                escalatedAt,
+                durationSeconds));
+      } catch (Exception e) {
+        log.error("Failed to publish AlarmEscalatedEvent: id={}", alarmId, e);
       }
+    }
+  }
 
-      long durationSeconds = Duration.between(alarm.occurredAt, LocalDateTime.now()).getSeconds();
-
-      alarm.updateAlarmSeverity(newSeverity);
-      metrics.getUpdatedTotal().increment();
-
-      publishEscalationEvent(
-          alarm, previousSeverity, newSeverity, previousPriority, newPriority, durationSeconds);
-
-      metrics.getEscalatedTotal().increment();
-      log.info(
-          "Alarm escalated: id={}, from={}, to={}, duration={}s",
-          alarm.id,
-          previousSeverity,
-          newSeverity,
-          durationSeconds);
-
-    } catch (Exception e) {
-      log.error("Failed to escalate alarm: id={}", alarm.id, e);
-      metrics.recordError("alarm_escalation");
-    } finally {
-      long durationNanos = System.nanoTime() - startTime;
-      metrics.getEscalationLatency().record(durationNanos, TimeUnit.NANOSECONDS);
-      metrics.recordTransaction("alarm_escalation", durationNanos);
+  private static LocalDateTime toLocalDateTime(Object value) {
+    if (value instanceof Timestamp timestamp) {
+      return timestamp.toLocalDateTime();
     }
+    return (LocalDateTime) value;
   }
 
   /**
@@ -235,6 +375,31 @@ public class AlarmEscalator {
     }
   }
 
+  /**
+   * 计算手动升级后的截止时间
+   *
+   * <p>与定时升级一致，沿用告警原有的计时起点：起点由当前截止时间减去升级前严重程度的阈值得出，新截止时间为起点加升级后严重程度的阈值，
+   * 等同于定时升级把截止时间顺延一个档位。告警当前没有截止时间（如 WARNING 等不自动升级的严重程度）时，以确认时间或发生时间为起点。
+   *
+   * @param alarm 告警实体（严重程度尚未更新）
+   * @param previousSeverity 升级前的严重程度
+   * @param newSeverity 升级后的严重程度
+   * @return 新的截止时间，升级后不再自动升级时返回 null
+   */
+  private static LocalDateTime manualEscalationDeadline(
+      Alarm alarm,
+      Constants.Alarm.Severity previousSeverity,
+      Constants.Alarm.Severity newSeverity) {
+    long previousMinutes = PriorityCalculator.escalationMinutes(previousSeverity);
+    LocalDateTime since;
+    if (alarm.nextEscalationAt != null && previousMinutes >= 0) {
+      since = alarm.nextEscalationAt.minusMinutes(previousMinutes);
+    } else {
+      since = alarm.acknowledgedAt != null ? alarm.acknowledgedAt : alarm.occurredAt;
+    }
+    return PriorityCalculator.escalationDeadline(newSeverity, since);
+  }
+
   /**
    * 手动触发告警升级
    *
@@ -256,10 +421,11 @@ public class AlarmEscalator {
       Constants.Alarm.Severity previousSeverity = alarm.severity;
       Constants.Alarm.Severity newSeverity = calculateNewSeverity(previousSeverity);
 
+      alarm.nextEscalationAt = manualEscalationDeadline(alarm, previousSeverity, newSeverity);
       alarm.updateAlarmSeverity(newSeverity);
       metrics.getUpdatedTotal().increment();
 
-      long durationSeconds = Duration.between(alarm.occurredAt, Instant.now()).getSeconds();
+      long durationSeconds = Duration.between(alarm.occurredAt, LocalDateTime.now()).getSeconds();
 
       publishEscalationEvent(alarm, previousSeverity, newSeverity, 0, 0, durationSeconds);
 
@@ -0,0 +1,104 @@
+package pro.walkin.ams.core.escalation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 告警升级时间轮
+ *
+ * <p>哈希时间轮的内层：只保存 {@code wheelSize * tickMillis} 时间范围内到期的告警，每个槽位对应一个 tick。更远的截止时间由
+ * {@code alarms.next_escalation_at} 列承担（外层），调度器定期把进入时间范围的告警装入时间轮。
+ *
+ * <p>所有方法同步执行，调用方为定时 tick 和重建任务，竞争很少。
+ */
+final class EscalationTimerWheel {
+
+  private final long tickMillis;
+  private final int wheelSize;
+  private final List<Set<Long>> slots;
+
+  /** 告警 ID → 截止时间（毫秒），用于去重和识别已重新调度的条目 */
+  private final Map<Long, Long> deadlines = new HashMap<>();
+
+  /** 已处理到的 tick（包含） */
+  private long currentTick;
+
+  EscalationTimerWheel(long tickMillis, int wheelSize, long nowMillis) {
+    this.tickMillis = tickMillis;
+    this.wheelSize = wheelSize;
+    this.slots = new ArrayList<>(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      slots.add(new HashSet<>());
+    }
+    this.currentTick = nowMillis / tickMillis;
+  }
+
+  /** 时间轮覆盖的时间范围（毫秒） */
+  long horizonMillis() {
+    return tickMillis * wheelSize;
+  }
+
+  /**
+   * 调度告警
+   *
+   * @param alarmId 告警 ID
+   * @param deadlineMillis 截止时间（毫秒）
+   * @return 是否已放入时间轮；超出时间范围时返回 false，由下次重建装入
+   */
+  synchronized boolean schedule(Long alarmId, long deadlineMillis) {
+    long tick = Math.max(deadlineMillis / tickMillis, currentTick + 1);
+    if (tick - currentTick >= wheelSize) {
+      return false;
+    }
+
+    Long previous = deadlines.put(alarmId, deadlineMillis);
+    if (previous != null) {
+      slots.get(slotIndex(Math.max(previous / tickMillis, currentTick + 1))).remove(alarmId);
+    }
+    slots.get(slotIndex(tick)).add(alarmId);
+    return true;
+  }
+
+  /**
+   * 推进时间轮并取出到期的告警
+   *
+   * @param nowMillis 当前时间（毫秒）
+   * @return 到期告警 ID
+   */
+  synchronized List<Long> advance(long nowMillis) {
+    long targetTick = nowMillis / tickMillis;
+    List<Long> due = new ArrayList<>();
+
+    // 落后超过一圈时所有槽位都已到期，只需各扫描一次
+    long fromTick = Math.max(currentTick + 1, targetTick - wheelSize + 1);
+    for (long tick = fromTick; tick <= targetTick; tick++) {
+      Set<Long> slot = slots.get(slotIndex(tick));
+      for (Long alarmId : slot) {
+        deadlines.remove(alarmId);
+        due.add(alarmId);
+      }
+      slot.clear();
+    }
+
+    currentTick = Math.max(currentTick, targetTick);
+    return due;
+  }
+
+  /** 清空时间轮，重建前调用 */
+  synchronized void clear() {
+    slots.forEach(Set::clear);
+    deadlines.clear();
+  }
+
+  synchronized int size() {
+    return deadlines.size();
+  }
+
+  private int slotIndex(long tick) {
+    return (int) Math.floorMod(tick, (long) wheelSize);
+  }
+}
@@ -42,8 +42,12 @@ public class CoreMetrics {
   private final Timer consumerConsumeLatency;
   private final Timer consumerPollLatency;
   private final Gauge consumerQueueSize;
+  private final DistributionSummary consumerBatchSize;
+  private final Timer consumerBatchLatency;
 
   private final AtomicInteger queueSizeHolder = new AtomicInteger(0);
+  private final AtomicInteger processingInFlight = new AtomicInteger(0);
+  private final AtomicInteger processingQueued = new AtomicInteger(0);
 
   @Inject
   public CoreMetrics(MeterRegistry registry) {
@@ -173,6 +177,26 @@ public class CoreMetrics {
         Gauge.builder("core.consumer.queue.size", queueSizeHolder, AtomicInteger::get)
             .description("Current queue size")
             .register(registry);
+
+    this.consumerBatchSize =
+        DistributionSummary.builder("core.consumer.batch.size")
+            .description("Number of events drained per batch")
+            .publishPercentileHistogram()
+            .register(registry);
+
+    this.consumerBatchLatency =
+        Timer.builder("core.consumer.batch.latency")
+            .description("Batch latency (from first poll to batch persisted)")
+            .publishPercentileHistogram()
+            .register(registry);
+
+    Gauge.builder("core.processing.in_flight", processingInFlight, AtomicInteger::get)
+        .description("Alarms admitted and currently being processed")
+        .register(registry);
+
+    Gauge.builder("core.processing.queued", processingQueued, AtomicInteger::get)
+        .description("Callers blocked waiting for processing admission")
+        .register(registry);
   }
 
   public Counter getProcessedTotal() {
@@ -263,6 +287,22 @@ public class CoreMetrics {
     return consumerPollLatency;
   }
 
+  public DistributionSummary getConsumerBatchSize() {
+    return consumerBatchSize;
+  }
+
+  public Timer getConsumerBatchLatency() {
+    return consumerBatchLatency;
+  }
+
+  public AtomicInteger getProcessingInFlight() {
+    return processingInFlight;
+  }
+
+  public AtomicInteger getProcessingQueued() {
+    return processingQueued;
+  }
+
   public void updateQueueSize(int size) {
     queueSizeHolder.set(size);
   }
@@ -275,6 +315,19 @@ public class CoreMetrics {
         .increment();
   }
 
+  /**
+   * 单个告警处理器的执行耗时计时器
+   *
+   * @param processorName 处理器名称
+   * @return 计时器，同名处理器共用
+   */
+  public Timer processorLatency(String processorName) {
+    return Timer.builder("core.processor.latency")
+        .description("Execution latency of a single alarm processor")
+        .tag("name", processorName)
+        .register(registry);
+  }
+
   public void recordError(String errorType) {
     Counter.builder("core.alarm.error.total")
         .description("Total number of processing errors")
@@ -0,0 +1,192 @@
+package pro.walkin.ams.core.processor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.persistence.entity.modeling.AlarmRule;
+import pro.walkin.ams.persistence.entity.running.Alarm;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的告警规则
+ *
+ * <p>在缓存刷新时把 {@link AlarmRule#conditions} JSON 编译为类型化谓词，评估时不再解析条件映射：
+ *
+ * <ul>
+ *   <li>{@code severity} - 字符串或字符串列表，编译为 {@link EnumSet}
+ *   <li>{@code source} - 字符串或字符串列表，编译为 {@link HashSet}
+ *   <li>{@code title} / {@code description} - 字符串按子串匹配；{@code {"regex": "..."}} 编译为 {@link Pattern}
+ * </ul>
+ *
+ * <p>无法识别的字段或值使规则永不匹配，与逐条解释执行时的行为一致。
+ */
+final class CompiledRule {
+
+  private static final Logger log = LoggerFactory.getLogger(CompiledRule.class);
+
+  private static final Predicate<Alarm> NEVER = alarm -> false;
+
+  final AlarmRule rule;
+
+  /** 严重程度约束，为 null 表示不限 */
+  final Set<Constants.Alarm.Severity> severities;
+
+  /** 来源约束，为 null 表示不限 */
+  final Set<String> sources;
+
+  /** 无条件规则：始终匹配（不检查生效时间） */
+  private final boolean unconditional;
+
+  /** 严重程度、来源之外的其他条件 */
+  private final List<Predicate<Alarm>> predicates;
+
+  private CompiledRule(
+      AlarmRule rule,
+      Set<Constants.Alarm.Severity> severities,
+      Set<String> sources,
+      boolean unconditional,
+      List<Predicate<Alarm>> predicates) {
+    this.rule = rule;
+    this.severities = severities;
+    this.sources = sources;
+    this.unconditional = unconditional;
+    this.predicates = predicates;
+  }
+
+  /**
+   * 编译规则
+   *
+   * @param rule 告警规则
+   * @return 编译后的规则
+   */
+  static CompiledRule compile(AlarmRule rule) {
+    Map<String, Object> conditions = rule.conditions;
+    if (conditions == null || conditions.isEmpty()) {
+      return new CompiledRule(rule, null, null, true, List.of());
+    }
+
+    Set<Constants.Alarm.Severity> severities = null;
+    Set<String> sources = null;
+    List<Predicate<Alarm>> predicates = new ArrayList<>();
+
+    for (Map.Entry<String, Object> entry : conditions.entrySet()) {
+      Object expected = entry.getValue();
+      switch (entry.getKey()) {
+        case "severity" -> severities = compileSeverities(rule, expected);
+        case "source" -> sources = compileSources(expected);
+        case "title" -> predicates.add(compileText(rule, expected, alarm -> alarm.title));
+        case "description" ->
+            predicates.add(compileText(rule, expected, alarm -> alarm.description));
+        default -> {
+          log.warn("Unknown rule condition field: ruleId={}, field={}", rule.id, entry.getKey());
+          predicates.add(NEVER);
+        }
+      }
+    }
+
+    return new CompiledRule(rule, severities, sources, false, List.copyOf(predicates));
+  }
+
+  /**
+   * 评估规则是否匹配
+   *
+   * @param alarm 告警实体
+   * @param now 本次评估的当前时间
+   * @return 是否匹配
+   */
+  boolean matches(Alarm alarm, Instant now) {
+    if (unconditional) {
+      return true;
+    }
+
+    if (rule.effectiveFrom != null && now.isBefore(rule.effectiveFrom)) {
+      return false;
+    }
+
+    if (rule.effectiveUntil != null && now.isAfter(rule.effectiveUntil)) {
+      return false;
+    }
+
+    if (severities != null && !severities.contains(alarm.severity)) {
+      return false;
+    }
+
+    if (sources != null && (alarm.source == null || !sources.contains(alarm.source))) {
+      return false;
+    }
+
+    for (Predicate<Alarm> predicate : predicates) {
+      if (!predicate.test(alarm)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Set<Constants.Alarm.Severity> compileSeverities(AlarmRule rule, Object expected) {
+    Set<Constants.Alarm.Severity> result = EnumSet.noneOf(Constants.Alarm.Severity.class);
+    for (Object value : asCollection(expected)) {
+      if (value == null) {
+        continue;
+      }
+      try {
+        result.add(Constants.Alarm.Severity.valueOf(value.toString().toUpperCase()));
+      } catch (IllegalArgumentException e) {
+        log.warn("Unknown severity in rule condition: ruleId={}, value={}", rule.id, value);
+      }
+    }
+    return result;
+  }
+
+  private static Set<String> compileSources(Object expected) {
+    Set<String> result = new HashSet<>();
+    for (Object value : asCollection(expected)) {
+      if (value != null) {
+        result.add(value.toString());
+      }
+    }
+    return Set.copyOf(result);
+  }
+
+  private static Predicate<Alarm> compileText(
+      AlarmRule rule, Object expected, Function<Alarm, String> field) {
+    if (expected instanceof String substring) {
+      return alarm -> {
+        String value = field.apply(alarm);
+        return value != null && value.contains(substring);
+      };
+    }
+
+    if (expected instanceof Map<?, ?> spec && spec.get("regex") instanceof String regex) {
+      try {
+        Pattern pattern = Pattern.compile(regex);
+        return alarm -> {
+          String value = field.apply(alarm);
+          return value != null && pattern.matcher(value).find();
+        };
+      } catch (Exception e) {
+        log.warn("Invalid regex in rule condition: ruleId={}, regex={}", rule.id, regex, e);
+      }
+    }
+
+    return NEVER;
+  }
+
+  private static Collection<?> asCollection(Object expected) {
+    if (expected instanceof Collection<?> collection) {
+      return collection;
+    }
+    return expected == null ? List.of() : List.of(expected);
+  }
+}
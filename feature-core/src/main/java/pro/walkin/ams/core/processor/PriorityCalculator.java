@@ -149,6 +149,43 @@ public class PriorityCalculator implements AlarmProcessor<Integer> {
     }
   }
 
+  /**
+   * 计算下次自动升级的截止时间
+   *
+   * <p>阈值相对同一个起点累计计算：LOW 在起点后 {@link #ESCALATION_TIME_LOW_TO_MEDIUM} 分钟升级，MEDIUM 在
+   * {@link #ESCALATION_TIME_MEDIUM_TO_HIGH} 分钟，HIGH 在 {@link #ESCALATION_TIME_HIGH_TO_CRITICAL} 分钟。
+   *
+   * @param severity 当前严重程度
+   * @param since 计时起点（告警发生或确认时间）
+   * @return 截止时间，不再自动升级的严重程度或起点为空时返回 null
+   */
+  public static LocalDateTime escalationDeadline(
+      Constants.Alarm.Severity severity, LocalDateTime since) {
+    long minutes = escalationMinutes(severity);
+    if (minutes < 0 || since == null) {
+      return null;
+    }
+    return since.plusMinutes(minutes);
+  }
+
+  /**
+   * 严重程度自动升级的阈值
+   *
+   * @param severity 当前严重程度
+   * @return 距计时起点的分钟数，不再自动升级的严重程度返回 -1
+   */
+  public static long escalationMinutes(Constants.Alarm.Severity severity) {
+    if (severity == null) {
+      return -1;
+    }
+    return switch (severity) {
+      case Constants.Alarm.Severity.LOW -> ESCALATION_TIME_LOW_TO_MEDIUM;
+      case Constants.Alarm.Severity.MEDIUM -> ESCALATION_TIME_MEDIUM_TO_HIGH;
+      case Constants.Alarm.Severity.HIGH -> ESCALATION_TIME_HIGH_TO_CRITICAL;
+      default -> -1;
+    };
+  }
+
   @Override
   public String getName() {
     return "PriorityCalculator";
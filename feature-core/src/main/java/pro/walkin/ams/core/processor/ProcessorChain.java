@@ -0,0 +1,68 @@
+package pro.walkin.ams.core.processor;
+
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.persistence.entity.running.Alarm;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 不可变的告警处理器链
+ *
+ * <p>构建时确定处理器顺序并解析好每个处理器的 {@code core.processor.latency} 计时器，执行时只遍历数组，不再查找 CDI 实例或排序。
+ * 单个处理器失败记录日志后继续执行后续处理器。
+ */
+public final class ProcessorChain {
+
+  private static final Logger log = LoggerFactory.getLogger(ProcessorChain.class);
+
+  private final AlarmProcessor<?>[] processors;
+  private final Timer[] timers;
+
+  /**
+   * @param processors 按执行顺序排列的处理器
+   * @param timerFactory 处理器名称 → 执行耗时计时器
+   */
+  ProcessorChain(List<AlarmProcessor<?>> processors, Function<String, Timer> timerFactory) {
+    this.processors = processors.toArray(new AlarmProcessor<?>[0]);
+    this.timers = new Timer[this.processors.length];
+    for (int i = 0; i < this.processors.length; i++) {
+      timers[i] = timerFactory.apply(this.processors[i].getName());
+    }
+  }
+
+  /**
+   * 依次执行处理器
+   *
+   * @param alarm 告警实体
+   */
+  public void execute(Alarm alarm) {
+    for (int i = 0; i < processors.length; i++) {
+      AlarmProcessor<?> processor = processors[i];
+      long start = System.nanoTime();
+      try {
+        processor.process(alarm);
+      } catch (Exception e) {
+        log.error("Processor error: processor={}, alarmId={}", processor.getName(), alarm.id, e);
+      } finally {
+        timers[i].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  public int size() {
+    return processors.length;
+  }
+
+  public boolean isEmpty() {
+    return processors.length == 0;
+  }
+
+  /** 处理器列表（按执行顺序） */
+  public List<AlarmProcessor<?>> processors() {
+    return List.of(processors);
+  }
+}
@@ -8,20 +8,25 @@ import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pro.walkin.ams.common.event.ProcessorConfigChangeEvent;
+import pro.walkin.ams.core.metrics.CoreMetrics;
 import pro.walkin.ams.persistence.entity.modeling.ProcessorConfig;
 import pro.walkin.ams.persistence.entity.modeling.ProcessorConfig_;
 import pro.walkin.ams.persistence.entity.running.Alarm;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * 处理器链编排器
  *
  * <p>根据数据库配置动态构建告警处理责任链
+ *
+ * <p>每个租户的处理链按 {@code processor_configs} 中已启用配置的执行顺序预先构建为不可变的 {@link ProcessorChain}，
+ * 配置变更时整体替换。未配置处理链的租户使用默认链：所有已注册处理器按 {@link AlarmProcessor#getPriority()} 升序排列。
  */
 @ApplicationScoped
 public class ProcessorChainOrchestrator {
@@ -32,19 +37,35 @@ public class ProcessorChainOrchestrator {
 
   private final HazelcastInstance hazelcastInstance;
 
-  private final Map<String, AlarmProcessor<?>> processorRegistry = new ConcurrentHashMap<>();
+  private final CoreMetrics metrics;
+
+  private final Map<String, AlarmProcessor<?>> processorRegistry;
+
+  /** 未配置处理链的租户使用的默认链 */
+  private final ProcessorChain defaultChain;
 
-  private volatile Map<Long, List<AlarmProcessor<?>>> chainCache = new ConcurrentHashMap<>();
+  /** 租户 ID → 处理链，不可变，刷新时整体替换 */
+  private volatile Map<Long, ProcessorChain> chainCache = Map.of();
 
   @Inject
   public ProcessorChainOrchestrator(
-      HazelcastInstance hazelcastInstance, Instance<AlarmProcessor<?>> alarmProcessors) {
+      HazelcastInstance hazelcastInstance,
+      Instance<AlarmProcessor<?>> alarmProcessors,
+      CoreMetrics metrics) {
     this.hazelcastInstance = hazelcastInstance;
+    this.metrics = metrics;
+
+    Map<String, AlarmProcessor<?>> registry = new HashMap<>();
     for (AlarmProcessor<?> alarmProcessor : alarmProcessors) {
       String name = alarmProcessor.getName();
-      processorRegistry.put(name, alarmProcessor);
+      registry.put(name, alarmProcessor);
       log.debug("Registered processor: {}", name);
     }
+    this.processorRegistry = Map.copyOf(registry);
+
+    List<AlarmProcessor<?>> byPriority = new ArrayList<>(registry.values());
+    byPriority.sort(Comparator.comparingInt(AlarmProcessor::getPriority));
+    this.defaultChain = new ProcessorChain(byPriority, metrics::processorLatency);
   }
 
   @PostConstruct
@@ -76,39 +97,31 @@ public class ProcessorChainOrchestrator {
   }
 
   /**
-   * 执行告警处理链
+   * 执行告警所属租户的处理链
    *
    * @param alarm 告警实体
    */
   public void execute(Alarm alarm) {
-    Long tenantId = alarm.tenant;
+    chainFor(alarm.tenant).execute(alarm);
+  }
 
+  /**
+   * 获取租户的处理链
+   *
+   * @param tenantId 租户ID，可以为 null
+   * @return 租户配置的处理链；未配置或租户为空时返回默认链
+   */
+  public ProcessorChain chainFor(Long tenantId) {
     if (tenantId == null) {
-      log.warn("Alarm has no tenant: alarmId={}", alarm.id);
-      return;
-    }
-
-    List<AlarmProcessor<?>> chain = chainCache.get(tenantId);
-
-    if (chain == null || chain.isEmpty()) {
-      log.warn("No processor chain configured for tenantId={}", tenantId);
-      return;
-    }
-
-    for (AlarmProcessor<?> processor : chain) {
-      try {
-        log.debug("Executing processor: {} for alarm: {}", processor.getName(), alarm.id);
-        processor.process(alarm);
-      } catch (Exception e) {
-        log.error("Processor failed: {} for alarm: {}", processor.getName(), alarm.id, e);
-      }
+      return defaultChain;
     }
+    return chainCache.getOrDefault(tenantId, defaultChain);
   }
 
   /** 刷新所有租户的处理链 */
-  private void refreshAllChains() {
+  private synchronized void refreshAllChains() {
     try {
-      Map<Long, List<AlarmProcessor<?>>> newChains = new ConcurrentHashMap<>();
+      Map<Long, ProcessorChain> newChains = new HashMap<>();
 
       List<ProcessorConfig> allConfigs = ProcessorConfig_.managedBlocking().listAll();
 
@@ -121,13 +134,13 @@ public class ProcessorChainOrchestrator {
         Long tenantId = entry.getKey();
         List<ProcessorConfig> configs = entry.getValue();
 
-        List<AlarmProcessor<?>> chain = buildChain(configs);
+        ProcessorChain chain = buildChain(configs);
         newChains.put(tenantId, chain);
 
         log.debug("Built processor chain for tenantId={}: {} processors", tenantId, chain.size());
       }
 
-      chainCache = new ConcurrentHashMap<>(newChains);
+      chainCache = Map.copyOf(newChains);
 
       log.info("Refreshed all processor chains: {} tenants", newChains.size());
     } catch (Exception e) {
@@ -140,20 +153,22 @@ public class ProcessorChainOrchestrator {
    *
    * @param tenantId 租户ID
    */
-  private void refreshChainForTenant(Long tenantId) {
+  private synchronized void refreshChainForTenant(Long tenantId) {
     try {
       List<ProcessorConfig> configs =
           ProcessorConfig_.repo().findByTenantOrderByExecutionOrderAsc(tenantId);
 
-      if (configs.isEmpty()) {
-        chainCache.remove(tenantId);
+      Map<Long, ProcessorChain> newChains = new HashMap<>(chainCache);
+      if (configs.stream().noneMatch(config -> Boolean.TRUE.equals(config.enabled))) {
+        newChains.remove(tenantId);
         log.info("Removed processor chain for tenantId={}", tenantId);
       } else {
-        List<AlarmProcessor<?>> chain = buildChain(configs);
-        chainCache.put(tenantId, chain);
+        ProcessorChain chain = buildChain(configs);
+        newChains.put(tenantId, chain);
         log.info(
             "Refreshed processor chain for tenantId={}: {} processors", tenantId, chain.size());
       }
+      chainCache = Map.copyOf(newChains);
     } catch (Exception e) {
       log.error("Failed to refresh processor chain for tenantId={}", tenantId, e);
     }
@@ -162,13 +177,21 @@ public class ProcessorChainOrchestrator {
   /**
    * 构建处理链
    *
-   * @param configs 处理器配置列表
+   * @param configs 处理器配置列表，只使用已启用的配置，按执行顺序排列
    * @return 处理器链
    */
-  private List<AlarmProcessor<?>> buildChain(List<ProcessorConfig> configs) {
+  private ProcessorChain buildChain(List<ProcessorConfig> configs) {
     List<AlarmProcessor<?>> chain = new ArrayList<>();
 
-    for (ProcessorConfig config : configs) {
+    List<ProcessorConfig> ordered =
+        configs.stream()
+            .filter(config -> Boolean.TRUE.equals(config.enabled))
+            .sorted(
+                Comparator.comparing(
+                    config -> config.executionOrder,
+                    Comparator.nullsLast(Comparator.naturalOrder())))
+            .toList();
+    for (ProcessorConfig config : ordered) {
       AlarmProcessor<?> processor = processorRegistry.get(config.processorName);
 
       if (processor == null) {
@@ -179,7 +202,7 @@ public class ProcessorChainOrchestrator {
       chain.add(processor);
     }
 
-    return chain;
+    return new ProcessorChain(chain, metrics::processorLatency);
   }
 
   /**
@@ -205,12 +228,13 @@ public class ProcessorChainOrchestrator {
   }
 
   /**
-   * 获取指定租户的处理链
+   * 获取指定租户配置的处理链
    *
    * @param tenantId 租户ID
-   * @return 处理器链
+   * @return 处理器链；租户未配置时为空列表
    */
   public List<AlarmProcessor<?>> getChainForTenant(Long tenantId) {
-    return chainCache.getOrDefault(tenantId, List.of());
+    ProcessorChain chain = chainCache.get(tenantId);
+    return chain != null ? chain.processors() : List.of();
   }
 }
@@ -7,13 +7,14 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import pro.walkin.ams.common.Constants;
 import pro.walkin.ams.common.event.AlarmRuleChangeEvent;
 import pro.walkin.ams.persistence.entity.modeling.AlarmRule;
 import pro.walkin.ams.persistence.entity.modeling.AlarmRule_;
 import pro.walkin.ams.persistence.entity.running.Alarm;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,6 +23,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * 规则评估器
  *
  * <p>评估告警规则并返回匹配结果 使用内存缓存 + Hazelcast 事件监听提高性能
+ *
+ * <p>规则在缓存刷新时编译为 {@link CompiledRule}，并按租户构建 {@link TenantRuleIndex} 判别索引，评估时只检查可能匹配的候选规则。
  */
 @ApplicationScoped
 public class RuleEvaluator {
@@ -33,7 +36,7 @@ public class RuleEvaluator {
   private final HazelcastInstance hazelcastInstance;
 
   // Volatile for visibility across threads
-  private volatile Map<Long, List<AlarmRule>> cache = new ConcurrentHashMap<>();
+  private volatile Map<Long, TenantRuleIndex> cache = new ConcurrentHashMap<>();
 
   @Inject
   public RuleEvaluator(HazelcastInstance hazelcastInstance) {
@@ -71,12 +74,12 @@ public class RuleEvaluator {
   }
 
   /**
-   * Full refresh: build new ConcurrentHashMap and replace atomically. Volatile write ensures all
-   * threads see new reference immediately.
+   * Full refresh: compile every tenant's rules into a new map and replace atomically. Volatile
+   * write ensures all threads see new reference immediately.
    */
   private void refreshAll() {
     try {
-      Map<Long, List<AlarmRule>> newRules = new ConcurrentHashMap<>();
+      Map<Long, List<AlarmRule>> rulesByTenant = new HashMap<>();
 
       // Load rules for all tenants
       // Since this is called on startup and rarely, we can load all rules at once
@@ -85,27 +88,20 @@ public class RuleEvaluator {
 
       for (AlarmRule rule : allRules) {
         if (Boolean.TRUE.equals(rule.enabled) && rule.tenant != null) {
-          Long tenantId = rule.tenant;
-          newRules.computeIfAbsent(tenantId, k -> new java.util.ArrayList<>()).add(rule);
+          rulesByTenant.computeIfAbsent(rule.tenant, k -> new ArrayList<>()).add(rule);
         }
       }
 
-      for (Map.Entry<Long, List<AlarmRule>> entry : newRules.entrySet()) {
-        List<AlarmRule> rules = entry.getValue();
-        rules.sort(
-            (a, b) -> {
-              Integer prioA = a.priority != null ? a.priority : Integer.MIN_VALUE;
-              Integer prioB = b.priority != null ? b.priority : Integer.MIN_VALUE;
-              return prioB.compareTo(prioA);
-            });
-      }
+      Map<Long, TenantRuleIndex> newIndexes = new ConcurrentHashMap<>();
+      rulesByTenant.forEach(
+          (tenantId, rules) -> newIndexes.put(tenantId, TenantRuleIndex.build(rules)));
 
       // Atomic replacement with volatile write
-      cache = new ConcurrentHashMap<>(newRules);
+      cache = newIndexes;
 
       log.info(
           "Refreshed all alarm rules: {} tenants, {} total rules",
-          newRules.size(),
+          newIndexes.size(),
           allRules.size());
     } catch (Exception e) {
       log.error("Failed to refresh all alarm rules", e);
@@ -121,7 +117,7 @@ public class RuleEvaluator {
         cache.remove(tenantId);
         log.info("Removed alarm rules for tenantId={}", tenantId);
       } else {
-        cache.put(tenantId, rules);
+        cache.put(tenantId, TenantRuleIndex.build(rules));
         log.info("Refreshed alarm rules for tenantId={}: {} rules", tenantId, rules.size());
       }
     } catch (Exception e) {
@@ -132,17 +128,27 @@ public class RuleEvaluator {
   /**
    * 评估告警规则
    *
+   * <p>只对判别索引给出的候选规则执行预编译谓词，整次评估共用一个当前时间。
+   *
    * @param alarm 告警实体
-   * @return 匹配的规则列表
+   * @return 匹配的规则列表（按优先级降序）
    */
   public List<AlarmRule> evaluate(Alarm alarm) {
     long startTime = System.nanoTime();
 
     try {
-      List<AlarmRule> rules = getActiveRules(alarm.tenant);
+      TenantRuleIndex index = getRuleIndex(alarm.tenant);
+      if (index.isEmpty()) {
+        return List.of();
+      }
 
-      List<AlarmRule> matchedRules =
-          rules.stream().filter(rule -> evaluateRule(rule, alarm)).toList();
+      Instant now = Instant.now();
+      List<AlarmRule> matchedRules = new ArrayList<>();
+      for (CompiledRule rule : index.candidates(alarm)) {
+        if (evaluateRule(rule, alarm, now)) {
+          matchedRules.add(rule.rule);
+        }
+      }
 
       log.debug(
           "Rule evaluation completed: alarmId={}, matchedCount={}", alarm.id, matchedRules.size());
@@ -155,17 +161,17 @@ public class RuleEvaluator {
   }
 
   /**
-   * 获取启用的规则（带缓存）
+   * 获取租户规则索引（带缓存）
    *
    * @param tenantId 租户ID
-   * @return 启用的规则列表
+   * @return 租户规则索引
    */
-  private List<AlarmRule> getActiveRules(Long tenantId) {
+  private TenantRuleIndex getRuleIndex(Long tenantId) {
     // Fast path: check in-memory cache first
-    List<AlarmRule> cachedRules = cache.get(tenantId);
-    if (cachedRules != null) {
+    TenantRuleIndex cachedIndex = cache.get(tenantId);
+    if (cachedIndex != null) {
       log.debug("Rules cache hit: tenantId={}", tenantId);
-      return cachedRules;
+      return cachedIndex;
     }
 
     log.debug("Rules cache miss: tenantId={}", tenantId);
@@ -175,108 +181,33 @@ public class RuleEvaluator {
         AlarmRule_.repo().findByTenantAndEnabledOrderByPriorityDesc(tenantId, true);
 
     if (rules.isEmpty()) {
-      return List.of();
+      return TenantRuleIndex.EMPTY;
     }
 
-    cache.put(tenantId, rules);
-    log.debug("Rules loaded and cached: tenantId={}, count={}", tenantId, rules.size());
+    TenantRuleIndex index = TenantRuleIndex.build(rules);
+    cache.put(tenantId, index);
+    log.debug("Rules loaded and cached: tenantId={}, count={}", tenantId, index.size());
 
-    return rules;
+    return index;
   }
 
   /**
    * 评估单个规则
    *
-   * @param rule 告警规则
+   * @param rule 预编译规则
    * @param alarm 告警实体
+   * @param now 本次评估的当前时间
    * @return 是否匹配
    */
-  private boolean evaluateRule(AlarmRule rule, Alarm alarm) {
+  private boolean evaluateRule(CompiledRule rule, Alarm alarm, Instant now) {
     try {
-      Map<String, Object> conditions = rule.conditions;
-      if (conditions == null || conditions.isEmpty()) {
-        return true;
-      }
-
-      Instant now = Instant.now();
-
-      // 检查生效时间
-      if (rule.effectiveFrom != null && now.isBefore(rule.effectiveFrom)) {
-        return false;
-      }
-
-      if (rule.effectiveUntil != null && now.isAfter(rule.effectiveUntil)) {
-        return false;
-      }
-
-      // 评估条件
-      return evaluateConditions(conditions, alarm);
+      return rule.matches(alarm, now);
     } catch (Exception e) {
-      log.error("Failed to evaluate rule: ruleId={}, alarmId={}", rule.id, alarm.id, e);
+      log.error("Failed to evaluate rule: ruleId={}, alarmId={}", rule.rule.id, alarm.id, e);
       return false;
     }
   }
 
-  /**
-   * 评估规则条件
-   *
-   * @param conditions 条件映射
-   * @param alarm 告警实体
-   * @return 是否匹配
-   */
-  private boolean evaluateConditions(Map<String, Object> conditions, Alarm alarm) {
-    for (Map.Entry<String, Object> entry : conditions.entrySet()) {
-      String field = entry.getKey();
-      Object expectedValue = entry.getValue();
-
-      if (!evaluateCondition(field, expectedValue, alarm)) {
-        return false;
-      }
-    }
-
-    return true;
-  }
-
-  /**
-   * 评估单个条件
-   *
-   * @param field 字段名
-   * @param expectedValue 期望值
-   * @param alarm 告警实体
-   * @return 是否匹配
-   */
-  private boolean evaluateCondition(String field, Object expectedValue, Alarm alarm) {
-    return switch (field) {
-      case "severity" -> {
-        Constants.Alarm.Severity severity = alarm.severity;
-        if (expectedValue instanceof List<?> list) {
-          yield list.contains(severity);
-        }
-        yield severity.equals(expectedValue);
-      }
-      case "source" -> {
-        String source = alarm.source;
-        if (expectedValue instanceof List<?> list) {
-          yield list.contains(source);
-        }
-        yield source.equals(expectedValue);
-      }
-      case "title" -> {
-        if (expectedValue instanceof String pattern) {
-          yield alarm.title != null && alarm.title.contains(pattern);
-        }
-        yield false;
-      }
-      case "description" -> {
-        if (expectedValue instanceof String pattern) {
-          yield alarm.description != null && alarm.description.contains(pattern);
-        }
-        yield false;
-      }
-      default -> false;
-    };
-  }
-
   /**
    * 清除规则缓存
    *
@@ -0,0 +1,118 @@
+package pro.walkin.ams.core.processor;
+
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.persistence.entity.modeling.AlarmRule;
+import pro.walkin.ams.persistence.entity.running.Alarm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单租户规则判别索引
+ *
+ * <p>按（严重程度, 来源）预先划分候选规则，每条告警只需评估可能匹配的规则。候选列表保持优先级降序，未约束严重程度或来源的规则出现在所有对应分桶中。索引构建后不可变，刷新时整体替换。
+ */
+final class TenantRuleIndex {
+
+  static final TenantRuleIndex EMPTY = new TenantRuleIndex(List.of());
+
+  private static final Comparator<AlarmRule> PRIORITY_DESC =
+      (a, b) -> {
+        Integer prioA = a.priority != null ? a.priority : Integer.MIN_VALUE;
+        Integer prioB = b.priority != null ? b.priority : Integer.MIN_VALUE;
+        return prioB.compareTo(prioA);
+      };
+
+  private final int size;
+
+  private final Map<Constants.Alarm.Severity, Bucket> bySeverity =
+      new EnumMap<>(Constants.Alarm.Severity.class);
+
+  /** 告警严重程度为空时的候选：仅包含未约束严重程度的规则 */
+  private final Bucket severityFree;
+
+  private TenantRuleIndex(List<CompiledRule> rules) {
+    this.size = rules.size();
+    for (Constants.Alarm.Severity severity : Constants.Alarm.Severity.values()) {
+      bySeverity.put(
+          severity,
+          Bucket.of(
+              rules.stream()
+                  .filter(r -> r.severities == null || r.severities.contains(severity))
+                  .toList()));
+    }
+    this.severityFree = Bucket.of(rules.stream().filter(r -> r.severities == null).toList());
+  }
+
+  /**
+   * 编译并索引租户的规则
+   *
+   * @param rules 租户已启用的规则，顺序任意
+   * @return 规则索引
+   */
+  static TenantRuleIndex build(List<AlarmRule> rules) {
+    if (rules.isEmpty()) {
+      return EMPTY;
+    }
+    List<AlarmRule> sorted = new ArrayList<>(rules);
+    sorted.sort(PRIORITY_DESC);
+    return new TenantRuleIndex(sorted.stream().map(CompiledRule::compile).toList());
+  }
+
+  /**
+   * 获取告警的候选规则（按优先级降序）
+   *
+   * @param alarm 告警实体
+   * @return 候选规则
+   */
+  List<CompiledRule> candidates(Alarm alarm) {
+    Bucket bucket = alarm.severity == null ? severityFree : bySeverity.get(alarm.severity);
+    return bucket.candidates(alarm.source);
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /** 同一严重程度下按来源划分的候选规则 */
+  private record Bucket(Map<String, List<CompiledRule>> bySource, List<CompiledRule> anySource) {
+
+    static Bucket of(List<CompiledRule> rules) {
+      List<CompiledRule> anySource = rules.stream().filter(r -> r.sources == null).toList();
+
+      Set<String> sources = new HashSet<>();
+      for (CompiledRule rule : rules) {
+        if (rule.sources != null) {
+          sources.addAll(rule.sources);
+        }
+      }
+
+      Map<String, List<CompiledRule>> bySource = new HashMap<>();
+      for (String source : sources) {
+        bySource.put(
+            source,
+            rules.stream()
+                .filter(r -> r.sources == null || r.sources.contains(source))
+                .toList());
+      }
+      return new Bucket(Map.copyOf(bySource), anySource);
+    }
+
+    List<CompiledRule> candidates(String source) {
+      if (source == null) {
+        return anySource;
+      }
+      return bySource.getOrDefault(source, anySource);
+    }
+  }
+}
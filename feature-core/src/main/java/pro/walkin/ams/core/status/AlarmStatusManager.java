@@ -12,6 +12,7 @@ import pro.walkin.ams.common.Constants;
 import pro.walkin.ams.common.cache.CacheInvalidationBroadcaster;
 import pro.walkin.ams.core.event.AlarmStatusChangedEvent;
 import pro.walkin.ams.core.metrics.CoreMetrics;
+import pro.walkin.ams.core.processor.PriorityCalculator;
 import pro.walkin.ams.persistence.entity.running.Alarm;
 
 import java.time.LocalDateTime;
@@ -172,7 +173,20 @@ public class AlarmStatusManager {
   private Alarm updateAlarmStatus(Alarm alarm, Constants.Alarm.Status newStatus) {
     alarm.status = newStatus;
     switch (newStatus) {
-      case Constants.Alarm.Status.ACKNOWLEDGED, Constants.Alarm.Status.IN_PROGRESS -> {
+      case Constants.Alarm.Status.NEW -> {
+        // 重新打开：从当前时间重新计时
+        alarm.nextEscalationAt =
+            PriorityCalculator.escalationDeadline(alarm.severity, LocalDateTime.now());
+      }
+      case Constants.Alarm.Status.ACKNOWLEDGED -> {
+        if (alarm.acknowledgedAt == null) {
+          alarm.acknowledgedAt = LocalDateTime.now();
+        }
+        // 确认后从确认时间重新计时
+        alarm.nextEscalationAt =
+            PriorityCalculator.escalationDeadline(alarm.severity, alarm.acknowledgedAt);
+      }
+      case Constants.Alarm.Status.IN_PROGRESS -> {
         if (alarm.acknowledgedAt == null) {
           alarm.acknowledgedAt = LocalDateTime.now();
         }
@@ -181,6 +195,7 @@ public class AlarmStatusManager {
         if (alarm.resolvedAt == null) {
           alarm.resolvedAt = LocalDateTime.now();
         }
+        alarm.nextEscalationAt = null;
       }
       case Constants.Alarm.Status.CLOSED -> {
         if (alarm.resolvedAt == null) {
@@ -189,6 +204,7 @@ public class AlarmStatusManager {
         if (alarm.closedAt == null) {
           alarm.closedAt = LocalDateTime.now();
         }
+        alarm.nextEscalationAt = null;
       }
     }
 
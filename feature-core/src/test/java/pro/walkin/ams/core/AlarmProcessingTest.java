@@ -0,0 +1,130 @@
+package pro.walkin.ams.core;
+
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.enterprise.event.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.cluster.cache.TenantCodeCacher;
+import pro.walkin.ams.common.dto.AlertEvent;
+import pro.walkin.ams.core.event.AlarmCreatedEvent;
+import pro.walkin.ams.core.event.AlarmUpdatedEvent;
+import pro.walkin.ams.core.metrics.CoreMetrics;
+import pro.walkin.ams.core.processor.ProcessorChainOrchestrator;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AlarmProcessingTest {
+
+  private static AlertEvent event(String fingerprint) {
+    LocalDateTime at = LocalDateTime.now();
+    return new AlertEvent(
+        fingerprint, "prometheus", "summary", Map.of("k", "v"), 1, at, at, "FIRING", "HIGH");
+  }
+
+  @Nested
+  @DisplayName("isRetryable")
+  class IsRetryable {
+
+    @Test
+    @DisplayName("should treat transient JDBC failures anywhere in the cause chain as retryable")
+    void shouldDetectTransientCause() {
+      assertThat(
+              AlarmProcessing.isRetryable(
+                  new RuntimeException(new SQLTransientConnectionException("connection lost"))))
+          .isTrue();
+      assertThat(AlarmProcessing.isRetryable(new SQLException("deadlock", "40P01"))).isTrue();
+      assertThat(AlarmProcessing.isRetryable(new SQLException("refused", "08001"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("should not retry constraint violations or failures without a JDBC cause")
+    void shouldRejectPermanentFailures() {
+      assertThat(
+              AlarmProcessing.isRetryable(
+                  new RuntimeException(
+                      new SQLIntegrityConstraintViolationException("duplicate", "23505"))))
+          .isFalse();
+      assertThat(AlarmProcessing.isRetryable(new IllegalStateException("bad tenant"))).isFalse();
+    }
+  }
+
+  @Nested
+  @DisplayName("processBatch")
+  class ProcessBatch {
+
+    private AlarmProcessing processing;
+    private final List<AlertEvent> batch = List.of(event("fp-1"), event("fp-2"));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+      processing =
+          spy(
+              new AlarmProcessing(
+                  mock(HazelcastInstance.class),
+                  mock(ProcessorChainOrchestrator.class),
+                  mock(Event.class),
+                  mock(Event.class),
+                  new CoreMetrics(new SimpleMeterRegistry()),
+                  mock(TenantCodeCacher.class),
+                  Optional.of(4),
+                  20,
+                  1000L));
+      doNothing().when(processing).processSingleAlarm(any());
+    }
+
+    @Test
+    @DisplayName("should rethrow transient failures without falling back to per-event processing")
+    void shouldRethrowTransientFailure() {
+      RuntimeException failure =
+          new RuntimeException(new SQLTransientConnectionException("connection lost"));
+      doThrow(failure).when(processing).persistBatch(batch);
+
+      assertThatThrownBy(() -> processing.processBatch(batch)).isSameAs(failure);
+
+      verify(processing, never()).processSingleAlarm(any());
+    }
+
+    @Test
+    @DisplayName("should fall back to per-event processing when the batch fails permanently")
+    void shouldFallBackOnPermanentFailure() {
+      doThrow(new RuntimeException(new SQLIntegrityConstraintViolationException("duplicate")))
+          .when(processing)
+          .persistBatch(batch);
+
+      processing.processBatch(batch);
+
+      verify(processing).processSingleAlarm(batch.get(0));
+      verify(processing).processSingleAlarm(batch.get(1));
+    }
+
+    @Test
+    @DisplayName("should release the admission permit after a transient failure")
+    void shouldReleaseAdmissionAfterTransientFailure() {
+      doThrow(new RuntimeException(new SQLTransientConnectionException("connection lost")))
+          .doReturn(List.of())
+          .when(processing)
+          .persistBatch(batch);
+
+      assertThatThrownBy(() -> processing.processBatch(batch))
+          .isInstanceOf(RuntimeException.class);
+      for (int i = 0; i < 4; i++) {
+        processing.processBatch(batch);
+      }
+
+      verify(processing, times(5)).persistBatch(batch);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package pro.walkin.ams.core.consumer;
+
+import com.hazelcast.collection.IQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.cluster.queue.AlertEventQueues;
+import pro.walkin.ams.common.dto.AlertEvent;
+import pro.walkin.ams.core.AlarmProcessing;
+import pro.walkin.ams.core.metrics.CoreMetrics;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AlertEventConsumerTest {
+
+  private static final int MAX_RETRIES = 2;
+
+  @SuppressWarnings("unchecked")
+  private final IQueue<AlertEvent> queue = mock(IQueue.class);
+
+  private final AlertEventQueues queues = mock(AlertEventQueues.class);
+  private final AlarmProcessing alarmProcessing = mock(AlarmProcessing.class);
+  private final CoreMetrics metrics = new CoreMetrics(new SimpleMeterRegistry());
+  private final AlertEvent event = event("fp-1");
+
+  private AlertEventConsumer consumer;
+
+  private static AlertEvent event(String fingerprint) {
+    LocalDateTime at = LocalDateTime.now();
+    return new AlertEvent(
+        fingerprint, "prometheus", "summary", Map.of("k", "v"), 1, at, at, "FIRING", "HIGH");
+  }
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    when(queues.partitionCount()).thenReturn(1);
+    when(queues.localIndexes()).thenReturn(List.of(0));
+    when(queues.isLocal(0)).thenReturn(true);
+    when(queues.queue(0)).thenReturn(queue);
+    // 队列只有一个事件，之后按超时阻塞返回 null，避免消费线程空转
+    BlockingQueue<AlertEvent> pending = new LinkedBlockingQueue<>(List.of(event));
+    when(queue.poll(anyLong(), any(TimeUnit.class)))
+        .thenAnswer(inv -> pending.poll(inv.getArgument(0), inv.getArgument(1)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (consumer != null) {
+      consumer.shutdown();
+    }
+  }
+
+  private void start(boolean batchEnabled) {
+    consumer =
+        new AlertEventConsumer(
+            queues,
+            alarmProcessing,
+            metrics,
+            1,
+            10L,
+            MAX_RETRIES,
+            1L,
+            batchEnabled,
+            10,
+            1L,
+            60_000L);
+    consumer.onStart(null);
+  }
+
+  private static RuntimeException transientFailure() {
+    return new RuntimeException(new SQLTransientConnectionException("connection lost"));
+  }
+
+  @Test
+  @DisplayName("should retry a batch that failed transiently until it succeeds")
+  void shouldRetryTransientBatchFailure() {
+    doThrow(transientFailure()).doNothing().when(alarmProcessing).processBatch(anyList());
+
+    start(true);
+
+    verify(alarmProcessing, timeout(5000).times(2)).processBatch(List.of(event));
+    assertThat(metrics.getConsumerRetryTotal().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("should give up on a batch after the configured number of retries")
+  void shouldGiveUpAfterMaxRetries() {
+    doThrow(transientFailure()).when(alarmProcessing).processBatch(anyList());
+
+    start(true);
+
+    verify(alarmProcessing, timeout(5000).times(MAX_RETRIES + 1)).processBatch(List.of(event));
+    assertThat(metrics.getConsumerRetryTotal().count()).isEqualTo(MAX_RETRIES);
+  }
+
+  @Test
+  @DisplayName("should process events synchronously on the partition thread and retry failures")
+  void shouldRetryEventFailureSynchronously() {
+    doThrow(new IllegalStateException("tenant not found"))
+        .doNothing()
+        .when(alarmProcessing)
+        .processEventSync(event);
+
+    start(false);
+
+    verify(alarmProcessing, timeout(5000).times(2)).processEventSync(event);
+    verify(alarmProcessing, never()).processEvent(any());
+    assertThat(metrics.getConsumerRetryTotal().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("should not take the next event before the current one has been processed")
+  void shouldPreservePartitionOrder() throws InterruptedException {
+    LocalDateTime at = LocalDateTime.now();
+    AlertEvent second =
+        new AlertEvent(
+            "fp-1", "prometheus", "summary", Map.of("k", "v"), 1, at, at, "RESOLVED", "HIGH");
+    BlockingQueue<AlertEvent> pending = new LinkedBlockingQueue<>(List.of(event, second));
+    when(queue.poll(anyLong(), any(TimeUnit.class)))
+        .thenAnswer(inv -> pending.poll(inv.getArgument(0), inv.getArgument(1)));
+    CountDownLatch firstStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    doAnswer(
+            inv -> {
+              firstStarted.countDown();
+              releaseFirst.await();
+              return null;
+            })
+        .when(alarmProcessing)
+        .processEventSync(event);
+
+    start(false);
+
+    assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    verify(alarmProcessing, after(200).never()).processEventSync(second);
+    releaseFirst.countDown();
+    verify(alarmProcessing, timeout(5000)).processEventSync(second);
+  }
+}
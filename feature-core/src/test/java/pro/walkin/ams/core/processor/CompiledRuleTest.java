@@ -0,0 +1,91 @@
+package pro.walkin.ams.core.processor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.common.Constants.Alarm.Severity;
+import pro.walkin.ams.persistence.entity.modeling.AlarmRule;
+import pro.walkin.ams.persistence.entity.running.Alarm;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompiledRuleTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+  private static CompiledRule compile(Map<String, Object> conditions) {
+    AlarmRule rule = new AlarmRule();
+    rule.id = 1L;
+    rule.conditions = conditions;
+    return CompiledRule.compile(rule);
+  }
+
+  private static Alarm alarm(Severity severity, String source, String title) {
+    Alarm alarm = new Alarm();
+    alarm.severity = severity;
+    alarm.source = source;
+    alarm.title = title;
+    return alarm;
+  }
+
+  @Test
+  @DisplayName("should match title and description conditions as substrings")
+  void shouldMatchSubstring() {
+    CompiledRule rule = compile(Map.of("title", "disk"));
+
+    assertThat(rule.matches(alarm(Severity.HIGH, "prom", "root disk full"), NOW)).isTrue();
+    assertThat(rule.matches(alarm(Severity.HIGH, "prom", "cpu high"), NOW)).isFalse();
+    assertThat(rule.matches(alarm(Severity.HIGH, "prom", null), NOW)).isFalse();
+  }
+
+  @Test
+  @DisplayName("should match a regex condition anywhere in the field")
+  void shouldMatchRegex() {
+    CompiledRule rule = compile(Map.of("title", Map.of("regex", "disk\\s+\\d+%")));
+
+    assertThat(rule.matches(alarm(Severity.HIGH, "prom", "root disk 95% full"), NOW)).isTrue();
+    assertThat(rule.matches(alarm(Severity.HIGH, "prom", "root disk full"), NOW)).isFalse();
+  }
+
+  @Test
+  @DisplayName("should never match an invalid regex or an unknown condition field")
+  void shouldNeverMatchInvalidCondition() {
+    Alarm alarm = alarm(Severity.HIGH, "prom", "[unclosed");
+
+    assertThat(compile(Map.of("title", Map.of("regex", "[unclosed"))).matches(alarm, NOW))
+        .isFalse();
+    assertThat(compile(Map.of("title", Map.of("pattern", "x"))).matches(alarm, NOW)).isFalse();
+    assertThat(compile(Map.of("unknown", "x")).matches(alarm, NOW)).isFalse();
+  }
+
+  @Test
+  @DisplayName("should compile severity and source conditions from single values and lists")
+  void shouldCompileSeverityAndSource() {
+    CompiledRule single = compile(Map.of("severity", "high", "source", "prom"));
+    CompiledRule list =
+        compile(Map.of("severity", List.of("CRITICAL", "BOGUS"), "source", List.of("a", "b")));
+
+    assertThat(single.severities).containsExactly(Severity.HIGH);
+    assertThat(single.sources).containsExactly("prom");
+    assertThat(list.severities).containsExactly(Severity.CRITICAL);
+    assertThat(list.sources).containsExactlyInAnyOrder("a", "b");
+    assertThat(single.matches(alarm(Severity.HIGH, "prom", null), NOW)).isTrue();
+    assertThat(single.matches(alarm(Severity.HIGH, null, null), NOW)).isFalse();
+    assertThat(compile(Map.of("title", "x")).severities).isNull();
+  }
+
+  @Test
+  @DisplayName("should respect the effective window except for rules without conditions")
+  void shouldRespectEffectiveWindow() {
+    CompiledRule conditional = compile(Map.of("source", "prom"));
+    conditional.rule.effectiveFrom = NOW.plusSeconds(60);
+    CompiledRule unconditional = compile(Map.of());
+    unconditional.rule.effectiveFrom = NOW.plusSeconds(60);
+
+    assertThat(conditional.matches(alarm(Severity.HIGH, "prom", null), NOW)).isFalse();
+    assertThat(unconditional.matches(alarm(Severity.HIGH, "prom", null), NOW)).isTrue();
+  }
+}
@@ -0,0 +1,196 @@
+package pro.walkin.ams.core.processor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.common.Constants.Alarm.Severity;
+import pro.walkin.ams.persistence.entity.modeling.AlarmRule;
+import pro.walkin.ams.persistence.entity.running.Alarm;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TenantRuleIndexTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+  private static AlarmRule rule(long id, Integer priority, Map<String, Object> conditions) {
+    AlarmRule rule = new AlarmRule();
+    rule.id = id;
+    rule.tenant = 1L;
+    rule.priority = priority;
+    rule.conditions = conditions;
+    rule.enabled = true;
+    return rule;
+  }
+
+  private static Alarm alarm(Severity severity, String source, String title, String description) {
+    Alarm alarm = new Alarm();
+    alarm.tenant = 1L;
+    alarm.severity = severity;
+    alarm.source = source;
+    alarm.title = title;
+    alarm.description = description;
+    return alarm;
+  }
+
+  /** 同 {@link RuleEvaluator#evaluate}：只评估索引给出的候选规则 */
+  private static List<Long> indexed(TenantRuleIndex index, Alarm alarm) {
+    List<Long> matched = new ArrayList<>();
+    for (CompiledRule rule : index.candidates(alarm)) {
+      if (rule.matches(alarm, NOW)) {
+        matched.add(rule.rule.id);
+      }
+    }
+    return matched;
+  }
+
+  /**
+   * 索引化之前的线性扫描：按优先级降序（同优先级保持加载顺序）逐条解释执行条件
+   *
+   * <p>旧实现把告警的枚举严重程度与条件中的 JSON 字符串直接比较，这里按枚举名比较，即编译后的规则要实现的语义。
+   */
+  private static List<Long> linearScan(List<AlarmRule> rules, Alarm alarm) {
+    List<AlarmRule> sorted = new ArrayList<>(rules);
+    sorted.sort(
+        Comparator.comparing(
+            (AlarmRule r) -> r.priority != null ? r.priority : Integer.MIN_VALUE,
+            Comparator.reverseOrder()));
+    List<Long> matched = new ArrayList<>();
+    for (AlarmRule rule : sorted) {
+      if (legacyMatches(rule, alarm)) {
+        matched.add(rule.id);
+      }
+    }
+    return matched;
+  }
+
+  private static boolean legacyMatches(AlarmRule rule, Alarm alarm) {
+    try {
+      if (rule.conditions == null || rule.conditions.isEmpty()) {
+        return true;
+      }
+      if (rule.effectiveFrom != null && NOW.isBefore(rule.effectiveFrom)) {
+        return false;
+      }
+      if (rule.effectiveUntil != null && NOW.isAfter(rule.effectiveUntil)) {
+        return false;
+      }
+      for (Map.Entry<String, Object> entry : rule.conditions.entrySet()) {
+        if (!legacyCondition(entry.getKey(), entry.getValue(), alarm)) {
+          return false;
+        }
+      }
+      return true;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private static boolean legacyCondition(String field, Object expected, Alarm alarm) {
+    return switch (field) {
+      case "severity" -> {
+        String severity = alarm.severity != null ? alarm.severity.name() : null;
+        if (expected instanceof List<?> list) {
+          yield list.contains(severity);
+        }
+        yield severity.equals(expected);
+      }
+      case "source" -> {
+        if (expected instanceof List<?> list) {
+          yield list.contains(alarm.source);
+        }
+        yield alarm.source.equals(expected);
+      }
+      case "title" ->
+          expected instanceof String s && alarm.title != null && alarm.title.contains(s);
+      case "description" ->
+          expected instanceof String s
+              && alarm.description != null
+              && alarm.description.contains(s);
+      default -> false;
+    };
+  }
+
+  private static final List<AlarmRule> RULES =
+      List.of(
+          rule(1, 10, Map.of("severity", List.of("HIGH"), "source", "prom")),
+          rule(2, 10, Map.of("severity", "HIGH")),
+          rule(3, 5, Map.of("source", List.of("zbx", "prom"))),
+          rule(4, 5, Map.of("severity", List.of("CRITICAL", "LOW"))),
+          rule(5, 1, Map.of("title", "disk")),
+          rule(6, 1, Map.of("title", Map.of("regex", "[unclosed"))),
+          rule(7, 0, Map.of()),
+          rule(8, 20, Map.of("severity", List.of("MEDIUM"), "description", "db")),
+          rule(9, 3, Map.of("unknown", "x")),
+          rule(10, 10, Map.of("source", "zbx", "title", "cpu")),
+          rule(11, null, Map.of("source", "other")));
+
+  @Test
+  @DisplayName("should return the same matches in the same order as the linear scan")
+  void shouldMatchLinearScan() {
+    TenantRuleIndex index = TenantRuleIndex.build(RULES);
+
+    List<Severity> severities = new ArrayList<>(Arrays.asList(Severity.values()));
+    severities.add(null);
+    List<String> sources = Arrays.asList("prom", "zbx", "other", "unknown", null);
+    List<String> titles = Arrays.asList("disk full", "cpu high", null);
+    List<String> descriptions = Arrays.asList("db down", null);
+
+    int checked = 0;
+    for (Severity severity : severities) {
+      for (String source : sources) {
+        for (String title : titles) {
+          for (String description : descriptions) {
+            Alarm alarm = alarm(severity, source, title, description);
+            assertThat(indexed(index, alarm))
+                .as(
+                    "severity=%s, source=%s, title=%s, description=%s",
+                    severity, source, title, description)
+                .containsExactlyElementsOf(linearScan(RULES, alarm));
+            checked++;
+          }
+        }
+      }
+    }
+    assertThat(checked).isEqualTo((Severity.values().length + 1) * 5 * 3 * 2);
+  }
+
+  @Test
+  @DisplayName("should keep the load order between rules with the same priority")
+  void shouldKeepLoadOrderOnPriorityTie() {
+    Alarm alarm = alarm(Severity.HIGH, "zbx", "cpu high", null);
+
+    List<Long> matched = indexed(TenantRuleIndex.build(RULES), alarm);
+
+    assertThat(matched).startsWith(2L, 10L);
+    assertThat(matched.getFirst()).isEqualTo(linearScan(RULES, alarm).getFirst());
+  }
+
+  @Test
+  @DisplayName("should offer rules without severity or source constraints to every alarm")
+  void shouldOfferWildcardRules() {
+    TenantRuleIndex index = TenantRuleIndex.build(RULES);
+
+    assertThat(index.candidates(alarm(null, null, null, null)))
+        .extracting(r -> r.rule.id)
+        .containsExactly(9L, 5L, 6L, 7L);
+    assertThat(index.candidates(alarm(Severity.LOW, "unknown", null, null)))
+        .extracting(r -> r.rule.id)
+        .containsExactly(4L, 9L, 5L, 6L, 7L);
+  }
+
+  @Test
+  @DisplayName("should be empty when the tenant has no rules")
+  void shouldBeEmptyWithoutRules() {
+    TenantRuleIndex index = TenantRuleIndex.build(List.of());
+
+    assertThat(index.isEmpty()).isTrue();
+    assertThat(index.candidates(alarm(Severity.HIGH, "prom", null, null))).isEmpty();
+  }
+}
@@ -2,6 +2,7 @@ plugins {
     id("base-java-convention")
     id("code-quality-convention")
     alias(libs.plugins.gradle.jandex)
+    alias(libs.plugins.jmh)
 }
 
 dependencies {
@@ -19,4 +20,22 @@ dependencies {
 
     implementation(libs.slf4j.api)
     implementation("io.quarkus:quarkus-cache")
+
+    implementation(libs.micrometer.core)
+
+    testImplementation(enforcedPlatform(libs.quarkus.bom))
+    testImplementation(libs.quarkus.junit5)
+    testImplementation(libs.quarkus.junit5.mockito)
+    testImplementation(libs.assertj.core)
+    testImplementation(libs.junit.jupiter.api)
+}
+
+jmh {
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
 }
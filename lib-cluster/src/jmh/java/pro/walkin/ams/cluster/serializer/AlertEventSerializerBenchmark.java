@@ -0,0 +1,130 @@
+package pro.walkin.ams.cluster.serializer;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.SerializationServiceSupport;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pro.walkin.ams.common.dto.AlertEvent;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 告警事件序列化基准测试
+ *
+ * <p>在两个独立的单机 Hazelcast 实例上分别注册旧序列化器和字典编码序列化器，对比序列化、反序列化耗时；
+ * 启动时打印两种格式的序列化字节数。运行：{@code ./gradlew :lib-cluster:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AlertEventSerializerBenchmark {
+
+  /** 字典外的自定义标签数量 */
+  @Param({"2", "16"})
+  public int customLabels;
+
+  /** 压缩阈值（字节），0 表示不压缩 */
+  @Param({"0", "512"})
+  public int compressThresholdBytes;
+
+  private HazelcastInstance legacyInstance;
+  private HazelcastInstance dictionaryInstance;
+  private SerializationService legacy;
+  private SerializationService dictionary;
+
+  private AlertEvent event;
+  private Data legacyData;
+  private Data dictionaryData;
+
+  @Setup
+  public void setUp() {
+    Map<String, String> labels = new HashMap<>();
+    labels.put("alertname", "HighCpuUsage");
+    labels.put("instance", "10.12.3.45:9100");
+    labels.put("job", "node-exporter");
+    labels.put("namespace", "production");
+    labels.put("severity", "critical");
+    labels.put("cluster", "cn-east-1");
+    for (int i = 0; i < customLabels; i++) {
+      labels.put("custom_label_" + i, "custom-value-" + i);
+    }
+    event =
+        new AlertEvent(
+            "3f2a9c1be04d7a65c1d2e3f405162738",
+            "prometheus",
+            "CPU usage above 95% for 5 minutes on 10.12.3.45",
+            labels,
+            1,
+            LocalDateTime.now(),
+            LocalDateTime.now(),
+            "FIRING",
+            "CRITICAL");
+
+    legacyInstance = start("bench-legacy", new LegacyAlertEventSerializer());
+    dictionaryInstance =
+        start("bench-dictionary", new AlertEventSerializer(compressThresholdBytes));
+    legacy = ((SerializationServiceSupport) legacyInstance).getSerializationService();
+    dictionary = ((SerializationServiceSupport) dictionaryInstance).getSerializationService();
+
+    legacyData = legacy.toData(event);
+    dictionaryData = dictionary.toData(event);
+    System.out.printf(
+        "%nserialized bytes: legacy=%d, dictionary=%d (customLabels=%d, threshold=%d)%n",
+        legacyData.totalSize(),
+        dictionaryData.totalSize(),
+        customLabels,
+        compressThresholdBytes);
+  }
+
+  @TearDown
+  public void tearDown() {
+    legacyInstance.shutdown();
+    dictionaryInstance.shutdown();
+  }
+
+  @Benchmark
+  public Data serializeLegacy() {
+    return legacy.toData(event);
+  }
+
+  @Benchmark
+  public Data serializeDictionary() {
+    return dictionary.toData(event);
+  }
+
+  @Benchmark
+  public AlertEvent deserializeLegacy() {
+    return legacy.toObject(legacyData);
+  }
+
+  @Benchmark
+  public AlertEvent deserializeDictionary() {
+    return dictionary.toObject(dictionaryData);
+  }
+
+  private static HazelcastInstance start(String clusterName, CompactSerializer<?> serializer) {
+    Config config = new Config().setClusterName(clusterName);
+    JoinConfig join = config.getNetworkConfig().getJoin();
+    join.getMulticastConfig().setEnabled(false);
+    join.getTcpIpConfig().setEnabled(false);
+    join.getAutoDetectionConfig().setEnabled(false);
+    config.getSerializationConfig().getCompactSerializationConfig().addSerializer(serializer);
+    return Hazelcast.newHazelcastInstance(config);
+  }
+}
@@ -0,0 +1,63 @@
+package pro.walkin.ams.cluster.serializer;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import pro.walkin.ams.common.dto.AlertEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** 基准对照：字典编码之前的序列化器（标签写为键值交替的字符串数组） */
+public class LegacyAlertEventSerializer implements CompactSerializer<AlertEvent> {
+
+  @Override
+  public AlertEvent read(CompactReader reader) {
+    String[] labelsArray = reader.readArrayOfString("labels");
+    Map<String, String> labels = new HashMap<>();
+    if (labelsArray != null && labelsArray.length % 2 == 0) {
+      for (int i = 0; i < labelsArray.length; i += 2) {
+        labels.put(labelsArray[i], labelsArray[i + 1]);
+      }
+    }
+    return new AlertEvent(
+        reader.readString("id"),
+        reader.readString("sourceId"),
+        reader.readString("summary"),
+        labels,
+        reader.readInt32("occurrenceCount"),
+        reader.readTimestamp("firstSeenAt"),
+        reader.readTimestamp("lastSeenAt"),
+        reader.readString("status"),
+        reader.readString("severity"));
+  }
+
+  @Override
+  public void write(CompactWriter writer, AlertEvent object) {
+    writer.writeString("id", object.id());
+    writer.writeString("sourceId", object.sourceId());
+    writer.writeString("summary", object.summary());
+    String[] labelsArray = new String[object.labels().size() * 2];
+    int index = 0;
+    for (Map.Entry<String, String> entry : object.labels().entrySet()) {
+      labelsArray[index++] = entry.getKey();
+      labelsArray[index++] = entry.getValue();
+    }
+    writer.writeArrayOfString("labels", labelsArray);
+    writer.writeInt32("occurrenceCount", object.occurrenceCount());
+    writer.writeTimestamp("firstSeenAt", object.firstSeenAt());
+    writer.writeTimestamp("lastSeenAt", object.lastSeenAt());
+    writer.writeString("status", object.status());
+    writer.writeString("severity", object.severity());
+  }
+
+  @Override
+  public String getTypeName() {
+    return "alertEvent";
+  }
+
+  @Override
+  public Class<AlertEvent> getCompactClass() {
+    return AlertEvent.class;
+  }
+}
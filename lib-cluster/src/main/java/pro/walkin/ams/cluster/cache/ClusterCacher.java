@@ -3,6 +3,9 @@ package pro.walkin.ams.cluster.cache;
 import com.hazelcast.core.HazelcastInstance;
 import jakarta.annotation.PostConstruct;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pro.walkin.ams.common.event.CacheKeyChangeEvent;
@@ -13,12 +16,18 @@ public abstract class ClusterCacher<K, V> {
 
   private HazelcastInstance hz;
 
+  private TransactionSynchronizationRegistry transactionRegistry;
+
   @Inject
   public void setHz(HazelcastInstance hz) {
     this.hz = hz;
   }
 
-  @PostConstruct
+  @Inject
+  public void setTransactionRegistry(TransactionSynchronizationRegistry transactionRegistry) {
+    this.transactionRegistry = transactionRegistry;
+  }
+
   public abstract String listenerId();
 
   @PostConstruct
@@ -31,20 +40,52 @@ public abstract class ClusterCacher<K, V> {
               try {
                 CacheKeyChangeEvent<K> event = msg.getMessageObject();
                 if (event.cacheKey() == null) {
-                  log.info("Received label mapping change event: refreshing all");
+                  log.info("Received {} change event: refreshing all", listenerId());
                   refreshAll();
                 } else {
                   log.info(
-                      "Received label mapping change event: refreshing sourceId={}",
+                      "Received {} change event: refreshing key={}",
+                      listenerId(),
                       event.cacheKey());
                   refreshOne(event.cacheKey());
                 }
               } catch (Exception e) {
-                log.error("Failed to handle label mapping change event", e);
+                log.error("Failed to handle {} change event", listenerId(), e);
               }
             });
   }
 
+  /**
+   * 广播缓存变更，集群内所有节点刷新对应条目
+   *
+   * <p>在事务中调用时于提交后广播，各节点刷新时读到的是已提交的数据；事务回滚时不广播。
+   *
+   * @param key 变更的缓存键，为 null 时全量刷新
+   */
+  public void publishChange(K key) {
+    if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+      publish(key);
+      return;
+    }
+    transactionRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+              publish(key);
+            }
+          }
+        });
+  }
+
+  private void publish(K key) {
+    hz.<CacheKeyChangeEvent<K>>getReliableTopic(listenerId())
+        .publish(new CacheKeyChangeEvent<>(key, System.currentTimeMillis()));
+  }
+
   public abstract V get(K key);
 
   protected abstract void refreshAll();
@@ -0,0 +1,126 @@
+package pro.walkin.ams.cluster.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.Startup;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.persistence.entity.system.Tenant;
+import pro.walkin.ams.persistence.entity.system.Tenant_;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 租户代码 → 租户 ID 解析缓存
+ *
+ * <p>启动时全量加载 tenants 表，之后通过 {@link Constants.Cluster#TENANT_CODE_CHANGES_TOPIC} 可靠主题接收变更通知刷新，
+ * 告警处理热路径不再逐条查询 tenants 表。未命中时回源查询一次并写入缓存。写入租户的代码路径在保存后调用
+ * {@link #publishChange(Object)}，提交后集群内所有节点刷新该租户代码。
+ *
+ * <p>启动加载和变更通知在 {@code @PostConstruct} 与可靠主题监听线程上执行，没有调用方事务，查询在独立的新事务中进行。
+ */
+@Startup
+@ApplicationScoped
+public class TenantCodeCacher extends ClusterCacher<String, Long> {
+
+  private static final Logger log = LoggerFactory.getLogger(TenantCodeCacher.class);
+
+  private static final String CACHE_TAG = "tenant-code";
+
+  // Volatile for visibility across threads
+  private volatile Map<String, Long> cache = new ConcurrentHashMap<>();
+
+  private Counter hitTotal;
+  private Counter missTotal;
+
+  @Inject
+  public void setMeterRegistry(MeterRegistry registry) {
+    this.hitTotal =
+        Counter.builder("cluster.cache.hit.total")
+            .description("Total number of cluster cache hits")
+            .tag("cache", CACHE_TAG)
+            .register(registry);
+    this.missTotal =
+        Counter.builder("cluster.cache.miss.total")
+            .description("Total number of cluster cache misses")
+            .tag("cache", CACHE_TAG)
+            .register(registry);
+  }
+
+  @Override
+  public String listenerId() {
+    return Constants.Cluster.TENANT_CODE_CHANGES_TOPIC;
+  }
+
+  /**
+   * 解析租户代码
+   *
+   * @param code 租户代码
+   * @return 租户 ID，租户不存在时返回 null
+   */
+  @Override
+  public Long get(String code) {
+    if (code == null) {
+      return null;
+    }
+
+    Long tenantId = cache.get(code);
+    if (tenantId != null) {
+      hitTotal.increment();
+      return tenantId;
+    }
+
+    missTotal.increment();
+    Tenant tenant = Tenant_.managedBlocking().findByCode(code);
+    if (tenant == null) {
+      return null;
+    }
+
+    cache.put(code, tenant.id);
+    return tenant.id;
+  }
+
+  @Override
+  protected void refreshAll() {
+    try {
+      List<Tenant> tenants =
+          QuarkusTransaction.requiringNew().call(() -> Tenant_.managedBlocking().listAll());
+
+      Map<String, Long> newCache = new ConcurrentHashMap<>();
+      for (Tenant tenant : tenants) {
+        if (tenant.code != null) {
+          newCache.put(tenant.code, tenant.id);
+        }
+      }
+
+      // Atomic replacement with volatile write
+      cache = newCache;
+      log.info("Refreshed tenant code cache: {} tenants", newCache.size());
+    } catch (Exception e) {
+      log.error("Failed to refresh tenant code cache", e);
+    }
+  }
+
+  @Override
+  protected void refreshOne(String code) {
+    try {
+      Tenant tenant =
+          QuarkusTransaction.requiringNew().call(() -> Tenant_.managedBlocking().findByCode(code));
+      if (tenant == null) {
+        cache.remove(code);
+        log.info("Removed tenant code from cache: code={}", code);
+      } else {
+        cache.put(code, tenant.id);
+        log.info("Refreshed tenant code cache: code={}, id={}", code, tenant.id);
+      }
+    } catch (Exception e) {
+      log.error("Failed to refresh tenant code cache: code={}", code, e);
+    }
+  }
+}
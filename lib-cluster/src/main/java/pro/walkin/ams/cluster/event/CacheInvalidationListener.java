@@ -7,6 +7,8 @@ import io.quarkus.runtime.util.StringUtil;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import pro.walkin.ams.common.cache.CacheInvalidationBroadcaster;
 import pro.walkin.ams.common.event.CacheInvalidationEvent;
 
@@ -14,6 +16,8 @@ import pro.walkin.ams.common.event.CacheInvalidationEvent;
 @ApplicationScoped
 public class CacheInvalidationListener implements CacheInvalidationBroadcaster {
 
+  private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
   @Inject CacheManager cacheManager;
 
   @Inject HazelcastInstance hazelcast;
@@ -24,20 +28,31 @@ public class CacheInvalidationListener implements CacheInvalidationBroadcaster {
   void init() {
     hazelcast
         .<CacheInvalidationEvent>getTopic(listenTopic)
-        .addMessageListener(
-            message -> {
-              CacheInvalidationEvent cacheInvalidationEvent = message.getMessageObject();
-              if (!StringUtil.isNullOrEmpty(cacheInvalidationEvent.cacheMessage())) {
-                cacheManager
-                    .getCache(cacheInvalidationEvent.cacheMessage())
-                    .ifPresent(
-                        cache -> {
-                          if (StringUtil.isNullOrEmpty(cacheInvalidationEvent.cacheKey())) {
-                            cache.invalidateAll();
-                          } else {
-                            cache.invalidate(cacheInvalidationEvent.cacheKey());
-                          }
-                        });
+        .addMessageListener(message -> onInvalidation(message.getMessageObject()));
+  }
+
+  /** 清除收到的失效事件对应的本地缓存条目；key 为空时清除整个缓存 */
+  void onInvalidation(CacheInvalidationEvent event) {
+    if (StringUtil.isNullOrEmpty(event.cacheMessage())) {
+      return;
+    }
+    cacheManager
+        .getCache(event.cacheMessage())
+        .ifPresent(
+            cache -> {
+              try {
+                // Cache 的失效操作是惰性的 Uni，必须订阅才会执行
+                if (StringUtil.isNullOrEmpty(event.cacheKey())) {
+                  cache.invalidateAll().await().indefinitely();
+                } else {
+                  cache.invalidate(event.cacheKey()).await().indefinitely();
+                }
+              } catch (Exception e) {
+                LOG.error(
+                    "Failed to invalidate cache: name={}, key={}",
+                    event.cacheMessage(),
+                    event.cacheKey(),
+                    e);
               }
             });
   }
@@ -1,55 +1,95 @@
 package pro.walkin.ams.cluster.processor;
 
 import com.hazelcast.map.EntryProcessor;
-import pro.walkin.ams.common.dto.AlertEvent;
+import com.hazelcast.map.ExtendedMapEntry;
 import pro.walkin.ams.common.dto.ingestion.DeduplicationResult;
 import pro.walkin.ams.common.dto.ingestion.DeduplicationState;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * 去重 EntryProcessor
+ *
+ * <p>只携带告警源 ID 和去重参数，不携带告警事件本身，同一个实例可通过 {@code submitToKeys} 作用于一批指纹。
+ * 同一负载中重复出现的指纹只提交一次，出现次数通过 {@code occurrences} 携带，计数与逐条提交时相同。
+ *
+ * <p>写入时为条目设置等于剩余时间窗口的 TTL，窗口结束后条目由 Hazelcast 过期清理，去重 Map 的大小只与窗口内的活跃指纹数相关。
+ */
 public class DeduplicationProcessor
     implements EntryProcessor<String, DeduplicationState, DeduplicationResult> {
 
-  private final AlertEvent alert;
+  private final String sourceId;
   private final long timeWindowMs;
   private final int maxCount;
 
-  public DeduplicationProcessor(AlertEvent alert, long timeWindowMs, int maxCount) {
-    this.alert = alert;
+  /** 出现多于一次的指纹 → 出现次数；未列出的指纹出现一次 */
+  private final Map<String, Integer> occurrences;
+
+  public DeduplicationProcessor(String sourceId, long timeWindowMs, int maxCount) {
+    this(sourceId, timeWindowMs, maxCount, Map.of());
+  }
+
+  public DeduplicationProcessor(
+      String sourceId, long timeWindowMs, int maxCount, Map<String, Integer> occurrences) {
+    this.sourceId = sourceId;
     this.timeWindowMs = timeWindowMs;
     this.maxCount = maxCount;
+    this.occurrences = occurrences;
   }
 
   @Override
   public DeduplicationResult process(Map.Entry<String, DeduplicationState> entry) {
     DeduplicationState state = entry.getValue();
-    LocalDateTime currentTime = LocalDateTime.now();
+    long currentTime = System.currentTimeMillis();
+    int occurred = occurrences.getOrDefault(entry.getKey(), 1);
 
-    if (state == null) {
-      DeduplicationState newState = new DeduplicationState(alert, 1, currentTime, currentTime);
-      entry.setValue(newState);
-      return DeduplicationResult.newAlert(alert);
-    }
-
-    long timeDiff = Duration.between(state.firstSeenAt(), currentTime).toMillis();
-    if (timeDiff > timeWindowMs) {
-      DeduplicationState newState = new DeduplicationState(alert, 1, currentTime, currentTime);
-      entry.setValue(newState);
-      return DeduplicationResult.newAlert(alert);
+    if (state == null || currentTime - state.firstSeenAtMillis() > timeWindowMs) {
+      // 首次出现为新告警，其余出现次数按重复累加，与逐条提交一致
+      int count = Math.max(1, Math.min(occurred, maxCount));
+      setValue(
+          entry,
+          new DeduplicationState(
+              fingerprintHash(entry.getKey()), count, currentTime, currentTime, sourceId),
+          timeWindowMs);
+      return DeduplicationResult.newAlert(currentTime);
     }
 
     if (state.count() >= maxCount) {
-      return DeduplicationResult.duplicate(
-          state.originalEvent(), state.count(), state.firstSeenAt());
+      return DeduplicationResult.duplicate(state.count(), state.firstSeenAtMillis());
     }
 
-    int newCount = state.count() + 1;
-    DeduplicationState updatedState =
-        new DeduplicationState(state.originalEvent(), newCount, state.firstSeenAt(), currentTime);
-    entry.setValue(updatedState);
+    int newCount = (int) Math.min((long) state.count() + occurred, maxCount);
+    setValue(
+        entry,
+        new DeduplicationState(
+            state.fingerprintHash(),
+            newCount,
+            state.firstSeenAtMillis(),
+            currentTime,
+            state.sourceId()),
+        timeWindowMs - (currentTime - state.firstSeenAtMillis()));
 
-    return DeduplicationResult.duplicate(state.originalEvent(), newCount, state.firstSeenAt());
+    return DeduplicationResult.duplicate(newCount, state.firstSeenAtMillis());
+  }
+
+  /** 写入状态并设置 TTL；更新计数时 TTL 为剩余窗口，条目仍在窗口结束时过期 */
+  private static void setValue(
+      Map.Entry<String, DeduplicationState> entry, DeduplicationState state, long ttlMillis) {
+    if (entry instanceof ExtendedMapEntry<String, DeduplicationState> extended) {
+      extended.setValue(state, Math.max(ttlMillis, 1L), TimeUnit.MILLISECONDS);
+    } else {
+      entry.setValue(state);
+    }
+  }
+
+  /** 指纹的 64 位 FNV-1a 哈希 */
+  static long fingerprintHash(String fingerprint) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < fingerprint.length(); i++) {
+      hash ^= fingerprint.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
   }
 }
@@ -0,0 +1,64 @@
+package pro.walkin.ams.cluster.processor;
+
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.ExtendedMapEntry;
+import pro.walkin.ams.common.dto.ingestion.RateLimitDecision;
+import pro.walkin.ams.common.dto.ingestion.TokenBucketState;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶 EntryProcessor
+ *
+ * <p>在键所在分区的持有成员上按该成员时钟补充令牌并尝试扣减，同一个桶的所有请求串行执行，集群内共享同一个限额。
+ * 条目 TTL 为桶从空到满所需时间，空闲的桶过期后等价于满桶。
+ */
+public class TokenBucketProcessor
+    implements EntryProcessor<String, TokenBucketState, RateLimitDecision> {
+
+  private final double capacity;
+  private final double refillPerSecond;
+  private final double cost;
+
+  /**
+   * @param capacity 桶容量（突发上限）
+   * @param refillPerSecond 每秒补充的令牌数，必须大于 0
+   * @param cost 本次请求消耗的令牌数
+   */
+  public TokenBucketProcessor(double capacity, double refillPerSecond, double cost) {
+    this.capacity = capacity;
+    this.refillPerSecond = refillPerSecond;
+    this.cost = cost;
+  }
+
+  @Override
+  public RateLimitDecision process(Map.Entry<String, TokenBucketState> entry) {
+    long now = System.currentTimeMillis();
+    TokenBucketState state = entry.getValue();
+
+    double tokens = capacity;
+    if (state != null) {
+      long elapsed = Math.max(0L, now - state.refilledAtMillis());
+      tokens = Math.min(capacity, state.tokens() + elapsed * refillPerSecond / 1000.0);
+    }
+
+    RateLimitDecision decision;
+    if (tokens >= cost) {
+      tokens -= cost;
+      decision = RateLimitDecision.admit(tokens / capacity);
+    } else {
+      long retryAfterMillis = (long) Math.ceil((cost - tokens) * 1000.0 / refillPerSecond);
+      decision = RateLimitDecision.reject(tokens / capacity, retryAfterMillis);
+    }
+
+    TokenBucketState newState = new TokenBucketState(tokens, now);
+    long ttlMillis = (long) Math.ceil((capacity - tokens) * 1000.0 / refillPerSecond) + 1000L;
+    if (entry instanceof ExtendedMapEntry<String, TokenBucketState> extended) {
+      extended.setValue(newState, ttlMillis, TimeUnit.MILLISECONDS);
+    } else {
+      entry.setValue(newState);
+    }
+    return decision;
+  }
+}
@@ -0,0 +1,163 @@
+package pro.walkin.ams.cluster.queue;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.partition.Partition;
+import com.hazelcast.partition.PartitionService;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.common.dto.AlertEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按指纹分区的告警事件队列
+ *
+ * <p>告警事件按指纹哈希分布到 {@code app.alert.queue.partitions} 个 {@link IQueue}（{@code alert-events-0} …），
+ * 每个队列落在各自的 Hazelcast 分区上，由不同成员持有，队列的读写负载随集群规模分摊，不再集中在单个分区持有者上。
+ * 同一指纹总是进入同一个队列，只要每个队列同时只有一个消费者，同一告警的事件顺序就不变。
+ *
+ * <p>生产者和消费者必须使用相同的分区数；修改分区数需要先排空队列。
+ *
+ * <p>旧版本使用单个队列 {@code alert-events}。滚动升级期间旧成员仍向其写入，而新成员只消费分区队列，
+ * 由 {@link #migrateLegacyQueue()} 把其中的事件转移到分区队列。
+ */
+@ApplicationScoped
+public class AlertEventQueues {
+
+  private static final Logger log = LoggerFactory.getLogger(AlertEventQueues.class);
+
+  /** 每次从旧单队列转移的事件数 */
+  private static final int LEGACY_DRAIN_BATCH = 500;
+
+  private final PartitionService partitionService;
+  private final List<IQueue<AlertEvent>> queues;
+  private final IQueue<AlertEvent> legacyQueue;
+
+  public AlertEventQueues(
+      HazelcastInstance hazelcastInstance,
+      @ConfigProperty(name = "app.alert.queue.partitions", defaultValue = "64") int partitions) {
+    this.partitionService = hazelcastInstance.getPartitionService();
+
+    int count = Math.max(1, partitions);
+    List<IQueue<AlertEvent>> created = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      created.add(hazelcastInstance.getQueue(queueName(i)));
+    }
+    this.queues = List.copyOf(created);
+    this.legacyQueue = hazelcastInstance.getQueue(Constants.Cluster.ALERT_EVENTS_QUEUE);
+  }
+
+  /**
+   * 计算指纹所属的队列序号
+   *
+   * @param fingerprint 告警指纹
+   * @param partitions 队列数
+   * @return 队列序号（0 ~ partitions - 1）
+   */
+  public static int indexOf(String fingerprint, int partitions) {
+    return Math.floorMod(fingerprint.hashCode(), partitions);
+  }
+
+  public static String queueName(int index) {
+    return Constants.Cluster.ALERT_EVENTS_QUEUE + "-" + index;
+  }
+
+  public int partitionCount() {
+    return queues.size();
+  }
+
+  public IQueue<AlertEvent> queue(int index) {
+    return queues.get(index);
+  }
+
+  /** 指纹对应的队列 */
+  public IQueue<AlertEvent> queueFor(String fingerprint) {
+    return queues.get(indexOf(fingerprint, queues.size()));
+  }
+
+  /**
+   * 队列是否由本成员持有
+   *
+   * @param index 队列序号
+   * @return 队列所在分区的主副本在本成员上时返回 true；分区尚未分配时返回 false
+   */
+  public boolean isLocal(int index) {
+    return isLocal(queues.get(index));
+  }
+
+  /** 本成员持有的队列序号 */
+  public List<Integer> localIndexes() {
+    List<Integer> local = new ArrayList<>();
+    for (int i = 0; i < queues.size(); i++) {
+      if (isLocal(i)) {
+        local.add(i);
+      }
+    }
+    return local;
+  }
+
+  /** 本成员持有的队列中的事件总数 */
+  public int localSize() {
+    int size = 0;
+    for (IQueue<AlertEvent> queue : queues) {
+      if (isLocal(queue)) {
+        size += queue.size();
+      }
+    }
+    return size;
+  }
+
+  /** 所有队列中的事件总数 */
+  public int totalSize() {
+    int size = 0;
+    for (IQueue<AlertEvent> queue : queues) {
+      size += queue.size();
+    }
+    return size;
+  }
+
+  /**
+   * 把旧单队列中的事件按指纹转移到分区队列
+   *
+   * <p>只在本成员持有旧队列时执行，同一时刻只有一个成员在转移。消费者启动时和每次重平衡时调用，
+   * 旧成员在升级期间写入的事件也会被转移。转移的事件排在分区队列已有事件之后，升级期间同一指纹新旧事件的先后顺序不保证。
+   *
+   * @return 转移的事件数
+   * @throws InterruptedException 等待分区队列空间时被中断；未转移的事件放回旧队列
+   */
+  public int migrateLegacyQueue() throws InterruptedException {
+    if (!isLocal(legacyQueue) || legacyQueue.isEmpty()) {
+      return 0;
+    }
+
+    int moved = 0;
+    List<AlertEvent> batch = new ArrayList<>(LEGACY_DRAIN_BATCH);
+    while (legacyQueue.drainTo(batch, LEGACY_DRAIN_BATCH) > 0) {
+      for (int i = 0; i < batch.size(); i++) {
+        AlertEvent event = batch.get(i);
+        try {
+          queueFor(event.id()).put(event);
+        } catch (InterruptedException e) {
+          legacyQueue.addAll(batch.subList(i, batch.size()));
+          throw e;
+        }
+        moved++;
+      }
+      batch.clear();
+    }
+    log.info("Migrated {} alert events from legacy queue {}", moved, legacyQueue.getName());
+    return moved;
+  }
+
+  private boolean isLocal(IQueue<AlertEvent> queue) {
+    Partition partition = partitionService.getPartition(queue.getPartitionKey());
+    Member owner = partition.getOwner();
+    return owner != null && owner.localMember();
+  }
+}
@@ -1,23 +1,58 @@
 package pro.walkin.ams.cluster.serializer;
 
+import com.hazelcast.nio.serialization.FieldKind;
 import com.hazelcast.nio.serialization.compact.CompactReader;
 import com.hazelcast.nio.serialization.compact.CompactSerializer;
 import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import pro.walkin.ams.common.dto.AlertEvent;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * 告警事件紧凑序列化器
+ *
+ * <p>摘要和标签写入单个 {@code payload} 字节数组（见 {@link LabelBlockCodec}）：常见标签键写为字典编号，其余键内联，
+ * 可选在正文超过阈值时压缩。读取时兼容旧版本写出的 {@code summary} + {@code labels}（键值交替的字符串数组）格式，
+ * 队列中升级前投递的事件仍可消费。
+ */
 public class AlertEventSerializer implements CompactSerializer<AlertEvent> {
+
+  private static final Logger log = LoggerFactory.getLogger(AlertEventSerializer.class);
+
+  private final int compressThresholdBytes;
+
+  /** 不压缩 */
+  public AlertEventSerializer() {
+    this(0);
+  }
+
+  /**
+   * @param compressThresholdBytes 摘要和标签编码后达到该字节数时压缩；小于等于 0 时不压缩
+   */
+  public AlertEventSerializer(int compressThresholdBytes) {
+    this.compressThresholdBytes = compressThresholdBytes;
+  }
+
   @Override
   public AlertEvent read(CompactReader reader) {
     String id = reader.readString("id");
     String sourceId = reader.readString("sourceId");
-    String summary = reader.readString("summary");
 
-    // Read labels map from a single array with key-value pairs
-    Map<String, String> labels = readLabelsMap(reader);
+    String summary;
+    Map<String, String> labels;
+    if (reader.getFieldKind("payload") == FieldKind.ARRAY_OF_INT8) {
+      LabelBlockCodec.Block block = LabelBlockCodec.decode(reader.readArrayOfInt8("payload"));
+      summary = block.summary();
+      labels = block.labels();
+    } else {
+      // 旧格式
+      summary = reader.readString("summary");
+      labels = readLegacyLabels(reader, id);
+    }
 
     int occurrenceCount = reader.readInt32("occurrenceCount");
     LocalDateTime firstSeenAt = reader.readTimestamp("firstSeenAt");
@@ -33,11 +68,9 @@ public class AlertEventSerializer implements CompactSerializer<AlertEvent> {
   public void write(CompactWriter writer, AlertEvent object) {
     writer.writeString("id", object.id());
     writer.writeString("sourceId", object.sourceId());
-    writer.writeString("summary", object.summary());
-
-    // Write labels map as a single array with key-value pairs
-    writeLabelsMap(writer, object.labels());
-
+    writer.writeArrayOfInt8(
+        "payload",
+        LabelBlockCodec.encode(object.summary(), object.labels(), compressThresholdBytes));
     writer.writeInt32("occurrenceCount", object.occurrenceCount());
     writer.writeTimestamp("firstSeenAt", object.firstSeenAt());
     writer.writeTimestamp("lastSeenAt", object.lastSeenAt());
@@ -56,48 +89,29 @@ public class AlertEventSerializer implements CompactSerializer<AlertEvent> {
   }
 
   /**
-   * Helper method to write Map<String, String> as a single array with key-value pairs Format:
-   * [key1, value1, key2, value2, ...]
-   */
-  private void writeLabelsMap(CompactWriter writer, Map<String, String> labels) {
-    if (labels == null || labels.isEmpty()) {
-      // Write null for empty map (or empty array based on preference)
-      writer.writeArrayOfString("labels", null);
-    } else {
-      // Convert map to a single array with alternating keys and values
-      String[] labelsArray = new String[labels.size() * 2];
-      int index = 0;
-      for (Map.Entry<String, String> entry : labels.entrySet()) {
-        labelsArray[index++] = entry.getKey();
-        labelsArray[index++] = entry.getValue();
-      }
-      writer.writeArrayOfString("labels", labelsArray);
-    }
-  }
-
-  /**
-   * Helper method to read Map<String, String> from a single array with key-value pairs Format:
-   * [key1, value1, key2, value2, ...]
+   * 读取旧格式标签：[key1, value1, key2, value2, ...]
+   *
+   * <p>长度为奇数时丢弃末尾没有值的键并记录警告，其余键值对照常读取。
    */
-  private Map<String, String> readLabelsMap(CompactReader reader) {
+  private Map<String, String> readLegacyLabels(CompactReader reader, String id) {
     String[] labelsArray = reader.readArrayOfString("labels");
 
     if (labelsArray == null || labelsArray.length == 0) {
-      return new HashMap<>();
+      return Map.of();
     }
 
-    // Validate array length is even (pairs of key-value)
     if (labelsArray.length % 2 != 0) {
-      // Log warning or handle error - for now return empty map
-      return new HashMap<>();
+      log.warn(
+          "Odd-length legacy labels array, trailing key dropped: id={}, key={}",
+          id,
+          labelsArray[labelsArray.length - 1]);
     }
 
-    Map<String, String> labels = new HashMap<>(labelsArray.length / 2);
-    for (int i = 0; i < labelsArray.length; i += 2) {
+    Map<String, String> labels = HashMap.newHashMap(labelsArray.length / 2);
+    for (int i = 0; i + 1 < labelsArray.length; i += 2) {
       String key = labelsArray[i];
-      String value = labelsArray[i + 1];
       if (key != null) {
-        labels.put(key, value);
+        labels.put(key, labelsArray[i + 1]);
       }
     }
     return labels;
@@ -3,28 +3,23 @@ package pro.walkin.ams.cluster.serializer;
 import com.hazelcast.nio.serialization.compact.CompactReader;
 import com.hazelcast.nio.serialization.compact.CompactSerializer;
 import com.hazelcast.nio.serialization.compact.CompactWriter;
-import pro.walkin.ams.common.dto.AlertEvent;
 import pro.walkin.ams.common.dto.ingestion.DeduplicationResult;
 
-import java.time.LocalDateTime;
-
 public class DeduplicationResultSerializer implements CompactSerializer<DeduplicationResult> {
   @Override
   public DeduplicationResult read(CompactReader reader) {
     boolean isNewAlert = reader.readBoolean("isNewAlert");
-    AlertEvent originalEvent = reader.readCompact("originalEvent");
     int currentCount = reader.readInt32("currentCount");
-    LocalDateTime firstSeenAt = reader.readTimestamp("firstSeenAt");
+    long firstSeenAtMillis = reader.readInt64("firstSeenAtMillis");
 
-    return new DeduplicationResult(isNewAlert, originalEvent, currentCount, firstSeenAt);
+    return new DeduplicationResult(isNewAlert, currentCount, firstSeenAtMillis);
   }
 
   @Override
   public void write(CompactWriter writer, DeduplicationResult object) {
     writer.writeBoolean("isNewAlert", object.isNewAlert());
-    writer.writeCompact("originalEvent", object.originalEvent());
     writer.writeInt32("currentCount", object.currentCount());
-    writer.writeTimestamp("firstSeenAt", object.firstSeenAt());
+    writer.writeInt64("firstSeenAtMillis", object.firstSeenAtMillis());
   }
 
   @Override
@@ -3,28 +3,28 @@ package pro.walkin.ams.cluster.serializer;
 import com.hazelcast.nio.serialization.compact.CompactReader;
 import com.hazelcast.nio.serialization.compact.CompactSerializer;
 import com.hazelcast.nio.serialization.compact.CompactWriter;
-import pro.walkin.ams.common.dto.AlertEvent;
 import pro.walkin.ams.common.dto.ingestion.DeduplicationState;
 
-import java.time.LocalDateTime;
-
 public class DeduplicationStateSerializer implements CompactSerializer<DeduplicationState> {
   @Override
   public DeduplicationState read(CompactReader reader) {
-    AlertEvent alertEvent = reader.readCompact("originalEvent");
+    long fingerprintHash = reader.readInt64("fingerprintHash");
     int count = reader.readInt32("count");
-    LocalDateTime firstSeenAt = reader.readTimestamp("firstSeenAt");
-    LocalDateTime lastSeenAt = reader.readTimestamp("lastSeenAt");
+    long firstSeenAtMillis = reader.readInt64("firstSeenAtMillis");
+    long lastSeenAtMillis = reader.readInt64("lastSeenAtMillis");
+    String sourceId = reader.readString("sourceId");
 
-    return new DeduplicationState(alertEvent, count, firstSeenAt, lastSeenAt);
+    return new DeduplicationState(
+        fingerprintHash, count, firstSeenAtMillis, lastSeenAtMillis, sourceId);
   }
 
   @Override
   public void write(CompactWriter writer, DeduplicationState object) {
-    writer.writeCompact("originalEvent", object.originalEvent());
+    writer.writeInt64("fingerprintHash", object.fingerprintHash());
     writer.writeInt32("count", object.count());
-    writer.writeTimestamp("firstSeenAt", object.firstSeenAt());
-    writer.writeTimestamp("lastSeenAt", object.lastSeenAt());
+    writer.writeInt64("firstSeenAtMillis", object.firstSeenAtMillis());
+    writer.writeInt64("lastSeenAtMillis", object.lastSeenAtMillis());
+    writer.writeString("sourceId", object.sourceId());
   }
 
   @Override
@@ -0,0 +1,250 @@
+package pro.walkin.ams.cluster.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 告警摘要和标签的二进制编码
+ *
+ * <p>格式：
+ *
+ * <pre>
+ * byte    字典版本
+ * byte    标志位（bit0：正文已压缩）
+ * [varint 压缩前长度]  仅压缩时存在
+ * 正文：
+ *   varint  摘要 UTF-8 长度 + 1（0 表示 null），摘要字节
+ *   varint  标签数
+ *   每个标签：
+ *     varint  键标记：0 表示内联键，随后为 varint 长度 + UTF-8 字节；n &gt; 0 表示字典编号 n - 1
+ *     varint  值 UTF-8 长度 + 1（0 表示 null），值字节
+ * </pre>
+ *
+ * <p>正文达到压缩阈值时用 Deflate（最快级别，无包头）压缩，压缩后不更小则保留原文。
+ */
+final class LabelBlockCodec {
+
+  static final int FLAG_DEFLATED = 1;
+
+  private LabelBlockCodec() {}
+
+  /** 解码结果 */
+  record Block(String summary, Map<String, String> labels) {}
+
+  /**
+   * 编码摘要和标签
+   *
+   * @param summary 告警摘要，可为 null
+   * @param labels 标签，可为 null
+   * @param compressThresholdBytes 正文达到该字节数时尝试压缩；小于等于 0 时不压缩
+   * @return 编码结果
+   */
+  static byte[] encode(String summary, Map<String, String> labels, int compressThresholdBytes) {
+    Output body = new Output(64 + (labels == null ? 0 : labels.size() * 24));
+    body.writeNullableString(summary);
+
+    if (labels == null || labels.isEmpty()) {
+      body.writeVarint(0);
+    } else {
+      body.writeVarint(labels.size());
+      for (Map.Entry<String, String> entry : labels.entrySet()) {
+        int id = LabelKeyDictionary.idOf(entry.getKey());
+        if (id >= 0) {
+          body.writeVarint(id + 1);
+        } else {
+          body.writeVarint(0);
+          byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+          body.writeVarint(key.length);
+          body.writeBytes(key, 0, key.length);
+        }
+        body.writeNullableString(entry.getValue());
+      }
+    }
+
+    if (compressThresholdBytes > 0 && body.size >= compressThresholdBytes) {
+      byte[] compressed = deflate(body.bytes, body.size);
+      if (compressed != null) {
+        Output out = new Output(compressed.length + 8);
+        out.writeByte(LabelKeyDictionary.CURRENT_VERSION);
+        out.writeByte(FLAG_DEFLATED);
+        out.writeVarint(body.size);
+        out.writeBytes(compressed, 0, compressed.length);
+        return out.toByteArray();
+      }
+    }
+
+    Output out = new Output(body.size + 2);
+    out.writeByte(LabelKeyDictionary.CURRENT_VERSION);
+    out.writeByte(0);
+    out.writeBytes(body.bytes, 0, body.size);
+    return out.toByteArray();
+  }
+
+  /**
+   * 解码摘要和标签
+   *
+   * @param data {@link #encode} 的输出
+   * @return 摘要和标签；没有标签时为不可变空 Map
+   * @throws IllegalArgumentException 数据损坏或字典版本未知
+   */
+  static Block decode(byte[] data) {
+    if (data.length < 2) {
+      throw new IllegalArgumentException("Label block too short: " + data.length);
+    }
+    int version = data[0] & 0xff;
+    int flags = data[1] & 0xff;
+
+    Input reader = new Input(data, 2);
+    if ((flags & FLAG_DEFLATED) != 0) {
+      int rawLength = reader.readVarint();
+      reader = new Input(inflate(data, reader.position, rawLength), 0);
+    }
+
+    String summary = reader.readNullableString();
+    int count = reader.readVarint();
+    if (count == 0) {
+      return new Block(summary, Map.of());
+    }
+
+    Map<String, String> labels = HashMap.newHashMap(count);
+    for (int i = 0; i < count; i++) {
+      int tag = reader.readVarint();
+      String key =
+          tag == 0
+              ? reader.readString(reader.readVarint())
+              : LabelKeyDictionary.keyOf(version, tag - 1);
+      labels.put(key, reader.readNullableString());
+    }
+    return new Block(summary, labels);
+  }
+
+  private static byte[] deflate(byte[] input, int length) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    try {
+      deflater.setInput(input, 0, length);
+      deflater.finish();
+      byte[] buffer = new byte[length];
+      int compressed = deflater.deflate(buffer);
+      if (!deflater.finished() || compressed >= length) {
+        return null;
+      }
+      return Arrays.copyOf(buffer, compressed);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(byte[] data, int offset, int rawLength) {
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(data, offset, data.length - offset);
+      byte[] raw = new byte[rawLength];
+      int inflated = inflater.inflate(raw);
+      if (inflated != rawLength) {
+        throw new IllegalArgumentException("Corrupt compressed label block");
+      }
+      return raw;
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Corrupt compressed label block", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /** 可扩容的输出缓冲 */
+  private static final class Output {
+
+    private byte[] bytes;
+    private int size;
+
+    Output(int capacity) {
+      this.bytes = new byte[Math.max(16, capacity)];
+    }
+
+    void writeByte(int b) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) b;
+    }
+
+    void writeVarint(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7f) != 0) {
+        bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    void writeBytes(byte[] source, int offset, int length) {
+      ensureCapacity(length);
+      System.arraycopy(source, offset, bytes, size, length);
+      size += length;
+    }
+
+    void writeNullableString(String value) {
+      if (value == null) {
+        writeVarint(0);
+        return;
+      }
+      byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+      writeVarint(encoded.length + 1);
+      writeBytes(encoded, 0, encoded.length);
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+      }
+    }
+  }
+
+  /** 顺序读取器 */
+  private static final class Input {
+
+    private final byte[] data;
+    private int position;
+
+    Input(byte[] data, int position) {
+      this.data = data;
+      this.position = position;
+    }
+
+    int readVarint() {
+      int value = 0;
+      for (int shift = 0; shift < 35; shift += 7) {
+        if (position >= data.length) {
+          throw new IllegalArgumentException("Truncated label block");
+        }
+        byte b = data[position++];
+        value |= (b & 0x7f) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed varint in label block");
+    }
+
+    String readString(int length) {
+      if (length < 0 || length > data.length - position) {
+        throw new IllegalArgumentException("Truncated label block");
+      }
+      String value = new String(data, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    String readNullableString() {
+      int length = readVarint();
+      return length == 0 ? null : readString(length - 1);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package pro.walkin.ams.cluster.serializer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 告警标签键字典
+ *
+ * <p>常见标签键按固定顺序编号，序列化时写编号而不是键字符串。字典只追加不修改：新版本在末尾追加键并登记该版本的键数量，
+ * 旧版本写出的编号在新版本中含义不变。所有成员使用同一份代码内置的字典，不需要在运行时同步。
+ */
+final class LabelKeyDictionary {
+
+  /** 当前写入使用的字典版本 */
+  static final int CURRENT_VERSION = 1;
+
+  private static final List<String> KEYS =
+      List.of(
+          // version 1
+          "alertname",
+          "instance",
+          "job",
+          "namespace",
+          "severity",
+          "service",
+          "pod",
+          "container",
+          "cluster",
+          "env",
+          "environment",
+          "region",
+          "zone",
+          "datacenter",
+          "host",
+          "hostname",
+          "node",
+          "ip",
+          "app",
+          "application",
+          "component",
+          "team",
+          "owner",
+          "deployment",
+          "device",
+          "interface",
+          "metric",
+          "summary",
+          "description",
+          "source",
+          "tenant",
+          "category",
+          "level",
+          "status",
+          "priority",
+          "type");
+
+  /** 各版本的键数量，下标为版本号 */
+  private static final int[] VERSION_SIZES = {0, 36};
+
+  private static final Map<String, Integer> IDS = new HashMap<>();
+
+  static {
+    for (int i = 0; i < KEYS.size(); i++) {
+      IDS.put(KEYS.get(i), i);
+    }
+  }
+
+  private LabelKeyDictionary() {}
+
+  /**
+   * 查找键编号
+   *
+   * @param key 标签键
+   * @return 编号；不在字典中时返回 -1
+   */
+  static int idOf(String key) {
+    Integer id = IDS.get(key);
+    return id != null ? id : -1;
+  }
+
+  /**
+   * 按编号取键
+   *
+   * @param version 写入时的字典版本
+   * @param id 键编号
+   * @return 标签键
+   * @throws IllegalArgumentException 版本未知或编号超出该版本的范围
+   */
+  static String keyOf(int version, int id) {
+    if (version < 1 || version >= VERSION_SIZES.length) {
+      throw new IllegalArgumentException("Unknown label dictionary version: " + version);
+    }
+    if (id < 0 || id >= VERSION_SIZES[version]) {
+      throw new IllegalArgumentException(
+          "Label key id " + id + " out of range for dictionary version " + version);
+    }
+    return KEYS.get(id);
+  }
+}
@@ -0,0 +1,34 @@
+package pro.walkin.ams.cluster.serializer;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import pro.walkin.ams.common.dto.ingestion.RateLimitDecision;
+
+public class RateLimitDecisionSerializer implements CompactSerializer<RateLimitDecision> {
+  @Override
+  public RateLimitDecision read(CompactReader reader) {
+    boolean admitted = reader.readBoolean("admitted");
+    double remainingRatio = reader.readFloat64("remainingRatio");
+    long retryAfterMillis = reader.readInt64("retryAfterMillis");
+
+    return new RateLimitDecision(admitted, remainingRatio, retryAfterMillis);
+  }
+
+  @Override
+  public void write(CompactWriter writer, RateLimitDecision object) {
+    writer.writeBoolean("admitted", object.admitted());
+    writer.writeFloat64("remainingRatio", object.remainingRatio());
+    writer.writeInt64("retryAfterMillis", object.retryAfterMillis());
+  }
+
+  @Override
+  public String getTypeName() {
+    return "rateLimitDecision";
+  }
+
+  @Override
+  public Class<RateLimitDecision> getCompactClass() {
+    return RateLimitDecision.class;
+  }
+}
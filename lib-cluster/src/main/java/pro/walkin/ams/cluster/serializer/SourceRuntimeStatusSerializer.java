@@ -0,0 +1,34 @@
+package pro.walkin.ams.cluster.serializer;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import pro.walkin.ams.common.dto.ingestion.SourceRuntimeStatus;
+
+public class SourceRuntimeStatusSerializer implements CompactSerializer<SourceRuntimeStatus> {
+  @Override
+  public SourceRuntimeStatus read(CompactReader reader) {
+    boolean online = reader.readBoolean("online");
+    String protocol = reader.readString("protocol");
+    Long tenantId = reader.readNullableInt64("tenantId");
+
+    return new SourceRuntimeStatus(online, protocol, tenantId);
+  }
+
+  @Override
+  public void write(CompactWriter writer, SourceRuntimeStatus object) {
+    writer.writeBoolean("online", object.online());
+    writer.writeString("protocol", object.protocol());
+    writer.writeNullableInt64("tenantId", object.tenantId());
+  }
+
+  @Override
+  public String getTypeName() {
+    return "sourceRuntimeStatus";
+  }
+
+  @Override
+  public Class<SourceRuntimeStatus> getCompactClass() {
+    return SourceRuntimeStatus.class;
+  }
+}
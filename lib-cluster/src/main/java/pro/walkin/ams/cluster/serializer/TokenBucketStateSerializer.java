@@ -0,0 +1,32 @@
+package pro.walkin.ams.cluster.serializer;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import pro.walkin.ams.common.dto.ingestion.TokenBucketState;
+
+public class TokenBucketStateSerializer implements CompactSerializer<TokenBucketState> {
+  @Override
+  public TokenBucketState read(CompactReader reader) {
+    double tokens = reader.readFloat64("tokens");
+    long refilledAtMillis = reader.readInt64("refilledAtMillis");
+
+    return new TokenBucketState(tokens, refilledAtMillis);
+  }
+
+  @Override
+  public void write(CompactWriter writer, TokenBucketState object) {
+    writer.writeFloat64("tokens", object.tokens());
+    writer.writeInt64("refilledAtMillis", object.refilledAtMillis());
+  }
+
+  @Override
+  public String getTypeName() {
+    return "tokenBucketState";
+  }
+
+  @Override
+  public Class<TokenBucketState> getCompactClass() {
+    return TokenBucketState.class;
+  }
+}
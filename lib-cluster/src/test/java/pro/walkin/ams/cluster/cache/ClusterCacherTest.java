@@ -0,0 +1,78 @@
+package pro.walkin.ams.cluster.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.common.event.CacheKeyChangeEvent;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClusterCacherTest {
+
+  @SuppressWarnings("unchecked")
+  private final ITopic<Object> topic = mock(ITopic.class);
+
+  private final TransactionSynchronizationRegistry registry =
+      mock(TransactionSynchronizationRegistry.class);
+
+  private final TenantCodeCacher cacher = new TenantCodeCacher();
+
+  @BeforeEach
+  void setUp() {
+    HazelcastInstance hz = mock(HazelcastInstance.class);
+    doReturn(topic).when(hz).getReliableTopic(Constants.Cluster.TENANT_CODE_CHANGES_TOPIC);
+    cacher.setHz(hz);
+    cacher.setTransactionRegistry(registry);
+  }
+
+  private Synchronization registeredSynchronization() {
+    when(registry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+    cacher.publishChange("acme");
+    ArgumentCaptor<Synchronization> captor = ArgumentCaptor.forClass(Synchronization.class);
+    verify(registry).registerInterposedSynchronization(captor.capture());
+    verifyNoInteractions(topic);
+    return captor.getValue();
+  }
+
+  @Test
+  @DisplayName("should publish immediately outside a transaction")
+  void shouldPublishWithoutTransaction() {
+    when(registry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+
+    cacher.publishChange("acme");
+
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(topic).publish(captor.capture());
+    assertThat(captor.getValue())
+        .isInstanceOfSatisfying(
+            CacheKeyChangeEvent.class, event -> assertThat(event.cacheKey()).isEqualTo("acme"));
+  }
+
+  @Test
+  @DisplayName("should defer the publish until the transaction commits")
+  void shouldPublishAfterCommit() {
+    Synchronization synchronization = registeredSynchronization();
+
+    synchronization.afterCompletion(Status.STATUS_COMMITTED);
+
+    verify(topic).publish(any());
+  }
+
+  @Test
+  @DisplayName("should not publish when the transaction rolls back")
+  void shouldNotPublishOnRollback() {
+    Synchronization synchronization = registeredSynchronization();
+
+    synchronization.afterCompletion(Status.STATUS_ROLLEDBACK);
+
+    verifyNoInteractions(topic);
+  }
+}
@@ -0,0 +1,128 @@
+package pro.walkin.ams.cluster.event;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheManager;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import pro.walkin.ams.common.event.CacheInvalidationEvent;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationListenerTest {
+
+  /** 缓存条目：失效操作被订阅执行时计数 */
+  private static final class TrackedCache {
+
+    final Cache cache = mock(Cache.class);
+    final CountDownLatch evictedKey = new CountDownLatch(1);
+    final CountDownLatch evictedAll = new CountDownLatch(1);
+
+    TrackedCache(String key) {
+      when(cache.invalidate(key))
+          .thenReturn(Uni.createFrom().item(() -> countDown(evictedKey)));
+      when(cache.invalidateAll()).thenReturn(Uni.createFrom().item(() -> countDown(evictedAll)));
+    }
+
+    private static Void countDown(CountDownLatch latch) {
+      latch.countDown();
+      return null;
+    }
+  }
+
+  private static CacheInvalidationListener listener(String cacheName, TrackedCache tracked) {
+    CacheInvalidationListener listener = new CacheInvalidationListener();
+    listener.cacheManager = mock(CacheManager.class);
+    when(listener.cacheManager.getCache(cacheName)).thenReturn(Optional.of(tracked.cache));
+    return listener;
+  }
+
+  @Nested
+  @DisplayName("onInvalidation")
+  class OnInvalidation {
+
+    @Test
+    @DisplayName("should evict the entry named by a received event")
+    void shouldEvictKey() {
+      TrackedCache tracked = new TrackedCache("42");
+      CacheInvalidationListener listener = listener("rbac-permissions", tracked);
+
+      listener.onInvalidation(new CacheInvalidationEvent("rbac-permissions", "42"));
+
+      assertThat(tracked.evictedKey.getCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should evict the whole cache when the event has no key")
+    void shouldEvictAllWithoutKey() {
+      TrackedCache tracked = new TrackedCache("42");
+      CacheInvalidationListener listener = listener("rbac-permissions", tracked);
+
+      listener.onInvalidation(new CacheInvalidationEvent("rbac-permissions", null));
+
+      assertThat(tracked.evictedAll.getCount()).isZero();
+    }
+  }
+
+  @Nested
+  @DisplayName("cross-node broadcast")
+  @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+  class CrossNode {
+
+    private HazelcastInstance hazelcast;
+
+    @BeforeAll
+    void startHazelcast() {
+      Config config = new Config();
+      config.setClusterName("cache-invalidation-test");
+      config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+      config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+      hazelcast = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    void stopHazelcast() {
+      hazelcast.shutdown();
+    }
+
+    /** 两个监听器各自持有本地缓存，模拟两个节点 */
+    private void assertRemoteEviction(String cacheName, String key) throws InterruptedException {
+      CacheInvalidationListener origin = listener(cacheName, new TrackedCache(key));
+      origin.hazelcast = hazelcast;
+      origin.init();
+
+      TrackedCache remoteCache = new TrackedCache(key);
+      CacheInvalidationListener remote = listener(cacheName, remoteCache);
+      remote.hazelcast = hazelcast;
+      remote.init();
+
+      origin.broadcast(cacheName, key);
+
+      assertThat(remoteCache.evictedKey.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should evict a user's RBAC permission set on the other node")
+    void shouldEvictPermissionSetRemotely() throws InterruptedException {
+      assertRemoteEviction("rbac-permissions", "7");
+    }
+
+    @Test
+    @DisplayName("should evict a tenant menu snapshot on the other node")
+    void shouldEvictMenuSnapshotRemotely() throws InterruptedException {
+      assertRemoteEviction("menu-snapshots", "100");
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package pro.walkin.ams.cluster.processor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.common.dto.ingestion.DeduplicationResult;
+import pro.walkin.ams.common.dto.ingestion.DeduplicationState;
+
+import java.util.AbstractMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeduplicationProcessorTest {
+
+  private static final long WINDOW_MS = 60_000L;
+  private static final int MAX_COUNT = 5;
+
+  private static Map.Entry<String, DeduplicationState> entry(DeduplicationState state) {
+    return new AbstractMap.SimpleEntry<>("fp-1", state);
+  }
+
+  private static DeduplicationState existing(int count) {
+    long now = System.currentTimeMillis();
+    return new DeduplicationState(
+        DeduplicationProcessor.fingerprintHash("fp-1"), count, now, now, "prometheus");
+  }
+
+  @Test
+  @DisplayName("should count every in-payload occurrence of a new fingerprint")
+  void shouldCountOccurrencesOfNewAlert() {
+    Map.Entry<String, DeduplicationState> entry = entry(null);
+
+    DeduplicationResult result =
+        new DeduplicationProcessor("prometheus", WINDOW_MS, MAX_COUNT, Map.of("fp-1", 3))
+            .process(entry);
+
+    assertThat(result.isNewAlert()).isTrue();
+    assertThat(entry.getValue().count()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("should add in-payload occurrences to an existing count up to the max")
+  void shouldAddOccurrencesToExistingCount() {
+    Map.Entry<String, DeduplicationState> entry = entry(existing(2));
+    DeduplicationProcessor processor =
+        new DeduplicationProcessor("prometheus", WINDOW_MS, MAX_COUNT, Map.of("fp-1", 2));
+
+    DeduplicationResult result = processor.process(entry);
+
+    assertThat(result.isNewAlert()).isFalse();
+    assertThat(result.currentCount()).isEqualTo(4);
+
+    processor.process(entry);
+    assertThat(entry.getValue().count()).isEqualTo(MAX_COUNT);
+  }
+
+  @Test
+  @DisplayName("should count a single occurrence when the fingerprint is not repeated")
+  void shouldCountSingleOccurrence() {
+    Map.Entry<String, DeduplicationState> entry = entry(existing(1));
+
+    new DeduplicationProcessor("prometheus", WINDOW_MS, MAX_COUNT).process(entry);
+
+    assertThat(entry.getValue().count()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,81 @@
+package pro.walkin.ams.cluster.queue;
+
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.walkin.ams.cluster.serializer.AlertEventSerializer;
+import pro.walkin.ams.common.Constants;
+import pro.walkin.ams.common.dto.AlertEvent;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AlertEventQueuesTest {
+
+  private static final int PARTITIONS = 4;
+
+  private static HazelcastInstance hazelcast;
+
+  @BeforeAll
+  static void startHazelcast() {
+    Config config = new Config();
+    config.setClusterName("alert-event-queues-test");
+    config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+    config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+    config
+        .getSerializationConfig()
+        .getCompactSerializationConfig()
+        .addSerializer(new AlertEventSerializer());
+    hazelcast = Hazelcast.newHazelcastInstance(config);
+  }
+
+  @AfterAll
+  static void stopHazelcast() {
+    hazelcast.shutdown();
+  }
+
+  private static AlertEvent event(String fingerprint) {
+    LocalDateTime now = LocalDateTime.of(2026, 1, 1, 8, 0);
+    return new AlertEvent(
+        fingerprint,
+        "prometheus",
+        "CPU usage high",
+        Map.of("alertname", "HighCpu"),
+        1,
+        now,
+        now,
+        "FIRING",
+        "HIGH");
+  }
+
+  @Test
+  @DisplayName("should move events from the legacy single queue into their partition queues")
+  void shouldMigrateLegacyQueue() throws InterruptedException {
+    IQueue<AlertEvent> legacy = hazelcast.getQueue(Constants.Cluster.ALERT_EVENTS_QUEUE);
+    for (int i = 0; i < 1_200; i++) {
+      legacy.add(event("fp-" + i));
+    }
+    AlertEventQueues queues = new AlertEventQueues(hazelcast, PARTITIONS);
+
+    assertThat(queues.migrateLegacyQueue()).isEqualTo(1_200);
+
+    assertThat(legacy).isEmpty();
+    assertThat(queues.totalSize()).isEqualTo(1_200);
+    for (int index = 0; index < PARTITIONS; index++) {
+      int expected = index;
+      assertThat(queues.queue(index))
+          .allSatisfy(
+              event ->
+                  assertThat(AlertEventQueues.indexOf(event.id(), PARTITIONS))
+                      .isEqualTo(expected));
+    }
+    assertThat(queues.migrateLegacyQueue()).isZero();
+  }
+}
@@ -0,0 +1,100 @@
+package pro.walkin.ams.cluster.serializer;
+
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import pro.walkin.ams.common.dto.AlertEvent;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AlertEventSerializerTest {
+
+  private static final LocalDateTime FIRST_SEEN = LocalDateTime.of(2026, 1, 1, 8, 0);
+  private static final LocalDateTime LAST_SEEN = LocalDateTime.of(2026, 1, 1, 8, 5);
+
+  private final AlertEventSerializer serializer = new AlertEventSerializer();
+
+  @Test
+  @DisplayName("should round-trip an event through the payload field")
+  void shouldRoundTrip() {
+    AlertEvent event =
+        new AlertEvent(
+            "fp-1",
+            "prometheus",
+            "CPU usage high",
+            Map.of("alertname", "HighCpu", "instance", "node-1", "rack", "A3"),
+            3,
+            FIRST_SEEN,
+            LAST_SEEN,
+            "FIRING",
+            "HIGH");
+
+    CompactWriter writer = mock(CompactWriter.class);
+    serializer.write(writer, event);
+
+    ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+    verify(writer).writeArrayOfInt8(eq("payload"), payload.capture());
+    verify(writer, never()).writeArrayOfString(eq("labels"), any());
+
+    CompactReader reader = commonFields(mock(CompactReader.class));
+    when(reader.getFieldKind("payload")).thenReturn(FieldKind.ARRAY_OF_INT8);
+    when(reader.readArrayOfInt8("payload")).thenReturn(payload.getValue());
+
+    assertThat(serializer.read(reader)).isEqualTo(event);
+  }
+
+  @Test
+  @DisplayName("should read events written in the legacy labels format")
+  void shouldReadLegacyFormat() {
+    CompactReader reader = commonFields(mock(CompactReader.class));
+    when(reader.getFieldKind("payload")).thenReturn(FieldKind.NOT_AVAILABLE);
+    when(reader.readString("summary")).thenReturn("CPU usage high");
+    when(reader.readArrayOfString("labels"))
+        .thenReturn(new String[] {"alertname", "HighCpu", "instance", "node-1"});
+
+    AlertEvent event = serializer.read(reader);
+
+    assertThat(event.summary()).isEqualTo("CPU usage high");
+    assertThat(event.labels())
+        .containsOnly(entry("alertname", "HighCpu"), entry("instance", "node-1"));
+    assertThat(event.occurrenceCount()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("should keep complete pairs of an odd-length legacy labels array")
+  void shouldKeepPairsOfOddLegacyArray() {
+    CompactReader reader = commonFields(mock(CompactReader.class));
+    when(reader.getFieldKind("payload")).thenReturn(FieldKind.NOT_AVAILABLE);
+    when(reader.readArrayOfString("labels"))
+        .thenReturn(new String[] {"alertname", "HighCpu", "dangling"});
+
+    assertThat(serializer.read(reader).labels()).containsOnly(entry("alertname", "HighCpu"));
+  }
+
+  @Test
+  @DisplayName("should read missing legacy labels as an empty map")
+  void shouldReadNullLegacyLabelsAsEmpty() {
+    CompactReader reader = commonFields(mock(CompactReader.class));
+    when(reader.getFieldKind("payload")).thenReturn(FieldKind.NOT_AVAILABLE);
+
+    assertThat(serializer.read(reader).labels()).isEmpty();
+  }
+
+  private static CompactReader commonFields(CompactReader reader) {
+    when(reader.readString("id")).thenReturn("fp-1");
+    when(reader.readString("sourceId")).thenReturn("prometheus");
+    when(reader.readInt32("occurrenceCount")).thenReturn(3);
+    when(reader.readTimestamp("firstSeenAt")).thenReturn(FIRST_SEEN);
+    when(reader.readTimestamp("lastSeenAt")).thenReturn(LAST_SEEN);
+    when(reader.readString("status")).thenReturn("FIRING");
+    when(reader.readString("severity")).thenReturn("HIGH");
+    return reader;
+  }
+}
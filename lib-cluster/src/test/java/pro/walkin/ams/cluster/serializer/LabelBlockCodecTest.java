@@ -0,0 +1,99 @@
+package pro.walkin.ams.cluster.serializer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LabelBlockCodecTest {
+
+  private static final Map<String, String> LABELS =
+      Map.of(
+          "alertname", "HighCpu",
+          "instance", "节点-01:9100",
+          "job", "node 😀",
+          "namespace", "prod",
+          "custom_key", "custom value");
+
+  @Test
+  @DisplayName("should round-trip summary and labels")
+  void shouldRoundTrip() {
+    LabelBlockCodec.Block block =
+        LabelBlockCodec.decode(LabelBlockCodec.encode("CPU usage high", LABELS, 0));
+
+    assertThat(block.summary()).isEqualTo("CPU usage high");
+    assertThat(block.labels()).isEqualTo(LABELS);
+  }
+
+  @Test
+  @DisplayName("should preserve null summary, null values and empty labels")
+  void shouldPreserveNulls() {
+    Map<String, String> labels = new HashMap<>();
+    labels.put("instance", null);
+    labels.put("", "");
+
+    LabelBlockCodec.Block block = LabelBlockCodec.decode(LabelBlockCodec.encode(null, labels, 0));
+    assertThat(block.summary()).isNull();
+    assertThat(block.labels()).isEqualTo(labels);
+
+    LabelBlockCodec.Block empty = LabelBlockCodec.decode(LabelBlockCodec.encode("s", null, 0));
+    assertThat(empty.labels()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("should write dictionary keys as single-byte ids")
+  void shouldEncodeDictionaryKeysCompactly() {
+    byte[] dictionary = LabelBlockCodec.encode(null, Map.of("alertname", "x"), 0);
+    byte[] inline = LabelBlockCodec.encode(null, Map.of("alertnamf", "x"), 0);
+
+    // 版本 + 标志 + 摘要 + 标签数 + 键编号 + 值长度 + 值
+    assertThat(dictionary).hasSize(7);
+    assertThat(inline.length - dictionary.length).isEqualTo("alertnamf".length() + 1);
+  }
+
+  @Test
+  @DisplayName("should compress bodies above the threshold and decode them")
+  void shouldCompressAboveThreshold() {
+    Map<String, String> labels = new LinkedHashMap<>();
+    for (int i = 0; i < 50; i++) {
+      labels.put("custom_label_" + i, "repeated-value-repeated-value");
+    }
+
+    byte[] plain = LabelBlockCodec.encode("summary", labels, 0);
+    byte[] compressed = LabelBlockCodec.encode("summary", labels, 256);
+
+    assertThat(compressed[1] & LabelBlockCodec.FLAG_DEFLATED).isNotZero();
+    assertThat(compressed.length).isLessThan(plain.length);
+    assertThat(LabelBlockCodec.decode(compressed).labels()).isEqualTo(labels);
+  }
+
+  @Test
+  @DisplayName("should keep small bodies uncompressed")
+  void shouldSkipCompressionBelowThreshold() {
+    byte[] encoded = LabelBlockCodec.encode("summary", LABELS, 4096);
+
+    assertThat(encoded[1] & LabelBlockCodec.FLAG_DEFLATED).isZero();
+  }
+
+  @Test
+  @DisplayName("should reject unknown dictionary versions and truncated data")
+  void shouldRejectCorruptData() {
+    byte[] encoded = LabelBlockCodec.encode("summary", LABELS, 0);
+
+    byte[] futureVersion = encoded.clone();
+    futureVersion[0] = (byte) (LabelKeyDictionary.CURRENT_VERSION + 1);
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> LabelBlockCodec.decode(futureVersion))
+        .withMessageContaining("version");
+
+    byte[] truncated = "xx".getBytes(StandardCharsets.UTF_8);
+    truncated[0] = 1;
+    truncated[1] = 0;
+    assertThatIllegalArgumentException().isThrownBy(() -> LabelBlockCodec.decode(truncated));
+  }
+}
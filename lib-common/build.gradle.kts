@@ -2,6 +2,7 @@ plugins {
     id("base-java-convention")
     id("code-quality-convention")
     alias(libs.plugins.gradle.jandex)
+    alias(libs.plugins.jmh)
 }
 
 tasks.withType<Jar> {
@@ -36,3 +37,9 @@ dependencies {
     // 日志
     implementation(libs.slf4j.api)
 }
+
+jmh {
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
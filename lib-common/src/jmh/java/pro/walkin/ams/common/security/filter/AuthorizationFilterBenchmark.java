@@ -0,0 +1,151 @@
+package pro.walkin.ams.common.security.filter;
+
+import jakarta.annotation.security.PermitAll;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pro.walkin.ams.common.security.TokenPrincipal;
+import pro.walkin.ams.common.security.annotation.RequirePermission;
+import pro.walkin.ams.common.security.annotation.RequirePermissions;
+import pro.walkin.ams.common.security.annotation.RequireRole;
+import pro.walkin.ams.common.security.service.RbacChecker;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 授权过滤器基准测试
+ *
+ * <p>{@code legacyMetadata} 按原实现的方式对资源方法和资源类做反射查找注解，{@code descriptor} 为 {@link
+ * AuthorizationDescriptor} 的缓存查找；{@code filter} 为授权通过时整个过滤器的单次请求开销（RBAC 检查总是返回 true）。运行：{@code
+ * ./gradlew :lib-common:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthorizationFilterBenchmark {
+
+  private Class<?> resourceClass;
+  private Method resourceMethod;
+  private AuthorizationFilter filter;
+  private ContainerRequestContext requestContext;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    resourceClass = SampleResource.class;
+    resourceMethod = SampleResource.class.getMethod("update");
+
+    filter = new AuthorizationFilter();
+    filter.rbacChecker = new AllowAllChecker();
+    filter.resourceInfo =
+        new ResourceInfo() {
+          @Override
+          public Method getResourceMethod() {
+            return resourceMethod;
+          }
+
+          @Override
+          public Class<?> getResourceClass() {
+            return resourceClass;
+          }
+        };
+
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(TokenPrincipal.TOKEN_PROPERTY, "token");
+    properties.put(TokenPrincipal.REQUEST_PROPERTY, new TokenPrincipal(1L, 100L, null));
+    requestContext =
+        (ContainerRequestContext)
+            Proxy.newProxyInstance(
+                ContainerRequestContext.class.getClassLoader(),
+                new Class<?>[] {ContainerRequestContext.class},
+                (proxy, method, args) -> {
+                  if (method.getName().equals("getProperty")) {
+                    return properties.get((String) args[0]);
+                  }
+                  throw new IllegalStateException("Unexpected call: " + method.getName());
+                });
+  }
+
+  @Benchmark
+  public void legacyMetadata(Blackhole blackhole) {
+    Method method = resourceMethod;
+    Class<?> type = resourceClass;
+    blackhole.consume(
+        method.isAnnotationPresent(PermitAll.class) || type.isAnnotationPresent(PermitAll.class));
+    if (method.isAnnotationPresent(RequirePermission.class)
+        || type.isAnnotationPresent(RequirePermission.class)) {
+      blackhole.consume(
+          method.isAnnotationPresent(RequirePermission.class)
+              ? method.getAnnotation(RequirePermission.class)
+              : type.getAnnotation(RequirePermission.class));
+    }
+    if (method.isAnnotationPresent(RequireRole.class)
+        || type.isAnnotationPresent(RequireRole.class)) {
+      blackhole.consume(
+          method.isAnnotationPresent(RequireRole.class)
+              ? method.getAnnotation(RequireRole.class)
+              : type.getAnnotation(RequireRole.class));
+    }
+    if (method.isAnnotationPresent(RequirePermissions.class)
+        || type.isAnnotationPresent(RequirePermissions.class)) {
+      blackhole.consume(
+          method.isAnnotationPresent(RequirePermissions.class)
+              ? method.getAnnotation(RequirePermissions.class)
+              : type.getAnnotation(RequirePermissions.class));
+    }
+  }
+
+  @Benchmark
+  public AuthorizationDescriptor descriptor() {
+    return AuthorizationDescriptor.of(resourceClass, resourceMethod);
+  }
+
+  @Benchmark
+  public void filter() throws IOException {
+    filter.filter(requestContext);
+  }
+
+  @RequireRole({"ADMIN", "MANAGER"})
+  public static class SampleResource {
+
+    @RequirePermission("user:update")
+    @RequirePermissions(
+        value = {"user:read", "user:write"},
+        operator = RequirePermissions.LogicalOperator.ANY)
+    public void update() {}
+  }
+
+  private static final class AllowAllChecker implements RbacChecker {
+
+    @Override
+    public boolean hasPermission(Long userId, String permission, Long tenantId) {
+      return true;
+    }
+
+    @Override
+    public boolean hasAnyPermission(Long userId, String[] permissions, Long tenantId) {
+      return true;
+    }
+
+    @Override
+    public boolean hasAllPermissions(Long userId, String[] permissions, Long tenantId) {
+      return true;
+    }
+
+    @Override
+    public boolean hasRole(Long userId, String role, Long tenantId) {
+      return true;
+    }
+  }
+}
@@ -147,7 +147,23 @@ public final class Constants {
   public static final class Cluster {
     private Cluster() {}
 
+    /** 告警事件分区队列名前缀，队列名为 {@code alert-events-<序号>} */
     public static final String ALERT_EVENTS_QUEUE = "alert-events";
+
+    /** 租户代码变更主题（{@code CacheKeyChangeEvent<String>}，key 为租户代码） */
+    public static final String TENANT_CODE_CHANGES_TOPIC = "tenant-code-changes";
+
+    /** 告警去重状态 Map（指纹 → {@code DeduplicationState}） */
+    public static final String ALERT_DEDUPLICATION_MAP = "alert-deduplication";
+
+    /** 告警源运行时状态 Map（告警源 ID → {@code SourceRuntimeStatus}） */
+    public static final String SOURCE_RUNTIME_STATUS_MAP = "ams-source-runtime-status";
+
+    /** 接入限流令牌桶 Map（桶键 → {@code TokenBucketState}） */
+    public static final String INGESTION_RATE_LIMIT_MAP = "ingestion-rate-limits";
+
+    /** 租户权限版本 Map（租户 ID → 版本号），角色或权限变更后递增 */
+    public static final String RBAC_PERMISSION_VERSIONS_MAP = "rbac-permission-versions";
   }
 
   /** 缓存Key前缀 */
@@ -289,6 +305,7 @@ public final class Constants {
     public static final String CLAIM_TENANT_ID = "tenant_id";
     public static final String CLAIM_USER_ID = "user_id";
     public static final String CLAIM_USERNAME = "username";
+    public static final String CLAIM_PERMISSION_VERSION = "perm_ver";
   }
 
   /** 错误码常量 */
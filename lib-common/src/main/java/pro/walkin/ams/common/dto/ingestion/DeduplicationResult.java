@@ -1,17 +1,21 @@
 package pro.walkin.ams.common.dto.ingestion;
 
-import pro.walkin.ams.common.dto.AlertEvent;
+import java.io.Serializable;
 
-import java.time.LocalDateTime;
-
-public record DeduplicationResult(
-    boolean isNewAlert, AlertEvent originalEvent, int currentCount, LocalDateTime firstSeenAt) {
-  public static DeduplicationResult newAlert(AlertEvent event) {
-    return new DeduplicationResult(true, event, 1, event.firstSeenAt());
+/**
+ * 去重判断结果
+ *
+ * @param isNewAlert 是否为新告警（窗口内首次出现）
+ * @param currentCount 当前窗口内出现次数
+ * @param firstSeenAtMillis 窗口内首次出现时间（epoch 毫秒）
+ */
+public record DeduplicationResult(boolean isNewAlert, int currentCount, long firstSeenAtMillis)
+    implements Serializable {
+  public static DeduplicationResult newAlert(long firstSeenAtMillis) {
+    return new DeduplicationResult(true, 1, firstSeenAtMillis);
   }
 
-  public static DeduplicationResult duplicate(
-      AlertEvent original, int currentCount, LocalDateTime firstSeenAt) {
-    return new DeduplicationResult(false, original, currentCount, firstSeenAt);
+  public static DeduplicationResult duplicate(int currentCount, long firstSeenAtMillis) {
+    return new DeduplicationResult(false, currentCount, firstSeenAtMillis);
   }
 }
@@ -1,10 +1,23 @@
 package pro.walkin.ams.common.dto.ingestion;
 
-import pro.walkin.ams.common.dto.AlertEvent;
-
 import java.io.Serializable;
-import java.time.LocalDateTime;
 
+/**
+ * 去重窗口状态
+ *
+ * <p>只保存去重判断所需的最小信息，不再携带原始告警事件。原始告警通过 map key（告警指纹，即 {@code alarms.fingerprint}）和
+ * {@code sourceId} 定位。
+ *
+ * @param fingerprintHash 告警指纹的 64 位哈希
+ * @param count 当前窗口内出现次数
+ * @param firstSeenAtMillis 窗口内首次出现时间（epoch 毫秒）
+ * @param lastSeenAtMillis 窗口内最后出现时间（epoch 毫秒）
+ * @param sourceId 首次出现时的告警源 ID
+ */
 public record DeduplicationState(
-    AlertEvent originalEvent, int count, LocalDateTime firstSeenAt, LocalDateTime lastSeenAt)
+    long fingerprintHash,
+    int count,
+    long firstSeenAtMillis,
+    long lastSeenAtMillis,
+    String sourceId)
     implements Serializable {}
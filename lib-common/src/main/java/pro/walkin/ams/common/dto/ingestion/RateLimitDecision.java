@@ -0,0 +1,25 @@
+package pro.walkin.ams.common.dto.ingestion;
+
+import java.io.Serializable;
+
+/**
+ * 限流判断结果
+ *
+ * @param admitted 是否放行
+ * @param remainingRatio 放行后剩余令牌占桶容量的比例（0 ~ 1）
+ * @param retryAfterMillis 拒绝时距离有足够令牌的等待时间（毫秒），放行时为 0
+ */
+public record RateLimitDecision(boolean admitted, double remainingRatio, long retryAfterMillis)
+    implements Serializable {
+
+  /** 未启用限流时的放行结果 */
+  public static final RateLimitDecision UNLIMITED = new RateLimitDecision(true, 1.0, 0L);
+
+  public static RateLimitDecision admit(double remainingRatio) {
+    return new RateLimitDecision(true, remainingRatio, 0L);
+  }
+
+  public static RateLimitDecision reject(double remainingRatio, long retryAfterMillis) {
+    return new RateLimitDecision(false, remainingRatio, retryAfterMillis);
+  }
+}
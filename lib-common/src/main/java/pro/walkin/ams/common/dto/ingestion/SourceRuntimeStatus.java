@@ -0,0 +1,19 @@
+package pro.walkin.ams.common.dto.ingestion;
+
+import java.io.Serializable;
+
+/**
+ * 告警源运行时状态（集群共享）
+ *
+ * @param online 是否在线
+ * @param protocol 协议类型：HTTP, RABBITMQ, KAFKA 等，未知时为 null
+ * @param tenantId 所属租户 ID，未知时为 null
+ */
+public record SourceRuntimeStatus(boolean online, String protocol, Long tenantId)
+    implements Serializable {
+
+  /** 返回仅在线状态不同的副本 */
+  public SourceRuntimeStatus withOnline(boolean online) {
+    return new SourceRuntimeStatus(online, protocol, tenantId);
+  }
+}
@@ -0,0 +1,11 @@
+package pro.walkin.ams.common.dto.ingestion;
+
+import java.io.Serializable;
+
+/**
+ * 令牌桶状态
+ *
+ * @param tokens 上次更新后的剩余令牌数
+ * @param refilledAtMillis 上次更新时间（epoch 毫秒）
+ */
+public record TokenBucketState(double tokens, long refilledAtMillis) implements Serializable {}
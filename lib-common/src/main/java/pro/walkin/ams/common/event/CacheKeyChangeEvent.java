@@ -1,9 +1,12 @@
 package pro.walkin.ams.common.event;
 
+import java.io.Serializable;
+
 public record CacheKeyChangeEvent<K>(
     K cacheKey,
     /* 时间戳 */
-    long timestamp) {
+    long timestamp)
+    implements Serializable {
   public CacheKeyChangeEvent {
     if (timestamp == 0) {
       timestamp = System.currentTimeMillis();
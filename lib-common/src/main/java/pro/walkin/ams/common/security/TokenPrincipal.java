@@ -0,0 +1,22 @@
+package pro.walkin.ams.common.security;
+
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * 已验证的请求主体
+ *
+ * <p>由 {@link pro.walkin.ams.common.security.filter.JwtAuthFilter} 在验证访问令牌后放入请求属性 {@link
+ * #REQUEST_PROPERTY}，同一请求中的后续过滤器和资源直接读取，不再重复解析和验证签名。
+ *
+ * @param userId 用户 ID
+ * @param tenantId 租户 ID
+ * @param token 已验证的令牌
+ */
+public record TokenPrincipal(Long userId, Long tenantId, JsonWebToken token) {
+
+  /** 请求属性名：已验证的请求主体 */
+  public static final String REQUEST_PROPERTY = "jwt.principal";
+
+  /** 请求属性名：原始访问令牌 */
+  public static final String TOKEN_PROPERTY = "jwt.token";
+}
@@ -0,0 +1,77 @@
+package pro.walkin.ams.common.security.filter;
+
+import jakarta.annotation.security.PermitAll;
+import pro.walkin.ams.common.security.annotation.RequirePermission;
+import pro.walkin.ams.common.security.annotation.RequirePermissions;
+import pro.walkin.ams.common.security.annotation.RequireRole;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 资源方法的授权描述
+ *
+ * <p>由资源方法及资源类上的 {@link PermitAll}、{@link RequirePermission}、{@link RequireRole}、{@link
+ * RequirePermissions} 注解解析得到，同一注解在方法和类上都存在时以方法上的为准。每个（资源类，资源方法）只反射解析一次，之后
+ * {@link #of(Class, Method)} 是一次 {@link ClassValue} 查找加一次 Map 查找。
+ *
+ * @param permitAll 是否免授权
+ * @param permission {@link RequirePermission} 要求的权限码，未标注时为 null
+ * @param roles {@link RequireRole} 要求的角色码（满足其一），未标注时为 null
+ * @param permissions {@link RequirePermissions} 要求的权限码，未标注时为 null
+ * @param operator {@link RequirePermissions} 的逻辑运算符，未标注时为 null
+ */
+record AuthorizationDescriptor(
+    boolean permitAll,
+    String permission,
+    String[] roles,
+    String[] permissions,
+    RequirePermissions.LogicalOperator operator) {
+
+  /** 没有资源方法时的描述：不免授权，也没有授权要求 */
+  static final AuthorizationDescriptor NONE =
+      new AuthorizationDescriptor(false, null, null, null, null);
+
+  private static final ClassValue<Map<Method, AuthorizationDescriptor>> CACHE =
+      new ClassValue<>() {
+        @Override
+        protected Map<Method, AuthorizationDescriptor> computeValue(Class<?> resourceClass) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  /**
+   * 获取资源方法的授权描述
+   *
+   * @param resourceClass 资源类
+   * @param method 资源方法，可为 null
+   * @return 授权描述
+   */
+  static AuthorizationDescriptor of(Class<?> resourceClass, Method method) {
+    if (method == null) {
+      return NONE;
+    }
+    Class<?> owner = resourceClass != null ? resourceClass : method.getDeclaringClass();
+    return CACHE.get(owner).computeIfAbsent(method, m -> resolve(owner, m));
+  }
+
+  private static AuthorizationDescriptor resolve(Class<?> resourceClass, Method method) {
+    RequirePermission permission = find(resourceClass, method, RequirePermission.class);
+    RequireRole role = find(resourceClass, method, RequireRole.class);
+    RequirePermissions permissions = find(resourceClass, method, RequirePermissions.class);
+    return new AuthorizationDescriptor(
+        find(resourceClass, method, PermitAll.class) != null,
+        permission != null ? permission.value() : null,
+        role != null ? role.value() : null,
+        permissions != null ? permissions.value() : null,
+        permissions != null ? permissions.operator() : null);
+  }
+
+  private static <A extends Annotation> A find(
+      Class<?> resourceClass, Method method, Class<A> type) {
+    A annotation = method.getAnnotation(type);
+    return annotation != null ? annotation : resourceClass.getAnnotation(type);
+  }
+}
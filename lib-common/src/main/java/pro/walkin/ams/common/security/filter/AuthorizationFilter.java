@@ -1,7 +1,6 @@
 package pro.walkin.ams.common.security.filter;
 
 import jakarta.annotation.Priority;
-import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.container.ContainerRequestContext;
@@ -12,21 +11,18 @@ import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import pro.walkin.ams.common.security.annotation.RequirePermission;
-import pro.walkin.ams.common.security.annotation.RequirePermissions;
-import pro.walkin.ams.common.security.annotation.RequireRole;
+import pro.walkin.ams.common.security.TokenPrincipal;
 import pro.walkin.ams.common.security.service.RbacChecker;
 import pro.walkin.ams.common.security.service.TokenPrincipalProvider;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Optional;
 
 /**
  * 授权过滤器
  *
- * <p>检查用户是否具有访问受保护资源所需的权限
+ * <p>检查用户是否具有访问受保护资源所需的权限。资源方法的授权注解由 {@link AuthorizationDescriptor} 解析并缓存，请求路径上不做反射。
  */
 @Provider
 @Priority(Priorities.AUTHORIZATION)
@@ -42,13 +38,17 @@ public class AuthorizationFilter implements ContainerRequestFilter {
 
   @Override
   public void filter(ContainerRequestContext requestContext) throws IOException {
+    AuthorizationDescriptor descriptor =
+        AuthorizationDescriptor.of(
+            resourceInfo.getResourceClass(), resourceInfo.getResourceMethod());
+
     // 检查当前资源是否标记了@PermitAll注解
-    if (isPermittedWithoutAuthorization()) {
+    if (descriptor.permitAll()) {
       return;
     }
 
     // 获取JWT令牌
-    String token = (String) requestContext.getProperty("jwt.token");
+    String token = (String) requestContext.getProperty(TokenPrincipal.TOKEN_PROPERTY);
     if (token == null) {
       LOG.warn("No JWT token in request context for authorization check");
       requestContext.abortWith(
@@ -58,11 +58,13 @@ public class AuthorizationFilter implements ContainerRequestFilter {
       return;
     }
 
-    // 从token提取用户信息
-    Optional<Long> userIdOpt = tokenPrincipalProvider.extractUserId(token);
-    Optional<Long> tenantIdOpt = tokenPrincipalProvider.extractTenantId(token);
+    // 优先使用认证过滤器已验证的主体，缺失时才从token提取用户信息
+    TokenPrincipal verified =
+        (TokenPrincipal) requestContext.getProperty(TokenPrincipal.REQUEST_PROPERTY);
+    Optional<TokenPrincipal> principalOpt =
+        verified != null ? Optional.of(verified) : tokenPrincipalProvider.resolve(token);
 
-    if (userIdOpt.isEmpty() || tenantIdOpt.isEmpty()) {
+    if (principalOpt.isEmpty()) {
       LOG.warn("Cannot extract user or tenant from token");
       requestContext.abortWith(
           Response.status(Response.Status.UNAUTHORIZED)
@@ -71,14 +73,16 @@ public class AuthorizationFilter implements ContainerRequestFilter {
       return;
     }
 
-    Long userId = userIdOpt.get();
-    Long tenantId = tenantIdOpt.get();
+    Long userId = principalOpt.get().userId();
+    Long tenantId = principalOpt.get().tenantId();
+    // 令牌声明仍有效时由实现直接使用声明判断，否则查询数据库
+    RbacChecker checker = rbacChecker.forPrincipal(principalOpt.get());
 
     // 检查@RequirePermission注解
-    if (hasRequirePermissionAnnotation()) {
-      RequirePermission annotation = getRequirePermissionAnnotation();
-      if (!rbacChecker.hasPermission(userId, annotation.value(), tenantId)) {
-        LOG.warn("Access denied: User does not have required permission: {}", annotation.value());
+    if (descriptor.permission() != null) {
+      if (!checker.hasPermission(userId, descriptor.permission(), tenantId)) {
+        LOG.warn(
+            "Access denied: User does not have required permission: {}", descriptor.permission());
         requestContext.abortWith(
             Response.status(Response.Status.FORBIDDEN)
                 .entity("{\"error\":\"Insufficient permissions\"}")
@@ -88,12 +92,11 @@ public class AuthorizationFilter implements ContainerRequestFilter {
     }
 
     // 检查@RequireRole注解
-    if (hasRequireRoleAnnotation()) {
-      RequireRole annotation = getRequireRoleAnnotation();
-      String[] requiredRoles = annotation.value();
+    if (descriptor.roles() != null) {
+      String[] requiredRoles = descriptor.roles();
       boolean hasRole =
           Arrays.stream(requiredRoles)
-              .anyMatch(role -> rbacChecker.hasRole(userId, role, tenantId));
+              .anyMatch(role -> checker.hasRole(userId, role, tenantId));
 
       if (!hasRole) {
         LOG.warn(
@@ -107,18 +110,17 @@ public class AuthorizationFilter implements ContainerRequestFilter {
     }
 
     // 检查@RequirePermissions注解
-    if (hasRequirePermissionsAnnotation()) {
-      RequirePermissions annotation = getRequirePermissionsAnnotation();
+    if (descriptor.permissions() != null) {
       boolean hasPermission =
-          switch (annotation.operator()) {
-            case ALL -> rbacChecker.hasAllPermissions(userId, annotation.value(), tenantId);
-            case ANY -> rbacChecker.hasAnyPermission(userId, annotation.value(), tenantId);
+          switch (descriptor.operator()) {
+            case ALL -> checker.hasAllPermissions(userId, descriptor.permissions(), tenantId);
+            case ANY -> checker.hasAnyPermission(userId, descriptor.permissions(), tenantId);
           };
 
       if (!hasPermission) {
         LOG.warn(
             "Access denied: User does not satisfy required permissions: {}",
-            String.join(",", annotation.value()));
+            String.join(",", descriptor.permissions()));
         requestContext.abortWith(
             Response.status(Response.Status.FORBIDDEN)
                 .entity("{\"error\":\"Insufficient permissions\"}")
@@ -130,92 +132,4 @@ public class AuthorizationFilter implements ContainerRequestFilter {
     // 如果没有任何权限注解，可以根据配置决定是否拒绝访问
     // 在这里我们可以有一个默认策略，比如没有显式授权注解的资源需要基本的身份验证
   }
-
-  /** 检查资源是否标记了@PermitAll注解 */
-  private boolean isPermittedWithoutAuthorization() {
-    Method method = resourceInfo.getResourceMethod();
-    Class<?> resourceClass = resourceInfo.getResourceClass();
-
-    return method != null
-        && (method.isAnnotationPresent(PermitAll.class)
-            || resourceClass.isAnnotationPresent(PermitAll.class));
-  }
-
-  /** 检查资源是否标记了@RequirePermission注解 */
-  private boolean hasRequirePermissionAnnotation() {
-    Method method = resourceInfo.getResourceMethod();
-    Class<?> resourceClass = resourceInfo.getResourceClass();
-
-    return method != null
-        && (method.isAnnotationPresent(RequirePermission.class)
-            || resourceClass.isAnnotationPresent(RequirePermission.class));
-  }
-
-  /** 检查资源是否标记了@RequirePermissions注解 */
-  private boolean hasRequirePermissionsAnnotation() {
-    Method method = resourceInfo.getResourceMethod();
-    Class<?> resourceClass = resourceInfo.getResourceClass();
-
-    return method != null
-        && (method.isAnnotationPresent(RequirePermissions.class)
-            || resourceClass.isAnnotationPresent(RequirePermissions.class));
-  }
-
-  /** 检查资源是否标记了@RequireRole注解 */
-  private boolean hasRequireRoleAnnotation() {
-    Method method = resourceInfo.getResourceMethod();
-    Class<?> resourceClass = resourceInfo.getResourceClass();
-
-    return method != null
-        && (method.isAnnotationPresent(RequireRole.class)
-            || resourceClass.isAnnotationPresent(RequireRole.class));
-  }
-
-  /** 获取@RequirePermission注解 */
-  private RequirePermission getRequirePermissionAnnotation() {
-    Method method = resourceInfo.getResourceMethod();
-
-    if (method.isAnnotationPresent(RequirePermission.class)) {
-      return method.getAnnotation(RequirePermission.class);
-    }
-
-    Class<?> resourceClass = resourceInfo.getResourceClass();
-    if (resourceClass.isAnnotationPresent(RequirePermission.class)) {
-      return resourceClass.getAnnotation(RequirePermission.class);
-    }
-
-    return null;
-  }
-
-  /** 获取@RequirePermissions注解 */
-  private RequirePermissions getRequirePermissionsAnnotation() {
-    Method method = resourceInfo.getResourceMethod();
-
-    if (method.isAnnotationPresent(RequirePermissions.class)) {
-      return method.getAnnotation(RequirePermissions.class);
-    }
-
-    Class<?> resourceClass = resourceInfo.getResourceClass();
-    if (resourceClass.isAnnotationPresent(RequirePermissions.class)) {
-      return resourceClass.getAnnotation(RequirePermissions.class);
-    }
-
-    return null;
-  }
-
-  /** 获取@RequireRole注解 */
-  private RequireRole getRequireRoleAnnotation() {
-    Method method = resourceInfo.getResourceMethod();
-
-    if (method.isAnnotationPresent(RequireRole.class)) {
-      return method.getAnnotation(RequireRole.class);
-    }
-
-    Class<?> resourceClass = resourceInfo.getResourceClass();
-    if (resourceClass.isAnnotationPresent(RequireRole.class)) {
-      return resourceClass.getAnnotation(RequireRole.class);
-    }
-
-    return null;
-  }
 }
@@ -12,6 +12,7 @@ import jakarta.ws.rs.core.SecurityContext;
 import jakarta.ws.rs.ext.Provider;
 import org.jboss.logging.Logger;
 import pro.walkin.ams.common.security.TenantContext;
+import pro.walkin.ams.common.security.TokenPrincipal;
 import pro.walkin.ams.common.security.service.TokenService;
 
 @Provider
@@ -42,7 +43,7 @@ public class JwtAuthFilter implements ContainerRequestFilter {
 
     String token = authHeader.substring(7);
 
-    requestContext.setProperty("jwt.token", token);
+    requestContext.setProperty(TokenPrincipal.TOKEN_PROPERTY, token);
 
     try {
       JWTCallerPrincipal principal = tokenService.validateAccessToken(token);
@@ -60,9 +61,13 @@ public class JwtAuthFilter implements ContainerRequestFilter {
       }
 
       Long userId = Long.valueOf(userIdClaim.toString());
-      String tenantId = tenantIdClaim.toString();
+      Long tenantId = Long.valueOf(tenantIdClaim.toString());
 
-      TenantContext.setCurrentTenantId(Long.valueOf(tenantId));
+      TenantContext.setCurrentTenantId(tenantId);
+
+      // 后续过滤器直接使用已验证的主体，不再重复验证令牌
+      requestContext.setProperty(
+          TokenPrincipal.REQUEST_PROPERTY, new TokenPrincipal(userId, tenantId, principal));
 
       final JWTCallerPrincipal finalPrincipal = principal;
       SecurityContext securityContext =
@@ -1,5 +1,7 @@
 package pro.walkin.ams.common.security.service;
 
+import pro.walkin.ams.common.security.TokenPrincipal;
+
 /**
  * RBAC checker interface for role and permission checks. Implemented by RbacQuery in feature-admin
  * module.
@@ -17,4 +19,13 @@ public interface RbacChecker {
 
   /** Check if user has specific role */
   boolean hasRole(Long userId, String role, Long tenantId);
+
+  /**
+   * Return the checker to use for a request authenticated as the given principal. Implementations
+   * may answer from the verified token claims when they are known to be current; the default
+   * always queries this checker.
+   */
+  default RbacChecker forPrincipal(TokenPrincipal principal) {
+    return this;
+  }
 }
@@ -1,5 +1,7 @@
 package pro.walkin.ams.common.security.service;
 
+import pro.walkin.ams.common.security.TokenPrincipal;
+
 import java.util.Optional;
 
 /**
@@ -23,4 +25,19 @@ public interface TokenPrincipalProvider {
    * @return tenant ID or empty if invalid
    */
   Optional<Long> extractTenantId(String token);
+
+  /**
+   * Resolve user and tenant from token. Implementations should verify the token only once.
+   *
+   * @param token JWT token
+   * @return principal or empty if invalid or missing user or tenant
+   */
+  default Optional<TokenPrincipal> resolve(String token) {
+    Optional<Long> userId = extractUserId(token);
+    Optional<Long> tenantId = extractTenantId(token);
+    if (userId.isEmpty() || tenantId.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new TokenPrincipal(userId.get(), tenantId.get(), null));
+  }
 }
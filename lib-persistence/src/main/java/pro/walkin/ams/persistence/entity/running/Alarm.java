@@ -8,11 +8,14 @@ import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.processing.Find;
+import org.hibernate.annotations.processing.HQL;
+import org.hibernate.annotations.processing.SQL;
 import org.hibernate.type.SqlTypes;
 import pro.walkin.ams.common.Constants;
 import pro.walkin.ams.persistence.entity.BaseEntity;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -110,6 +113,12 @@ public class Alarm extends BaseEntity {
   @Column(name = "closed_at")
   public LocalDateTime closedAt;
 
+  /*
+   * 下次自动升级的截止时间，为空表示不再自动升级
+   */
+  @Column(name = "next_escalation_at")
+  public LocalDateTime nextEscalationAt;
+
   /**
    * 更新告警严重程度
    *
@@ -122,5 +131,40 @@ public class Alarm extends BaseEntity {
   public interface Repo extends PanacheRepository<Alarm> {
     @Find
     Stream<Alarm> findBySourceId(String sourceId);
+
+    /**
+     * 查询截止时间早于 horizon 的待升级告警，用于重建升级时间轮
+     *
+     * @return 每行为 {@code [id, nextEscalationAt]}
+     */
+    @HQL(
+        "select id, nextEscalationAt from Alarm"
+            + " where nextEscalationAt < :horizon and status in (:statuses)")
+    List<Object[]> findEscalationDeadlinesBefore(
+        LocalDateTime horizon, List<Constants.Alarm.Status> statuses);
+
+    /**
+     * 批量升级指定告警中已到期的告警
+     *
+     * <p>只更新严重程度为 severity、处于待处理状态且 next_escalation_at 不晚于 now 的告警，其余 ID 被忽略。升级后截止时间顺延
+     * stepMinutes 分钟；stepMinutes 为负数时清空截止时间，不再自动升级。
+     *
+     * @return 每行为 {@code [id, tenant_id, occurred_at]}
+     */
+    @SQL(
+        """
+        update alarms
+        set severity = :newSeverity,
+            next_escalation_at = case when :stepMinutes < 0 then null
+                else next_escalation_at + make_interval(mins => :stepMinutes) end,
+            updated_at = localtimestamp
+        where id in (:ids)
+          and severity = :severity
+          and status in ('NEW', 'ACKNOWLEDGED', 'IN_PROGRESS')
+          and next_escalation_at <= :now
+        returning id, tenant_id, occurred_at
+        """)
+    List<Object[]> escalateDue(
+        List<Long> ids, String severity, String newSeverity, int stepMinutes, LocalDateTime now);
   }
 }